@@ -34,35 +34,15 @@ const BulkJDResultsPage = ({ data }) => {
   const [expandedResume, setExpandedResume] = useState(null);
   const [sortBy, setSortBy] = useState('score'); // 'score', 'name', 'jd'
 
-  // Function to download Excel file
-  const downloadExcel = (excelData, fileName) => {
-    try {
-      // Convert base64 string to blob
-      const byteCharacters = atob(excelData);
-      const byteNumbers = new Array(byteCharacters.length);
-      for (let i = 0; i < byteCharacters.length; i++) {
-        byteNumbers[i] = byteCharacters.charCodeAt(i);
-      }
-      const byteArray = new Uint8Array(byteNumbers);
-      const blob = new Blob([byteArray], { 
-        type: 'application/vnd.openxmlformats-officedocument.spreadsheetml.sheet' 
-      });
-      
-      // Create download link
-      const url = window.URL.createObjectURL(blob);
-      const link = document.createElement('a');
-      link.href = url;
-      link.download = fileName || 'JD_Analysis_Results.xlsx';
-      document.body.appendChild(link);
-      link.click();
-      document.body.removeChild(link);
-      window.URL.revokeObjectURL(url);
-      
-      console.log("Excel file downloaded successfully");
-    } catch (error) {
-      console.error("Error downloading Excel file:", error);
-      alert("Error downloading Excel file. Please try again.");
-    }
+  // Function to download Excel file (served by the backend as a stored report)
+  const downloadExcel = (excelDownloadUrl, fileName) => {
+    const API_BASE_URL = process.env.REACT_APP_API_BASE_URL || 'http://localhost:8080';
+    const link = document.createElement('a');
+    link.href = `${API_BASE_URL}${excelDownloadUrl}`;
+    link.download = fileName || 'JD_Analysis_Results.xlsx';
+    document.body.appendChild(link);
+    link.click();
+    document.body.removeChild(link);
   };
 
   // Function to find best resume for a specific JD
@@ -254,11 +234,11 @@ const BulkJDResultsPage = ({ data }) => {
         </div>
         
         {/* Download Excel Button */}
-        {data.excelData && (
+        {data.excelDownloadUrl && (
           <div className="download-controls">
             <button 
               className="download-excel-btn"
-              onClick={() => downloadExcel(data.excelData, data.excelFileName)}
+              onClick={() => downloadExcel(data.excelDownloadUrl, data.excelFileName)}
             >
               📥 Download Excel Results
             </button>
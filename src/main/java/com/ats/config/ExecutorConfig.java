@@ -0,0 +1,107 @@
+package com.ats.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors shared by the bulk (Mode 3 / Mode 4) analysis paths.
+ * With {@code spring.threads.virtual.enabled=true} on Java 21+ the bulk workers are virtual threads
+ * (Spring Boot switches Tomcat's request threads over as well); otherwise a fixed platform pool is used.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    @Value("${app.bulk.pool-size:32}")
+    private int bulkPoolSize;
+
+    @Value("${app.jobs.workers:2}")
+    private int jobWorkers;
+
+    @Value("${app.jobs.queue-capacity:20}")
+    private int jobQueueCapacity;
+
+    @Value("${app.stream.workers:4}")
+    private int streamWorkers;
+
+    @Bean(name = "bulkTaskExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService bulkTaskExecutor() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(bulkPoolSize, runnable -> {
+            Thread thread = new Thread(runnable, "ats-bulk-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * One virtual thread per task, so blocked OpenAI calls and file parsing no longer count against a pool size.
+     * Concurrency per request is still bounded by BulkMatrixExecutor.
+     */
+    @Bean(name = "bulkTaskExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualBulkTaskExecutor() {
+        ThreadFactory virtualThreadFactory = new VirtualThreadTaskExecutor("ats-bulk-").getVirtualThreadFactory();
+        try {
+            // Executors.newThreadPerTaskExecutor is Java 21+ only while the build still targets Java 17
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, virtualThreadFactory);
+            logger.info("Bulk analysis is running on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are enabled but not supported by this JVM", e);
+        }
+    }
+
+    /**
+     * Runs background bulk jobs. Each worker only coordinates one job (the pairs run on the bulk executor),
+     * and the bounded queue rejects submissions once it is full instead of growing without limit.
+     */
+    @Bean(name = "bulkJobExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor bulkJobExecutor() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return new ThreadPoolExecutor(jobWorkers, jobWorkers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, jobQueueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ats-job-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Runs the SSE streams of Mode 3 / Mode 4, apart from the background jobs so a stream never waits behind
+     * queued jobs. There is no queue: a stream starts on a free worker right away or is rejected.
+     */
+    @Bean(name = "bulkStreamExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor bulkStreamExecutor() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return new ThreadPoolExecutor(Math.max(1, streamWorkers), Math.max(1, streamWorkers), 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "ats-stream-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,113 @@
+package com.ats.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Single, shared HTTP client for all OpenAI calls.
+ * Connections (and their TLS sessions) are pooled and kept alive between calls instead of
+ * building a new Reactor Netty client per request. Pool gauges are published to Micrometer
+ * under reactor.netty.connection.provider.* with name "openai".
+ * <p>
+ * Each attempt as a whole is bounded by {@code openai.timeout} in {@link com.ats.utils.OpenAIUtils}. The
+ * response timeout here only detects a stalled connection: no bytes of the response for that long between reads.
+ * Calls with a larger output budget (batched evaluations) scale both per request.
+ */
+@Configuration
+public class OpenAIClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAIClientConfig.class);
+
+    @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}")
+    private String apiUrl;
+
+    @Value("${openai.http.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${openai.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${openai.http.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${openai.http.pending-acquire-timeout:60000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${openai.http.max-idle-time:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${openai.http.max-life-time:300000}")
+    private long maxLifeTimeMs;
+
+    @Value("${openai.http.evict-interval:15000}")
+    private long evictIntervalMs;
+
+    @Value("${openai.http.connect-timeout:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${openai.http.write-timeout:10000}")
+    private long writeTimeoutMs;
+
+    @Value("${openai.http.response-timeout:${openai.timeout:30000}}")
+    private long responseTimeoutMs;
+
+    @Value("${openai.http.max-in-memory-size:2097152}")
+    private int maxInMemorySize;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAIConnectionProvider() {
+        return ConnectionProvider.builder("openai")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient openAIWebClient(ConnectionProvider openAIConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(openAIConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                // Per-request handler, removed again when the connection goes back to the pool
+                .doOnRequest((request, connection) -> connection
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)))
+                .metrics(true, Function.identity());
+
+        if (http2Enabled) {
+            // Negotiated via ALPN; falls back to HTTP/1.1 if the server does not offer h2
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        logger.info("OpenAI client configured: url={}, http2={}, maxConnections={}, pendingAcquireMaxCount={}, responseTimeout={}ms",
+            apiUrl, http2Enabled, maxConnections, pendingAcquireMaxCount, responseTimeoutMs);
+
+        return WebClient.builder()
+                .baseUrl(apiUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+    }
+}
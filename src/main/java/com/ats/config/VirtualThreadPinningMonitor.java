@@ -0,0 +1,141 @@
+package com.ats.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports virtual threads that get pinned to their carrier (blocking inside {@code synchronized}
+ * or native frames, e.g. in Tika parsers) while virtual threads are enabled.
+ * Each pinning hotspot is logged with its stack once at WARN and then counted; totals are exported as
+ * the {@code ats.virtual-threads.pinned} timer, tagged by the first non-JDK frame. Only the first
+ * hotspots get a tag of their own; later ones share "other", and a hotspot keeps the tag it got first.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.virtual-threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 12;
+    private static final int MAX_TAGGED_HOTSPOTS = 50;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Hotspot> hotspots = new ConcurrentHashMap<>();
+    private final AtomicInteger taggedHotspots = new AtomicInteger();
+
+    @Value("${app.virtual-threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+            recordingStream.startAsync();
+            logger.info("Virtual thread pinning monitor started (threshold {} ms)", thresholdMs);
+        } catch (Exception e) {
+            // JFR may be unavailable (e.g. disabled in the runtime image); the application runs fine without it
+            logger.warn("Virtual thread pinning monitor could not be started: {}", e.getMessage());
+            recordingStream = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * Pinning counts per hotspot seen since startup
+     */
+    public Map<String, Long> getHotspots() {
+        Map<String, Long> snapshot = new ConcurrentHashMap<>();
+        hotspots.forEach((hotspot, entry) -> snapshot.put(hotspot, entry.count().get()));
+        return snapshot;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        record(findHotspot(frames), event.getDuration(), frames);
+    }
+
+    void record(String hotspot, Duration duration, List<RecordedFrame> frames) {
+        boolean[] first = new boolean[1];
+        Hotspot entry = hotspots.computeIfAbsent(hotspot, key -> {
+            first[0] = true;
+            // Keep tag cardinality bounded; anything beyond the first hotspots is still counted under "other"
+            String tag = taggedHotspots.incrementAndGet() <= MAX_TAGGED_HOTSPOTS ? key : "other";
+            return new Hotspot(new AtomicLong(), Timer.builder("ats.virtual-threads.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .tag("hotspot", tag)
+                .register(meterRegistry));
+        });
+        if (first[0]) {
+            logger.warn("Virtual thread pinned for {} ms at {}\n{}", duration.toMillis(), hotspot, formatFrames(frames));
+        }
+        entry.count().incrementAndGet();
+        entry.timer().record(duration);
+    }
+
+    private record Hotspot(AtomicLong count, Timer timer) {
+    }
+
+    private static String findHotspot(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame() || frame.getMethod() == null) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : describe(frames.get(0));
+    }
+
+    private static String formatFrames(List<RecordedFrame> frames) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < Math.min(MAX_LOGGED_FRAMES, frames.size()); i++) {
+            builder.append("    at ").append(describe(frames.get(i))).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        if (frame.getMethod() == null) {
+            return "<unknown>";
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -1,6 +1,9 @@
 package com.ats.controller;
 
+import com.ats.model.ScoringEngine;
 import com.ats.service.ATSService;
+import com.ats.service.BulkProgressListener;
+import com.ats.utils.ClientRateLimiter;
 import com.ats.utils.ValidationUtils;
 import com.ats.exception.ValidationException;
 import org.slf4j.Logger;
@@ -14,8 +17,6 @@ import org.springframework.web.multipart.MultipartFile;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/api")
@@ -27,11 +28,8 @@ public class ATSController {
     @Autowired
     private ATSService atsService;
 
-    // Rate limiting: track requests per IP
-    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
-    private final Map<String, Long> lastRequestTime = new ConcurrentHashMap<>();
-    private static final int MAX_REQUESTS_PER_HOUR = 10; // Adjust based on your needs
-    private static final long HOUR_IN_MILLIS = 60 * 60 * 1000;
+    @Autowired
+    private ClientRateLimiter rateLimiter;
 
     @PostMapping("/mode1")
     public ResponseEntity<?> evaluateResume(
@@ -46,11 +44,7 @@ public class ATSController {
             ValidationUtils.validateClientId(clientId);
             
             // Rate limiting check
-            String identifier = clientId != null ? clientId : "default";
-            if (!checkRateLimit(identifier)) {
-                logger.warn("Rate limit exceeded for identifier: {}", identifier);
-                throw new ValidationException("Rate limit exceeded. Please try again later.");
-            }
+            rateLimiter.checkRateLimit(clientId);
 
             Map<String, Object> result = atsService.evaluateResumeMode1(resume);
             logger.info("Mode 1 analysis completed successfully for file: {}", resume.getOriginalFilename());
@@ -69,6 +63,7 @@ public class ATSController {
     public ResponseEntity<?> evaluateResumeAndJD(
             @RequestParam("resume") @NotNull MultipartFile resume,
             @RequestParam("jd") @NotBlank String jdText,
+            @RequestParam(value = "engine", required = false) String engineParam,
             @RequestParam(value = "clientId", required = false) String clientId) {
         
         logger.info("Mode 2 request received for file: {} with JD length: {}", 
@@ -79,15 +74,12 @@ public class ATSController {
             ValidationUtils.validateFile(resume, "resume");
             ValidationUtils.validateText(jdText, "job description", true);
             ValidationUtils.validateClientId(clientId);
+            ScoringEngine engine = ScoringEngine.parse(engineParam);
             
             // Rate limiting check
-            String identifier = clientId != null ? clientId : "default";
-            if (!checkRateLimit(identifier)) {
-                logger.warn("Rate limit exceeded for identifier: {}", identifier);
-                throw new ValidationException("Rate limit exceeded. Please try again later.");
-            }
+            rateLimiter.checkRateLimit(clientId);
 
-            Map<String, Object> result = atsService.evaluateResumeWithJDText(resume, jdText);
+            Map<String, Object> result = atsService.evaluateResumeWithJDText(resume, jdText, engine);
             logger.info("Mode 2 analysis completed successfully for file: {}", resume.getOriginalFilename());
             return ResponseEntity.ok(result);
             
@@ -104,6 +96,7 @@ public class ATSController {
     public ResponseEntity<?> bulkResumeAnalysis(
             @RequestParam("resumes") @NotNull MultipartFile[] resumes,
             @RequestParam("jd") @NotBlank String jdText,
+            @RequestParam(value = "engine", required = false) String engineParam,
             @RequestParam(value = "clientId", required = false) String clientId) {
         
         logger.info("Mode 3 request received for {} files with JD length: {}", 
@@ -114,20 +107,17 @@ public class ATSController {
             ValidationUtils.validateFiles(resumes, "resumes");
             ValidationUtils.validateText(jdText, "job description", true);
             ValidationUtils.validateClientId(clientId);
+            ScoringEngine engine = ScoringEngine.parse(engineParam);
             
             // Additional validation for bulk operations
-            if (resumes.length > 10) {
-                throw new ValidationException("Maximum 10 resumes allowed per analysis");
+            if (resumes.length > ValidationUtils.MAX_MODE3_RESUMES) {
+                throw new ValidationException("Maximum " + ValidationUtils.MAX_MODE3_RESUMES + " resumes allowed per analysis");
             }
             
             // Rate limiting check
-            String identifier = clientId != null ? clientId : "default";
-            if (!checkRateLimit(identifier)) {
-                logger.warn("Rate limit exceeded for identifier: {}", identifier);
-                throw new ValidationException("Rate limit exceeded. Please try again later.");
-            }
+            rateLimiter.checkRateLimit(clientId);
 
-            Map<String, Object> result = atsService.bulkResumeAnalysis(resumes, jdText);
+            Map<String, Object> result = atsService.bulkResumeAnalysis(resumes, jdText, BulkProgressListener.NONE, engine);
             logger.info("Mode 3 analysis completed successfully for {} files", resumes.length);
             return ResponseEntity.ok(result);
             
@@ -144,6 +134,7 @@ public class ATSController {
     public ResponseEntity<?> bulkJDResumeAnalysis(
             @RequestParam("resumes") @NotNull MultipartFile[] resumes,
             @RequestParam("jobDescriptions") @NotNull MultipartFile jdFile,
+            @RequestParam(value = "engine", required = false) String engineParam,
             @RequestParam(value = "clientId", required = false) String clientId) {
         
         logger.info("Mode 4 request received for {} files with JD file: {}", 
@@ -154,10 +145,11 @@ public class ATSController {
             ValidationUtils.validateFiles(resumes, "resumes");
             ValidationUtils.validateFile(jdFile, "job descriptions file");
             ValidationUtils.validateClientId(clientId);
+            ScoringEngine engine = ScoringEngine.parse(engineParam);
             
             // Additional validation for bulk operations
-            if (resumes.length > 20) {
-                throw new ValidationException("Maximum 20 resumes allowed per analysis");
+            if (resumes.length > ValidationUtils.MAX_MODE4_RESUMES) {
+                throw new ValidationException("Maximum " + ValidationUtils.MAX_MODE4_RESUMES + " resumes allowed per analysis");
             }
             
             // Validate Excel file type
@@ -167,13 +159,9 @@ public class ATSController {
             }
             
             // Rate limiting check
-            String identifier = clientId != null ? clientId : "default";
-            if (!checkRateLimit(identifier)) {
-                logger.warn("Rate limit exceeded for identifier: {}", identifier);
-                throw new ValidationException("Rate limit exceeded. Please try again later.");
-            }
+            rateLimiter.checkRateLimit(clientId);
 
-            Map<String, Object> result = atsService.bulkJDResumeAnalysis(resumes, jdFile);
+            Map<String, Object> result = atsService.bulkJDResumeAnalysis(resumes, jdFile, BulkProgressListener.NONE, engine);
             logger.info("Mode 4 analysis completed successfully for {} files", resumes.length);
             return ResponseEntity.ok(result);
             
@@ -186,55 +174,13 @@ public class ATSController {
         }
     }
 
-    private boolean checkRateLimit(String identifier) {
-        long currentTime = System.currentTimeMillis();
-        Long lastTime = lastRequestTime.get(identifier);
-        
-        // Reset counter if an hour has passed
-        if (lastTime == null || currentTime - lastTime > HOUR_IN_MILLIS) {
-            requestCounts.put(identifier, new AtomicInteger(1));
-            lastRequestTime.put(identifier, currentTime);
-            logger.debug("Rate limit reset for identifier: {}", identifier);
-            return true;
-        }
-        
-        // Check if limit exceeded
-        AtomicInteger count = requestCounts.get(identifier);
-        if (count == null) {
-            count = new AtomicInteger(0);
-            requestCounts.put(identifier, count);
-        }
-        
-        int currentCount = count.incrementAndGet();
-        logger.debug("Rate limit check for identifier: {} - current count: {}/{}", 
-            identifier, currentCount, MAX_REQUESTS_PER_HOUR);
-        
-        if (currentCount > MAX_REQUESTS_PER_HOUR) {
-            logger.warn("Rate limit exceeded for identifier: {} - count: {}", identifier, currentCount);
-            return false;
-        }
-        
-        return true;
-    }
-
     // Endpoint to check remaining requests
     @GetMapping("/rate-limit-status")
     public ResponseEntity<?> getRateLimitStatus(@RequestParam(value = "clientId", required = false) String clientId) {
         try {
             ValidationUtils.validateClientId(clientId);
             
-            String identifier = clientId != null ? clientId : "default";
-            AtomicInteger count = requestCounts.get(identifier);
-            int used = count != null ? count.get() : 0;
-            
-            logger.debug("Rate limit status requested for identifier: {} - used: {}/{}", 
-                identifier, used, MAX_REQUESTS_PER_HOUR);
-            
-            return ResponseEntity.ok(Map.of(
-                "used", used,
-                "limit", MAX_REQUESTS_PER_HOUR,
-                "remaining", Math.max(0, MAX_REQUESTS_PER_HOUR - used)
-            ));
+            return ResponseEntity.ok(rateLimiter.getStatus(clientId));
         } catch (ValidationException e) {
             logger.warn("Validation error in rate limit status: {}", e.getMessage());
             throw e;
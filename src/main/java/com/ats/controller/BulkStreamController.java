@@ -0,0 +1,221 @@
+package com.ats.controller;
+
+import com.ats.exception.ATSServiceException;
+import com.ats.exception.ValidationException;
+import com.ats.model.EvaluationResult;
+import com.ats.model.ResumeJDResult;
+import com.ats.model.ScoringEngine;
+import com.ats.service.ATSService;
+import com.ats.service.BufferedMultipartFile;
+import com.ats.service.BulkProgressListener;
+import com.ats.utils.ClientRateLimiter;
+import com.ats.utils.ValidationUtils;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Server-Sent Events variants of Mode 3 and Mode 4. Each resume x JD score is pushed as a
+ * {@code pair} event as soon as it is parsed, followed by {@code summary} and {@code ranking}
+ * events when the run finishes. Closing the stream cancels the remaining AI calls.
+ * Streams run on their own workers; when none is free the request is rejected with 503 instead of queued.
+ * Resume caps and the client rate limit are those of the synchronous endpoints.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class BulkStreamController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkStreamController.class);
+
+    @Autowired
+    private ATSService atsService;
+
+    @Autowired
+    private ClientRateLimiter rateLimiter;
+
+    @Autowired
+    @Qualifier("bulkStreamExecutor")
+    private ThreadPoolExecutor bulkStreamExecutor;
+
+    @Value("${app.stream.timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @PostMapping(value = "/mode3/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBulkResumeAnalysis(
+            @RequestParam("resumes") @NotNull MultipartFile[] resumes,
+            @RequestParam("jd") @NotBlank String jdText,
+            @RequestParam(value = "engine", required = false) String engineParam,
+            @RequestParam(value = "clientId", required = false) String clientId) throws IOException {
+
+        logger.info("Mode 3 stream requested for {} files with JD length: {}", resumes.length, jdText.length());
+
+        ValidationUtils.validateFiles(resumes, "resumes", ValidationUtils.MAX_MODE3_RESUMES);
+        ValidationUtils.validateText(jdText, "job description", true);
+        ValidationUtils.validateClientId(clientId);
+        ScoringEngine engine = ScoringEngine.parse(engineParam);
+        rateLimiter.checkRateLimit(clientId);
+
+        MultipartFile[] bufferedResumes = BufferedMultipartFile.copyOf(resumes);
+        return stream("mode3",
+            listener -> atsService.bulkResumeAnalysis(bufferedResumes, jdText, listener, engine),
+            BulkStreamController::rankMode3);
+    }
+
+    @PostMapping(value = "/mode4/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBulkJDResumeAnalysis(
+            @RequestParam("resumes") @NotNull MultipartFile[] resumes,
+            @RequestParam("jobDescriptions") @NotNull MultipartFile jdFile,
+            @RequestParam(value = "engine", required = false) String engineParam,
+            @RequestParam(value = "clientId", required = false) String clientId) throws IOException {
+
+        logger.info("Mode 4 stream requested for {} files with JD file: {}", resumes.length, jdFile.getOriginalFilename());
+
+        ValidationUtils.validateFiles(resumes, "resumes", ValidationUtils.MAX_MODE4_RESUMES);
+        ValidationUtils.validateFile(jdFile, "job descriptions file");
+        ValidationUtils.validateClientId(clientId);
+        ScoringEngine engine = ScoringEngine.parse(engineParam);
+
+        String fileName = jdFile.getOriginalFilename();
+        if (fileName == null || (!fileName.toLowerCase().endsWith(".xlsx") && !fileName.toLowerCase().endsWith(".xls"))) {
+            throw new ValidationException("Only Excel files (.xlsx, .xls) are supported for job descriptions");
+        }
+        rateLimiter.checkRateLimit(clientId);
+
+        MultipartFile[] bufferedResumes = BufferedMultipartFile.copyOf(resumes);
+        MultipartFile bufferedJdFile = BufferedMultipartFile.copyOf(jdFile);
+        return stream("mode4",
+            listener -> atsService.bulkJDResumeAnalysis(bufferedResumes, bufferedJdFile, listener, engine),
+            BulkStreamController::rankMode4);
+    }
+
+    private SseEmitter stream(String mode, Function<BulkProgressListener, Map<String, Object>> analysis,
+                              Function<Map<String, Object>, List<RankedResult>> ranking) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        AtomicReference<Future<?>> worker = new AtomicReference<>();
+
+        BulkProgressListener listener = new BulkProgressListener() {
+            @Override
+            public void onStart(int totalPairs) {
+                send(emitter, worker, "start", Map.of("mode", mode, "totalPairs", totalPairs));
+            }
+
+            @Override
+            public void onPairCompleted(int resumeIndex, int jdIndex, Map<String, Object> result) {
+                send(emitter, worker, "pair", streamable(result));
+            }
+        };
+
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                Map<String, Object> finalResult = analysis.apply(listener);
+                send(emitter, worker, "summary", finalResult.get("summary"));
+                send(emitter, worker, "ranking", ranking.apply(finalResult));
+                emitter.complete();
+                logger.info("{} stream completed", mode);
+            } catch (Exception e) {
+                logger.warn("{} stream failed: {}", mode, e.getMessage());
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", true);
+                error.put("message", e instanceof ATSServiceException atsException ? atsException.getUserMessage() : e.getMessage());
+                send(emitter, worker, "error", error);
+                emitter.complete();
+            }
+        }, null);
+        // Known before the task can run, so a stream closed at any point cancels it
+        worker.set(task);
+
+        // Client went away or the stream timed out: stop the remaining AI calls
+        Runnable cancel = () -> {
+            if (!task.isDone()) {
+                logger.info("{} stream closed early, cancelling analysis", mode);
+                task.cancel(true);
+            }
+        };
+        emitter.onTimeout(cancel);
+        emitter.onError(e -> cancel.run());
+
+        try {
+            bulkStreamExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw new ATSServiceException("STREAMS_BUSY", "All stream workers are busy",
+                "Too many analyses are streaming. Please try again in a few minutes.");
+        }
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, AtomicReference<Future<?>> worker, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected; interrupting the worker cancels the in-flight AI calls
+            Future<?> future = worker.get();
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static Map<String, Object> streamable(Map<String, Object> result) {
+        Map<String, Object> copy = new HashMap<>(result);
+        copy.remove("originalResumeContent");
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<RankedResult> rankMode3(Map<String, Object> finalResult) {
+        // matched/unmatched results are already ordered by score
+        List<EvaluationResult> ordered = new ArrayList<>();
+        ordered.addAll((List<EvaluationResult>) finalResult.getOrDefault("matchedResults", List.of()));
+        ordered.addAll((List<EvaluationResult>) finalResult.getOrDefault("unmatchedResults", List.of()));
+        return toRanking(ordered);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<RankedResult> rankMode4(Map<String, Object> finalResult) {
+        List<EvaluationResult> ordered = new ArrayList<>();
+        for (ResumeJDResult resumeResult : (List<ResumeJDResult>) finalResult.getOrDefault("resumeResults", List.of())) {
+            if (!resumeResult.bestMatch().hasError()) {
+                ordered.add(resumeResult.bestMatch());
+            }
+        }
+        ordered.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return toRanking(ordered);
+    }
+
+    private static List<RankedResult> toRanking(List<EvaluationResult> ordered) {
+        List<RankedResult> ranking = new ArrayList<>(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            EvaluationResult result = ordered.get(i);
+            ranking.add(new RankedResult(i + 1, result.withResumeContent(null, result.documentId(), result.originalResumeName())));
+        }
+        return ranking;
+    }
+
+    /**
+     * Entry of the {@code ranking} event: the result's fields plus its rank, without the resume text
+     */
+    record RankedResult(int rank, @JsonUnwrapped EvaluationResult result) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.ats.controller;
+
+import com.ats.service.DocumentTextCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Extracted resume text referenced by {@code documentId} in bulk (Mode 4) results.
+ * Documents are only kept for a limited time; an expired id answers 404.
+ */
+@RestController
+@RequestMapping("/api/documents")
+@CrossOrigin(origins = "*")
+public class DocumentController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentController.class);
+
+    @Autowired
+    private DocumentTextCache documentTextCache;
+
+    @GetMapping(value = "/{documentId}", produces = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8")
+    public ResponseEntity<String> getDocument(@PathVariable String documentId) {
+        String text = documentTextCache.get(documentId);
+        if (text == null) {
+            logger.debug("Document {} not found or expired", documentId);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(text);
+    }
+}
@@ -1,6 +1,8 @@
 package com.ats.controller;
 
 import com.ats.service.ATSService;
+import com.ats.utils.AdaptiveConcurrencyLimiter;
+import com.ats.utils.OpenAICircuitBreaker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +23,12 @@ public class HealthController {
     @Autowired
     private ATSService atsService;
 
+    @Autowired
+    private OpenAICircuitBreaker openAICircuitBreaker;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter openAIConcurrencyLimiter;
+
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getHealthStatus() {
         Map<String, Object> status = new HashMap<>();
@@ -36,6 +44,9 @@ public class HealthController {
             Map<String, Object> cacheStatus = atsService.getCacheStatus();
             status.put("cache", cacheStatus);
             
+            // OpenAI dependency: breaker state and current concurrency
+            status.put("openai", getOpenAIStatus());
+            
             // Check memory usage
             Runtime runtime = Runtime.getRuntime();
             Map<String, Object> memory = new HashMap<>();
@@ -70,6 +81,7 @@ public class HealthController {
             Map<String, Object> dependencies = new HashMap<>();
             dependencies.put("cache", atsService.getCacheStatus());
             dependencies.put("apiKey", checkApiKey());
+            dependencies.put("openai", getOpenAIStatus());
             readiness.put("dependencies", dependencies);
             
             logger.debug("Readiness check completed successfully");
@@ -115,6 +127,17 @@ public class HealthController {
         return ResponseEntity.ok(health);
     }
 
+    private Map<String, Object> getOpenAIStatus() {
+        Map<String, Object> openAIStatus = new HashMap<>();
+        openAIStatus.put("circuitBreaker", openAICircuitBreaker.getStatus());
+        openAIStatus.put("degraded", openAICircuitBreaker.getState() != OpenAICircuitBreaker.State.CLOSED);
+        openAIStatus.put("concurrencyLimit", openAIConcurrencyLimiter.getLimit());
+        openAIStatus.put("inFlight", openAIConcurrencyLimiter.getInFlight());
+        openAIStatus.put("bulkInFlight", openAIConcurrencyLimiter.getBulkInFlight());
+        openAIStatus.put("queued", openAIConcurrencyLimiter.getQueued());
+        return openAIStatus;
+    }
+
     private Map<String, Object> checkApiKey() {
         Map<String, Object> apiKeyStatus = new HashMap<>();
         try {
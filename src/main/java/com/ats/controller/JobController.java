@@ -0,0 +1,110 @@
+package com.ats.controller;
+
+import com.ats.exception.ValidationException;
+import com.ats.model.ScoringEngine;
+import com.ats.service.BulkJob;
+import com.ats.service.BulkJobService;
+import com.ats.utils.ClientRateLimiter;
+import com.ats.utils.ValidationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Background variants of Mode 3 and Mode 4. Submitting returns a job id straight away;
+ * progress and results are polled from /api/jobs/{id}.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    @Autowired
+    private BulkJobService bulkJobService;
+
+    @Autowired
+    private ClientRateLimiter rateLimiter;
+
+    @Value("${app.jobs.max-resumes:100}")
+    private int maxResumesPerJob;
+
+    @PostMapping(value = "/mode3", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitMode3(
+            @RequestParam("resumes") @NotNull MultipartFile[] resumes,
+            @RequestParam("jd") @NotBlank String jdText,
+            @RequestParam(value = "engine", required = false) String engineParam,
+            @RequestParam(value = "clientId", required = false) String clientId) {
+
+        logger.info("Mode 3 job submitted for {} files with JD length: {}", resumes.length, jdText.length());
+
+        ValidationUtils.validateFiles(resumes, "resumes", maxResumesPerJob);
+        ValidationUtils.validateText(jdText, "job description", true);
+        ValidationUtils.validateClientId(clientId);
+        ScoringEngine engine = ScoringEngine.parse(engineParam);
+        rateLimiter.checkRateLimit(clientId);
+
+        BulkJob job = bulkJobService.submitMode3(resumes, jdText, engine);
+        return accepted(job);
+    }
+
+    @PostMapping(value = "/mode4", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitMode4(
+            @RequestParam("resumes") @NotNull MultipartFile[] resumes,
+            @RequestParam("jobDescriptions") @NotNull MultipartFile jdFile,
+            @RequestParam(value = "engine", required = false) String engineParam,
+            @RequestParam(value = "clientId", required = false) String clientId) {
+
+        logger.info("Mode 4 job submitted for {} files with JD file: {}", resumes.length, jdFile.getOriginalFilename());
+
+        ValidationUtils.validateFiles(resumes, "resumes", maxResumesPerJob);
+        ValidationUtils.validateFile(jdFile, "job descriptions file");
+        ValidationUtils.validateClientId(clientId);
+        ScoringEngine engine = ScoringEngine.parse(engineParam);
+
+        String fileName = jdFile.getOriginalFilename();
+        if (fileName == null || (!fileName.toLowerCase().endsWith(".xlsx") && !fileName.toLowerCase().endsWith(".xls"))) {
+            throw new ValidationException("Only Excel files (.xlsx, .xls) are supported for job descriptions");
+        }
+        rateLimiter.checkRateLimit(clientId);
+
+        BulkJob job = bulkJobService.submitMode4(resumes, jdFile, engine);
+        return accepted(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJobStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkJobService.getJob(jobId).toStatusMap());
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) {
+        logger.info("Cancel requested for job {}", jobId);
+        return ResponseEntity.ok(bulkJobService.cancelJob(jobId).toStatusMap());
+    }
+
+    @GetMapping("/queue-status")
+    public ResponseEntity<?> getQueueStatus() {
+        return ResponseEntity.ok(bulkJobService.getQueueStatus());
+    }
+
+    private ResponseEntity<?> accepted(BulkJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("status", job.getStatus().name());
+        response.put("statusUrl", "/api/jobs/" + job.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ats.controller;
+
+import com.ats.service.ReportStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Downloads of stored bulk reports (the Mode 4 Excel). Responses carry Content-Length and honour
+ * HTTP Range requests. On Tomcat a full file or a single range is handed to the connector's sendfile
+ * support, so the bytes go from the page cache to the socket without being copied through the JVM;
+ * multi-range requests and other containers fall back to Spring's resource handling.
+ */
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+
+    private static final MediaType XLSX = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    private static final String REPORT_FILE_NAME = "JD_Analysis_Results.xlsx";
+
+    // Request attributes of Tomcat's sendfile support (Http11NioProtocol with useSendfile=true, the default)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ReportStorageService reportStorageService;
+
+    @GetMapping("/{reportId}")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String reportId,
+                                                   @RequestHeader HttpHeaders requestHeaders,
+                                                   HttpServletRequest request) throws IOException {
+        Path path = reportStorageService.getReportPath(reportId);
+        if (path == null) {
+            logger.debug("Report {} not found or expired", reportId);
+            return ResponseEntity.notFound().build();
+        }
+        long length = Files.size(path);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(XLSX);
+        headers.setContentDisposition(ContentDisposition.attachment().filename(REPORT_FILE_NAME).build());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            return rangeNotSatisfiable(length);
+        }
+
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) || ranges.size() > 1) {
+            // Spring answers Range requests for Resource bodies itself (206 with one or more regions)
+            return ResponseEntity.ok().headers(headers).body(new FileSystemResource(path));
+        }
+
+        long start = 0;
+        long end = length;
+        HttpStatus status = HttpStatus.OK;
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length) + 1;
+            } catch (IllegalArgumentException e) {
+                return rangeNotSatisfiable(length);
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+
+        // The connector writes the file after the (body-less) response is committed
+        request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+        headers.setContentLength(end - start);
+        return ResponseEntity.status(status).headers(headers).build();
+    }
+
+    private static ResponseEntity<Resource> rangeNotSatisfiable(long length) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+            .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ats.exception;
+
+/**
+ * Raised without calling OpenAI while its circuit breaker is open
+ */
+public class AIServiceUnavailableException extends OpenAIException {
+
+    private final long retryAfterSeconds;
+
+    public AIServiceUnavailableException(long retryAfterSeconds) {
+        super("AI_SERVICE_UNAVAILABLE", "OpenAI circuit breaker is open",
+            "The AI service is temporarily unavailable. Please try again in " + retryAfterSeconds + " seconds.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
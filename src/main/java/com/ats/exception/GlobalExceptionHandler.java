@@ -2,6 +2,7 @@ package com.ats.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -58,6 +59,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    @ExceptionHandler(AIServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleAIServiceUnavailable(AIServiceUnavailableException ex) {
+        logger.warn("AI service unavailable, failing fast: {}", ex.getMessage());
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", true);
+        errorResponse.put("errorCode", ex.getErrorCode());
+        errorResponse.put("message", ex.getUserMessage());
+        errorResponse.put("degraded", true);
+        errorResponse.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+        errorResponse.put("timestamp", System.currentTimeMillis());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+
     @ExceptionHandler(OpenAIException.class)
     public ResponseEntity<Map<String, Object>> handleOpenAIException(OpenAIException ex) {
         logger.error("OpenAI API Error: {}", ex.getMessage(), ex);
@@ -123,7 +141,10 @@ public class GlobalExceptionHandler {
             case "VALIDATION_ERROR" -> HttpStatus.BAD_REQUEST;
             case "FILE_PROCESSING_ERROR" -> HttpStatus.BAD_REQUEST;
             case "OPENAI_API_ERROR" -> HttpStatus.SERVICE_UNAVAILABLE;
+            case "AI_SERVICE_UNAVAILABLE" -> HttpStatus.SERVICE_UNAVAILABLE;
+            case "STREAMS_BUSY" -> HttpStatus.SERVICE_UNAVAILABLE;
             case "RATE_LIMIT_EXCEEDED" -> HttpStatus.TOO_MANY_REQUESTS;
+            case "JOB_NOT_FOUND" -> HttpStatus.NOT_FOUND;
             default -> HttpStatus.INTERNAL_SERVER_ERROR;
         };
     }
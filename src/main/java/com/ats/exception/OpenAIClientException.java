@@ -0,0 +1,18 @@
+package com.ats.exception;
+
+/**
+ * OpenAI rejected the request itself (4xx other than rate limiting), so repeating it unchanged will not help
+ */
+public class OpenAIClientException extends OpenAIException {
+
+    private final int statusCode;
+
+    public OpenAIClientException(int statusCode, String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
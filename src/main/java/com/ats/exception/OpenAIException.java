@@ -12,4 +12,8 @@ public class OpenAIException extends ATSServiceException {
     public OpenAIException(String message, Throwable cause) {
         super("OPENAI_API_ERROR", message, "Unable to process your request with AI service. Please try again later.", cause);
     }
+
+    protected OpenAIException(String errorCode, String message, String userMessage) {
+        super(errorCode, message, userMessage);
+    }
 }
@@ -0,0 +1,14 @@
+package com.ats.model;
+
+/**
+ * Score statistics of a Mode 4 analysis, over the best match of every resume
+ */
+public record BulkJDSummary(
+    int totalResumes,
+    int totalJobDescriptions,
+    int validResults,
+    double averageScore,
+    double highestScore,
+    double lowestScore
+) {
+}
@@ -0,0 +1,15 @@
+package com.ats.model;
+
+/**
+ * Score statistics of a Mode 3 analysis, over the matched resumes
+ */
+public record BulkResumeSummary(
+    int totalResumes,
+    int matchedResumes,
+    int unmatchedResumes,
+    double averageScore,
+    double highestScore,
+    double lowestScore,
+    EvaluationResult bestMatch
+) {
+}
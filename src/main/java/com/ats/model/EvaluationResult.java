@@ -0,0 +1,146 @@
+package com.ats.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One scored resume (Mode 3) or resume/JD pair (Mode 4) of a bulk analysis. Serialized with the same
+ * field names as the evaluation maps it is built from; absent fields are left out.
+ * {@code atsScore} stays a one-element list because that is what clients read. {@code engine} is "local" for
+ * results of the local scorer, with a {@code fallbackReason} when the AI was asked for but could not answer.
+ * {@code documentId} refers to the resume text served by {@code /api/documents/{documentId}}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EvaluationResult(
+    String resumeName,
+    Integer resumeIndex,
+    Long fileSize,
+    Integer jdIndex,
+    String jdText,
+    String companyName,
+    String roleName,
+    String matchStatus,
+    String newResumeName,
+    List<Double> atsScore,
+    List<String> careerSummary,
+    List<String> strengths,
+    List<String> weaknesses,
+    List<String> suggestions,
+    SkillSection workExperience,
+    SkillSection certificates,
+    SkillSection projects,
+    SkillSection technicalSkills,
+    Boolean pruned,
+    Double lexicalScore,
+    String engine,
+    Double localScore,
+    String fallbackReason,
+    String error,
+    String originalResumeContent,
+    String documentId,
+    String originalResumeName
+) {
+
+    /**
+     * Typed view of an evaluation map; lists are shared, not copied
+     */
+    public static EvaluationResult fromMap(Map<String, Object> map) {
+        return new EvaluationResult(
+            asString(map.get("resumeName")),
+            asInteger(map.get("resumeIndex")),
+            map.get("fileSize") instanceof Number fileSize ? fileSize.longValue() : null,
+            asInteger(map.get("jdIndex")),
+            asString(map.get("jdText")),
+            asString(map.get("companyName")),
+            asString(map.get("roleName")),
+            asString(map.get("matchStatus")),
+            asString(map.get("newResumeName")),
+            asScores(map.get("atsScore")),
+            asStrings(map.get("careerSummary")),
+            asStrings(map.get("strengths")),
+            asStrings(map.get("weaknesses")),
+            asStrings(map.get("suggestions")),
+            asSection(map.get("workExperience")),
+            asSection(map.get("certificates")),
+            asSection(map.get("projects")),
+            asSection(map.get("technicalSkills")),
+            map.get("pruned") instanceof Boolean pruned ? pruned : null,
+            map.get("lexicalScore") instanceof Number lexicalScore ? lexicalScore.doubleValue() : null,
+            asString(map.get("engine")),
+            map.get("localScore") instanceof Number localScore ? localScore.doubleValue() : null,
+            asString(map.get("fallbackReason")),
+            asString(map.get("error")),
+            asString(map.get("originalResumeContent")),
+            asString(map.get("documentId")),
+            asString(map.get("originalResumeName")));
+    }
+
+    /**
+     * ATS score (0-10), 0 when there is none
+     */
+    public double score() {
+        return atsScore != null && !atsScore.isEmpty() && atsScore.get(0) != null ? atsScore.get(0) : 0.0;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+
+    public EvaluationResult withNewResumeName(String newResumeName) {
+        return new EvaluationResult(resumeName, resumeIndex, fileSize, jdIndex, jdText, companyName, roleName,
+            matchStatus, newResumeName, atsScore, careerSummary, strengths, weaknesses, suggestions, workExperience,
+            certificates, projects, technicalSkills, pruned, lexicalScore, engine, localScore, fallbackReason, error,
+            originalResumeContent, documentId, originalResumeName);
+    }
+
+    public EvaluationResult withResumeName(String resumeName) {
+        return new EvaluationResult(resumeName, resumeIndex, fileSize, jdIndex, jdText, companyName, roleName,
+            matchStatus, newResumeName, atsScore, careerSummary, strengths, weaknesses, suggestions, workExperience,
+            certificates, projects, technicalSkills, pruned, lexicalScore, engine, localScore, fallbackReason, error,
+            originalResumeContent, documentId, originalResumeName);
+    }
+
+    /**
+     * Attach the resume's extracted text (null when it is only referenced) and its document id
+     */
+    public EvaluationResult withResumeContent(String originalResumeContent, String documentId, String originalResumeName) {
+        return new EvaluationResult(resumeName, resumeIndex, fileSize, jdIndex, jdText, companyName, roleName,
+            matchStatus, newResumeName, atsScore, careerSummary, strengths, weaknesses, suggestions, workExperience,
+            certificates, projects, technicalSkills, pruned, lexicalScore, engine, localScore, fallbackReason, error,
+            originalResumeContent, documentId, originalResumeName);
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static Integer asInteger(Object value) {
+        return value instanceof Number number ? number.intValue() : null;
+    }
+
+    private static List<Double> asScores(Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty() || !(list.get(0) instanceof Number score)) {
+            return null;
+        }
+        return List.of(score.doubleValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> asStrings(Object value) {
+        if (value instanceof List<?> list) {
+            return (List<String>) list;
+        }
+        return value != null ? List.of(value.toString()) : null;
+    }
+
+    private static SkillSection asSection(Object value) {
+        if (!(value instanceof Map<?, ?> section)) {
+            return null;
+        }
+        List<String> matchedSkills = asStrings(section.get("matchedSkills"));
+        List<String> gaps = asStrings(section.get("gaps"));
+        return new SkillSection(matchedSkills != null ? matchedSkills : List.of(), gaps != null ? gaps : List.of());
+    }
+}
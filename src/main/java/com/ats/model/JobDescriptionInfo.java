@@ -0,0 +1,7 @@
+package com.ats.model;
+
+/**
+ * One job posting read from a Mode 4 Excel upload
+ */
+public record JobDescriptionInfo(String companyName, String roleName, String applyLink, String description) {
+}
@@ -0,0 +1,17 @@
+package com.ats.model;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * Mode 4 result of one resume: its best match (serialized inline) plus its results for every JD.
+ * Match lists reference the pair results directly; nothing refers back to this object, so there are no cycles to break.
+ */
+public record ResumeJDResult(
+    @JsonUnwrapped EvaluationResult bestMatch,
+    List<EvaluationResult> allMatches,
+    List<EvaluationResult> matchedResults,
+    List<EvaluationResult> unmatchedResults
+) {
+}
@@ -0,0 +1,31 @@
+package com.ats.model;
+
+import com.ats.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * Engine that scores a resume against a job description: the OpenAI evaluation or the local dictionary scorer
+ */
+public enum ScoringEngine {
+    AI,
+    LOCAL;
+
+    /**
+     * Engine named by an {@code engine} request parameter; a missing parameter selects the AI
+     */
+    public static ScoringEngine parse(String value) {
+        if (value == null || value.isBlank()) {
+            return AI;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "ai":
+            case "openai":
+                return AI;
+            case "local":
+                return LOCAL;
+            default:
+                throw new ValidationException("Unknown scoring engine: " + value + ". Use 'ai' or 'local'");
+        }
+    }
+}
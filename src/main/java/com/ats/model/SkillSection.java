@@ -0,0 +1,11 @@
+package com.ats.model;
+
+import java.util.List;
+
+/**
+ * Matched skills and gaps of one resume section (work experience, certificates, projects, technical skills)
+ */
+public record SkillSection(List<String> matchedSkills, List<String> gaps) {
+
+    public static final SkillSection EMPTY = new SkillSection(List.of(), List.of());
+}
@@ -0,0 +1,23 @@
+package com.ats.model;
+
+import java.util.List;
+
+/**
+ * AI evaluation as returned in structured (JSON schema) output mode.
+ * Mode 1 answers leave companyName, roleName and matchStatus null and have no gaps.
+ */
+public record StructuredEvaluation(
+    String careerSummary,
+    double atsScore,
+    String companyName,
+    String roleName,
+    String matchStatus,
+    List<String> strengths,
+    List<String> weaknesses,
+    List<String> suggestions,
+    SkillSection workExperience,
+    SkillSection certificates,
+    SkillSection projects,
+    SkillSection technicalSkills
+) {
+}
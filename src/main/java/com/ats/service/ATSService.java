@@ -1,36 +1,57 @@
 
 package com.ats.service;
 
+import com.ats.utils.AdaptiveConcurrencyLimiter;
 import com.ats.utils.FileUtils;
 import com.ats.utils.OpenAIUtils;
 import com.ats.utils.PromptUtils;
+import com.ats.utils.SingleFlight;
 import com.ats.utils.ApiKeyReader;
+import com.ats.utils.CacheKeyBuilder;
+import com.ats.utils.StructuredResponseParser;
 import com.ats.utils.ValidationUtils;
+import com.ats.model.BulkJDSummary;
+import com.ats.model.BulkResumeSummary;
+import com.ats.model.EvaluationResult;
+import com.ats.model.JobDescriptionInfo;
+import com.ats.model.ResumeJDResult;
+import com.ats.model.ScoringEngine;
+import com.ats.model.SkillSection;
+import com.ats.model.StructuredEvaluation;
+import com.ats.exception.AIServiceUnavailableException;
 import com.ats.exception.ATSServiceException;
 import com.ats.exception.FileProcessingException;
+import com.ats.exception.OpenAIClientException;
 import com.ats.exception.OpenAIException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
-import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.io.IOException;
 import java.io.InputStream;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.ss.usermodel.IndexedColors;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 
 @Service
 public class ATSService {
@@ -43,6 +64,51 @@ public class ATSService {
     @Value("${app.cache.enabled:true}")
     private boolean cacheEnabled;
 
+    @Value("${openai.structured-output:true}")
+    private boolean structuredOutput;
+
+    @Value("${app.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${app.batch.size:4}")
+    private int batchSize;
+
+    @Value("${app.batch.max-output-tokens:16000}")
+    private int batchMaxOutputTokens;
+
+    @Value("${app.bulk.inline-resume-content:false}")
+    private boolean inlineResumeContent;
+
+    @Value("${app.reports.row-window:100}")
+    private int reportRowWindow;
+
+    @Value("${app.enrichment.max-concurrency:8}")
+    private int enrichmentConcurrency;
+
+    @Value("${app.local-scoring.fallback:false}")
+    private boolean localFallback;
+
+    // Mode 4 report column widths in characters, in header order
+    private static final int[] REPORT_COLUMN_WIDTHS = {25, 25, 40, 60, 60, 30, 10, 60, 40, 50};
+
+    // Reactor context flag of a Mode 4 request scored by the local engine; its report texts are not asked of the AI
+    private static final String LOCAL_ENGINE_CONTEXT_KEY = "ats.local-engine";
+
+    // Line that starts each candidate's / job's answer in a batched response
+    private static final Pattern BATCH_SECTION_PATTERN = Pattern.compile("(?mi)^[\\s#*]*=+\\s*(CANDIDATE|JOB)\\s+(\\d+)\\s*=+[\\s*]*$");
+
+    /**
+     * One resume/JD pair of a batched evaluation; id identifies the pair within its batch
+     */
+    private record BatchPair(int id, String resumeText, String jdText) {
+    }
+
+    /**
+     * AI-written texts of one Mode 4 report row
+     */
+    record ReportTexts(String jdSummary, String improvementSuggestions, String atsResult) {
+    }
+
     @Autowired
     private OpenAIUtils openAIUtils;
     
@@ -51,11 +117,40 @@ public class ATSService {
     
     @Autowired
     private ResumeMatchManager resumeMatchManager;
+    
+    @Autowired
+    private BulkMatrixExecutor bulkMatrixExecutor;
+    
+    @Autowired
+    private LexicalPrefilter lexicalPrefilter;
+    
+    @Autowired
+    private LocalScorer localScorer;
+    
+    @Autowired
+    private StructuredResponseParser structuredResponseParser;
+    
+    @Autowired
+    private DocumentTextCache documentTextCache;
+    
+    @Autowired
+    private ReportStorageService reportStorageService;
+    
+    @Autowired
+    private SummaryCache summaryCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     // Cache for storing API responses (in production, use Redis or database)
-    private final Map<String, Map<String, Object>> responseCache = new ConcurrentHashMap<>();
-    private final Map<String, Long> cacheTimestamps = new ConcurrentHashMap<>();
-    private static final long CACHE_DURATION = 24 * 60 * 60 * 1000; // 24 hours in milliseconds
+    @Autowired
+    private EvaluationCache evaluationCache;
+
+    // Identical evaluations that are already in flight are joined instead of calling OpenAI again
+    private final SingleFlight<Map<String, Object>> mode1Flights = new SingleFlight<>();
+    private final SingleFlight<Map<String, Object>> mode2Flights = new SingleFlight<>();
+    private final SingleFlight<String> reportTextFlights = new SingleFlight<>();
+    private final AtomicLong reportLaneSequence = new AtomicLong();
 
     public Map<String, Object> evaluateResumeMode1(MultipartFile resume) throws ATSServiceException {
         logger.info("Starting Mode 1 evaluation for resume: {}", resume.getOriginalFilename());
@@ -82,20 +177,20 @@ public class ATSService {
                 throw new ATSServiceException("OpenAI API key not configured. Please set your API key in api-key.txt or environment variable OPENAI_API_KEY");
             }
 
-            // Generate new result
+            // Generate new result (or join an identical evaluation that is already running)
             logger.debug("Processing new Mode 1 request for resume length: {}", resumeText.length());
-            String prompt = PromptUtils.buildMode1Prompt(resumeText);
-            String openAIResponse = openAIUtils.callOpenAI(currentApiKey, prompt);
-            Map<String, Object> result = parseMode1Response(openAIResponse);
-            
-            // Cache the result (only if enabled)
-            if (cacheEnabled) {
-                cacheResult(cacheKey, result);
-                logger.debug("Result cached for Mode 1");
-            }
+            Map<String, Object> sharedResult = mode1Flights.execute(cacheKey, () -> callMode1Async(currentApiKey, resumeText)
+                    .map(parsed -> {
+                        // Cache the result (only if enabled)
+                        if (cacheEnabled) {
+                            cacheResult(cacheKey, parsed);
+                            logger.debug("Result cached for Mode 1");
+                        }
+                        return parsed;
+                    })).block();
             
-            // Ensure all keys are present in the result for Mode 1
-            result = ensureMode1ResultStructure(result);
+            // Ensure all keys are present in the result for Mode 1 (on this caller's own copy)
+            Map<String, Object> result = ensureMode1ResultStructure(new HashMap<>(sharedResult));
             
             logger.info("Mode 1 evaluation completed successfully for resume: {}", resume.getOriginalFilename());
             return result;
@@ -103,6 +198,9 @@ public class ATSService {
         } catch (FileProcessingException e) {
             logger.error("File processing error in Mode 1 for resume: {}", resume.getOriginalFilename(), e);
             throw new ATSServiceException("Failed to process resume file", e);
+        } catch (AIServiceUnavailableException e) {
+            logger.warn("AI service unavailable, Mode 1 failed fast for resume: {}", resume.getOriginalFilename());
+            throw e;
         } catch (OpenAIException e) {
             logger.error("OpenAI API error in Mode 1 for resume: {}", resume.getOriginalFilename(), e);
             throw new ATSServiceException("Failed to analyze resume with AI", e);
@@ -141,33 +239,76 @@ public class ATSService {
     }
 
     public Map<String, Object> evaluateResumeWithJDText(MultipartFile resume, String jdText) throws ATSServiceException {
-        logger.info("Starting Mode 2 evaluation for resume: {} with JD length: {}", 
-            resume.getOriginalFilename(), jdText.length());
+        return evaluateResumeWithJDText(resume, jdText, ScoringEngine.AI);
+    }
+
+    public Map<String, Object> evaluateResumeWithJDText(MultipartFile resume, String jdText, ScoringEngine engine) throws ATSServiceException {
+        logger.info("Starting Mode 2 evaluation ({} engine) for resume: {} with JD length: {}", 
+            engine, resume.getOriginalFilename(), jdText.length());
         
+        String resumeText;
         try {
             // Extract text from resume
-            String resumeText = FileUtils.extractText(resume);
+            resumeText = FileUtils.extractText(resume);
             logger.debug("Resume text extracted successfully, length: {}", resumeText.length());
+        } catch (FileProcessingException e) {
+            logger.error("File processing error in Mode 2 for resume: {}", resume.getOriginalFilename(), e);
+            throw new ATSServiceException("Failed to process resume file", e);
+        }
+        
+        return evaluateResumeWithJDTextAsync(resumeText, jdText, resume.getOriginalFilename(), engine).block();
+    }
+
+    /**
+     * Mode 2 evaluation for a resume whose text has already been extracted,
+     * used by the bulk modes so each upload is parsed only once per request
+     */
+    public Map<String, Object> evaluateResumeWithJDText(String resumeText, String jdText, String resumeName) throws ATSServiceException {
+        return evaluateResumeWithJDTextAsync(resumeText, jdText, resumeName).block();
+    }
+
+    /**
+     * Non-blocking Mode 2 evaluation. No thread is held while the AI call is in flight; the response is
+     * parsed on the bulk pool. Failures are signalled as the same ATSServiceExceptions as the blocking variant.
+     */
+    public Mono<Map<String, Object>> evaluateResumeWithJDTextAsync(String resumeText, String jdText, String resumeName) {
+        return evaluateResumeWithJDTextAsync(resumeText, jdText, resumeName, ScoringEngine.AI);
+    }
+
+    /**
+     * Mode 2 evaluation by the given engine. With {@code app.local-scoring.fallback}, an AI evaluation that cannot
+     * be made (no API key, OpenAI errors or the circuit breaker open) is answered by the local scorer instead.
+     */
+    public Mono<Map<String, Object>> evaluateResumeWithJDTextAsync(String resumeText, String jdText, String resumeName,
+                                                                    ScoringEngine engine) {
+        return Mono.<Map<String, Object>>defer(() -> {
+            if (engine == ScoringEngine.LOCAL) {
+                return Mono.just(evaluateLocally(resumeText, jdText, null));
+            }
             
             // Validate and sanitize JD text
             String sanitizedJdText = ValidationUtils.sanitizeText(jdText);
             logger.debug("JD text sanitized, length: {}", sanitizedJdText.length());
             
-            String cacheKey = generateCacheKey("mode2", resumeText + "|||" + sanitizedJdText);
+            String cacheKey = generateCacheKey("mode2", resumeText, sanitizedJdText);
             
             // Check cache first (only if enabled)
             if (cacheEnabled) {
                 Map<String, Object> cachedResult = getCachedResult(cacheKey);
                 if (cachedResult != null) {
                     logger.info("Cache hit for Mode 2 - using cached result");
-                    return cachedResult;
+                    return Mono.just(cachedResult);
                 }
             }
 
             // Get API key dynamically
             String currentApiKey = getApiKey();
             if (currentApiKey == null || currentApiKey.equals("your-openai-api-key-here")) {
-                throw new ATSServiceException("OpenAI API key not configured. Please set your API key in api-key.txt or environment variable OPENAI_API_KEY");
+                if (localFallback) {
+                    logger.warn("OpenAI API key not configured, scoring resume {} locally", resumeName);
+                    return Mono.just(evaluateLocally(resumeText, jdText, "OpenAI API key not configured"));
+                }
+                return Mono.error(new ATSServiceException("OpenAI API key not configured. Please set your API key in api-key.txt or environment variable OPENAI_API_KEY"));
             }
 
             // Generate new result
@@ -175,94 +316,342 @@ public class ATSService {
                 resumeText.length(), sanitizedJdText.length());
             logger.debug("Job Description (first 200 chars): {}", 
                 sanitizedJdText.substring(0, Math.min(200, sanitizedJdText.length())));
-            String prompt = PromptUtils.buildMode2Prompt(resumeText, sanitizedJdText);
-            String openAIResponse = openAIUtils.callOpenAI(currentApiKey, prompt);
-            Map<String, Object> result = parseMode2Response(openAIResponse, resumeText);
-            
-            // Cache the result (only if enabled)
-            if (cacheEnabled) {
-                cacheResult(cacheKey, result);
-                logger.debug("Result cached for Mode 2");
+            // Join an identical evaluation that is already running instead of calling OpenAI again
+            return mode2Flights.execute(cacheKey, () -> callMode2Async(currentApiKey, resumeText, sanitizedJdText)
+                            .map(result -> {
+                                // Cache the result (only if enabled)
+                                if (cacheEnabled) {
+                                    cacheResult(cacheKey, result);
+                                    logger.debug("Result cached for Mode 2");
+                                }
+                                
+                                logger.info("Mode 2 evaluation completed successfully for resume: {}", resumeName);
+                                return result;
+                            }))
+                    // Every caller decorates its own copy of the shared result
+                    .<Map<String, Object>>map(HashMap::new)
+                    .onErrorResume(e -> localFallback && e instanceof OpenAIException, e -> {
+                        logger.warn("AI evaluation failed for resume {} ({}), scoring it locally", resumeName, e.getMessage());
+                        return Mono.fromCallable(() -> evaluateLocally(resumeText, jdText, e.getMessage()));
+                    });
+        }).onErrorMap(e -> {
+            if (e instanceof AIServiceUnavailableException) {
+                logger.warn("AI service unavailable, Mode 2 failed fast for resume: {}", resumeName);
+                return e;
+            }
+            if (e instanceof OpenAIException) {
+                logger.error("OpenAI API error in Mode 2 for resume: {}", resumeName, e);
+                return new ATSServiceException("Failed to analyze resume with AI", e);
+            }
+            logger.error("Unexpected error in Mode 2 for resume: {}", resumeName, e);
+            return new ATSServiceException("Unexpected error during resume analysis", e);
+        });
+    }
+    
+    /**
+     * Mode 1 AI call and parsing. In structured output mode the model answers in JSON, which is read directly;
+     * an unusable JSON answer, or the API rejecting the structured request, falls back to the text prompt and
+     * regex parsing.
+     */
+    private Mono<Map<String, Object>> callMode1Async(String currentApiKey, String resumeText) {
+        Mono<Map<String, Object>> textEvaluation = Mono.defer(() ->
+                openAIUtils.callOpenAIAsync(currentApiKey, PromptUtils.buildMode1Prompt(resumeText))
+                        .map(this::parseMode1Response));
+        if (!structuredOutput) {
+            return textEvaluation;
+        }
+        return openAIUtils.callOpenAIJsonAsync(currentApiKey, PromptUtils.buildMode1JsonPrompt(resumeText),
+                        "mode1_evaluation", PromptUtils.MODE1_RESPONSE_SCHEMA)
+                .flatMap(json -> Mono.justOrEmpty(structuredResponseParser.parse(json)))
+                .map(this::toMode1Result)
+                .onErrorResume(ATSService::isStructuredRequestRejected, e -> {
+                    logger.warn("Structured Mode 1 request rejected ({}), retrying with the text format", e.getMessage());
+                    structuredResponseParser.recordFallback();
+                    return textEvaluation;
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Structured Mode 1 answer unusable, retrying with the text format");
+                    structuredResponseParser.recordFallback();
+                    return textEvaluation;
+                }));
+    }
+    
+    /**
+     * Mode 2 AI call and parsing, parsed on the bulk pool. Structured output works as in {@link #callMode1Async}.
+     */
+    private Mono<Map<String, Object>> callMode2Async(String currentApiKey, String resumeText, String sanitizedJdText) {
+        Mono<Map<String, Object>> textEvaluation = Mono.defer(() ->
+                openAIUtils.callOpenAIAsync(currentApiKey, PromptUtils.buildMode2Prompt(resumeText, sanitizedJdText))
+                        .publishOn(bulkMatrixExecutor.getScheduler())
+                        .map(openAIResponse -> parseMode2Response(openAIResponse, resumeText)));
+        if (!structuredOutput) {
+            return textEvaluation;
+        }
+        return openAIUtils.callOpenAIJsonAsync(currentApiKey, PromptUtils.buildMode2JsonPrompt(resumeText, sanitizedJdText),
+                        "mode2_evaluation", PromptUtils.MODE2_RESPONSE_SCHEMA)
+                .publishOn(bulkMatrixExecutor.getScheduler())
+                .flatMap(json -> Mono.justOrEmpty(structuredResponseParser.parse(json)))
+                .map(evaluation -> toMode2Result(evaluation, resumeText))
+                .onErrorResume(ATSService::isStructuredRequestRejected, e -> {
+                    logger.warn("Structured Mode 2 request rejected ({}), retrying with the text format", e.getMessage());
+                    structuredResponseParser.recordFallback();
+                    return textEvaluation;
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Structured Mode 2 answer unusable, retrying with the text format");
+                    structuredResponseParser.recordFallback();
+                    return textEvaluation;
+                }));
+    }
+    
+    /**
+     * Whether OpenAI rejected the structured request itself, e.g. a model without json_schema support answering 400.
+     * The text prompt may still succeed then; an authentication failure would fail it just the same.
+     */
+    private static boolean isStructuredRequestRejected(Throwable e) {
+        return e instanceof OpenAIClientException clientError
+            && clientError.getStatusCode() != 401 && clientError.getStatusCode() != 403;
+    }
+    
+    /**
+     * Mode 1 result map of a structured answer, with the same defaults as {@link #parseMode1Response}
+     */
+    private Map<String, Object> toMode1Result(StructuredEvaluation evaluation) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("careerSummary", List.of(isBlankOrNA(evaluation.careerSummary()) ? "Career summary not provided" : evaluation.careerSummary()));
+        result.put("atsScore", List.of(evaluation.atsScore()));
+        result.put("strengths", itemsOrDefault(evaluation.strengths(), "No specific strengths identified"));
+        result.put("weaknesses", itemsOrDefault(evaluation.weaknesses(), "No specific weaknesses identified"));
+        result.put("suggestions", itemsOrDefault(evaluation.suggestions(), "Consider adding more details to your resume"));
+        result.put("workExperience", Map.of("matchedSkills", itemsOrDefault(evaluation.workExperience().matchedSkills(), "None")));
+        result.put("certificates", Map.of("matchedSkills", itemsOrDefault(evaluation.certificates().matchedSkills(), "None")));
+        result.put("projects", Map.of("matchedSkills", itemsOrDefault(evaluation.projects().matchedSkills(), "None")));
+        result.put("technicalSkills", Map.of("matchedSkills", itemsOrDefault(evaluation.technicalSkills().matchedSkills(), "None")));
+        return result;
+    }
+    
+    /**
+     * Mode 2 result map of a structured answer, with the same defaults as {@link #parseMode2Response}
+     */
+    private Map<String, Object> toMode2Result(StructuredEvaluation evaluation, String resumeContent) {
+        Map<String, Object> result = new HashMap<>();
+        String companyName = isBlankOrNA(evaluation.companyName()) ? "Unknown Company" : evaluation.companyName();
+        String roleName = isBlankOrNA(evaluation.roleName()) ? "Unknown Role" : evaluation.roleName();
+        result.put("careerSummary", List.of(evaluation.careerSummary() == null || evaluation.careerSummary().isEmpty() ? "N/A" : evaluation.careerSummary()));
+        result.put("atsScore", List.of(evaluation.atsScore()));
+        result.put("companyName", companyName);
+        result.put("roleName", roleName);
+        result.put("matchStatus", evaluation.matchStatus() != null ? evaluation.matchStatus() : "UNMATCHED");
+        result.put("newResumeName", generateNewResumeName(companyName, roleName, resumeContent));
+        result.put("strengths", itemsOrDefault(evaluation.strengths(), "N/A"));
+        result.put("weaknesses", itemsOrDefault(evaluation.weaknesses(), "N/A"));
+        result.put("suggestions", itemsOrDefault(evaluation.suggestions(), "Consider adding more details to your resume"));
+        result.put("workExperience", toSectionData(evaluation.workExperience()));
+        result.put("certificates", toSectionData(evaluation.certificates()));
+        result.put("projects", toSectionData(evaluation.projects()));
+        result.put("technicalSkills", toSectionData(evaluation.technicalSkills()));
+        return result;
+    }
+    
+    /**
+     * Mode 2 result of the local scorer, marked with {@code "engine": "local"}. Not cached, since scoring is cheaper
+     * than a cache lookup and an AI result for the pair may follow once OpenAI answers again.
+     * A fallbackReason is recorded, and counted in {@code ats.local-scoring.fallback}, when the AI was asked for but
+     * could not answer.
+     */
+    private Map<String, Object> evaluateLocally(String resumeText, String jdText, String fallbackReason) {
+        Map<String, Object> result = toMode2Result(localScorer.evaluate(resumeText, jdText), resumeText);
+        result.put("engine", "local");
+        if (fallbackReason != null) {
+            result.put("fallbackReason", fallbackReason);
+            meterRegistry.counter("ats.local-scoring.fallback").increment();
+        }
+        return result;
+    }
+    
+    private Map<String, Object> toSectionData(SkillSection section) {
+        Map<String, Object> sectionData = new HashMap<>();
+        sectionData.put("matchedSkills", itemsOrDefault(section.matchedSkills(), "None"));
+        sectionData.put("gaps", itemsOrDefault(section.gaps(), "None"));
+        return sectionData;
+    }
+    
+    private static List<String> itemsOrDefault(List<String> items, String defaultItem) {
+        List<String> result = new ArrayList<>();
+        for (String item : items) {
+            if (!item.equalsIgnoreCase("None") && !item.equalsIgnoreCase("N/A")) {
+                result.add(item);
+            }
+        }
+        if (result.isEmpty()) {
+            result.add(defaultItem);
+        }
+        return result;
+    }
+    
+    private static boolean isBlankOrNA(String text) {
+        return text == null || text.isEmpty() || text.equalsIgnoreCase("None") || text.equalsIgnoreCase("N/A");
+    }
+    
+    /**
+     * Mode 2 evaluation of several pairs in one AI call. Either all pairs share one JD ({@code sharedJd}) or all
+     * share one resume. Cached pairs are not sent, and every parsed pair is cached under its own Mode 2 key, so
+     * batched and single evaluations reuse each other's results. Pairs missing from the returned map (a lone miss,
+     * an answer section that could not be found, or a failed call) are left for the caller to evaluate on their own.
+     */
+    private Mono<Map<Integer, Map<String, Object>>> evaluateMode2BatchAsync(List<BatchPair> pairs, boolean sharedJd) {
+        return Mono.<Map<Integer, Map<String, Object>>>defer(() -> {
+            Map<Integer, Map<String, Object>> results = new HashMap<>();
+            List<BatchPair> misses = new ArrayList<>();
+            List<String> missKeys = new ArrayList<>();
+            for (BatchPair pair : pairs) {
+                String sanitizedJdText = ValidationUtils.sanitizeText(pair.jdText());
+                String cacheKey = generateCacheKey("mode2", pair.resumeText(), sanitizedJdText);
+                Map<String, Object> cachedResult = cacheEnabled ? getCachedResult(cacheKey) : null;
+                if (cachedResult != null) {
+                    results.put(pair.id(), cachedResult);
+                } else {
+                    misses.add(new BatchPair(pair.id(), pair.resumeText(), sanitizedJdText));
+                    missKeys.add(cacheKey);
+                }
+            }
+            if (misses.size() < 2) {
+                return Mono.just(results);
             }
             
-            logger.info("Mode 2 evaluation completed successfully for resume: {}", resume.getOriginalFilename());
-            return result;
-            
+            String currentApiKey = getApiKey();
+            if (currentApiKey == null || currentApiKey.equals("your-openai-api-key-here")) {
+                // Single evaluations report the missing key
+                return Mono.just(results);
+            }
+            
+            List<String> variableParts = new ArrayList<>(misses.size());
+            for (BatchPair pair : misses) {
+                variableParts.add(sharedJd ? pair.resumeText() : pair.jdText());
+            }
+            String prompt = sharedJd
+                ? PromptUtils.buildBatchedMode2Prompt(misses.get(0).jdText(), variableParts)
+                : PromptUtils.buildBatchedJDPrompt(misses.get(0).resumeText(), variableParts);
+            int maxTokens = Math.min(batchMaxOutputTokens, openAIUtils.getMaxTokens() * misses.size());
+            
+            logger.debug("Evaluating {} pairs in one batched call ({} cached)", misses.size(), results.size());
+            return openAIUtils.callOpenAIAsync(currentApiKey, prompt, maxTokens)
+                    .publishOn(bulkMatrixExecutor.getScheduler())
+                    .map(openAIResponse -> {
+                        List<String> sections = splitBatchedResponse(openAIResponse, misses.size());
+                        for (int i = 0; i < misses.size(); i++) {
+                            if (sections.get(i) == null) {
+                                continue;
+                            }
+                            BatchPair pair = misses.get(i);
+                            Map<String, Object> result = parseMode2Response(sections.get(i), pair.resumeText());
+                            if (cacheEnabled) {
+                                cacheResult(missKeys.get(i), result);
+                            }
+                            results.put(pair.id(), result);
+                        }
+                        logger.info("Batched evaluation answered {} of {} pairs", results.size(), pairs.size());
+                        return results;
+                    })
+                    .onErrorResume(e -> {
+                        // Every uncached pair of the batch falls back to its own evaluation
+                        logger.warn("Batched evaluation of {} pairs failed, evaluating them one by one: {}", misses.size(), e.getMessage());
+                        return Mono.just(results);
+                    });
+        });
+    }
+    
+    /**
+     * Split a batched answer into one section per pair (1-based markers), in pair order. Sections that are missing
+     * or empty are null.
+     */
+    static List<String> splitBatchedResponse(String response, int count) {
+        List<String> sections = new ArrayList<>(Collections.nCopies(count, (String) null));
+        Matcher matcher = BATCH_SECTION_PATTERN.matcher(response);
+        int currentIndex = -1;
+        int sectionStart = -1;
+        while (matcher.find()) {
+            storeBatchSection(sections, response, currentIndex, sectionStart, matcher.start());
+            currentIndex = Integer.parseInt(matcher.group(2)) - 1;
+            sectionStart = matcher.end();
+        }
+        storeBatchSection(sections, response, currentIndex, sectionStart, response.length());
+        return sections;
+    }
+    
+    private static void storeBatchSection(List<String> sections, String response, int index, int start, int end) {
+        if (index < 0 || index >= sections.size() || sections.get(index) != null) {
+            return;
+        }
+        String section = response.substring(start, end).trim();
+        if (!section.isEmpty()) {
+            // Sections are parsed on their own, where a trailing newline ends the last list
+            sections.set(index, section + "\n");
+        }
+    }
+    
+    /**
+     * Extracted text of a bulk upload, reported the same way as a Mode 2 extraction failure
+     */
+    private String getExtractedResumeText(ExtractedDocumentContext documents, int resumeIndex) throws ATSServiceException {
+        try {
+            return documents.getText(resumeIndex);
         } catch (FileProcessingException e) {
-            logger.error("File processing error in Mode 2 for resume: {}", resume.getOriginalFilename(), e);
+            logger.error("File processing error for resume: {}", documents.getFile(resumeIndex).getOriginalFilename(), e);
             throw new ATSServiceException("Failed to process resume file", e);
-        } catch (OpenAIException e) {
-            logger.error("OpenAI API error in Mode 2 for resume: {}", resume.getOriginalFilename(), e);
-            throw new ATSServiceException("Failed to analyze resume with AI", e);
-        } catch (Exception e) {
-            logger.error("Unexpected error in Mode 2 for resume: {}", resume.getOriginalFilename(), e);
-            throw new ATSServiceException("Unexpected error during resume analysis", e);
         }
     }
 
     public Map<String, Object> bulkResumeAnalysis(MultipartFile[] resumes, String jdText) {
-        List<Map<String, Object>> resumeResults = new ArrayList<>();
-        Map<String, Object> summary = new HashMap<>();
-        
-        System.out.println("DEBUG - Starting bulk analysis for " + resumes.length + " resumes");
-        
-        // Process each resume
-        for (int i = 0; i < resumes.length; i++) {
-            MultipartFile resume = resumes[i];
-            try {
-                System.out.println("DEBUG - Processing resume " + (i + 1) + "/" + resumes.length + ": " + resume.getOriginalFilename());
-                
-                // Use existing Mode 2 logic for each resume
-                Map<String, Object> result = evaluateResumeWithJDText(resume, jdText);
-                
-                // Add resume metadata
-                result.put("resumeName", resume.getOriginalFilename());
-                result.put("resumeIndex", i);
-                result.put("fileSize", resume.getSize());
-                
-                // Store original resume content for download
-                try {
-                    String resumeContent = FileUtils.extractText(resume);
-                    result.put("originalResumeContent", resumeContent);
-                    result.put("originalResumeName", resume.getOriginalFilename());
-                    System.out.println("DEBUG - Stored resume content for: " + resume.getOriginalFilename() + ", Length: " + resumeContent.length());
-                } catch (Exception e) {
-                    System.out.println("DEBUG - Error storing resume content: " + e.getMessage());
-                    e.printStackTrace();
-                }
-                
-                resumeResults.add(result);
-                
-            } catch (Exception e) {
-                System.out.println("DEBUG - Error processing resume " + (i + 1) + ": " + e.getMessage());
-                // Add error result for this resume
-                Map<String, Object> errorResult = new HashMap<>();
-                errorResult.put("resumeName", resume.getOriginalFilename());
-                errorResult.put("resumeIndex", i);
-                errorResult.put("error", "Failed to process: " + e.getMessage());
-                errorResult.put("atsScore", List.of(0.0));
-                resumeResults.add(errorResult);
-            }
-        }
+        return bulkResumeAnalysis(resumes, jdText, BulkProgressListener.NONE);
+    }
+
+    /**
+     * Mode 3 analysis reporting each scored resume to the listener as soon as it completes
+     */
+    public Map<String, Object> bulkResumeAnalysis(MultipartFile[] resumes, String jdText, BulkProgressListener progressListener) {
+        return bulkResumeAnalysis(resumes, jdText, progressListener, ScoringEngine.AI);
+    }
+
+    /**
+     * Mode 3 analysis scored by the given engine
+     */
+    public Map<String, Object> bulkResumeAnalysis(MultipartFile[] resumes, String jdText, BulkProgressListener progressListener,
+                                                  ScoringEngine engine) {
+        System.out.println("DEBUG - Starting bulk analysis for " + resumes.length + " resumes (" + engine + " engine)");
+        
+        // Parse each uploaded resume at most once for the whole request
+        ExtractedDocumentContext documents = new ExtractedDocumentContext(resumes);
+        
+        // Several resumes share one AI call when batching is enabled
+        List<Mono<Map<Integer, Map<String, Object>>>> batches = engine == ScoringEngine.AI && isBatching()
+            ? buildMode3Batches(documents, jdText) : null;
+        
+        // Evaluate all resumes concurrently against the single JD (an N x 1 matrix); results keep upload order
+        progressListener.onStart(resumes.length);
+        List<List<Map<String, Object>>> resultMatrix = bulkMatrixExecutor.executeAsync(
+            resumes.length,
+            1,
+            (resumeIndex, jdIndex) -> batches != null
+                ? evaluateBatchedResumeAsync(batches.get(resumeIndex / batchSize), documents, resumeIndex, jdText)
+                : evaluateBulkResumeAsync(documents, resumeIndex, jdText, engine),
+            (resumeIndex, jdIndex, e) -> buildResumeErrorResult(resumes[resumeIndex], resumeIndex, e),
+            progressListener::onPairCompleted
+        );
         
         // Sort all resumes by ATS score (highest first) - no threshold
-        List<Map<String, Object>> allValidResumes = new ArrayList<>();
-        for (Map<String, Object> result : resumeResults) {
-            if (!result.containsKey("error")) {
+        List<EvaluationResult> allValidResumes = new ArrayList<>();
+        for (List<Map<String, Object>> row : resultMatrix) {
+            EvaluationResult result = EvaluationResult.fromMap(row.get(0));
+            if (!result.hasError()) {
                 allValidResumes.add(result);
             }
         }
-        
-        // Sort by ATS score (highest first)
-        allValidResumes.sort((a, b) -> {
-            Double scoreA = ((List<Double>) a.get("atsScore")).get(0);
-            Double scoreB = ((List<Double>) b.get("atsScore")).get(0);
-            return scoreB.compareTo(scoreA); // Descending order
-        });
+        allValidResumes.sort((a, b) -> Double.compare(b.score(), a.score()));
         
         // The first resume (highest score) is the matched one
-        List<Map<String, Object>> matchedResumes = new ArrayList<>();
-        List<Map<String, Object>> unmatchedResumes = new ArrayList<>();
+        List<EvaluationResult> matchedResumes = new ArrayList<>();
+        List<EvaluationResult> unmatchedResumes = new ArrayList<>();
         
         if (!allValidResumes.isEmpty()) {
             // First resume (highest score) is matched
@@ -274,18 +663,14 @@ public class ATSService {
         }
         
         // Generate new resume names for matched resumes
-        for (Map<String, Object> matchedResume : matchedResumes) {
+        for (int i = 0; i < matchedResumes.size(); i++) {
+            EvaluationResult matchedResume = matchedResumes.get(i);
             try {
-                String resumeContent = (String) matchedResume.get("originalResumeContent");
-                if (resumeContent != null) {
-                    // Extract company and role from the AI analysis
-                    String companyName = (String) matchedResume.get("companyName");
-                    String roleName = (String) matchedResume.get("roleName");
-                    
-                    if (companyName != null && roleName != null) {
-                        String newResumeName = generateNewResumeName(companyName, roleName, resumeContent);
-                        matchedResume.put("newResumeName", newResumeName);
-                    }
+                String resumeContent = matchedResume.originalResumeContent();
+                // Extract company and role from the AI analysis
+                if (resumeContent != null && matchedResume.companyName() != null && matchedResume.roleName() != null) {
+                    String newResumeName = generateNewResumeName(matchedResume.companyName(), matchedResume.roleName(), resumeContent);
+                    matchedResumes.set(i, matchedResume.withNewResumeName(newResumeName));
                 }
             } catch (Exception e) {
                 System.out.println("DEBUG - Error generating resume name: " + e.getMessage());
@@ -298,8 +683,8 @@ public class ATSService {
         double lowestScore = 10;
         int matchedCount = matchedResumes.size();
         
-        for (Map<String, Object> result : matchedResumes) {
-            Double score = ((List<Double>) result.get("atsScore")).get(0);
+        for (EvaluationResult result : matchedResumes) {
+            double score = result.score();
             totalScore += score;
             highestScore = Math.max(highestScore, score);
             lowestScore = Math.min(lowestScore, score);
@@ -307,14 +692,14 @@ public class ATSService {
         
         double averageScore = matchedCount > 0 ? totalScore / matchedCount : 0;
         
-        // Build summary
-        summary.put("totalResumes", resumes.length);
-        summary.put("matchedResumes", matchedCount);
-        summary.put("unmatchedResumes", unmatchedResumes.size());
-        summary.put("averageScore", Math.round(averageScore * 100.0) / 100.0);
-        summary.put("highestScore", Math.round(highestScore * 100.0) / 100.0);
-        summary.put("lowestScore", Math.round(lowestScore * 100.0) / 100.0);
-        summary.put("bestMatch", matchedCount > 0 ? matchedResumes.get(0) : null);
+        BulkResumeSummary summary = new BulkResumeSummary(
+            resumes.length,
+            matchedCount,
+            unmatchedResumes.size(),
+            Math.round(averageScore * 100.0) / 100.0,
+            Math.round(highestScore * 100.0) / 100.0,
+            Math.round(lowestScore * 100.0) / 100.0,
+            matchedCount > 0 ? matchedResumes.get(0) : null);
         
         // Build final result
         Map<String, Object> finalResult = new HashMap<>();
@@ -322,11 +707,11 @@ public class ATSService {
         finalResult.put("matchedResults", matchedResumes);
         finalResult.put("unmatchedResults", unmatchedResumes);
         finalResult.put("jobDescription", jdText);
+        finalResult.put("engine", engine.name().toLowerCase());
         
         if (matchedCount > 0) {
             System.out.println("DEBUG - Bulk analysis completed. Best match: " + 
-                ((Map<String, Object>) matchedResumes.get(0)).get("resumeName") + 
-                " with score: " + ((List<Double>) matchedResumes.get(0).get("atsScore")).get(0));
+                matchedResumes.get(0).resumeName() + " with score: " + matchedResumes.get(0).score());
         } else {
             System.out.println("DEBUG - Bulk analysis completed. No matched resumes found.");
         }
@@ -335,200 +720,178 @@ public class ATSService {
     }
 
     public Map<String, Object> bulkJDResumeAnalysis(MultipartFile[] resumes, MultipartFile jdFile) {
-        List<Map<String, Object>> allResults = new ArrayList<>();
-        
-        System.out.println("DEBUG - Starting bulk JD analysis for " + resumes.length + " resumes");
+        return bulkJDResumeAnalysis(resumes, jdFile, BulkProgressListener.NONE);
+    }
+
+    /**
+     * Mode 4 analysis reporting each scored resume/JD pair to the listener as soon as it completes
+     */
+    public Map<String, Object> bulkJDResumeAnalysis(MultipartFile[] resumes, MultipartFile jdFile, BulkProgressListener progressListener) {
+        return bulkJDResumeAnalysis(resumes, jdFile, progressListener, ScoringEngine.AI);
+    }
+
+    /**
+     * Mode 4 analysis scored by the given engine. The local engine scores every pair itself, so nothing is
+     * prefiltered or batched, and the report texts use their non-AI fallbacks.
+     */
+    public Map<String, Object> bulkJDResumeAnalysis(MultipartFile[] resumes, MultipartFile jdFile, BulkProgressListener progressListener,
+                                                    ScoringEngine engine) {
+        System.out.println("DEBUG - Starting bulk JD analysis for " + resumes.length + " resumes (" + engine + " engine)");
         
+        CompletableFuture<List<String>> jdSummaries = null;
         try {
             // Parse Excel file to extract job descriptions with company/role info
-            List<Map<String, String>> jobDescriptions = parseExcelJobDescriptions(jdFile);
+            List<JobDescriptionInfo> jobDescriptions = parseExcelJobDescriptions(jdFile);
             System.out.println("DEBUG - Extracted " + jobDescriptions.size() + " job descriptions from Excel");
             
             if (jobDescriptions.isEmpty()) {
                 throw new RuntimeException("No job descriptions found in the Excel file");
             }
             
-            // Process each resume against each job description
+            // Parse each uploaded resume at most once for the whole request
+            ExtractedDocumentContext documents = new ExtractedDocumentContext(resumes);
+            
+            boolean aiEngine = engine == ScoringEngine.AI;
+            
+            // Rank resumes per JD locally so only plausible pairs are sent to the AI
+            LexicalPrefilter.Plan prefilterPlan = aiEngine
+                ? buildPrefilterPlan(documents, jobDescriptions)
+                : LexicalPrefilter.Plan.none(resumes.length, jobDescriptions.size());
+            
+            // Several JDs of one resume share one AI call when batching is enabled
+            List<List<Mono<Map<Integer, Map<String, Object>>>>> batches = aiEngine && isBatching()
+                ? buildMode4Batches(documents, jobDescriptions, prefilterPlan) : null;
+            
+            Context reportTextContext = reportTextContext(engine);
+            
+            // JD summaries depend on the JD text only, so they are generated while the matrix is being scored
+            jdSummaries = generateJobDescriptionSummariesAsync(jobDescriptions)
+                .contextWrite(reportTextContext)
+                .toFuture();
+            
+            // Evaluate every resume against every job description concurrently; results come back
+            // ordered by (resumeIndex, jdIndex) and failed pairs are recorded as error results
+            progressListener.onStart(resumes.length * jobDescriptions.size());
+            List<List<Map<String, Object>>> resultMatrix = bulkMatrixExecutor.executeAsync(
+                resumes.length,
+                jobDescriptions.size(),
+                (resumeIndex, jdIndex) -> {
+                    if (prefilterPlan.isPruned(resumeIndex, jdIndex)) {
+                        return Mono.fromCallable(() -> buildPrunedPairResult(documents, resumeIndex, jobDescriptions.get(jdIndex), jdIndex, prefilterPlan));
+                    }
+                    if (batches != null) {
+                        return evaluateBatchedResumeJDPairAsync(batches.get(resumeIndex).get(jdIndex), documents, resumeIndex, jobDescriptions.get(jdIndex), jdIndex);
+                    }
+                    return evaluateResumeJDPairAsync(documents, resumeIndex, jobDescriptions.get(jdIndex), jdIndex, engine);
+                },
+                (resumeIndex, jdIndex, e) -> buildPairErrorResult(resumes[resumeIndex], resumeIndex, jobDescriptions.get(jdIndex).description(), jdIndex, e),
+                progressListener::onPairCompleted
+            );
+            
+            List<ResumeJDResult> allResults = new ArrayList<>(resumes.length);
             for (int resumeIndex = 0; resumeIndex < resumes.length; resumeIndex++) {
                 MultipartFile resume = resumes[resumeIndex];
-                System.out.println("DEBUG - Processing resume " + (resumeIndex + 1) + "/" + resumes.length + ": " + resume.getOriginalFilename());
-                
-                List<Map<String, Object>> resumeResults = new ArrayList<>();
-                
-                for (int jdIndex = 0; jdIndex < jobDescriptions.size(); jdIndex++) {
-                    Map<String, String> jobInfo = jobDescriptions.get(jdIndex);
-                    String jdText = jobInfo.get("description");
-                    String companyName = jobInfo.get("companyName");
-                    String roleName = jobInfo.get("roleName");
-                    
-                    try {
-                        // Use existing Mode 2 logic for each resume-JD combination
-                        Map<String, Object> result = evaluateResumeWithJDText(resume, jdText);
-                        
-                        // Override AI-extracted company/role with Excel data (more reliable)
-                        result.put("companyName", companyName);
-                        result.put("roleName", roleName);
-                        
-                        // Add metadata
-                        result.put("resumeName", resume.getOriginalFilename());
-                        result.put("resumeIndex", resumeIndex);
-                        result.put("jdIndex", jdIndex);
-                        result.put("jdText", jdText.substring(0, Math.min(100, jdText.length())) + "...");
-                        result.put("fileSize", resume.getSize());
-                        
-                        // Store the resume match in ResumeMatchManager
-                        try {
-                            System.out.println("DEBUG - Storing resume file for: " + resume.getOriginalFilename());
-                            System.out.println("DEBUG - File size: " + resume.getSize() + " bytes");
-                            System.out.println("DEBUG - Content type: " + resume.getContentType());
-                            
-                            // Store the resume match using the new file storage system
-                            resumeMatchManager.storeResumeMatch(
-                                jdIndex,
-                                jdText,
-                                resume.getOriginalFilename(),
-                                resume.getOriginalFilename(),
-                                ((List<Double>) result.get("atsScore")).get(0).doubleValue(),
-                                resume
-                            );
-                            
-                            System.out.println("DEBUG - Stored resume match for resume: " + resume.getOriginalFilename() + 
-                                              " with JD: " + jdIndex);
-                        } catch (Exception e) {
-                            System.out.println("DEBUG - Error storing resume match: " + e.getMessage());
-                            e.printStackTrace();
-                            // Continue processing even if storage fails
-                        }
-                        
-                        resumeResults.add(result);
-                        
-                    } catch (Exception e) {
-                        System.out.println("DEBUG - Error processing resume " + (resumeIndex + 1) + " with JD " + (jdIndex + 1) + ": " + e.getMessage());
-                        // Add error result for this combination
-                        Map<String, Object> errorResult = new HashMap<>();
-                        errorResult.put("resumeName", resume.getOriginalFilename());
-                        errorResult.put("resumeIndex", resumeIndex);
-                        errorResult.put("jdIndex", jdIndex);
-                        errorResult.put("jdText", jdText.substring(0, Math.min(100, jdText.length())) + "...");
-                        errorResult.put("error", "Failed to process: " + e.getMessage());
-                        errorResult.put("atsScore", List.of(0.0));
-                        resumeResults.add(errorResult);
-                    }
+                List<EvaluationResult> resumeResults = new ArrayList<>(jobDescriptions.size());
+                for (Map<String, Object> pairResult : resultMatrix.get(resumeIndex)) {
+                    resumeResults.add(EvaluationResult.fromMap(pairResult));
                 }
                 
                 // Find best match for this resume
-                Map<String, Object> bestMatch = findBestMatch(resumeResults);
+                EvaluationResult bestMatch = findBestMatch(resumeResults);
                 
-                // Store original resume content for download
-                if (bestMatch != null && !bestMatch.containsKey("error")) {
+                // Extracted text of this resume, shared by every entry below (null if extraction failed)
+                String resumeContent = null;
+                if (!bestMatch.hasError()) {
                     try {
-                        String resumeContent = FileUtils.extractText(resumes[resumeIndex]);
-                        bestMatch.put("originalResumeContent", resumeContent);
-                        bestMatch.put("originalResumeName", resume.getOriginalFilename());
+                        resumeContent = documents.getText(resumeIndex);
                     } catch (Exception e) {
                         System.out.println("DEBUG - Error storing resume content: " + e.getMessage());
                     }
                 }
                 
+                // Keep the text fetchable by document id; it is only embedded when inline content is configured
+                String documentId = resumeContent != null ? documentTextCache.put(resumeContent) : null;
+                String inlineContent = inlineResumeContent ? resumeContent : null;
+                if (resumeContent != null) {
+                    bestMatch = bestMatch.withResumeContent(inlineContent, documentId, resume.getOriginalFilename());
+                }
+                
                 // Generate new resume name ONLY for the best match
-                if (bestMatch != null && !bestMatch.containsKey("error")) {
+                if (!bestMatch.hasError()) {
+                    // Also set the resume name if not already set
+                    if (bestMatch.resumeName() == null) {
+                        bestMatch = bestMatch.withResumeName(resume.getOriginalFilename());
+                    }
                     try {
-                        // Extract resume content for username extraction
-                        String resumeContent = FileUtils.extractText(resumes[resumeIndex]);
-                        
-                        // Get company and role from the best match result (which has the Excel data)
-                        String companyName = (String) bestMatch.get("companyName");
-                        String roleName = (String) bestMatch.get("roleName");
-                        
-                        // Generate new resume name using Excel company/role data and resume content
-                        String newResumeName = generateNewResumeName(companyName, roleName, resumeContent);
-                        bestMatch.put("newResumeName", newResumeName);
-                        
-                        // Also set the resume name if not already set
-                        if (bestMatch.get("resumeName") == null) {
-                            bestMatch.put("resumeName", resumes[resumeIndex].getOriginalFilename());
+                        if (resumeContent == null) {
+                            throw new FileProcessingException("Resume text could not be extracted");
                         }
                         
+                        // Generate new resume name using Excel company/role data (on the best match) and resume content
+                        String newResumeName = generateNewResumeName(bestMatch.companyName(), bestMatch.roleName(), resumeContent);
+                        bestMatch = bestMatch.withNewResumeName(newResumeName);
+                        
                         // Debug logging
-                        System.out.println("DEBUG - Resume: " + resumes[resumeIndex].getOriginalFilename());
-                        System.out.println("DEBUG - Company from Excel: " + companyName);
-                        System.out.println("DEBUG - Role from Excel: " + roleName);
+                        System.out.println("DEBUG - Resume: " + resume.getOriginalFilename());
+                        System.out.println("DEBUG - Company from Excel: " + bestMatch.companyName());
+                        System.out.println("DEBUG - Role from Excel: " + bestMatch.roleName());
                         System.out.println("DEBUG - Username extracted: " + extractUsernameFromResume(resumeContent));
                         System.out.println("DEBUG - Generated name: " + newResumeName);
                     } catch (Exception e) {
                         System.out.println("DEBUG - Error generating resume name for best match: " + e.getMessage());
-                        bestMatch.put("newResumeName", "Error_Generating_Name");
-                        // Ensure resume name is set even if generation fails
-                        if (bestMatch.get("resumeName") == null) {
-                            bestMatch.put("resumeName", resumes[resumeIndex].getOriginalFilename());
-                        }
+                        bestMatch = bestMatch.withNewResumeName("Error_Generating_Name");
                     }
                 }
                 
+                // Every match refers to the same resume text
+                List<EvaluationResult> allMatches = new ArrayList<>(resumeResults.size());
+                for (EvaluationResult match : resumeResults) {
+                    allMatches.add(resumeContent != null ? match.withResumeContent(inlineContent, documentId, resume.getOriginalFilename()) : match);
+                }
+                
                 // Sort all results by ATS score (highest first) - no threshold
-                List<Map<String, Object>> allValidMatches = new ArrayList<>();
-                for (Map<String, Object> match : resumeResults) {
-                    if (!match.containsKey("error")) {
+                List<EvaluationResult> allValidMatches = new ArrayList<>();
+                for (EvaluationResult match : allMatches) {
+                    if (!match.hasError()) {
                         allValidMatches.add(match);
                     }
                 }
-                
-                // Sort by ATS score (highest first)
-                allValidMatches.sort((a, b) -> {
-                    Double scoreA = ((List<Double>) a.get("atsScore")).get(0);
-                    Double scoreB = ((List<Double>) b.get("atsScore")).get(0);
-                    return scoreB.compareTo(scoreA); // Descending order
-                });
+                allValidMatches.sort((a, b) -> Double.compare(b.score(), a.score()));
                 
                 // The first match (highest score) is matched, rest are unmatched
-                List<Map<String, Object>> matchedResults = new ArrayList<>();
-                List<Map<String, Object>> unmatchedResults = new ArrayList<>();
-                
-                if (!allValidMatches.isEmpty()) {
-                    // First match (highest score) is matched
-                    matchedResults.add(allValidMatches.get(0));
-                    // Rest are unmatched
-                    for (int i = 1; i < allValidMatches.size(); i++) {
-                        unmatchedResults.add(allValidMatches.get(i));
-                    }
-                }
-                
-                // Create a clean copy of allMatches without circular references
-                List<Map<String, Object>> cleanMatches = new ArrayList<>();
-                for (Map<String, Object> match : resumeResults) {
-                    Map<String, Object> cleanMatch = new HashMap<>(match);
-                    // Remove any potential circular references
-                    cleanMatch.remove("allMatches");
-                    
-                    // Also store the resume content in each match for download purposes
-                    if (bestMatch != null && !bestMatch.containsKey("error")) {
-                        try {
-                            String resumeContent = FileUtils.extractText(resumes[resumeIndex]);
-                            cleanMatch.put("originalResumeContent", resumeContent);
-                            cleanMatch.put("originalResumeName", resume.getOriginalFilename());
-                            System.out.println("DEBUG - Stored resume content in match for: " + cleanMatch.get("resumeName") + ", Content length: " + resumeContent.length());
-                        } catch (Exception e) {
-                            System.out.println("DEBUG - Error storing resume content in match: " + e.getMessage());
-                        }
-                    }
-                    
-                    cleanMatches.add(cleanMatch);
-                }
-                bestMatch.put("allMatches", cleanMatches);
-                bestMatch.put("matchedResults", matchedResults);
-                bestMatch.put("unmatchedResults", unmatchedResults);
+                List<EvaluationResult> matchedResults = allValidMatches.isEmpty() ? List.of() : List.of(allValidMatches.get(0));
+                List<EvaluationResult> unmatchedResults = allValidMatches.isEmpty() ? List.of() : allValidMatches.subList(1, allValidMatches.size());
                 
-                allResults.add(bestMatch);
+                allResults.add(new ResumeJDResult(bestMatch, allMatches, matchedResults, unmatchedResults));
             }
             
             // Calculate overall summary statistics
-            Map<String, Object> summary = calculateOverallSummary(allResults, jobDescriptions.size());
+            BulkJDSummary summary = calculateOverallSummary(allResults, jobDescriptions.size());
             
-            // Generate Excel with results
-            byte[] excelData = generateExcelWithResults(jobDescriptions, allResults, resumes);
+            // Best resume of every JD, found in one pass over the matrix
+            EvaluationResult[] bestResumes = findBestResumesByJD(allResults, jobDescriptions.size());
             
-            // Convert byte array to base64 string for JSON transmission
-            String excelDataBase64 = java.util.Base64.getEncoder().encodeToString(excelData);
+            // Suggestions and ATS explanations need each JD's best resume; they are generated concurrently across JDs
+            List<String> summaries = jdSummaries.get();
+            List<ReportTexts> reportTexts = Flux.range(0, jobDescriptions.size())
+                .flatMapSequential(jdIndex -> Mono.zip(
+                        generateImprovementSuggestionsAsync(jobDescriptions.get(jdIndex).description(), bestResumes[jdIndex]),
+                        generateATSResultSummaryAsync(bestResumes[jdIndex]))
+                    .map(texts -> new ReportTexts(summaries.get(jdIndex), texts.getT1(), texts.getT2())), enrichmentConcurrency)
+                .collectList()
+                .contextWrite(reportTextContext)
+                .block();
+            
+            // Write the Excel report to disk; clients download it from /api/reports/{reportId}
+            String reportId = reportStorageService.store(out -> writeExcelWithResults(jobDescriptions, allResults, bestResumes, reportTexts, out));
+            
+            // Add matched and unmatched counts
+            int totalMatched = 0;
+            int totalUnmatched = 0;
+            for (ResumeJDResult result : allResults) {
+                totalMatched += result.matchedResults().size();
+                totalUnmatched += result.unmatchedResults().size();
+            }
             
             // Build final result
             Map<String, Object> finalResult = new HashMap<>();
@@ -536,440 +899,368 @@ public class ATSService {
             finalResult.put("resumeResults", allResults);
             finalResult.put("totalJobDescriptions", jobDescriptions.size());
             finalResult.put("totalResumes", resumes.length);
-            finalResult.put("excelData", excelDataBase64);
+            finalResult.put("reportId", reportId);
+            finalResult.put("excelDownloadUrl", "/api/reports/" + reportId);
             finalResult.put("excelFileName", "JD_Analysis_Results.xlsx");
-            
-            // Add matched and unmatched counts
-            int totalMatched = 0;
-            int totalUnmatched = 0;
-            for (Map<String, Object> result : allResults) {
-                if (result.containsKey("matchedResults")) {
-                    totalMatched += ((List<Map<String, Object>>) result.get("matchedResults")).size();
-                }
-                if (result.containsKey("unmatchedResults")) {
-                    totalUnmatched += ((List<Map<String, Object>>) result.get("unmatchedResults")).size();
-                }
-            }
+            finalResult.put("prunedPairs", prefilterPlan.getPrunedCount());
+            finalResult.put("evaluatedPairs", resumes.length * jobDescriptions.size() - prefilterPlan.getPrunedCount());
+            finalResult.put("engine", engine.name().toLowerCase());
             finalResult.put("totalMatched", totalMatched);
             finalResult.put("totalUnmatched", totalUnmatched);
             
-            System.out.println("DEBUG - Bulk JD analysis completed successfully");
-            
-            // Debug: Check what's being sent to frontend
-            System.out.println("DEBUG - Final result structure:");
-            System.out.println("  - resumeResults size: " + allResults.size());
-            for (int i = 0; i < allResults.size(); i++) {
-                Map<String, Object> result = allResults.get(i);
-                System.out.println("  - Resume " + i + ": " + result.get("resumeName") + 
-                    ", hasContent: " + result.containsKey("originalResumeContent") +
-                    ", contentLength: " + (result.get("originalResumeContent") != null ? ((String) result.get("originalResumeContent")).length() : "NULL"));
-                
-                if (result.containsKey("allMatches")) {
-                    List<Map<String, Object>> allMatches = (List<Map<String, Object>>) result.get("allMatches");
-                    System.out.println("    - allMatches size: " + allMatches.size());
-                    for (int j = 0; j < allMatches.size(); j++) {
-                        Map<String, Object> match = allMatches.get(j);
-                        System.out.println("    - Match " + j + ": " + match.get("resumeName") + 
-                            ", hasContent: " + match.containsKey("originalResumeContent") +
-                            ", contentLength: " + (match.get("originalResumeContent") != null ? ((String) match.get("originalResumeContent")).length() : "NULL"));
-                    }
-                }
-            }
-            
-            // Validate and clean the response data
-            finalResult = validateAndCleanResponse(finalResult);
+            System.out.println("DEBUG - Bulk JD analysis completed successfully, resumeResults size: " + allResults.size());
             
             return finalResult;
             
         } catch (Exception e) {
+            if (jdSummaries != null) {
+                // Stops the summary calls that are still running
+                jdSummaries.cancel(true);
+            }
             System.out.println("DEBUG - Bulk JD analysis failed: " + e.getMessage());
             throw new RuntimeException("Bulk JD analysis failed: " + e.getMessage(), e);
         }
     }
 
-private Map<String, Object> validateAndCleanResponse(Map<String, Object> response) {
-    try {
-        // Create a clean copy without circular references
-        Map<String, Object> cleanedResponse = new HashMap<>();
-        
-        // Copy summary
-        if (response.containsKey("summary")) {
-            Map<String, Object> summary = new HashMap<>((Map<String, Object>) response.get("summary"));
-            // Remove bestOverallMatch to avoid circular reference
-            summary.remove("bestOverallMatch");
-            cleanedResponse.put("summary", summary);
-        }
-        
-        // Copy other fields
-        cleanedResponse.put("totalJobDescriptions", response.get("totalJobDescriptions"));
-        cleanedResponse.put("totalResumes", response.get("totalResumes"));
-        cleanedResponse.put("excelData", response.get("excelData"));
-        cleanedResponse.put("excelFileName", response.get("excelFileName"));
-        
-        // Copy resume results with clean allMatches
-        if (response.containsKey("resumeResults")) {
-            List<Map<String, Object>> cleanResumeResults = new ArrayList<>();
-            List<Map<String, Object>> resumeResults = (List<Map<String, Object>>) response.get("resumeResults");
-            
-            for (Map<String, Object> resumeResult : resumeResults) {
-                Map<String, Object> cleanResumeResult = new HashMap<>(resumeResult);
-                
-                // Clean allMatches to avoid circular references
-                if (cleanResumeResult.containsKey("allMatches")) {
-                    List<Map<String, Object>> allMatches = (List<Map<String, Object>>) cleanResumeResult.get("allMatches");
-                    List<Map<String, Object>> cleanAllMatches = new ArrayList<>();
-                    
-                    for (Map<String, Object> match : allMatches) {
-                        Map<String, Object> cleanMatch = new HashMap<>(match);
-                        cleanMatch.remove("allMatches"); // Remove circular reference
-                        cleanAllMatches.add(cleanMatch);
-                    }
-                    
-                    cleanResumeResult.put("allMatches", cleanAllMatches);
-                }
-                
-                cleanResumeResults.add(cleanResumeResult);
-            }
-            
-            cleanedResponse.put("resumeResults", cleanResumeResults);
+    /**
+     * Evaluate one resume of a Mode 3 request. Parsing runs on the bulk pool, never on the HTTP client's event loop.
+     */
+    private Mono<Map<String, Object>> evaluateBulkResumeAsync(ExtractedDocumentContext documents, int resumeIndex, String jdText,
+                                                              ScoringEngine engine) {
+        MultipartFile resume = documents.getFile(resumeIndex);
+        
+        return Mono.fromCallable(() -> {
+                    System.out.println("DEBUG - Processing resume " + (resumeIndex + 1) + "/" + documents.size() + ": " + resume.getOriginalFilename());
+                    return getExtractedResumeText(documents, resumeIndex);
+                })
+                .subscribeOn(bulkMatrixExecutor.getScheduler())
+                .flatMap(resumeContent -> evaluateResumeWithJDTextAsync(resumeContent, jdText, resume.getOriginalFilename(), engine)
+                        .map(result -> addBulkResumeMetadata(result, resume, resumeIndex, resumeContent)));
+    }
+    
+    private Map<String, Object> addBulkResumeMetadata(Map<String, Object> result, MultipartFile resume, int resumeIndex, String resumeContent) {
+        // Add resume metadata
+        result.put("resumeName", resume.getOriginalFilename());
+        result.put("resumeIndex", resumeIndex);
+        result.put("fileSize", resume.getSize());
+        
+        // Store original resume content for download
+        result.put("originalResumeContent", resumeContent);
+        result.put("originalResumeName", resume.getOriginalFilename());
+        System.out.println("DEBUG - Stored resume content for: " + resume.getOriginalFilename() + ", Length: " + resumeContent.length());
+        return result;
+    }
+    
+    private boolean isBatching() {
+        return batchEnabled && batchSize > 1;
+    }
+    
+    /**
+     * One shared batched call per group of {@code app.batch.size} resumes of a Mode 3 request, keyed by resume index.
+     * Each call runs once however many pairs subscribe to it.
+     */
+    private List<Mono<Map<Integer, Map<String, Object>>>> buildMode3Batches(ExtractedDocumentContext documents, String jdText) {
+        List<Mono<Map<Integer, Map<String, Object>>>> batches = new ArrayList<>();
+        for (int start = 0; start < documents.size(); start += batchSize) {
+            int from = start;
+            int to = Math.min(documents.size(), start + batchSize);
+            batches.add(Mono.fromCallable(() -> {
+                        List<BatchPair> pairs = new ArrayList<>();
+                        for (int resumeIndex = from; resumeIndex < to; resumeIndex++) {
+                            try {
+                                pairs.add(new BatchPair(resumeIndex, documents.getText(resumeIndex), jdText));
+                            } catch (FileProcessingException e) {
+                                // Left out of the batch; its own evaluation reports the extraction error
+                            }
+                        }
+                        return pairs;
+                    })
+                    .subscribeOn(bulkMatrixExecutor.getScheduler())
+                    .flatMap(pairs -> evaluateMode2BatchAsync(pairs, true))
+                    .cache());
         }
-        
-        return cleanedResponse;
-        
-    } catch (Exception e) {
-        System.out.println("DEBUG - Error cleaning response: " + e.getMessage());
-        // Return a safe fallback response
-        Map<String, Object> safeResponse = new HashMap<>();
-        safeResponse.put("error", "Response processing error");
-        safeResponse.put("summary", Map.of(
-            "totalResumes", 0,
-            "totalJobDescriptions", 0,
-            "validResults", 0,
-            "averageScore", 0.0,
-            "highestScore", 0.0,
-            "lowestScore", 0.0
-        ));
-        safeResponse.put("resumeResults", new ArrayList<>());
-        return safeResponse;
+        return batches;
     }
-}
-
-    private List<Map<String, String>> parseExcelJobDescriptions(MultipartFile file) throws IOException {
-        List<Map<String, String>> jobDescriptions = new ArrayList<>();
-        
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook;
-            
-            if (file.getOriginalFilename().toLowerCase().endsWith(".xlsx")) {
-                workbook = new XSSFWorkbook(is);
-            } else {
-                workbook = new HSSFWorkbook(is);
-            }
-            
-            Sheet sheet = workbook.getSheetAt(0); // Get first sheet
-            
-            // Validate sheet structure
-            validateExcelStructure(sheet);
-            
-            // Check if sheet is empty
-            if (sheet.getPhysicalNumberOfRows() <= 1) {
-                throw new RuntimeException("Excel file appears to be empty or contains only header row. Please ensure you have data in the following format:\n" +
-                    "Column A: Company Name\n" +
-                    "Column B: Job Role/Title\n" +
-                    "Column C: Job Description\n" +
-                    "Each row should contain one job posting.");
-            }
-            
-            // Auto-detect column positions based on headers
-            Row headerRow = sheet.getRow(0);
-            int companyColIndex = -1;
-            int roleColIndex = -1;
-            int descriptionColIndex = -1;
-            int applyLinkColIndex = -1;
-            
-            // Find columns by analyzing header names
-            for (int colIndex = 0; colIndex < headerRow.getLastCellNum(); colIndex++) {
-                Cell headerCell = headerRow.getCell(colIndex);
-                if (headerCell != null) {
-                    String cellValue = getCellValueAsString(headerCell);
-                    String headerText = (cellValue != null) ? cellValue.toLowerCase().trim() : "";
-                    
-                    // Look for company-related headers
-                    if (companyColIndex == -1 && (headerText.contains("company") || 
-                                                  headerText.contains("organization") || 
-                                                  headerText.contains("employer") ||
-                                                  headerText.contains("firm") ||
-                                                  headerText.equals("company_name"))) {
-                        companyColIndex = colIndex;
-                        System.out.println("DEBUG - Found Company column at index " + colIndex + ": '" + headerText + "'");
-                    }
-                    
-                    // Look for role-related headers
-                    else if (roleColIndex == -1 && (headerText.contains("role") || 
-                                                   headerText.contains("title") || 
-                                                   headerText.contains("position") ||
-                                                   headerText.contains("job") ||
-                                                   headerText.contains("designation"))) {
-                        roleColIndex = colIndex;
-                        System.out.println("DEBUG - Found Role column at index " + colIndex + ": '" + headerText + "'");
-                    }
-                    
-                    // Look for apply link headers
-                    else if (applyLinkColIndex == -1 && (headerText.contains("apply") || 
-                                                        headerText.contains("link") || 
-                                                        headerText.contains("url") ||
-                                                        headerText.contains("application") ||
-                                                        headerText.contains("careers") ||
-                                                        headerText.equals("apply_link"))) {
-                        applyLinkColIndex = colIndex;
-                        System.out.println("DEBUG - Found Apply Link column at index " + colIndex + ": '" + headerText + "'");
-                    }
-                    
-                    // Look for description-related headers
-                    else if (descriptionColIndex == -1 && (headerText.contains("description") || 
-                                                         headerText.contains("requirements") || 
-                                                         headerText.contains("responsibilities") ||
-                                                         headerText.contains("duties") ||
-                                                         headerText.contains("summary") ||
-                                                         headerText.contains("details") ||
-                                                         headerText.equals("full_description"))) {
-                        descriptionColIndex = colIndex;
-                        System.out.println("DEBUG - Found Description column at index " + colIndex + ": '" + headerText + "'");
-                    }
-                }
-            }
-            
-            // If we couldn't find specific headers, use fallback logic
-            if (descriptionColIndex == -1) {
-                // Try to find the longest text column as description
-                descriptionColIndex = findLongestTextColumn(sheet, headerRow);
-                System.out.println("DEBUG - Using fallback: Description column at index " + descriptionColIndex);
-            }
-            
-            if (companyColIndex == -1) {
-                // Use first column as company if not found
-                companyColIndex = 0;
-                System.out.println("DEBUG - Using fallback: Company column at index 0");
-            }
-            
-            if (roleColIndex == -1) {
-                // Use second column as role if not found, or next available column
-                roleColIndex = (companyColIndex == 0) ? 1 : 0;
-                if (roleColIndex == descriptionColIndex) {
-                    roleColIndex = (roleColIndex + 1) % headerRow.getLastCellNum();
-                }
-                System.out.println("DEBUG - Using fallback: Role column at index " + roleColIndex);
-            }
-            
-            // Ensure we have unique column indices
-            if (companyColIndex == roleColIndex || companyColIndex == descriptionColIndex || roleColIndex == descriptionColIndex) {
-                // Find next available column for duplicates
-                int nextAvailable = 0;
-                while (nextAvailable == companyColIndex || nextAvailable == roleColIndex || nextAvailable == descriptionColIndex) {
-                    nextAvailable++;
-                }
-                if (companyColIndex == roleColIndex) {
-                    roleColIndex = nextAvailable;
-                } else if (companyColIndex == descriptionColIndex) {
-                    descriptionColIndex = nextAvailable;
-                } else if (roleColIndex == descriptionColIndex) {
-                    descriptionColIndex = nextAvailable;
+    
+    /**
+     * Per resume, one shared batched call per group of {@code app.batch.size} JDs that were not pruned.
+     * The returned matrix holds, for every (resumeIndex, jdIndex), the batch containing that pair, keyed by JD index.
+     */
+    private List<List<Mono<Map<Integer, Map<String, Object>>>>> buildMode4Batches(ExtractedDocumentContext documents,
+                                                                                   List<JobDescriptionInfo> jobDescriptions,
+                                                                                   LexicalPrefilter.Plan prefilterPlan) {
+        List<List<Mono<Map<Integer, Map<String, Object>>>>> batches = new ArrayList<>(documents.size());
+        for (int resumeIndex = 0; resumeIndex < documents.size(); resumeIndex++) {
+            List<Mono<Map<Integer, Map<String, Object>>>> row = new ArrayList<>(Collections.nCopies(jobDescriptions.size(), null));
+            List<Integer> evaluatedJDs = new ArrayList<>();
+            for (int jdIndex = 0; jdIndex < jobDescriptions.size(); jdIndex++) {
+                if (!prefilterPlan.isPruned(resumeIndex, jdIndex)) {
+                    evaluatedJDs.add(jdIndex);
                 }
             }
             
-            System.out.println("DEBUG - Final column mapping:");
-            System.out.println("  Company: Column " + (companyColIndex + 1) + " (index " + companyColIndex + ")");
-            System.out.println("  Role: Column " + (roleColIndex + 1) + " (index " + roleColIndex + ")");
-            System.out.println("  Description: Column " + (descriptionColIndex + 1) + " (index " + descriptionColIndex + ")");
-            
-            int rowCount = 0;
-            for (Row row : sheet) {
-                rowCount++;
-                // Skip header row
-                if (row.getRowNum() == 0) {
-                    continue;
-                }
-                
-                // Get values from detected columns
-                Cell companyCell = row.getCell(companyColIndex);
-                Cell roleCell = row.getCell(roleColIndex);
-                Cell descCell = row.getCell(descriptionColIndex);
-                
-                String companyName = (companyCell != null) ? getCellValueAsString(companyCell) : "";
-                String roleName = (roleCell != null) ? getCellValueAsString(roleCell) : "";
-                String description = (descCell != null) ? getCellValueAsString(descCell) : "";
-                
-                // Handle null values from getCellValueAsString
-                companyName = (companyName != null) ? companyName : "";
-                roleName = (roleName != null) ? roleName : "";
-                description = (description != null) ? description : "";
-                
-                if (description != null && !description.trim().isEmpty()) {
-                    // Extract apply link
-                    String applyLink = "";
-                    if (applyLinkColIndex != -1) {
-                        Cell applyLinkCell = row.getCell(applyLinkColIndex);
-                        if (applyLinkCell != null) {
-                            applyLink = getCellValueAsString(applyLinkCell);
-                            applyLink = (applyLink != null) ? applyLink.trim() : "";
-                        }
-                    }
-                    
-                    Map<String, String> jobInfo = new HashMap<>();
-                    jobInfo.put("companyName", companyName != null ? companyName.trim() : "Unknown Company");
-                    jobInfo.put("roleName", roleName != null ? roleName.trim() : "Unknown Role");
-                    jobInfo.put("applyLink", applyLink);
-                    jobInfo.put("description", description.trim());
-                    jobDescriptions.add(jobInfo);
-                    
-                    // Debug logging for Excel parsing
-                    System.out.println("DEBUG - Parsed Excel Row " + (row.getRowNum() + 1) + ": Company='" + companyName + "', Role='" + roleName + "', ApplyLink='" + applyLink + "', Description length=" + description.length());
-                } else {
-                    System.out.println("DEBUG - Skipping row " + (row.getRowNum() + 1) + " - no description found in detected description column");
+            for (int start = 0; start < evaluatedJDs.size(); start += batchSize) {
+                List<Integer> jdIndices = new ArrayList<>(evaluatedJDs.subList(start, Math.min(evaluatedJDs.size(), start + batchSize)));
+                int r = resumeIndex;
+                Mono<Map<Integer, Map<String, Object>>> batch = Mono.fromCallable(() -> {
+                            List<BatchPair> pairs = new ArrayList<>();
+                            try {
+                                String resumeText = documents.getText(r);
+                                for (int jdIndex : jdIndices) {
+                                    pairs.add(new BatchPair(jdIndex, resumeText, jobDescriptions.get(jdIndex).description()));
+                                }
+                            } catch (FileProcessingException e) {
+                                // Nothing to batch; each pair's own evaluation reports the extraction error
+                            }
+                            return pairs;
+                        })
+                        .subscribeOn(bulkMatrixExecutor.getScheduler())
+                        .flatMap(pairs -> evaluateMode2BatchAsync(pairs, false))
+                        .cache();
+                for (int jdIndex : jdIndices) {
+                    row.set(jdIndex, batch);
                 }
             }
-            
-            workbook.close();
-            
-            // Provide detailed error message if no job descriptions found
-            if (jobDescriptions.isEmpty()) {
-                throw new RuntimeException("No job descriptions found in the Excel file. Please ensure:\n" +
-                    "1. Your Excel file has data in the correct format\n" +
-                    "2. One column contains job descriptions (with header like 'Description', 'Requirements', etc.)\n" +
-                    "3. You have at least one row of data (excluding header)\n" +
-                    "4. The job description column is not empty\n\n" +
-                    "Current file has " + rowCount + " rows, but no valid job descriptions were found.\n" +
-                    "Detected columns: Company=" + (companyColIndex + 1) + ", Role=" + (roleColIndex + 1) + ", Description=" + (descriptionColIndex + 1));
-            }
-            
-        } catch (Exception e) {
-            if (e instanceof RuntimeException) {
-                throw e; // Re-throw our custom error messages
-            }
-            throw new RuntimeException("Error parsing Excel file: " + e.getMessage() + "\nPlease ensure the file is a valid Excel file (.xlsx or .xls) with the correct format.", e);
+            batches.add(row);
         }
-        
-        return jobDescriptions;
+        return batches;
     }
     
-    private int findLongestTextColumn(Sheet sheet, Row headerRow) {
-        int maxLength = 0;
-        int longestColIndex = 0;
-        
-        // Check first few data rows to find the column with longest text
-        for (int rowIndex = 1; rowIndex < Math.min(5, sheet.getPhysicalNumberOfRows()); rowIndex++) {
-            Row dataRow = sheet.getRow(rowIndex);
-            if (dataRow != null) {
-                for (int colIndex = 0; colIndex < headerRow.getLastCellNum(); colIndex++) {
-                    Cell cell = dataRow.getCell(colIndex);
-                    if (cell != null) {
-                        String cellValue = getCellValueAsString(cell);
-                        if (cellValue != null && cellValue.length() > maxLength) {
-                            maxLength = cellValue.length();
-                            longestColIndex = colIndex;
-                        }
-                    }
-                }
-            }
-        }
-        
-        return longestColIndex;
+    /**
+     * Mode 3 resume answered by its batch; resumes the batched answer did not cover are evaluated on their own
+     */
+    private Mono<Map<String, Object>> evaluateBatchedResumeAsync(Mono<Map<Integer, Map<String, Object>>> batch,
+                                                                 ExtractedDocumentContext documents, int resumeIndex, String jdText) {
+        MultipartFile resume = documents.getFile(resumeIndex);
+        return batch.flatMap(results -> {
+            Map<String, Object> result = results.get(resumeIndex);
+            if (result == null) {
+                return evaluateBulkResumeAsync(documents, resumeIndex, jdText, ScoringEngine.AI);
+            }
+            return Mono.fromCallable(() -> addBulkResumeMetadata(new HashMap<>(result), resume, resumeIndex,
+                            getExtractedResumeText(documents, resumeIndex)))
+                    .subscribeOn(bulkMatrixExecutor.getScheduler());
+        });
     }
     
-    private void validateExcelStructure(Sheet sheet) {
-        // Check if sheet has at least 1 column (minimum requirement)
-        Row firstRow = sheet.getRow(0);
-        if (firstRow == null) {
-            throw new RuntimeException("Excel file appears to be empty. Please ensure it contains data.");
-        }
-        
-        int columnCount = firstRow.getLastCellNum();
-        if (columnCount < 1) {
-            throw new RuntimeException("Excel file must have at least 1 column. Current file has " + columnCount + " columns.\n" +
-                "The system will automatically detect which columns contain:\n" +
-                "- Company information\n" +
-                "- Job role/title\n" +
-                "- Job description");
-        }
+    /**
+     * Mode 4 pair answered by its batch; pairs the batched answer did not cover are evaluated on their own
+     */
+    private Mono<Map<String, Object>> evaluateBatchedResumeJDPairAsync(Mono<Map<Integer, Map<String, Object>>> batch,
+                                                                       ExtractedDocumentContext documents, int resumeIndex,
+                                                                       JobDescriptionInfo jobInfo, int jdIndex) {
+        MultipartFile resume = documents.getFile(resumeIndex);
+        return batch.flatMap(results -> {
+            Map<String, Object> result = results.get(jdIndex);
+            if (result == null) {
+                return evaluateResumeJDPairAsync(documents, resumeIndex, jobInfo, jdIndex, ScoringEngine.AI);
+            }
+            // Storing the match writes files, so it runs on the bulk pool
+            return Mono.fromCallable(() -> recordResumeJDPair(new HashMap<>(result), resume, resumeIndex,
+                            jobInfo.description(), jdIndex, jobInfo.companyName(), jobInfo.roleName()))
+                    .subscribeOn(bulkMatrixExecutor.getScheduler());
+        });
+    }
+    
+    /**
+     * Build the error entry recorded for a Mode 3 resume that could not be evaluated
+     */
+    private Map<String, Object> buildResumeErrorResult(MultipartFile resume, int resumeIndex, Exception e) {
+        System.out.println("DEBUG - Error processing resume " + (resumeIndex + 1) + ": " + e.getMessage());
+        // Add error result for this resume
+        Map<String, Object> errorResult = new HashMap<>();
+        errorResult.put("resumeName", resume.getOriginalFilename());
+        errorResult.put("resumeIndex", resumeIndex);
+        errorResult.put("error", "Failed to process: " + e.getMessage());
+        errorResult.put("atsScore", List.of(0.0));
+        return errorResult;
+    }
+    
+    /**
+     * Evaluate one resume/JD pair of a Mode 4 request and record the match.
+     * Parsing and file storage run on the bulk pool, never on the HTTP client's event loop.
+     */
+    private Mono<Map<String, Object>> evaluateResumeJDPairAsync(ExtractedDocumentContext documents, int resumeIndex, JobDescriptionInfo jobInfo,
+                                                                int jdIndex, ScoringEngine engine) {
+        MultipartFile resume = documents.getFile(resumeIndex);
+        String jdText = jobInfo.description();
+        String companyName = jobInfo.companyName();
+        String roleName = jobInfo.roleName();
+        
+        return Mono.fromCallable(() -> {
+                    System.out.println("DEBUG - Processing resume " + (resumeIndex + 1) + " with JD " + (jdIndex + 1) + ": " + resume.getOriginalFilename());
+                    // Use existing Mode 2 logic for each resume-JD combination
+                    return getExtractedResumeText(documents, resumeIndex);
+                })
+                .subscribeOn(bulkMatrixExecutor.getScheduler())
+                .flatMap(resumeText -> evaluateResumeWithJDTextAsync(resumeText, jdText, resume.getOriginalFilename(), engine))
+                .map(result -> recordResumeJDPair(result, resume, resumeIndex, jdText, jdIndex, companyName, roleName));
+    }
+    
+    /**
+     * Add the Mode 4 metadata to a pair result and store the match in ResumeMatchManager
+     */
+    private Map<String, Object> recordResumeJDPair(Map<String, Object> result, MultipartFile resume, int resumeIndex,
+                                                   String jdText, int jdIndex, String companyName, String roleName) {
+        addPairMetadata(result, resume, resumeIndex, jdText, jdIndex, companyName, roleName);
         
-        // Check if there are any rows with data
-        int totalRows = sheet.getPhysicalNumberOfRows();
-        if (totalRows <= 1) {
-            throw new RuntimeException("Excel file must contain at least one row of data (excluding header). Current file has " + totalRows + " rows.");
+        // Store the resume match in ResumeMatchManager
+        try {
+            System.out.println("DEBUG - Storing resume file for: " + resume.getOriginalFilename());
+            System.out.println("DEBUG - File size: " + resume.getSize() + " bytes");
+            System.out.println("DEBUG - Content type: " + resume.getContentType());
+            
+            // Store the resume match using the new file storage system
+            resumeMatchManager.storeResumeMatch(
+                jdIndex,
+                jdText,
+                resume.getOriginalFilename(),
+                resume.getOriginalFilename(),
+                ((List<Double>) result.get("atsScore")).get(0).doubleValue(),
+                resume
+            );
+            
+            System.out.println("DEBUG - Stored resume match for resume: " + resume.getOriginalFilename() + 
+                              " with JD: " + jdIndex);
+        } catch (Exception e) {
+            System.out.println("DEBUG - Error storing resume match: " + e.getMessage());
+            e.printStackTrace();
+            // Continue processing even if storage fails
         }
         
-        System.out.println("DEBUG - Excel structure validation passed:");
-        System.out.println("  Total columns: " + columnCount);
-        System.out.println("  Total rows: " + totalRows);
-        System.out.println("  Headers: " + getHeaderNames(firstRow));
+        return result;
     }
     
-    private String getHeaderNames(Row headerRow) {
-        StringBuilder headers = new StringBuilder();
-        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-            Cell cell = headerRow.getCell(i);
-            if (cell != null) {
-                String headerText = getCellValueAsString(cell);
-                if (headerText != null && !headerText.trim().isEmpty()) {
-                    if (headers.length() > 0) headers.append(", ");
-                    headers.append("'").append(headerText.trim()).append("'");
-                }
-            }
+    private void addPairMetadata(Map<String, Object> result, MultipartFile resume, int resumeIndex,
+                                 String jdText, int jdIndex, String companyName, String roleName) {
+        // Override AI-extracted company/role with Excel data (more reliable)
+        result.put("companyName", companyName);
+        result.put("roleName", roleName);
+        
+        // Add metadata
+        result.put("resumeName", resume.getOriginalFilename());
+        result.put("resumeIndex", resumeIndex);
+        result.put("jdIndex", jdIndex);
+        result.put("jdText", jdText.substring(0, Math.min(100, jdText.length())) + "...");
+        result.put("fileSize", resume.getSize());
+    }
+    
+    /**
+     * Pre-rank a Mode 4 matrix. Resume texts are extracted concurrently on the bulk pool; the pairs
+     * evaluated afterwards reuse the same extractions.
+     */
+    private LexicalPrefilter.Plan buildPrefilterPlan(ExtractedDocumentContext documents, List<JobDescriptionInfo> jobDescriptions) {
+        if (!lexicalPrefilter.appliesTo(documents.size())) {
+            return LexicalPrefilter.Plan.none(documents.size(), jobDescriptions.size());
+        }
+        List<String> jdTexts = new ArrayList<>(jobDescriptions.size());
+        for (JobDescriptionInfo jobInfo : jobDescriptions) {
+            jdTexts.add(jobInfo.description());
+        }
+        
+        List<Optional<String>> extracted = Flux.range(0, documents.size())
+                .flatMapSequential(resumeIndex -> Mono.fromCallable(() -> {
+                            try {
+                                return Optional.of(documents.getText(resumeIndex));
+                            } catch (FileProcessingException e) {
+                                // Reported by the pair evaluation itself; such a resume is never pruned
+                                return Optional.<String>empty();
+                            }
+                        })
+                        .subscribeOn(bulkMatrixExecutor.getScheduler()))
+                .collectList()
+                .block();
+        
+        List<String> resumeTexts = new ArrayList<>(extracted.size());
+        for (Optional<String> text : extracted) {
+            resumeTexts.add(text.orElse(null));
         }
-        return headers.toString();
+        return lexicalPrefilter.plan(resumeTexts, jdTexts);
+    }
+    
+    /**
+     * Result of a Mode 4 pair that was pruned by the lexical prefilter and not sent to the AI. Sections, strengths
+     * and suggestions come from the local scorer; its score is capped at the prefilter's pruned-max-score so the
+     * pair never outranks one the AI scored well. Pruned resumes always have extracted text.
+     */
+    private Map<String, Object> buildPrunedPairResult(ExtractedDocumentContext documents, int resumeIndex, JobDescriptionInfo jobInfo,
+                                                      int jdIndex, LexicalPrefilter.Plan prefilterPlan) throws FileProcessingException {
+        StructuredEvaluation evaluation = localScorer.evaluate(documents.getText(resumeIndex), jobInfo.description());
+        double relativeScore = prefilterPlan.getRelativeScore(resumeIndex, jdIndex);
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("atsScore", List.of(Math.min(evaluation.atsScore(), prefilterPlan.getPrunedMaxScore())));
+        result.put("localScore", evaluation.atsScore());
+        result.put("engine", "local");
+        result.put("pruned", true);
+        result.put("lexicalScore", Math.round(relativeScore * 1000.0) / 1000.0);
+        result.put("matchStatus", "UNMATCHED");
+        result.put("careerSummary", List.of("Not analyzed by the AI: low keyword overlap with this job description. " + evaluation.careerSummary()));
+        result.put("strengths", itemsOrDefault(evaluation.strengths(), "N/A"));
+        result.put("weaknesses", itemsOrDefault(evaluation.weaknesses(), "Few of the job description's key terms appear in this resume"));
+        result.put("suggestions", itemsOrDefault(evaluation.suggestions(), "Tailor the resume to the terminology used in this job description"));
+        result.put("workExperience", toSectionData(evaluation.workExperience()));
+        result.put("certificates", toSectionData(evaluation.certificates()));
+        result.put("projects", toSectionData(evaluation.projects()));
+        result.put("technicalSkills", toSectionData(evaluation.technicalSkills()));
+        
+        addPairMetadata(result, documents.getFile(resumeIndex), resumeIndex, jobInfo.description(), jdIndex,
+            jobInfo.companyName(), jobInfo.roleName());
+        return result;
     }
     
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) return null;
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return null;
+    /**
+     * Build the error entry recorded for a resume/JD pair that could not be evaluated
+     */
+    private Map<String, Object> buildPairErrorResult(MultipartFile resume, int resumeIndex, String jdText, int jdIndex, Exception e) {
+        System.out.println("DEBUG - Error processing resume " + (resumeIndex + 1) + " with JD " + (jdIndex + 1) + ": " + e.getMessage());
+        // Add error result for this combination
+        Map<String, Object> errorResult = new HashMap<>();
+        errorResult.put("resumeName", resume.getOriginalFilename());
+        errorResult.put("resumeIndex", resumeIndex);
+        errorResult.put("jdIndex", jdIndex);
+        errorResult.put("jdText", jdText.substring(0, Math.min(100, jdText.length())) + "...");
+        errorResult.put("error", "Failed to process: " + e.getMessage());
+        errorResult.put("atsScore", List.of(0.0));
+        return errorResult;
+    }
+
+    private List<JobDescriptionInfo> parseExcelJobDescriptions(MultipartFile file) throws IOException {
+        // .xlsx uploads are streamed row by row instead of being loaded into a workbook
+        try (InputStream is = file.getInputStream()) {
+            return JobDescriptionSheetReader.read(is, file.getOriginalFilename());
+        } catch (Exception e) {
+            if (e instanceof RuntimeException) {
+                throw e; // Re-throw our custom error messages
+            }
+            throw new RuntimeException("Error parsing Excel file: " + e.getMessage() + "\nPlease ensure the file is a valid Excel file (.xlsx or .xls) with the correct format.", e);
         }
     }
     
-    private Map<String, Object> findBestMatch(List<Map<String, Object>> resumeResults) {
-        Map<String, Object> bestMatch = null;
+    private EvaluationResult findBestMatch(List<EvaluationResult> resumeResults) {
+        EvaluationResult bestMatch = null;
         double highestScore = -1;
         
-        for (Map<String, Object> result : resumeResults) {
-            if (!result.containsKey("error")) {
-                Double score = ((List<Double>) result.get("atsScore")).get(0);
-                if (score > highestScore) {
-                    highestScore = score;
-                    // Create a clean copy without circular references
-                    bestMatch = new HashMap<>(result);
-                    bestMatch.remove("allMatches"); // Remove circular reference
-                }
+        for (EvaluationResult result : resumeResults) {
+            if (!result.hasError() && result.score() > highestScore) {
+                highestScore = result.score();
+                bestMatch = result;
             }
         }
         
-        if (bestMatch == null) {
-            // If no valid results, return the first one
-            bestMatch = new HashMap<>(resumeResults.get(0));
-            bestMatch.remove("allMatches"); // Remove circular reference
-        }
-        
-        return bestMatch;
+        // If no valid results, return the first one
+        return bestMatch != null ? bestMatch : resumeResults.get(0);
     }
     
-    private Map<String, Object> calculateOverallSummary(List<Map<String, Object>> allResults, int totalJDs) {
+    private BulkJDSummary calculateOverallSummary(List<ResumeJDResult> allResults, int totalJDs) {
         double totalScore = 0;
         double highestScore = 0;
         double lowestScore = 10;
         int validResults = 0;
         
-        for (Map<String, Object> result : allResults) {
-            if (!result.containsKey("error")) {
-                Double score = ((List<Double>) result.get("atsScore")).get(0);
+        for (ResumeJDResult result : allResults) {
+            if (!result.bestMatch().hasError()) {
+                double score = result.bestMatch().score();
                 totalScore += score;
                 highestScore = Math.max(highestScore, score);
                 lowestScore = Math.min(lowestScore, score);
@@ -979,45 +1270,21 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
         
         double averageScore = validResults > 0 ? totalScore / validResults : 0;
         
-        // Build summary
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalResumes", allResults.size());
-        summary.put("totalJobDescriptions", totalJDs);
-        summary.put("validResults", validResults);
-        summary.put("averageScore", Math.round(averageScore * 100.0) / 100.0);
-        summary.put("highestScore", Math.round(highestScore * 100.0) / 100.0);
-        summary.put("lowestScore", Math.round(lowestScore * 100.0) / 100.0);
-        
-        // Find best overall match without circular references
-        Map<String, Object> bestOverall = findBestOverallMatch(allResults);
-        if (bestOverall != null) {
-            summary.put("bestOverallMatch", bestOverall);
-        }
-        
-        return summary;
-    }
-    
-    private Map<String, Object> findBestOverallMatch(List<Map<String, Object>> allResults) {
-        Map<String, Object> bestOverall = null;
-        double highestScore = -1;
-        
-        for (Map<String, Object> result : allResults) {
-            if (!result.containsKey("error")) {
-                Double score = ((List<Double>) result.get("atsScore")).get(0);
-                if (score > highestScore) {
-                    highestScore = score;
-                    // Create a clean copy without circular references
-                    bestOverall = new HashMap<>(result);
-                    bestOverall.remove("allMatches"); // Remove circular reference
-                }
-            }
-        }
-        
-        return bestOverall;
+        return new BulkJDSummary(
+            allResults.size(),
+            totalJDs,
+            validResults,
+            Math.round(averageScore * 100.0) / 100.0,
+            Math.round(highestScore * 100.0) / 100.0,
+            Math.round(lowestScore * 100.0) / 100.0);
     }
     
-    private byte[] generateExcelWithResults(List<Map<String, String>> jobDescriptions, List<Map<String, Object>> allResults, MultipartFile[] resumes) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    void writeExcelWithResults(List<JobDescriptionInfo> jobDescriptions, List<ResumeJDResult> allResults,
+                               EvaluationResult[] bestResumes, List<ReportTexts> reportTexts, OutputStream out) throws IOException {
+        // Streaming workbook: only the last reportRowWindow rows stay in memory, older rows are flushed to a temp file
+        SXSSFWorkbook workbook = new SXSSFWorkbook(reportRowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("JD Analysis Results");
             
             // Create styles
@@ -1048,34 +1315,29 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
                 cell.setCellStyle(headerStyle);
             }
             
-            // Auto-size columns
+            // Fixed widths: auto-sizing would need every cell in memory and measures each one with AWT font metrics
             for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-                // Set minimum width to prevent truncation
-                if (sheet.getColumnWidth(i) < 3000) {
-                    sheet.setColumnWidth(i, 3000);
-                }
+                sheet.setColumnWidth(i, Math.max(REPORT_COLUMN_WIDTHS[i], headers[i].length() + 2) * 256);
             }
             
             // Fill data
             int rowNum = 1;
             for (int jdIndex = 0; jdIndex < jobDescriptions.size(); jdIndex++) {
-                Map<String, String> jobInfo = jobDescriptions.get(jdIndex);
-                String jdText = jobInfo.get("description");
-                String companyName = jobInfo.get("companyName");
-                String roleName = jobInfo.get("roleName");
+                JobDescriptionInfo jobInfo = jobDescriptions.get(jdIndex);
+                String companyName = jobInfo.companyName();
+                String roleName = jobInfo.roleName();
                 
                 // Debug logging for Excel data
                 System.out.println("DEBUG - Excel Row " + (jdIndex + 1) + ": Company='" + companyName + "', Role='" + roleName + "'");
                 
-                // Find best resume for this JD
-                Map<String, Object> bestResume = findBestResumeForJD(allResults, jdIndex);
+                EvaluationResult bestResume = bestResumes[jdIndex];
+                ReportTexts texts = reportTexts.get(jdIndex);
                 
                 // Debug logging for best resume found
                 if (bestResume != null) {
                     System.out.println("DEBUG - Best resume for JD " + (jdIndex + 1) + ": " + 
-                        bestResume.get("resumeName") + ", Score: " + bestResume.get("atsScore") + 
-                        ", New Name: " + bestResume.get("newResumeName"));
+                        bestResume.resumeName() + ", Score: " + bestResume.atsScore() + 
+                        ", New Name: " + bestResume.newResumeName());
                 } else {
                     System.out.println("DEBUG - No best resume found for JD " + (jdIndex + 1));
                 }
@@ -1094,27 +1356,25 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
                 
                 // Apply Link
                 Cell applyLinkCell = row.createCell(2);
-                String applyLink = jobInfo.get("applyLink");
+                String applyLink = jobInfo.applyLink();
                 applyLinkCell.setCellValue(applyLink != null ? applyLink : "N/A");
                 applyLinkCell.setCellStyle(scoreStyle);
                 
                 // Job Description Summary
                 Cell jdSummaryCell = row.createCell(3);
-                String jdSummary = generateJobDescriptionSummary(jdText);
-                jdSummaryCell.setCellValue(jdSummary);
+                jdSummaryCell.setCellValue(texts.jdSummary());
                 jdSummaryCell.setCellStyle(scoreStyle);
                 
                 // Improvement Suggestions
                 Cell improvementCell = row.createCell(4);
-                String improvementSuggestions = generateImprovementSuggestions(jdText, bestResume);
-                improvementCell.setCellValue(improvementSuggestions);
+                improvementCell.setCellValue(texts.improvementSuggestions());
                 improvementCell.setCellStyle(scoreStyle);
                 
                 // Best Match Resume
                 Cell bestMatchCell = row.createCell(5);
-                if (bestResume != null && bestResume.get("resumeName") != null) {
-                    bestMatchCell.setCellValue(bestResume.get("resumeName").toString());
-                    System.out.println("DEBUG - Excel: Setting resume name for JD " + (jdIndex + 1) + ": " + bestResume.get("resumeName"));
+                if (bestResume != null && bestResume.resumeName() != null) {
+                    bestMatchCell.setCellValue(bestResume.resumeName());
+                    System.out.println("DEBUG - Excel: Setting resume name for JD " + (jdIndex + 1) + ": " + bestResume.resumeName());
                 } else {
                     bestMatchCell.setCellValue("No match found");
                     System.out.println("DEBUG - Excel: No resume name found for JD " + (jdIndex + 1));
@@ -1123,33 +1383,19 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
                 
                 // ATS Score
                 Cell scoreCell = row.createCell(6);
-                if (bestResume != null && bestResume.get("atsScore") != null) {
-                    try {
-                        Double score = ((List<Double>) bestResume.get("atsScore")).get(0);
-                        scoreCell.setCellValue(score);
-                    } catch (Exception e) {
-                        scoreCell.setCellValue(0.0);
-                    }
-                } else {
-                    scoreCell.setCellValue(0.0);
-                }
+                scoreCell.setCellValue(bestResume != null ? bestResume.score() : 0.0);
                 scoreCell.setCellStyle(scoreStyle);
                 
                 // ATS Result (detailed analysis)
                 Cell atsResultCell = row.createCell(7);
-                if (bestResume != null) {
-                    String atsResult = generateATSResultSummary(bestResume);
-                    atsResultCell.setCellValue(atsResult);
-                } else {
-                    atsResultCell.setCellValue("No analysis available");
-                }
+                atsResultCell.setCellValue(texts.atsResult());
                 atsResultCell.setCellStyle(scoreStyle);
                 
                 // New Resume Name
                 Cell newResumeNameCell = row.createCell(8);
-                if (bestResume != null && bestResume.get("newResumeName") != null) {
-                    newResumeNameCell.setCellValue(bestResume.get("newResumeName").toString());
-                    System.out.println("DEBUG - Excel: Setting newResumeName for JD " + (jdIndex + 1) + ": " + bestResume.get("newResumeName"));
+                if (bestResume != null && bestResume.newResumeName() != null) {
+                    newResumeNameCell.setCellValue(bestResume.newResumeName());
+                    System.out.println("DEBUG - Excel: Setting newResumeName for JD " + (jdIndex + 1) + ": " + bestResume.newResumeName());
                 } else {
                     newResumeNameCell.setCellValue("N/A");
                     System.out.println("DEBUG - Excel: No newResumeName found for JD " + (jdIndex + 1));
@@ -1163,65 +1409,45 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
                 allScoresCell.setCellStyle(scoreStyle);
             }
             
-            // Convert to byte array
-            try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-                workbook.write(outputStream);
-                return outputStream.toByteArray();
-            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
         }
     }
     
-    private Map<String, Object> findBestResumeForJD(List<Map<String, Object>> allResults, int jdIndex) {
-        List<Map<String, Object>> candidatesForJD = new ArrayList<>();
-        
-        // Collect all resumes for this specific JD
-        for (Map<String, Object> resumeResult : allResults) {
-            if (!resumeResult.containsKey("error")) {
-                // Check if this resume has a match for the specific JD
-                List<Map<String, Object>> allMatches = (List<Map<String, Object>>) resumeResult.get("allMatches");
-                if (allMatches != null) {
-                    for (Map<String, Object> match : allMatches) {
-                        if (match.get("jdIndex") != null && match.get("jdIndex").equals(jdIndex)) {
-                                // Create a clean copy without circular references
-                            Map<String, Object> cleanMatch = new HashMap<>(match);
-                            cleanMatch.remove("allMatches"); // Remove circular reference
-                                
-                                // Copy the newResumeName from the main resume result if available
-                                if (resumeResult.containsKey("newResumeName")) {
-                                cleanMatch.put("newResumeName", resumeResult.get("newResumeName"));
-                                }
-                                
-                            candidatesForJD.add(cleanMatch);
-                            }
-                        }
-                    }
+    EvaluationResult[] findBestResumesByJD(List<ResumeJDResult> allResults, int totalJDs) {
+        EvaluationResult[] bestResumes = new EvaluationResult[totalJDs];
+        
+        // Highest score among all resumes for each JD; ties keep the first resume
+        for (ResumeJDResult resumeResult : allResults) {
+            if (resumeResult.bestMatch().hasError()) {
+                continue;
+            }
+            String newResumeName = resumeResult.bestMatch().newResumeName();
+            for (EvaluationResult match : resumeResult.allMatches()) {
+                Integer jdIndex = match.jdIndex();
+                if (jdIndex != null && jdIndex >= 0 && jdIndex < totalJDs
+                        && (bestResumes[jdIndex] == null || match.score() > bestResumes[jdIndex].score())) {
+                    // Carry the newResumeName generated for the resume's best match
+                    bestResumes[jdIndex] = newResumeName != null ? match.withNewResumeName(newResumeName) : match;
                 }
             }
-        
-        // Sort by score (highest first) - this handles tie-breaking by selecting first
-        candidatesForJD.sort((a, b) -> {
-            Double scoreA = ((List<Double>) a.get("atsScore")).get(0);
-            Double scoreB = ((List<Double>) b.get("atsScore")).get(0);
-            return scoreB.compareTo(scoreA); // Descending order
-        });
-        
-        // Return the first one (highest score, or first if tied)
-        Map<String, Object> bestResume = null;
-        if (!candidatesForJD.isEmpty()) {
-            bestResume = candidatesForJD.get(0);
-            Double score = ((List<Double>) bestResume.get("atsScore")).get(0);
-            
-            // Debug logging
-            System.out.println("DEBUG - Found best resume for JD " + jdIndex + ": " + 
-                bestResume.get("resumeName") + " with score " + score + 
-                ", newResumeName: " + bestResume.get("newResumeName"));
         }
         
-        if (bestResume == null) {
-            System.out.println("DEBUG - No best resume found for JD " + jdIndex);
+        // Debug logging
+        for (int jdIndex = 0; jdIndex < totalJDs; jdIndex++) {
+            EvaluationResult bestResume = bestResumes[jdIndex];
+            if (bestResume != null) {
+                System.out.println("DEBUG - Found best resume for JD " + jdIndex + ": " + 
+                    bestResume.resumeName() + " with score " + bestResume.score() + 
+                    ", newResumeName: " + bestResume.newResumeName());
+            } else {
+                System.out.println("DEBUG - No best resume found for JD " + jdIndex);
+            }
         }
         
-        return bestResume;
+        return bestResumes;
     }
     
     private String formatFileSize(long bytes) {
@@ -1260,85 +1486,57 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
         }
     }
 
-    private String generateCacheKey(String mode, String content) {
-        try {
-            // Create a more unique cache key by including content length and hash
-            String contentHash = String.valueOf(content.hashCode());
-            String contentLength = String.valueOf(content.length());
-            String key = mode + ":" + contentLength + ":" + contentHash;
-            
-            // Use MD5 for final hash
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] hash = md.digest(key.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            
-            System.out.println("DEBUG - Generated cache key: " + hexString.toString().substring(0, 8) + "... for content length: " + contentLength);
-            return hexString.toString();
-        } catch (Exception e) {
-            // Fallback to simple hash
-            String fallbackKey = mode + ":" + content.hashCode() + ":" + content.length();
-            System.out.println("DEBUG - Using fallback cache key: " + fallbackKey.hashCode());
-            return String.valueOf(fallbackKey.hashCode());
-        }
+    /**
+     * Content-addressed key over the mode, prompt version, model and the full input texts
+     */
+    private String generateCacheKey(String mode, String... contents) {
+        CacheKeyBuilder keyBuilder = CacheKeyBuilder.create()
+            .add(mode)
+            .add(PromptUtils.PROMPT_VERSION)
+            .add(openAIUtils.getModel());
+        for (String content : contents) {
+            keyBuilder.add(content);
+        }
+        String key = keyBuilder.build();
+        
+        System.out.println("DEBUG - Generated cache key: " + key.substring(0, 8) + "... for " + mode);
+        return key;
     }
 
     private Map<String, Object> getCachedResult(String cacheKey) {
-        Long timestamp = cacheTimestamps.get(cacheKey);
-        if (timestamp != null && System.currentTimeMillis() - timestamp < CACHE_DURATION) {
+        // getIfPresent hands out a copy, so bulk callers may decorate it, from several threads too
+        Map<String, Object> cached = evaluationCache.getIfPresent(cacheKey);
+        if (cached != null) {
             System.out.println("DEBUG - Cache HIT for key: " + cacheKey.substring(0, 8) + "...");
-            return responseCache.get(cacheKey);
+            return cached;
         }
         System.out.println("DEBUG - Cache MISS for key: " + cacheKey.substring(0, 8) + "...");
         return null;
     }
 
     private void cacheResult(String cacheKey, Map<String, Object> result) {
-        responseCache.put(cacheKey, result);
-        cacheTimestamps.put(cacheKey, System.currentTimeMillis());
+        evaluationCache.put(cacheKey, result);
         System.out.println("DEBUG - Cached result for key: " + cacheKey.substring(0, 8) + "...");
-        
-        // Clean up old cache entries (keep only last 50 entries to reduce memory usage)
-        if (responseCache.size() > 50) {
-            cleanupOldCacheEntries();
-        }
-    }
-
-    private void cleanupOldCacheEntries() {
-        long currentTime = System.currentTimeMillis();
-        List<String> keysToRemove = new ArrayList<>();
-        
-        for (Map.Entry<String, Long> entry : cacheTimestamps.entrySet()) {
-            if (currentTime - entry.getValue() > CACHE_DURATION) {
-                keysToRemove.add(entry.getKey());
-            }
-        }
-        
-        for (String key : keysToRemove) {
-            responseCache.remove(key);
-            cacheTimestamps.remove(key);
-        }
     }
 
     // Method to clear all cache (for debugging)
     public void clearCache() {
-        responseCache.clear();
-        cacheTimestamps.clear();
+        evaluationCache.invalidateAll();
+        summaryCache.invalidateAll();
         System.out.println("DEBUG - Cache cleared manually");
     }
 
     // Method to get cache status (for debugging)
     public Map<String, Object> getCacheStatus() {
-        return Map.of(
-            "cacheEnabled", cacheEnabled,
-            "cacheSize", responseCache.size(),
-            "cacheDuration", CACHE_DURATION / (1000 * 60 * 60) + " hours",
-            "timestampCount", cacheTimestamps.size()
-        );
+        Map<String, Object> status = new HashMap<>(evaluationCache.getStats());
+        status.put("cacheEnabled", cacheEnabled);
+        status.put("cacheSize", evaluationCache.estimatedSize());
+        status.put("cacheDuration", evaluationCache.getTtl().toHours() + " hours");
+        status.put("timestampCount", evaluationCache.estimatedSize());
+        status.put("coalescedRequests", mode1Flights.getCoalescedCount() + mode2Flights.getCoalescedCount());
+        status.put("inFlightEvaluations", mode1Flights.getInFlightCount() + mode2Flights.getInFlightCount());
+        status.put("summaryCacheSize", summaryCache.estimatedSize());
+        return status;
     }
     
     // Method to get API key dynamically
@@ -2040,12 +2238,30 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
         return "Resume";
     }
     
+    /**
+     * Reactor context of one Mode 4 request's report texts: a bulk lane of its own, so a large upload does not hold
+     * back the report texts of other requests, flagged when the request is scored by the local engine
+     */
+    Context reportTextContext(ScoringEngine engine) {
+        Context lane = AdaptiveConcurrencyLimiter.bulkLane("report-texts-" + reportLaneSequence.incrementAndGet());
+        return engine == ScoringEngine.AI ? lane : lane.put(LOCAL_ENGINE_CONTEXT_KEY, true);
+    }
+    
+    /**
+     * Summaries of all job descriptions, up to app.enrichment.max-concurrency at a time, in JD order
+     */
+    Mono<List<String>> generateJobDescriptionSummariesAsync(List<JobDescriptionInfo> jobDescriptions) {
+        return Flux.fromIterable(jobDescriptions)
+            .flatMapSequential(jobInfo -> generateJobDescriptionSummaryAsync(jobInfo.description()), enrichmentConcurrency)
+            .collectList();
+    }
+    
     /**
      * Generate a concise and accurate summary of the job description using OpenAI
      */
-    private String generateJobDescriptionSummary(String jobDescription) {
+    private Mono<String> generateJobDescriptionSummaryAsync(String jobDescription) {
         if (jobDescription == null || jobDescription.trim().isEmpty()) {
-            return "No job description provided";
+            return Mono.just("No job description provided");
         }
 
         String prompt = "Summarize the following job description in exactly 100 words, formatted as 4-5 lines. Focus on:\n" +
@@ -2061,190 +2277,150 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
                        "- Each line should be a complete thought\n\n" +
                        "Job Description:\n" + jobDescription;
 
-        try {
-            String currentApiKey = getApiKey();
-            if (currentApiKey == null || currentApiKey.equals("your-openai-api-key-here")) {
-                throw new RuntimeException("OpenAI API key not configured");
-            }
-            String aiResponse = openAIUtils.callOpenAI(currentApiKey, prompt);
-            if (aiResponse != null && !aiResponse.trim().isEmpty()) {
-                // Clean up the response
-                String summary = aiResponse.trim();
-                
-                // Remove any unwanted introductory phrases
-                summary = summary.replaceFirst("^(Here is a summary:|In summary:|Summary:|The job description|This position)", "").trim();
-                
-                // Ensure it starts with a capital letter
-                if (!summary.isEmpty()) {
-                    summary = Character.toUpperCase(summary.charAt(0)) + summary.substring(1);
-                }
-                
-                // Ensure proper line breaks for 4-5 lines format
-                summary = summary.replaceAll("\\n\\s*\\n", "\n"); // Remove extra blank lines
-                summary = summary.replaceAll("\\n+", "\n"); // Replace multiple newlines with single
-                
-                // Count words and adjust if needed
-                String[] words = summary.split("\\s+");
-                if (words.length > 100) {
-                    // Truncate to exactly 100 words
-                    StringBuilder truncated = new StringBuilder();
-                    for (int i = 0; i < 100; i++) {
-                        if (i > 0) truncated.append(" ");
-                        truncated.append(words[i]);
-                    }
-                    summary = truncated.toString();
-                }
-                
-                // Ensure it ends with a period
-                if (!summary.endsWith(".") && !summary.endsWith("!") && !summary.endsWith("?")) {
-                    summary += ".";
-                }
-                
-                return summary;
-            }
-            return "Summary not available";
-        } catch (Exception e) {
-            System.out.println("DEBUG - Error generating job description summary with OpenAI: " + e.getMessage());
-            // Fallback to simple truncation if AI fails
-            String fallback = jobDescription.trim();
-            if (fallback.length() > 200) {
-                fallback = fallback.substring(0, 197) + "...";
+        // Fallback to simple truncation if AI fails
+        String trimmed = jobDescription.trim();
+        String fallback = trimmed.length() > 200 ? trimmed.substring(0, 197) + "..." : trimmed;
+
+        return generateReportTextAsync("job description summary", prompt, ATSService::cleanJobDescriptionSummary,
+            "Summary not available", () -> {
+                String summary = localScorer.summarize(jobDescription);
+                return summary != null ? summary : fallback;
+            }, fallback);
+    }
+
+    private static String cleanJobDescriptionSummary(String aiResponse) {
+        // Clean up the response
+        String summary = aiResponse.trim();
+        
+        // Remove any unwanted introductory phrases
+        summary = summary.replaceFirst("^(Here is a summary:|In summary:|Summary:|The job description|This position)", "").trim();
+        
+        // Ensure it starts with a capital letter
+        if (!summary.isEmpty()) {
+            summary = Character.toUpperCase(summary.charAt(0)) + summary.substring(1);
+        }
+        
+        // Ensure proper line breaks for 4-5 lines format
+        summary = summary.replaceAll("\\n\\s*\\n", "\n"); // Remove extra blank lines
+        summary = summary.replaceAll("\\n+", "\n"); // Replace multiple newlines with single
+        
+        // Count words and adjust if needed
+        String[] words = summary.split("\\s+");
+        if (words.length > 100) {
+            // Truncate to exactly 100 words
+            StringBuilder truncated = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                if (i > 0) truncated.append(" ");
+                truncated.append(words[i]);
             }
-            return fallback;
+            summary = truncated.toString();
         }
+        
+        // Ensure it ends with a period
+        if (!summary.endsWith(".") && !summary.endsWith("!") && !summary.endsWith("?")) {
+            summary += ".";
+        }
+        
+        return summary;
     }
     
     /**
      * Generate improvement suggestions for higher match score using AI analysis
      */
-    private String generateImprovementSuggestions(String jobDescription, Map<String, Object> bestResume) {
-        try {
-            if (bestResume == null || bestResume.containsKey("error")) {
-                return "No resume available for analysis";
-            }
-            
-            // Get current score
-            Double currentScore = 0.0;
-            try {
-                currentScore = ((List<Double>) bestResume.get("atsScore")).get(0);
-            } catch (Exception e) {
-                currentScore = 0.0;
-            }
-            
-            // Build resume analysis data for AI
-            StringBuilder resumeAnalysis = new StringBuilder();
-            resumeAnalysis.append("RESUME ANALYSIS:\n");
-            resumeAnalysis.append("Current ATS Score: ").append(String.format("%.1f", currentScore)).append("/10\n\n");
-            
-            // Add strengths
-            if (bestResume.containsKey("strengths")) {
-                @SuppressWarnings("unchecked")
-                List<String> strengths = (List<String>) bestResume.get("strengths");
-                if (strengths != null && !strengths.isEmpty()) {
-                    resumeAnalysis.append("Strengths: ").append(String.join(", ", strengths)).append("\n");
-                }
-            }
-            
-            // Add work experience
-            if (bestResume.containsKey("workExperience")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> workExp = (Map<String, Object>) bestResume.get("workExperience");
-                if (workExp != null && workExp.containsKey("matchedSkills")) {
-                    @SuppressWarnings("unchecked")
-                    List<String> matchedSkills = (List<String>) workExp.get("matchedSkills");
-                    if (matchedSkills != null && !matchedSkills.isEmpty()) {
-                        resumeAnalysis.append("Work Experience Skills: ").append(String.join(", ", matchedSkills)).append("\n");
-                    }
-                }
-            }
-            
-            // Add technical skills
-            if (bestResume.containsKey("technicalSkills")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> techSkills = (Map<String, Object>) bestResume.get("technicalSkills");
-                if (techSkills != null && techSkills.containsKey("matchedSkills")) {
-                    @SuppressWarnings("unchecked")
-                    List<String> matchedTechSkills = (List<String>) techSkills.get("matchedSkills");
-                    if (matchedTechSkills != null && !matchedTechSkills.isEmpty()) {
-                        resumeAnalysis.append("Technical Skills: ").append(String.join(", ", matchedTechSkills)).append("\n");
-                    }
-                }
-            }
-            
-            // Add gaps if available
-            if (bestResume.containsKey("workExperience")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> workExp = (Map<String, Object>) bestResume.get("workExperience");
-                if (workExp != null && workExp.containsKey("gaps")) {
-                    @SuppressWarnings("unchecked")
-                    List<String> gaps = (List<String>) workExp.get("gaps");
-                    if (gaps != null && !gaps.isEmpty() && !gaps.get(0).equals("None")) {
-                        resumeAnalysis.append("Identified Gaps: ").append(String.join(", ", gaps)).append("\n");
-                    }
-                }
-            }
-            
-            String prompt = "Based on the following job description and resume analysis, provide specific, actionable improvement suggestions to increase the ATS match score. " +
-                          "Focus on concrete steps the candidate can take to better align with the job requirements.\n\n" +
-                          "JOB DESCRIPTION:\n" + jobDescription + "\n\n" +
-                          resumeAnalysis.toString() + "\n" +
-                          "Format your response as follows:\n" +
-                          "TO IMPROVE MATCH SCORE (Current: " + String.format("%.1f", currentScore) + "/10):\n" +
-                          "=====================================\n\n" +
-                          "Then provide 5-7 specific, actionable suggestions in bullet point format. " +
-                          "Be specific about what skills to add, experiences to highlight, or content to improve. " +
-                          "Keep each suggestion concise but detailed enough to be actionable.";
+    private Mono<String> generateImprovementSuggestionsAsync(String jobDescription, EvaluationResult bestResume) {
+        if (bestResume == null || bestResume.hasError()) {
+            return Mono.just("No resume available for analysis");
+        }
+        
+        // Get current score
+        double currentScore = bestResume.score();
+        
+        // Build resume analysis data for AI
+        StringBuilder resumeAnalysis = new StringBuilder();
+        resumeAnalysis.append("RESUME ANALYSIS:\n");
+        resumeAnalysis.append("Current ATS Score: ").append(String.format("%.1f", currentScore)).append("/10\n\n");
+        
+        appendAnalysisLine(resumeAnalysis, "Strengths", bestResume.strengths());
+        appendAnalysisLine(resumeAnalysis, "Work Experience Skills", matchedSkills(bestResume.workExperience()));
+        appendAnalysisLine(resumeAnalysis, "Technical Skills", matchedSkills(bestResume.technicalSkills()));
+        
+        // Add gaps if available
+        List<String> gaps = bestResume.workExperience() != null ? bestResume.workExperience().gaps() : null;
+        if (gaps != null && !gaps.isEmpty() && !gaps.get(0).equals("None")) {
+            appendAnalysisLine(resumeAnalysis, "Identified Gaps", gaps);
+        }
+        
+        String prompt = "Based on the following job description and resume analysis, provide specific, actionable improvement suggestions to increase the ATS match score. " +
+                      "Focus on concrete steps the candidate can take to better align with the job requirements.\n\n" +
+                      "JOB DESCRIPTION:\n" + jobDescription + "\n\n" +
+                      resumeAnalysis.toString() + "\n" +
+                      "Format your response as follows:\n" +
+                      "TO IMPROVE MATCH SCORE (Current: " + String.format("%.1f", currentScore) + "/10):\n" +
+                      "=====================================\n\n" +
+                      "Then provide 5-7 specific, actionable suggestions in bullet point format. " +
+                      "Be specific about what skills to add, experiences to highlight, or content to improve. " +
+                      "Keep each suggestion concise but detailed enough to be actionable.";
 
-            String currentApiKey = getApiKey();
-            if (currentApiKey == null || currentApiKey.equals("your-openai-api-key-here")) {
-                throw new RuntimeException("OpenAI API key not configured");
-            }
-            String aiResponse = openAIUtils.callOpenAI(currentApiKey, prompt);
-            
-            if (aiResponse != null && !aiResponse.trim().isEmpty()) {
-                // Clean up the response
-                String suggestions = aiResponse.trim();
-                
-                // Remove any unwanted introductory phrases
-                suggestions = suggestions.replaceFirst("^(Here are the suggestions:|Improvement suggestions:|Suggestions:)", "").trim();
-                
-                // Ensure it starts with the proper header
-                if (!suggestions.startsWith("TO IMPROVE MATCH SCORE")) {
-                    suggestions = "TO IMPROVE MATCH SCORE (Current: " + String.format("%.1f", currentScore) + "/10):\n" +
-                                 "=====================================\n\n" + suggestions;
-                }
-                
-                // Limit length for Excel cell
-                if (suggestions.length() > 2000) {
-                    suggestions = suggestions.substring(0, 1997) + "...";
-                }
-                
-                return suggestions;
-            }
-            
-            return "AI analysis not available";
-            
-        } catch (Exception e) {
-            System.out.println("DEBUG - Error generating AI improvement suggestions: " + e.getMessage());
-            return "Error generating suggestions";
+        return generateReportTextAsync("improvement suggestions", prompt,
+            aiResponse -> cleanImprovementSuggestions(aiResponse, currentScore),
+            "AI analysis not available", () -> localImprovementSuggestions(bestResume), "Error generating suggestions");
+    }
+
+    /**
+     * Improvement suggestions of a request scored by the local engine, from the suggestions and weaknesses the
+     * local scorer already put in the result
+     */
+    private static String localImprovementSuggestions(EvaluationResult bestResume) {
+        StringBuilder text = new StringBuilder();
+        text.append("TO IMPROVE MATCH SCORE (Current: ").append(String.format("%.1f", bestResume.score())).append("/10):\n");
+        text.append("=====================================\n\n");
+        List<String> suggestions = reportItems(bestResume.suggestions());
+        List<String> weaknesses = reportItems(bestResume.weaknesses());
+        if (suggestions.isEmpty() && weaknesses.isEmpty()) {
+            text.append("• The resume already covers the skills the job description names\n");
+        }
+        appendBullets(text, suggestions);
+        if (!weaknesses.isEmpty()) {
+            text.append("\nGaps found:\n");
+            appendBullets(text, weaknesses);
+        }
+        return text.toString().trim();
+    }
+
+    private static String cleanImprovementSuggestions(String aiResponse, double currentScore) {
+        // Clean up the response
+        String suggestions = aiResponse.trim();
+        
+        // Remove any unwanted introductory phrases
+        suggestions = suggestions.replaceFirst("^(Here are the suggestions:|Improvement suggestions:|Suggestions:)", "").trim();
+        
+        // Ensure it starts with the proper header
+        if (!suggestions.startsWith("TO IMPROVE MATCH SCORE")) {
+            suggestions = "TO IMPROVE MATCH SCORE (Current: " + String.format("%.1f", currentScore) + "/10):\n" +
+                         "=====================================\n\n" + suggestions;
+        }
+        
+        // Limit length for Excel cell
+        if (suggestions.length() > 2000) {
+            suggestions = suggestions.substring(0, 1997) + "...";
         }
+        
+        return suggestions;
     }
     
     /**
      * Generate all resume scores for a specific job description
      */
-    private String generateAllResumeScoresForJD(List<Map<String, Object>> allResults, int jdIndex) {
+    private String generateAllResumeScoresForJD(List<ResumeJDResult> allResults, int jdIndex) {
         StringBuilder scores = new StringBuilder();
         
         try {
-            // Find all results for this specific JD
-            List<Map<String, Object>> jdResults = new ArrayList<>();
-            for (Map<String, Object> result : allResults) {
-                if (result.containsKey("jdIndex") && 
-                    result.get("jdIndex") != null && 
-                    result.get("jdIndex").equals(jdIndex) &&
-                    !result.containsKey("error")) {
-                    jdResults.add(result);
+            // Find all resumes whose best match is this specific JD
+            List<EvaluationResult> jdResults = new ArrayList<>();
+            for (ResumeJDResult result : allResults) {
+                EvaluationResult bestMatch = result.bestMatch();
+                if (bestMatch.jdIndex() != null && bestMatch.jdIndex() == jdIndex && !bestMatch.hasError()) {
+                    jdResults.add(bestMatch);
                 }
             }
             
@@ -2253,34 +2429,17 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
             }
             
             // Sort by ATS score (highest first)
-            jdResults.sort((a, b) -> {
-                try {
-                    Double scoreA = ((List<Double>) a.get("atsScore")).get(0);
-                    Double scoreB = ((List<Double>) b.get("atsScore")).get(0);
-                    return Double.compare(scoreB, scoreA); // Descending order
-                } catch (Exception e) {
-                    return 0;
-                }
-            });
+            jdResults.sort((a, b) -> Double.compare(b.score(), a.score()));
             
             // Format scores line by line
             for (int i = 0; i < jdResults.size(); i++) {
-                Map<String, Object> result = jdResults.get(i);
-                String resumeName = result.get("resumeName") != null ? 
-                    result.get("resumeName").toString() : "Unknown Resume";
-                
-                Double score = 0.0;
-                try {
-                    score = ((List<Double>) result.get("atsScore")).get(0);
-                } catch (Exception e) {
-                    score = 0.0;
-                }
-                
+                EvaluationResult result = jdResults.get(i);
+                String resumeName = result.resumeName() != null ? result.resumeName() : "Unknown Resume";
                 String status = (i == 0) ? "SELECTED" : "NOT SELECTED";
                 
                 // Add line break between entries (except for the first one)
                 if (i > 0) scores.append("\n");
-                scores.append(String.format("%s: %.1f (%s)", resumeName, score, status));
+                scores.append(String.format("%s: %.1f (%s)", resumeName, result.score(), status));
             }
             
             return scores.toString();
@@ -2290,6 +2449,16 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
             return "Error generating scores";
         }
     }
+    
+    private static List<String> matchedSkills(SkillSection section) {
+        return section != null ? section.matchedSkills() : null;
+    }
+    
+    private static void appendAnalysisLine(StringBuilder analysis, String label, List<String> items) {
+        if (items != null && !items.isEmpty()) {
+            analysis.append(label).append(": ").append(String.join(", ", items)).append("\n");
+        }
+    }
 
     private List<String> extractListItems(String text, String... keywords) {
         List<String> items = new ArrayList<>();
@@ -2325,240 +2494,151 @@ private Map<String, Object> validateAndCleanResponse(Map<String, Object> respons
     /**
      * Generate a comprehensive ATS result explanation for Excel display using AI
      */
-    private String generateATSResultSummary(Map<String, Object> bestResume) {
-        try {
-            if (bestResume == null || bestResume.containsKey("error")) {
-                return "No resume analysis available";
-            }
-            
-            // Get the ATS score
-            Double score = 0.0;
-            if (bestResume.get("atsScore") != null) {
-                try {
-                    @SuppressWarnings("unchecked")
-                    List<Double> scores = (List<Double>) bestResume.get("atsScore");
-                    score = scores.get(0);
-                } catch (Exception e) {
-                    score = 0.0;
-                }
-            }
-            
-            // Build comprehensive resume analysis for AI
-            StringBuilder resumeAnalysis = new StringBuilder();
-            resumeAnalysis.append("RESUME ANALYSIS DATA:\n");
-            resumeAnalysis.append("ATS Score: ").append(String.format("%.1f", score)).append("/10\n\n");
-            
-            // Add strengths
-            if (bestResume.containsKey("strengths")) {
-                @SuppressWarnings("unchecked")
-                List<String> strengths = (List<String>) bestResume.get("strengths");
-                if (strengths != null && !strengths.isEmpty()) {
-                    resumeAnalysis.append("Strengths: ").append(String.join(", ", strengths)).append("\n");
-                }
-            }
-            
-            // Add work experience
-            if (bestResume.containsKey("workExperience")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> workExp = (Map<String, Object>) bestResume.get("workExperience");
-                if (workExp != null && workExp.containsKey("matchedSkills")) {
-                    @SuppressWarnings("unchecked")
-                    List<String> matchedSkills = (List<String>) workExp.get("matchedSkills");
-                    if (matchedSkills != null && !matchedSkills.isEmpty()) {
-                        resumeAnalysis.append("Work Experience Skills: ").append(String.join(", ", matchedSkills)).append("\n");
-                    }
-                }
-            }
-            
-            // Add technical skills
-            if (bestResume.containsKey("technicalSkills")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> techSkills = (Map<String, Object>) bestResume.get("technicalSkills");
-                if (techSkills != null && techSkills.containsKey("matchedSkills")) {
-                    @SuppressWarnings("unchecked")
-                    List<String> matchedTechSkills = (List<String>) techSkills.get("matchedSkills");
-                    if (matchedTechSkills != null && !matchedTechSkills.isEmpty()) {
-                        resumeAnalysis.append("Technical Skills: ").append(String.join(", ", matchedTechSkills)).append("\n");
-                    }
-                }
-            }
-            
-            // Add projects
-            if (bestResume.containsKey("projects")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> projects = (Map<String, Object>) bestResume.get("projects");
-                if (projects != null && projects.containsKey("matchedSkills")) {
-                    @SuppressWarnings("unchecked")
-                    List<String> projectSkills = (List<String>) projects.get("matchedSkills");
-                    if (projectSkills != null && !projectSkills.isEmpty()) {
-                        resumeAnalysis.append("Project Experience: ").append(String.join(", ", projectSkills)).append("\n");
-                    }
-                }
-            }
-            
-            // Add certifications
-            if (bestResume.containsKey("certificates")) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> certificates = (Map<String, Object>) bestResume.get("certificates");
-                if (certificates != null && certificates.containsKey("matchedSkills")) {
-                    @SuppressWarnings("unchecked")
-                    List<String> certSkills = (List<String>) certificates.get("matchedSkills");
-                    if (certSkills != null && !certSkills.isEmpty()) {
-                        resumeAnalysis.append("Certifications: ").append(String.join(", ", certSkills)).append("\n");
-                    }
-                }
-            }
-            
-            // Add career summary
-            if (bestResume.containsKey("careerSummary")) {
-                @SuppressWarnings("unchecked")
-                List<String> careerSummary = (List<String>) bestResume.get("careerSummary");
-                if (careerSummary != null && !careerSummary.isEmpty()) {
-                    resumeAnalysis.append("Career Summary: ").append(String.join(", ", careerSummary)).append("\n");
-                }
-            }
-            
-            String prompt = "Based on the following MATCHED resume analysis data, provide a focused explanation of why THIS SPECIFIC RESUME was selected as the best match. " +
-                          "This is the WINNING resume that got selected, so highlight only its strengths and qualifications.\n\n" +
-                          resumeAnalysis.toString() + "\n" +
-                          "Format your response as follows:\n" +
-                          "RESUME WAS SELECTED:\n" +
-                          "===================\n\n" +
-                          "Key strengths that made the difference:\n" +
-                          "• [List 3-5 key strengths that made this resume stand out]\n\n" +
-                          "Relevant work experience:\n" +
-                          "• [Highlight 2-3 most relevant work experience points]\n\n" +
-                          "Technical competencies:\n" +
-                          "• [List 2-3 key technical skills that matched the job]\n\n" +
-                          "Why this resume won:\n" +
-                          "[Brief 2-3 sentence explanation of why this specific resume was chosen over others]\n\n" +
-                          "Focus ONLY on this matched resume's qualifications. Do not mention other resumes or comparisons. " +
-                          "Keep it concise and professional for Excel display.";
+    private Mono<String> generateATSResultSummaryAsync(EvaluationResult bestResume) {
+        if (bestResume == null) {
+            return Mono.just("No analysis available");
+        }
+        if (bestResume.hasError()) {
+            return Mono.just("No resume analysis available");
+        }
+        
+        // Get the ATS score
+        double score = bestResume.score();
+        
+        // Build comprehensive resume analysis for AI
+        StringBuilder resumeAnalysis = new StringBuilder();
+        resumeAnalysis.append("RESUME ANALYSIS DATA:\n");
+        resumeAnalysis.append("ATS Score: ").append(String.format("%.1f", score)).append("/10\n\n");
+        
+        appendAnalysisLine(resumeAnalysis, "Strengths", bestResume.strengths());
+        appendAnalysisLine(resumeAnalysis, "Work Experience Skills", matchedSkills(bestResume.workExperience()));
+        appendAnalysisLine(resumeAnalysis, "Technical Skills", matchedSkills(bestResume.technicalSkills()));
+        appendAnalysisLine(resumeAnalysis, "Project Experience", matchedSkills(bestResume.projects()));
+        appendAnalysisLine(resumeAnalysis, "Certifications", matchedSkills(bestResume.certificates()));
+        appendAnalysisLine(resumeAnalysis, "Career Summary", bestResume.careerSummary());
+        
+        String prompt = "Based on the following MATCHED resume analysis data, provide a focused explanation of why THIS SPECIFIC RESUME was selected as the best match. " +
+                      "This is the WINNING resume that got selected, so highlight only its strengths and qualifications.\n\n" +
+                      resumeAnalysis.toString() + "\n" +
+                      "Format your response as follows:\n" +
+                      "RESUME WAS SELECTED:\n" +
+                      "===================\n\n" +
+                      "Key strengths that made the difference:\n" +
+                      "• [List 3-5 key strengths that made this resume stand out]\n\n" +
+                      "Relevant work experience:\n" +
+                      "• [Highlight 2-3 most relevant work experience points]\n\n" +
+                      "Technical competencies:\n" +
+                      "• [List 2-3 key technical skills that matched the job]\n\n" +
+                      "Why this resume won:\n" +
+                      "[Brief 2-3 sentence explanation of why this specific resume was chosen over others]\n\n" +
+                      "Focus ONLY on this matched resume's qualifications. Do not mention other resumes or comparisons. " +
+                      "Keep it concise and professional for Excel display.";
 
-            String currentApiKey = getApiKey();
-            if (currentApiKey == null || currentApiKey.equals("your-openai-api-key-here")) {
-                throw new RuntimeException("OpenAI API key not configured");
-            }
-            String aiResponse = openAIUtils.callOpenAI(currentApiKey, prompt);
-            
-            if (aiResponse != null && !aiResponse.trim().isEmpty()) {
-                // Clean up the response
-                String explanation = aiResponse.trim();
-                
-                // Remove any unwanted introductory phrases
-                explanation = explanation.replaceFirst("^(Here is the analysis:|Analysis:|Resume Analysis:|This resume was selected because:)", "").trim();
-                
-                // Ensure it starts with the proper header for matched resume
-                if (!explanation.startsWith("RESUME WAS SELECTED:")) {
-                    explanation = "RESUME WAS SELECTED:\n===================\n\n" + explanation;
-                }
-                
-                // Remove any mentions of other resumes or comparisons
-                explanation = explanation.replaceAll("(?i)(compared to other|among all|other candidates|other resumes)", "among all candidates");
-                explanation = explanation.replaceAll("(?i)(this candidate|this person)", "this resume");
-                
-                // Limit length for Excel cell
-                if (explanation.length() > 3000) {
-                    explanation = explanation.substring(0, 2997) + "...";
-                }
-                
-                return explanation;
-            }
-            
-            return "Analysis not available";
-            
-        } catch (Exception e) {
-            System.out.println("DEBUG - Error generating AI ATS result: " + e.getMessage());
-            return "Analysis data unavailable";
-        }
+        return generateReportTextAsync("ATS result", prompt, ATSService::cleanATSResult,
+            "Analysis not available", () -> localATSResult(bestResume), "Analysis data unavailable");
     }
-    
+
+    /**
+     * ATS result explanation of a request scored by the local engine, from the strengths and matched skills the
+     * local scorer already put in the result
+     */
+    private static String localATSResult(EvaluationResult bestResume) {
+        StringBuilder text = new StringBuilder();
+        text.append("RESUME WAS SELECTED:\n");
+        text.append("===================\n\n");
+        text.append("Key strengths that made the difference:\n");
+        List<String> strengths = reportItems(bestResume.strengths());
+        if (strengths.isEmpty()) {
+            text.append("• Highest match score among the resumes (").append(String.format("%.1f", bestResume.score()))
+                .append("/10)\n");
+        }
+        appendBullets(text, strengths);
+        List<String> experience = reportItems(matchedSkills(bestResume.workExperience()));
+        if (!experience.isEmpty()) {
+            text.append("\nRelevant work experience:\n• ").append(String.join(", ", experience)).append("\n");
+        }
+        List<String> technical = reportItems(matchedSkills(bestResume.technicalSkills()));
+        if (!technical.isEmpty()) {
+            text.append("\nTechnical competencies:\n• ").append(String.join(", ", technical)).append("\n");
+        }
+        return text.toString().trim();
+    }
+
     /**
-     * Generate comprehensive summary of all resume scores and results for a specific job description
+     * Items worth listing in a report text; the "None" and "N/A" placeholders of empty sections are dropped
      */
-    private String generateAllResumeScoresSummary(List<Map<String, Object>> allResults, int jdIndex) {
-        StringBuilder summary = new StringBuilder();
+    private static List<String> reportItems(List<String> items) {
+        if (items == null) {
+            return List.of();
+        }
+        return items.stream()
+            .filter(item -> item != null && !item.isBlank() && !item.equals("None") && !item.equals("N/A"))
+            .toList();
+    }
+
+    private static void appendBullets(StringBuilder text, List<String> items) {
+        for (String item : items) {
+            text.append("• ").append(item).append("\n");
+        }
+    }
+
+    private static String cleanATSResult(String aiResponse) {
+        // Clean up the response
+        String explanation = aiResponse.trim();
         
-        try {
-            summary.append("ALL RESUMES FOR THIS JOB:\n");
-            summary.append("========================\n");
-            
-            int resumeCount = 0;
-            for (Map<String, Object> resumeResult : allResults) {
-                if (!resumeResult.containsKey("error")) {
-                    // Check if this resume has matches for the specific JD
-                    @SuppressWarnings("unchecked")
-                    List<Map<String, Object>> allMatches = (List<Map<String, Object>>) resumeResult.get("allMatches");
-                    if (allMatches != null) {
-                        for (Map<String, Object> match : allMatches) {
-                            if (match.get("jdIndex") != null && match.get("jdIndex").equals(jdIndex)) {
-                                resumeCount++;
-                                
-                                // Get resume name
-                                String resumeName = (String) match.get("resumeName");
-                                if (resumeName == null) {
-                                    resumeName = "Unknown Resume";
-                                }
-                                
-                                // Get ATS score
-                                Double score = 0.0;
-                                if (match.get("atsScore") != null) {
-                                    try {
-                                        @SuppressWarnings("unchecked")
-                                        List<Double> scores = (List<Double>) match.get("atsScore");
-                                        score = scores.get(0);
-                                    } catch (Exception e) {
-                                        score = 0.0;
-                                    }
-                                }
-                                
-                                // Determine match status based on position (first = matched)
-                                String matchStatus = (resumeCount == 1) ? "MATCHED" : "NOT MATCHED";
-                                
-                                // Format the resume entry
-                                summary.append(String.format("Resume %d: %s | Score: %.1f | Status: %s\n", 
-                                    resumeCount, resumeName, score, matchStatus));
-                                
-                                // Add brief strengths if available
-                                if (match.containsKey("strengths")) {
-                                    @SuppressWarnings("unchecked")
-                                    List<String> strengths = (List<String>) match.get("strengths");
-                                    if (strengths != null && !strengths.isEmpty()) {
-                                        String topStrength = strengths.get(0);
-                                        if (topStrength.length() > 50) {
-                                            topStrength = topStrength.substring(0, 47) + "...";
-                                        }
-                                        summary.append(String.format("  → Key Strength: %s\n", topStrength));
-                                    }
-                                }
-                                
-                                summary.append("\n");
-                                break; // Only process the first match for this resume
-                            }
-                        }
-                    }
-                }
+        // Remove any unwanted introductory phrases
+        explanation = explanation.replaceFirst("^(Here is the analysis:|Analysis:|Resume Analysis:|This resume was selected because:)", "").trim();
+        
+        // Ensure it starts with the proper header for matched resume
+        if (!explanation.startsWith("RESUME WAS SELECTED:")) {
+            explanation = "RESUME WAS SELECTED:\n===================\n\n" + explanation;
+        }
+        
+        // Remove any mentions of other resumes or comparisons
+        explanation = explanation.replaceAll("(?i)(compared to other|among all|other candidates|other resumes)", "among all candidates");
+        explanation = explanation.replaceAll("(?i)(this candidate|this person)", "this resume");
+        
+        // Limit length for Excel cell
+        if (explanation.length() > 3000) {
+            explanation = explanation.substring(0, 2997) + "...";
+        }
+        
+        return explanation;
+    }
+
+    /**
+     * AI-written report text, memoized in the summary cache by prompt hash; identical prompts that are in flight
+     * share one call. Failures are not cached and produce the fallback text; requests scored by the local engine get
+     * the local text instead, built from what the local scorer found.
+     */
+    private Mono<String> generateReportTextAsync(String kind, String prompt, Function<String, String> cleanup,
+                                                 String emptyText, Supplier<String> localText, String fallbackText) {
+        String cacheKey = CacheKeyBuilder.create().add(kind).add(prompt).build();
+        return Mono.deferContextual(context -> {
+            if (context.getOrDefault(LOCAL_ENGINE_CONTEXT_KEY, false)) {
+                return Mono.fromSupplier(localText);
             }
-            
-            if (resumeCount == 0) {
-                summary.append("No resumes processed for this job description.\n");
-            } else {
-                summary.append(String.format("Total Resumes Analyzed: %d\n", resumeCount));
+            String cached = summaryCache.getIfPresent(cacheKey);
+            if (cached != null) {
+                return Mono.just(cached);
             }
-            
-            // Clean up the summary and limit length
-            String result = summary.toString();
-            if (result.length() > 2000) {
-                result = result.substring(0, 1997) + "...";
+            String currentApiKey = getApiKey();
+            if (currentApiKey == null || currentApiKey.equals("your-openai-api-key-here")) {
+                return Mono.error(new RuntimeException("OpenAI API key not configured"));
             }
-            
-            return result.isEmpty() ? "No resume data available" : result;
-            
-        } catch (Exception e) {
-            System.out.println("DEBUG - Error generating all resume scores summary: " + e.getMessage());
-            return "Error generating resume summary";
-        }
+            return reportTextFlights.execute(cacheKey, () -> openAIUtils.callOpenAIAsync(currentApiKey, prompt)
+                .defaultIfEmpty("")
+                .map(aiResponse -> {
+                    if (aiResponse.trim().isEmpty()) {
+                        return emptyText;
+                    }
+                    String text = cleanup.apply(aiResponse);
+                    summaryCache.put(cacheKey, text);
+                    return text;
+                }));
+        }).onErrorResume(e -> {
+            System.out.println("DEBUG - Error generating " + kind + " with OpenAI: " + e.getMessage());
+            return Mono.just(fallbackText);
+        });
     }
 }
-
-
@@ -0,0 +1,80 @@
+package com.ats.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * In-memory copy of an upload. Spring removes multipart temp files once the request completes,
+ * so work that outlives the request (background jobs) must hold its own copy of the content.
+ */
+public class BufferedMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final byte[] content;
+
+    private BufferedMultipartFile(String name, String originalFilename, String contentType, byte[] content) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    public static BufferedMultipartFile copyOf(MultipartFile file) throws IOException {
+        return new BufferedMultipartFile(file.getName(), file.getOriginalFilename(), file.getContentType(), file.getBytes());
+    }
+
+    public static BufferedMultipartFile[] copyOf(MultipartFile[] files) throws IOException {
+        BufferedMultipartFile[] copies = new BufferedMultipartFile[files.length];
+        for (int i = 0; i < files.length; i++) {
+            copies[i] = copyOf(files[i]);
+        }
+        return copies;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return content.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return content.clone();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.write(dest.toPath(), content);
+    }
+}
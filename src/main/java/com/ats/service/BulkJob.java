@@ -0,0 +1,172 @@
+package com.ats.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of one background Mode 3 / Mode 4 run. Updated by the job worker and the pair
+ * callbacks, read by status polls; every field is safe to read from any thread.
+ */
+public class BulkJob implements BulkProgressListener {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String mode;
+    private final long createdAt = System.currentTimeMillis();
+    private final AtomicInteger completedPairs = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Map<String, Object>> pairResults = new ConcurrentLinkedQueue<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile int totalPairs = -1;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile Map<String, Object> result;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public BulkJob(String id, String mode) {
+        this.id = id;
+        this.mode = mode;
+    }
+
+    @Override
+    public void onStart(int totalPairs) {
+        this.totalPairs = totalPairs;
+    }
+
+    @Override
+    public void onPairCompleted(int resumeIndex, int jdIndex, Map<String, Object> pairResult) {
+        // Only the fields needed to follow progress; the full result (with resume text) comes with the final result
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("resumeIndex", resumeIndex);
+        summary.put("jdIndex", jdIndex);
+        summary.put("resumeName", pairResult.get("resumeName"));
+        summary.put("atsScore", pairResult.get("atsScore"));
+        if (pairResult.containsKey("companyName")) {
+            summary.put("companyName", pairResult.get("companyName"));
+            summary.put("roleName", pairResult.get("roleName"));
+        }
+        if (pairResult.containsKey("error")) {
+            summary.put("error", pairResult.get("error"));
+        }
+        pairResults.add(summary);
+        completedPairs.incrementAndGet();
+    }
+
+    synchronized boolean markRunning() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+        return true;
+    }
+
+    void markCompleted(Map<String, Object> result) {
+        this.result = result;
+        finish(Status.COMPLETED);
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    void markCancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    private synchronized void finish(Status finalStatus) {
+        // A cancelled job stays cancelled even if its worker finishes afterwards
+        if (!status.isFinished()) {
+            finishedAt = System.currentTimeMillis();
+            status = finalStatus;
+        }
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Status payload returned by GET /api/jobs/{id}
+     */
+    public Map<String, Object> toStatusMap() {
+        Status currentStatus = status;
+        int total = totalPairs;
+        int completed = completedPairs.get();
+
+        Map<String, Object> statusMap = new HashMap<>();
+        statusMap.put("jobId", id);
+        statusMap.put("mode", mode);
+        statusMap.put("status", currentStatus.name());
+        statusMap.put("createdAt", createdAt);
+        statusMap.put("totalPairs", total < 0 ? null : total);
+        statusMap.put("completedPairs", completed);
+        statusMap.put("percentComplete", percentComplete(currentStatus, completed, total));
+        statusMap.put("etaSeconds", etaSeconds(currentStatus, completed, total));
+        statusMap.put("results", new ArrayList<>(pairResults));
+
+        if (startedAt > 0) {
+            statusMap.put("startedAt", startedAt);
+        }
+        if (currentStatus.isFinished()) {
+            statusMap.put("finishedAt", finishedAt);
+        }
+        if (currentStatus == Status.COMPLETED) {
+            statusMap.put("result", result);
+        }
+        if (error != null) {
+            statusMap.put("error", error);
+        }
+        return statusMap;
+    }
+
+    private static double percentComplete(Status status, int completed, int total) {
+        if (status == Status.COMPLETED) {
+            return 100.0;
+        }
+        if (total <= 0) {
+            return 0.0;
+        }
+        // Pair scoring is the bulk of the work; hold at 99% while the final report is being built
+        double percent = Math.min(99.0, completed * 100.0 / total);
+        return Math.round(percent * 10.0) / 10.0;
+    }
+
+    private Long etaSeconds(Status status, int completed, int total) {
+        if (status != Status.RUNNING || completed == 0 || total <= 0) {
+            return null;
+        }
+        long elapsed = System.currentTimeMillis() - startedAt;
+        long remaining = Math.max(0, total - completed);
+        return Math.round(elapsed / (double) completed * remaining / 1000.0);
+    }
+}
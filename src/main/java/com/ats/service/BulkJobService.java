@@ -0,0 +1,204 @@
+package com.ats.service;
+
+import com.ats.exception.ATSServiceException;
+import com.ats.model.ScoringEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Runs Mode 3 / Mode 4 analyses in the background so the submitting request returns immediately.
+ * Jobs wait in a bounded queue; a full queue is reported as RATE_LIMIT_EXCEEDED. Finished jobs
+ * are kept for {@code app.jobs.retention-minutes} so clients can collect their results. Uploads are spooled to
+ * {@code app.jobs.spool-directory} while their job waits or runs, and deleted once it ends or is cancelled.
+ */
+@Service
+public class BulkJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkJobService.class);
+
+    private final ATSService atsService;
+    private final ThreadPoolExecutor bulkJobExecutor;
+    private final long retentionMillis;
+    private final Path spoolDirectory;
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+
+    public BulkJobService(ATSService atsService,
+                          @Qualifier("bulkJobExecutor") ThreadPoolExecutor bulkJobExecutor,
+                          @Value("${app.jobs.retention-minutes:60}") long retentionMinutes,
+                          @Value("${app.jobs.spool-directory:${java.io.tmpdir}/ats-jobs}") String spoolDirectory) {
+        this.atsService = atsService;
+        this.bulkJobExecutor = bulkJobExecutor;
+        this.retentionMillis = retentionMinutes * 60 * 1000;
+        this.spoolDirectory = Paths.get(spoolDirectory);
+        try {
+            Files.createDirectories(this.spoolDirectory);
+            cleanupSpoolDirectory();
+        } catch (IOException e) {
+            logger.error("Failed to create job spool directory {}: {}", this.spoolDirectory.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    public BulkJob submitMode3(MultipartFile[] resumes, String jdText) {
+        return submitMode3(resumes, jdText, ScoringEngine.AI);
+    }
+
+    public BulkJob submitMode3(MultipartFile[] resumes, String jdText, ScoringEngine engine) {
+        SpooledMultipartFile[] spooledResumes = spool(resumes);
+        return submit("mode3", job -> atsService.bulkResumeAnalysis(spooledResumes, jdText, job, engine), spooledResumes);
+    }
+
+    public BulkJob submitMode4(MultipartFile[] resumes, MultipartFile jdFile) {
+        return submitMode4(resumes, jdFile, ScoringEngine.AI);
+    }
+
+    public BulkJob submitMode4(MultipartFile[] resumes, MultipartFile jdFile, ScoringEngine engine) {
+        SpooledMultipartFile[] spooledFiles = spool(append(resumes, jdFile));
+        SpooledMultipartFile[] spooledResumes = Arrays.copyOf(spooledFiles, resumes.length);
+        SpooledMultipartFile spooledJdFile = spooledFiles[resumes.length];
+        return submit("mode4", job -> atsService.bulkJDResumeAnalysis(spooledResumes, spooledJdFile, job, engine), spooledFiles);
+    }
+
+    public BulkJob getJob(String jobId) {
+        BulkJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ATSServiceException("JOB_NOT_FOUND", "Job not found: " + jobId, "The requested job does not exist or has expired.");
+        }
+        return job;
+    }
+
+    /**
+     * Cancel a queued or running job. A running job is interrupted, which cancels its in-flight AI calls.
+     */
+    public BulkJob cancelJob(String jobId) {
+        BulkJob job = getJob(jobId);
+        if (!job.getStatus().isFinished()) {
+            job.markCancelled();
+            Future<?> future = job.getFuture();
+            if (future != null) {
+                future.cancel(true);
+            }
+            logger.info("Job {} cancelled", jobId);
+        }
+        return job;
+    }
+
+    public Map<String, Object> getQueueStatus() {
+        return Map.of(
+            "activeJobs", bulkJobExecutor.getActiveCount(),
+            "queuedJobs", bulkJobExecutor.getQueue().size(),
+            "queueCapacity", bulkJobExecutor.getQueue().size() + bulkJobExecutor.getQueue().remainingCapacity(),
+            "trackedJobs", jobs.size()
+        );
+    }
+
+    private BulkJob submit(String mode, Function<BulkJob, Map<String, Object>> analysis, SpooledMultipartFile[] uploads) {
+        cleanupExpiredJobs();
+
+        BulkJob job = new BulkJob(UUID.randomUUID().toString(), mode);
+        jobs.put(job.getId(), job);
+
+        AtomicBoolean started = new AtomicBoolean();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            started.set(true);
+            try {
+                run(job, analysis);
+            } finally {
+                SpooledMultipartFile.delete(uploads);
+            }
+        }, null) {
+            @Override
+            protected void done() {
+                // A job cancelled while queued never runs, so its uploads are deleted here
+                if (!started.get()) {
+                    SpooledMultipartFile.delete(uploads);
+                }
+            }
+        };
+        job.setFuture(task);
+
+        try {
+            bulkJobExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            SpooledMultipartFile.delete(uploads);
+            logger.warn("Job queue is full, rejecting {} job", mode);
+            throw new ATSServiceException("RATE_LIMIT_EXCEEDED", "Bulk job queue is full",
+                "Too many analysis jobs are queued. Please try again in a few minutes.");
+        }
+
+        logger.info("Job {} ({}) queued", job.getId(), mode);
+        return job;
+    }
+
+    private void run(BulkJob job, Function<BulkJob, Map<String, Object>> analysis) {
+        if (!job.markRunning()) {
+            return;
+        }
+        logger.info("Job {} started", job.getId());
+
+        try {
+            Map<String, Object> result = analysis.apply(job);
+            job.markCompleted(result);
+            logger.info("Job {} completed", job.getId());
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted() || job.getStatus() == BulkJob.Status.CANCELLED) {
+                job.markCancelled();
+                logger.info("Job {} stopped after cancellation", job.getId());
+            } else {
+                job.markFailed(e.getMessage());
+                logger.error("Job {} failed", job.getId(), e);
+            }
+        }
+    }
+
+    // Uploads are copied because Spring deletes the originals when the submitting request ends
+    private SpooledMultipartFile[] spool(MultipartFile[] files) {
+        try {
+            return SpooledMultipartFile.copyOf(files, spoolDirectory);
+        } catch (IOException e) {
+            throw new ATSServiceException("Failed to read uploaded files", e);
+        }
+    }
+
+    private static MultipartFile[] append(MultipartFile[] files, MultipartFile file) {
+        MultipartFile[] all = Arrays.copyOf(files, files.length + 1);
+        all[files.length] = file;
+        return all;
+    }
+
+    // Jobs do not survive a restart, so anything left in the spool directory belongs to none
+    private void cleanupSpoolDirectory() {
+        try (DirectoryStream<Path> uploads = Files.newDirectoryStream(spoolDirectory, "upload-*.tmp")) {
+            for (Path upload : uploads) {
+                Files.deleteIfExists(upload);
+            }
+        } catch (IOException e) {
+            logger.warn("Job spool cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private void cleanupExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt() < cutoff);
+    }
+}
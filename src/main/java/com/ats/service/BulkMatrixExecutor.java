@@ -0,0 +1,231 @@
+package com.ats.service;
+
+import com.ats.exception.ATSServiceException;
+import com.ats.utils.AdaptiveConcurrencyLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs every resume x job description pair of a bulk request concurrently.
+ * Blocking evaluators run on the bulk pool with at most {@code app.bulk.max-concurrency} pairs of one
+ * request in flight; non-blocking evaluators may keep up to {@code app.bulk.max-in-flight} pairs in flight
+ * without holding a thread each. Results are always returned ordered by (resumeIndex, jdIndex).
+ */
+@Component
+public class BulkMatrixExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkMatrixExecutor.class);
+
+    /**
+     * Evaluates a single resume/JD pair
+     */
+    @FunctionalInterface
+    public interface PairEvaluator<T> {
+        T evaluate(int resumeIndex, int jdIndex) throws Exception;
+    }
+
+    /**
+     * Builds the result recorded for a pair whose evaluation failed
+     */
+    @FunctionalInterface
+    public interface PairErrorHandler<T> {
+        T onError(int resumeIndex, int jdIndex, Exception e);
+    }
+
+    /**
+     * Evaluates a single resume/JD pair without blocking the calling thread
+     */
+    @FunctionalInterface
+    public interface AsyncPairEvaluator<T> {
+        Mono<T> evaluate(int resumeIndex, int jdIndex);
+    }
+
+    /**
+     * Notified as soon as each pair has a result (successful or error), in completion order
+     */
+    @FunctionalInterface
+    public interface PairListener<T> {
+        void onPairCompleted(int resumeIndex, int jdIndex, T result);
+    }
+
+    private final ExecutorService bulkTaskExecutor;
+    private final int maxConcurrency;
+    private final int maxInFlight;
+    private final Scheduler bulkScheduler;
+    private final AtomicLong laneSequence = new AtomicLong();
+
+    @Autowired
+    public BulkMatrixExecutor(@Qualifier("bulkTaskExecutor") ExecutorService bulkTaskExecutor,
+                              @Value("${app.bulk.max-concurrency:8}") int maxConcurrency,
+                              @Value("${app.bulk.max-in-flight:64}") int maxInFlight) {
+        this.bulkTaskExecutor = bulkTaskExecutor;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.bulkScheduler = Schedulers.fromExecutorService(bulkTaskExecutor, "ats-bulk");
+    }
+
+    public BulkMatrixExecutor(ExecutorService bulkTaskExecutor, int maxConcurrency) {
+        this(bulkTaskExecutor, maxConcurrency, maxConcurrency);
+    }
+
+    /**
+     * Evaluate the full matrix. The returned list has one entry per resume, each holding
+     * one result per job description in JD order. A failing pair never affects other pairs.
+     */
+    public <T> List<List<T>> execute(int resumeCount, int jdCount,
+                                     PairEvaluator<T> evaluator, PairErrorHandler<T> errorHandler) {
+        logger.info("Evaluating {} resume x {} JD pairs with max concurrency {}",
+            resumeCount, jdCount, maxConcurrency);
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<T>> futures = new ArrayList<>(resumeCount * jdCount);
+
+        try {
+            for (int resumeIndex = 0; resumeIndex < resumeCount; resumeIndex++) {
+                for (int jdIndex = 0; jdIndex < jdCount; jdIndex++) {
+                    final int r = resumeIndex;
+                    final int j = jdIndex;
+                    permits.acquire();
+                    try {
+                        futures.add(bulkTaskExecutor.submit(() -> {
+                            try {
+                                return evaluator.evaluate(r, j);
+                            } catch (Exception e) {
+                                return errorHandler.onError(r, j, e);
+                            } finally {
+                                permits.release();
+                            }
+                        }));
+                    } catch (RuntimeException e) {
+                        permits.release();
+                        throw e;
+                    }
+                }
+            }
+
+            List<List<T>> matrix = new ArrayList<>(resumeCount);
+            int futureIndex = 0;
+            for (int resumeIndex = 0; resumeIndex < resumeCount; resumeIndex++) {
+                List<T> row = new ArrayList<>(jdCount);
+                for (int jdIndex = 0; jdIndex < jdCount; jdIndex++) {
+                    row.add(futures.get(futureIndex++).get());
+                }
+                matrix.add(row);
+            }
+            return matrix;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(futures);
+            throw new ATSServiceException("Bulk analysis was interrupted", e);
+        } catch (ExecutionException e) {
+            // Evaluation errors are handled per pair, so this only happens if the error handler itself failed
+            cancelAll(futures);
+            throw new ATSServiceException("Bulk analysis failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (RuntimeException e) {
+            cancelAll(futures);
+            throw e;
+        }
+    }
+
+    /**
+     * Evaluate the full matrix with non-blocking evaluators. Same contract as {@link #execute}, but pairs are
+     * only bounded by {@code app.bulk.max-in-flight}; the calling thread is the only one that waits.
+     */
+    public <T> List<List<T>> executeAsync(int resumeCount, int jdCount,
+                                          AsyncPairEvaluator<T> evaluator, PairErrorHandler<T> errorHandler) {
+        return executeAsync(resumeCount, jdCount, evaluator, errorHandler, (resumeIndex, jdIndex, result) -> { });
+    }
+
+    /**
+     * Same as {@link #executeAsync(int, int, AsyncPairEvaluator, PairErrorHandler)}, reporting every pair
+     * to the listener the moment it completes. A failing listener does not affect the evaluation.
+     * Each matrix is its own bulk lane of the OpenAI concurrency limiter, so concurrent requests share it fairly.
+     */
+    public <T> List<List<T>> executeAsync(int resumeCount, int jdCount, AsyncPairEvaluator<T> evaluator,
+                                          PairErrorHandler<T> errorHandler, PairListener<T> listener) {
+        logger.info("Evaluating {} resume x {} JD pairs with max in-flight {}",
+            resumeCount, jdCount, maxInFlight);
+
+        List<T> results;
+        try {
+            results = Flux.range(0, resumeCount * jdCount)
+                    .flatMapSequential(pairIndex -> {
+                        int r = pairIndex / jdCount;
+                        int j = pairIndex % jdCount;
+                        return Mono.defer(() -> evaluator.evaluate(r, j))
+                                .onErrorResume(e -> Mono.fromSupplier(() -> errorHandler.onError(r, j, toException(e)))
+                                        .subscribeOn(bulkScheduler))
+                                .doOnNext(result -> notifyListener(listener, r, j, result));
+                    }, maxInFlight)
+                    .collectList()
+                    .contextWrite(AdaptiveConcurrencyLimiter.bulkLane("matrix-" + laneSequence.incrementAndGet()))
+                    .block();
+        } catch (RuntimeException e) {
+            // block() cancels the in-flight pairs when the waiting thread is interrupted
+            if (Exceptions.unwrap(e) instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new ATSServiceException("Bulk analysis was interrupted", e);
+            }
+            throw e;
+        }
+
+        List<List<T>> matrix = new ArrayList<>(resumeCount);
+        for (int resumeIndex = 0; resumeIndex < resumeCount; resumeIndex++) {
+            matrix.add(new ArrayList<>(results.subList(resumeIndex * jdCount, (resumeIndex + 1) * jdCount)));
+        }
+        return matrix;
+    }
+
+    /**
+     * Scheduler backed by the bulk pool, for the blocking steps (file parsing, storage) of async evaluators
+     * so they never run on the HTTP client's event loop
+     */
+    public Scheduler getScheduler() {
+        return bulkScheduler;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private static <T> void notifyListener(PairListener<T> listener, int resumeIndex, int jdIndex, T result) {
+        try {
+            listener.onPairCompleted(resumeIndex, jdIndex, result);
+        } catch (RuntimeException e) {
+            logger.warn("Pair listener failed for resume {} / JD {}: {}", resumeIndex, jdIndex, e.getMessage());
+        }
+    }
+
+    private static Exception toException(Throwable e) {
+        Throwable unwrapped = Exceptions.unwrap(e);
+        return unwrapped instanceof Exception exception ? exception : new RuntimeException(unwrapped);
+    }
+
+    private void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ats.service;
+
+import java.util.Map;
+
+/**
+ * Receives progress of a Mode 3 / Mode 4 run while it is executing.
+ * Callbacks may arrive on different worker threads, in pair completion order.
+ */
+public interface BulkProgressListener {
+
+    BulkProgressListener NONE = new BulkProgressListener() { };
+
+    /**
+     * Called once the number of resume x JD pairs to evaluate is known
+     */
+    default void onStart(int totalPairs) {
+    }
+
+    /**
+     * Called as soon as a pair has been scored, or has failed (the result then contains "error")
+     */
+    default void onPairCompleted(int resumeIndex, int jdIndex, Map<String, Object> result) {
+    }
+}
@@ -0,0 +1,467 @@
+package com.ats.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent second tier behind {@link EvaluationCache}, so paid AI results survive restarts.
+ * Results are appended as JSON records to a single segment file; an in-memory index maps each
+ * content-hash key to its latest record. The file is memory-mapped once at startup to rebuild the index
+ * (a torn or corrupt tail is truncated), and is rewritten in the background without expired and
+ * overwritten records. Writes and compaction run on one background thread, off the request path.
+ */
+@Component
+public class DiskEvaluationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskEvaluationStore.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> RESULT_TYPE = new TypeReference<>() {};
+
+    static final String SEGMENT_FILE = "evaluations.seg";
+    private static final int MAGIC = 0x41545331; // "ATS1"
+    // magic, key length, expiry, value length
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int CRC_BYTES = 4;
+
+    private final boolean enabled;
+    private final Path segmentPath;
+    private final long maxBytes;
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+    // Readers hold the read lock; swapping the file after compaction or clearing it takes the write lock
+    private final ReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private final AtomicLong fileSize = new AtomicLong();
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private ScheduledExecutorService writer;
+    private FileChannel channel;
+
+    private record IndexEntry(long offset, int length, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+
+    public DiskEvaluationStore(@Value("${app.cache.disk.enabled:true}") boolean enabled,
+                               @Value("${app.cache.disk.directory:evaluation_cache}") String directory,
+                               @Value("${app.cache.disk.max-bytes:268435456}") long maxBytes,
+                               @Value("${app.cache.disk.compaction-interval-minutes:10}") long compactionIntervalMinutes) {
+        this.segmentPath = Paths.get(directory).resolve(SEGMENT_FILE);
+        this.maxBytes = Math.max(1024 * 1024, Math.min(maxBytes, Integer.MAX_VALUE));
+
+        boolean opened = false;
+        if (enabled) {
+            try {
+                Files.createDirectories(segmentPath.getParent());
+                channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                loadIndex();
+                opened = true;
+            } catch (IOException e) {
+                logger.error("Disk evaluation cache disabled, cannot open {}: {}", segmentPath.toAbsolutePath(), e.getMessage());
+                closeQuietly();
+            }
+        }
+        this.enabled = opened;
+
+        if (this.enabled) {
+            writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ats-disk-cache");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, compactionIntervalMinutes);
+            writer.scheduleWithFixedDelay(this::compactIfNeeded, interval, interval, TimeUnit.MINUTES);
+            logger.info("Disk evaluation cache opened at {} with {} entries ({} bytes)",
+                segmentPath.toAbsolutePath(), index.size(), fileSize.get());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stored result with its expiry, or null when absent, expired or unreadable
+     */
+    public StoredResult get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        fileLock.readLock().lock();
+        try {
+            IndexEntry entry = index.get(key);
+            if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+                misses.increment();
+                return null;
+            }
+            ByteBuffer record = ByteBuffer.allocate(entry.length());
+            readFully(channel, record, entry.offset());
+            record.flip();
+            Record decoded = decode(record);
+            if (decoded == null || !decoded.key().equals(key)) {
+                logger.warn("Disk evaluation cache record for key {} is corrupt, ignoring it", key);
+                index.remove(key, entry);
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return new StoredResult(OBJECT_MAPPER.readValue(decoded.value(), RESULT_TYPE), entry.expiresAtMillis());
+        } catch (IOException e) {
+            logger.warn("Failed to read disk evaluation cache entry {}: {}", key, e.getMessage());
+            misses.increment();
+            return null;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Append a result in the background; it becomes visible to {@link #get} once written
+     */
+    public void put(String key, Map<String, Object> result, long expiresAtMillis) {
+        if (!enabled) {
+            return;
+        }
+        byte[] value;
+        try {
+            value = OBJECT_MAPPER.writeValueAsBytes(result);
+        } catch (IOException e) {
+            logger.warn("Result for key {} cannot be stored on disk: {}", key, e.getMessage());
+            return;
+        }
+        submit(() -> append(key, value, expiresAtMillis));
+    }
+
+    public void clear() {
+        if (!enabled) {
+            return;
+        }
+        // Hide existing entries right away; the file itself is truncated after any pending writes
+        index.clear();
+        submit(() -> {
+            fileLock.writeLock().lock();
+            try {
+                channel.truncate(0);
+                index.clear();
+                fileSize.set(0);
+                liveBytes.set(0);
+                logger.info("Disk evaluation cache cleared");
+            } catch (IOException e) {
+                logger.error("Failed to clear disk evaluation cache: {}", e.getMessage());
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("diskEnabled", enabled);
+        stats.put("diskEntries", index.size());
+        stats.put("diskBytes", fileSize.get());
+        stats.put("diskLiveBytes", liveBytes.get());
+        stats.put("diskHitCount", hits.sum());
+        stats.put("diskMissCount", misses.sum());
+        return stats;
+    }
+
+    /**
+     * Wait until every write submitted so far has reached the file
+     */
+    void flush() {
+        runOnWriter(() -> { }, "flush");
+    }
+
+    void compactNow() {
+        runOnWriter(this::compact, "compaction");
+    }
+
+    private void runOnWriter(Runnable task, String name) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writer.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Disk evaluation cache {} failed", name, e.getCause());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Disk evaluation cache {} skipped, the store is closed", name);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Disk evaluation cache writes did not finish before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fileLock.writeLock().lock();
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            logger.warn("Failed to sync disk evaluation cache: {}", e.getMessage());
+        } finally {
+            closeQuietly();
+            fileLock.writeLock().unlock();
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the result is still in the in-memory tier
+            logger.debug("Disk evaluation cache is closed, write skipped");
+        }
+    }
+
+    // Runs on the writer thread only
+    private void append(String key, byte[] value, long expiresAtMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_BYTES + keyBytes.length + value.length + CRC_BYTES;
+        if (fileSize.get() + length > maxBytes) {
+            compact();
+            if (fileSize.get() + length > maxBytes) {
+                logger.debug("Disk evaluation cache is full, write skipped");
+                return;
+            }
+        }
+
+        ByteBuffer record = encode(keyBytes, value, expiresAtMillis);
+        long offset = fileSize.get();
+        try {
+            writeFully(channel, record, offset);
+        } catch (IOException e) {
+            logger.warn("Failed to write disk evaluation cache entry: {}", e.getMessage());
+            return;
+        }
+        fileSize.addAndGet(length);
+        liveBytes.addAndGet(length);
+        IndexEntry previous = index.put(key, new IndexEntry(offset, length, expiresAtMillis));
+        if (previous != null) {
+            liveBytes.addAndGet(-previous.length());
+        }
+    }
+
+    private void compactIfNeeded() {
+        long now = System.currentTimeMillis();
+        boolean hasExpired = index.values().stream().anyMatch(entry -> entry.isExpired(now));
+        long deadBytes = fileSize.get() - liveBytes.get();
+        if (hasExpired || deadBytes > liveBytes.get()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrite live records into a fresh segment and swap it in. When the live set alone exceeds
+     * 80% of the size limit, the records closest to expiry are dropped.
+     */
+    // Runs on the writer thread only
+    private void compact() {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, IndexEntry>> live = new ArrayList<>();
+        for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+            if (!entry.getValue().isExpired(now)) {
+                live.add(entry);
+            }
+        }
+        live.sort(Comparator.comparingLong((Map.Entry<String, IndexEntry> entry) -> entry.getValue().expiresAtMillis()).reversed());
+
+        Path compactedPath = segmentPath.resolveSibling(SEGMENT_FILE + ".compact");
+        Map<String, IndexEntry> compactedIndex = new HashMap<>();
+        long budget = maxBytes * 8 / 10;
+        long position = 0;
+        try (FileChannel target = FileChannel.open(compactedPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<String, IndexEntry> entry : live) {
+                IndexEntry source = entry.getValue();
+                if (position + source.length() > budget) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.allocate(source.length());
+                readFully(channel, record, source.offset());
+                record.flip();
+                writeFully(target, record, position);
+                compactedIndex.put(entry.getKey(), new IndexEntry(position, source.length(), source.expiresAtMillis()));
+                position += source.length();
+            }
+            target.force(false);
+        } catch (IOException e) {
+            logger.warn("Disk evaluation cache compaction failed: {}", e.getMessage());
+            return;
+        }
+
+        long before = fileSize.get();
+        fileLock.writeLock().lock();
+        try {
+            closeQuietly();
+            Files.move(compactedPath, segmentPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(segmentPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index.clear();
+            index.putAll(compactedIndex);
+            fileSize.set(position);
+            liveBytes.set(position);
+        } catch (IOException e) {
+            logger.error("Failed to swap compacted disk evaluation cache, clearing it: {}", e.getMessage());
+            index.clear();
+            fileSize.set(0);
+            liveBytes.set(0);
+            try {
+                channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException reopenError) {
+                logger.error("Disk evaluation cache is unusable: {}", reopenError.getMessage());
+            }
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+        logger.info("Disk evaluation cache compacted from {} to {} bytes ({} entries)", before, position, compactedIndex.size());
+    }
+
+    // Memory-maps the segment once and indexes every intact record; the last record for a key wins
+    private void loadIndex() throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("segment file is larger than 2 GB");
+        }
+        long now = System.currentTimeMillis();
+        long offset = 0;
+        if (size > 0) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            while (mapped.remaining() >= HEADER_BYTES + CRC_BYTES) {
+                int start = mapped.position();
+                Record record = decode(mapped);
+                if (record == null) {
+                    break;
+                }
+                int length = mapped.position() - start;
+                if (record.expiresAtMillis() > now) {
+                    IndexEntry previous = index.put(record.key(), new IndexEntry(start, length, record.expiresAtMillis()));
+                    liveBytes.addAndGet(length);
+                    if (previous != null) {
+                        liveBytes.addAndGet(-previous.length());
+                    }
+                }
+                offset = mapped.position();
+            }
+        }
+        if (offset < size) {
+            logger.warn("Disk evaluation cache has {} unreadable bytes at offset {}, truncating", size - offset, offset);
+            channel.truncate(offset);
+        }
+        fileSize.set(offset);
+    }
+
+    private record Record(String key, byte[] value, long expiresAtMillis) {}
+
+    private static ByteBuffer encode(byte[] key, byte[] value, long expiresAtMillis) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + key.length + value.length + CRC_BYTES);
+        buffer.putInt(MAGIC).putInt(key.length).putLong(expiresAtMillis).putInt(value.length).put(key).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decode the record at the buffer's position and advance past it, or return null (position undefined)
+     * when the bytes are not a complete, intact record
+     */
+    private static Record decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES + CRC_BYTES || buffer.getInt() != MAGIC) {
+            return null;
+        }
+        int keyLength = buffer.getInt();
+        long expiresAtMillis = buffer.getLong();
+        int valueLength = buffer.getInt();
+        if (keyLength < 0 || valueLength < 0 || (long) keyLength + valueLength + CRC_BYTES > buffer.remaining()) {
+            return null;
+        }
+        byte[] key = new byte[keyLength];
+        byte[] value = new byte[valueLength];
+        buffer.get(key).get(value);
+        int storedCrc = buffer.getInt();
+
+        CRC32 crc = new CRC32();
+        ByteBuffer covered = buffer.duplicate();
+        covered.position(start).limit(buffer.position() - CRC_BYTES);
+        crc.update(covered);
+        if ((int) crc.getValue() != storedCrc) {
+            return null;
+        }
+        return new Record(new String(key, StandardCharsets.UTF_8), value, expiresAtMillis);
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = source.read(target, position + target.position());
+            if (read < 0) {
+                throw new IOException("unexpected end of segment file");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            target.write(source, position + source.position());
+        }
+    }
+
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close disk evaluation cache file: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Result read from disk together with the time it expires
+     */
+    public record StoredResult(Map<String, Object> result, long expiresAtMillis) {}
+}
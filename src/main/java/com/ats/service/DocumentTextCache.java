@@ -0,0 +1,62 @@
+package com.ats.service;
+
+import com.ats.utils.CacheKeyBuilder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Extracted resume text of recent bulk requests, addressed by a content-hash document id.
+ * Bulk responses return the id instead of embedding the text in every match; clients fetch the
+ * text from {@code /api/documents/{documentId}} while it is cached. Bounded by estimated size in bytes,
+ * entries expire {@code app.documents.ttl-minutes} after their last read. Published as
+ * {@code cache.*{cache=ats.documents}}.
+ */
+@Component
+public class DocumentTextCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentTextCache.class);
+
+    private final Cache<String, String> cache;
+
+    public DocumentTextCache(MeterRegistry meterRegistry,
+                             @Value("${app.documents.max-weight-bytes:67108864}") long maxWeightBytes,
+                             @Value("${app.documents.ttl-minutes:60}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(Math.max(1, maxWeightBytes))
+            .weigher((String id, String text) -> (int) Math.min(Integer.MAX_VALUE, EvaluationCache.estimateBytes(text)))
+            .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ats.documents");
+        logger.info("Document text cache configured: maxWeightBytes={}, ttlMinutes={}", maxWeightBytes, ttlMinutes);
+    }
+
+    /**
+     * Cache the text and return its document id; identical text always gets the same id
+     */
+    public String put(String text) {
+        String documentId = CacheKeyBuilder.create().add("document").add(text).build();
+        cache.put(documentId, text);
+        return documentId;
+    }
+
+    /**
+     * Cached text, or null if the id is unknown or has expired
+     */
+    public String get(String documentId) {
+        return cache.getIfPresent(documentId);
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,186 @@
+package com.ats.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of Mode 1 / Mode 2 AI results, keyed by content hash.
+ * Uses Caffeine's W-TinyLFU policy, so frequently requested evaluations survive bursts of one-off
+ * uploads. Bounded by both entry count and estimated size in bytes; entries expire {@code app.cache.ttl-hours}
+ * after being written. Hit, miss and eviction counts are published as {@code cache.*{cache=ats.evaluations}}.
+ * Misses fall through to the {@link DiskEvaluationStore}, which keeps results across restarts; entries read
+ * back from disk keep their original expiry.
+ */
+@Component
+public class EvaluationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvaluationCache.class);
+
+    private final Cache<String, Map<String, Object>> cache;
+    private final Duration ttl;
+    private final long maxEntries;
+    private final long maxWeightBytes;
+    private final DiskEvaluationStore diskStore;
+
+    public EvaluationCache(MeterRegistry meterRegistry, long maxEntries, long maxWeightBytes, long ttlHours) {
+        this(meterRegistry, null, maxEntries, maxWeightBytes, ttlHours);
+    }
+
+    @Autowired
+    public EvaluationCache(MeterRegistry meterRegistry,
+                           DiskEvaluationStore diskStore,
+                           @Value("${app.cache.max-entries:10000}") long maxEntries,
+                           @Value("${app.cache.max-weight-bytes:104857600}") long maxWeightBytes,
+                           @Value("${app.cache.ttl-hours:24}") long ttlHours) {
+        this.diskStore = diskStore != null && diskStore.isEnabled() ? diskStore : null;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxWeightBytes = Math.max(this.maxEntries, maxWeightBytes);
+
+        // Caffeine takes a single bound; giving every entry at least maxWeight / maxEntries weight
+        // makes the byte bound imply the entry count bound as well
+        long minEntryWeight = this.maxWeightBytes / this.maxEntries;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(this.maxWeightBytes)
+            .weigher((String key, Map<String, Object> value) ->
+                (int) Math.min(Integer.MAX_VALUE, Math.max(minEntryWeight, estimateBytes(key) + estimateBytes(value))))
+            // Same as expireAfterWrite(ttl), but lets entries promoted from disk keep their remaining lifetime
+            .expireAfter(new Expiry<String, Map<String, Object>>() {
+                @Override
+                public long expireAfterCreate(String key, Map<String, Object> value, long currentTime) {
+                    return ttl.toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Map<String, Object> value, long currentTime, long currentDuration) {
+                    return ttl.toNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String key, Map<String, Object> value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ats.evaluations");
+        logger.info("Evaluation cache configured: maxEntries={}, maxWeightBytes={}, ttl={}", this.maxEntries, this.maxWeightBytes, ttl);
+    }
+
+    /**
+     * Cached result, or null. Callers get their own copy and may decorate it freely.
+     */
+    public Map<String, Object> getIfPresent(String key) {
+        Map<String, Object> cached = cache.getIfPresent(key);
+        if (cached == null) {
+            cached = loadFromDisk(key);
+        }
+        return cached != null ? new HashMap<>(cached) : null;
+    }
+
+    public void put(String key, Map<String, Object> result) {
+        cache.put(key, new HashMap<>(result));
+        if (diskStore != null) {
+            diskStore.put(key, result, System.currentTimeMillis() + ttl.toMillis());
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        if (diskStore != null) {
+            diskStore.clear();
+        }
+    }
+
+    // Promotes a result persisted by an earlier run (or evicted from memory) for the rest of its lifetime
+    private Map<String, Object> loadFromDisk(String key) {
+        if (diskStore == null) {
+            return null;
+        }
+        DiskEvaluationStore.StoredResult stored = diskStore.get(key);
+        if (stored == null) {
+            return null;
+        }
+        long remainingMillis = stored.expiresAtMillis() - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return null;
+        }
+        Map<String, Object> result = stored.result();
+        cache.policy().expireVariably().ifPresent(policy ->
+            policy.putIfAbsent(key, result, Duration.ofMillis(remainingMillis)));
+        return result;
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    // Runs pending evictions now instead of on the next cache access
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> status = new HashMap<>();
+        status.put("size", cache.estimatedSize());
+        status.put("maxEntries", maxEntries);
+        status.put("maxWeightBytes", maxWeightBytes);
+        status.put("hitCount", stats.hitCount());
+        status.put("missCount", stats.missCount());
+        status.put("hitRate", Math.round(stats.hitRate() * 1000.0) / 1000.0);
+        status.put("evictionCount", stats.evictionCount());
+        if (diskStore != null) {
+            status.putAll(diskStore.getStats());
+        } else {
+            status.put("diskEnabled", false);
+        }
+        return status;
+    }
+
+    /**
+     * Rough retained size of a result graph (Strings, numbers, lists and maps as produced by the parsers)
+     */
+    static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return 40 + 2L * text.length();
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48 + 32L * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 40 + 8L * collection.size();
+            for (Object element : collection) {
+                size += estimateBytes(element);
+            }
+            return size;
+        }
+        return 16;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ats.service;
+
+import com.ats.exception.FileProcessingException;
+import com.ats.utils.FileUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-request view of the uploaded resumes that parses each file at most once.
+ * Safe to share between the worker threads of a bulk request: concurrent callers asking
+ * for the same document wait for the first extraction instead of parsing again,
+ * and an extraction failure is remembered and rethrown to every caller.
+ */
+public class ExtractedDocumentContext {
+
+    private final MultipartFile[] files;
+    private final AtomicReferenceArray<FutureTask<String>> extractions;
+
+    public ExtractedDocumentContext(MultipartFile[] files) {
+        this.files = files;
+        this.extractions = new AtomicReferenceArray<>(files.length);
+    }
+
+    public int size() {
+        return files.length;
+    }
+
+    public MultipartFile getFile(int index) {
+        return files[index];
+    }
+
+    /**
+     * Extracted text of the document at the given index, parsed on first access
+     */
+    public String getText(int index) throws FileProcessingException {
+        FutureTask<String> extraction = extractions.get(index);
+        if (extraction == null) {
+            FutureTask<String> newExtraction = new FutureTask<>(() -> FileUtils.extractText(files[index]));
+            if (extractions.compareAndSet(index, null, newExtraction)) {
+                newExtraction.run();
+                extraction = newExtraction;
+            } else {
+                extraction = extractions.get(index);
+            }
+        }
+
+        try {
+            return extraction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Interrupted while extracting text from " + files[index].getOriginalFilename(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof FileProcessingException fileProcessingException) {
+                throw fileProcessingException;
+            }
+            throw new FileProcessingException("Unexpected error while processing file", cause);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.ats.service;
+
+import com.ats.model.JobDescriptionInfo;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads the job descriptions of a Mode 4 Excel upload from its first sheet.
+ * .xlsx files are copied to a temp file and streamed with POI's event (SAX) API: each row is turned into a
+ * {@link JobDescriptionInfo} while the sheet XML is parsed, so no workbook DOM is built and memory grows with the
+ * extracted JD text only.
+ * Legacy .xls files (at most 65,536 rows) are still read with HSSF.
+ * Columns are detected from the header row: company, role, apply link and description by keyword; without
+ * a description header the column with the longest text in the first data rows is used.
+ */
+public final class JobDescriptionSheetReader {
+
+    // Data rows inspected to guess the description column when no header names it
+    private static final int SAMPLE_ROWS = 4;
+
+    private JobDescriptionSheetReader() {
+    }
+
+    public static List<JobDescriptionInfo> read(InputStream in, String fileName) throws IOException {
+        RowCollector collector = new RowCollector();
+        if (fileName != null && fileName.toLowerCase().endsWith(".xlsx")) {
+            readXlsx(in, collector);
+        } else {
+            readXls(in, collector);
+        }
+        return collector.finish();
+    }
+
+    private static void readXlsx(InputStream in, RowCollector collector) throws IOException {
+        // Opened from a stream, POI inflates every part of the zip into memory; from a file it reads parts on demand
+        Path upload = Files.createTempFile("jd-upload-", ".xlsx");
+        try {
+            try (OutputStream out = Files.newOutputStream(upload)) {
+                in.transferTo(out);
+            }
+            readXlsx(upload.toFile(), collector);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    private static void readXlsx(File file, RowCollector collector) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException | UnsupportedFileFormatException e) {
+            throw new IOException("Not a valid .xlsx file: " + e.getMessage(), e);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    reader.getStylesTable(), null, strings, new SheetRowHandler(collector), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Not a valid .xlsx file: " + e.getMessage(), e);
+        } finally {
+            // Opened for reading only; revert closes it without trying to save
+            pkg.revert();
+        }
+    }
+
+    private static void readXls(InputStream in, RowCollector collector) throws IOException {
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook workbook = new HSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            List<String> cells = new ArrayList<>();
+            for (Row row : sheet) {
+                cells.clear();
+                for (int colIndex = 0; colIndex < row.getLastCellNum(); colIndex++) {
+                    Cell cell = row.getCell(colIndex);
+                    cells.add(cell != null ? formatter.formatCellValue(cell) : null);
+                }
+                collector.accept(row.getRowNum(), cells);
+            }
+        }
+    }
+
+    /**
+     * Collects the cells of each sheet row from the SAX callbacks; missing cells are null
+     */
+    private static final class SheetRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowCollector collector;
+        private final List<String> cells = new ArrayList<>();
+        private int nextColumn;
+
+        SheetRowHandler(RowCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            collector.accept(rowNum, cells);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            if (column < cells.size()) {
+                cells.set(column, formattedValue);
+            } else {
+                cells.add(formattedValue);
+            }
+            nextColumn = column + 1;
+        }
+    }
+
+    private record BufferedRow(int rowNum, List<String> cells) {
+    }
+
+    /**
+     * Turns sheet rows into job descriptions. The first row is the header; data rows are only buffered
+     * while the description column still has to be guessed from their contents.
+     */
+    private static final class RowCollector {
+
+        private final List<JobDescriptionInfo> jobDescriptions = new ArrayList<>();
+        private final List<BufferedRow> sampleRows = new ArrayList<>();
+        private List<String> headers;
+        private int rowCount;
+        private boolean columnsResolved;
+        private int companyColIndex = -1;
+        private int roleColIndex = -1;
+        private int descriptionColIndex = -1;
+        private int applyLinkColIndex = -1;
+
+        void accept(int rowNum, List<String> cells) {
+            rowCount++;
+            if (headers == null) {
+                headers = new ArrayList<>(cells);
+                detectHeaderColumns();
+                return;
+            }
+            if (!columnsResolved) {
+                sampleRows.add(new BufferedRow(rowNum, new ArrayList<>(cells)));
+                if (sampleRows.size() >= SAMPLE_ROWS) {
+                    resolveColumns();
+                }
+                return;
+            }
+            addRow(rowNum, cells);
+        }
+
+        List<JobDescriptionInfo> finish() {
+            if (headers == null) {
+                throw new RuntimeException("Excel file appears to be empty. Please ensure it contains data.");
+            }
+            if (headers.isEmpty()) {
+                throw new RuntimeException("Excel file must have at least 1 column. Current file has 0 columns.\n" +
+                    "The system will automatically detect which columns contain:\n" +
+                    "- Company information\n" +
+                    "- Job role/title\n" +
+                    "- Job description");
+            }
+            if (rowCount <= 1) {
+                throw new RuntimeException("Excel file must contain at least one row of data (excluding header). Current file has " + rowCount + " rows.");
+            }
+            if (!columnsResolved) {
+                resolveColumns();
+            }
+
+            System.out.println("DEBUG - Parsed " + jobDescriptions.size() + " job descriptions from " + rowCount + " Excel rows");
+
+            // Provide detailed error message if no job descriptions found
+            if (jobDescriptions.isEmpty()) {
+                throw new RuntimeException("No job descriptions found in the Excel file. Please ensure:\n" +
+                    "1. Your Excel file has data in the correct format\n" +
+                    "2. One column contains job descriptions (with header like 'Description', 'Requirements', etc.)\n" +
+                    "3. You have at least one row of data (excluding header)\n" +
+                    "4. The job description column is not empty\n\n" +
+                    "Current file has " + rowCount + " rows, but no valid job descriptions were found.\n" +
+                    "Detected columns: Company=" + (companyColIndex + 1) + ", Role=" + (roleColIndex + 1) + ", Description=" + (descriptionColIndex + 1));
+            }
+            return jobDescriptions;
+        }
+
+        // Find columns by analyzing header names
+        private void detectHeaderColumns() {
+            for (int colIndex = 0; colIndex < headers.size(); colIndex++) {
+                String cellValue = headers.get(colIndex);
+                if (cellValue == null) {
+                    continue;
+                }
+                String headerText = cellValue.toLowerCase().trim();
+
+                // Look for company-related headers
+                if (companyColIndex == -1 && (headerText.contains("company") ||
+                                              headerText.contains("organization") ||
+                                              headerText.contains("employer") ||
+                                              headerText.contains("firm") ||
+                                              headerText.equals("company_name"))) {
+                    companyColIndex = colIndex;
+                    System.out.println("DEBUG - Found Company column at index " + colIndex + ": '" + headerText + "'");
+                }
+
+                // Look for role-related headers
+                else if (roleColIndex == -1 && (headerText.contains("role") ||
+                                               headerText.contains("title") ||
+                                               headerText.contains("position") ||
+                                               headerText.contains("job") ||
+                                               headerText.contains("designation"))) {
+                    roleColIndex = colIndex;
+                    System.out.println("DEBUG - Found Role column at index " + colIndex + ": '" + headerText + "'");
+                }
+
+                // Look for apply link headers
+                else if (applyLinkColIndex == -1 && (headerText.contains("apply") ||
+                                                    headerText.contains("link") ||
+                                                    headerText.contains("url") ||
+                                                    headerText.contains("application") ||
+                                                    headerText.contains("careers") ||
+                                                    headerText.equals("apply_link"))) {
+                    applyLinkColIndex = colIndex;
+                    System.out.println("DEBUG - Found Apply Link column at index " + colIndex + ": '" + headerText + "'");
+                }
+
+                // Look for description-related headers
+                else if (descriptionColIndex == -1 && (headerText.contains("description") ||
+                                                     headerText.contains("requirements") ||
+                                                     headerText.contains("responsibilities") ||
+                                                     headerText.contains("duties") ||
+                                                     headerText.contains("summary") ||
+                                                     headerText.contains("details") ||
+                                                     headerText.equals("full_description"))) {
+                    descriptionColIndex = colIndex;
+                    System.out.println("DEBUG - Found Description column at index " + colIndex + ": '" + headerText + "'");
+                }
+            }
+
+            // Rows can be mapped straight away unless the description column has to be guessed from data
+            if (descriptionColIndex != -1) {
+                resolveColumns();
+            }
+        }
+
+        // Apply the fallbacks for columns without a recognised header, then map the buffered rows
+        private void resolveColumns() {
+            int columnCount = headers.size();
+
+            if (descriptionColIndex == -1) {
+                // Try to find the longest text column as description
+                descriptionColIndex = findLongestTextColumn(columnCount);
+                System.out.println("DEBUG - Using fallback: Description column at index " + descriptionColIndex);
+            }
+
+            if (companyColIndex == -1) {
+                // Use first column as company if not found
+                companyColIndex = 0;
+                System.out.println("DEBUG - Using fallback: Company column at index 0");
+            }
+
+            if (roleColIndex == -1) {
+                // Use second column as role if not found, or next available column
+                roleColIndex = (companyColIndex == 0) ? 1 : 0;
+                if (roleColIndex == descriptionColIndex) {
+                    roleColIndex = (roleColIndex + 1) % columnCount;
+                }
+                System.out.println("DEBUG - Using fallback: Role column at index " + roleColIndex);
+            }
+
+            // Ensure we have unique column indices
+            if (companyColIndex == roleColIndex || companyColIndex == descriptionColIndex || roleColIndex == descriptionColIndex) {
+                // Find next available column for duplicates
+                int nextAvailable = 0;
+                while (nextAvailable == companyColIndex || nextAvailable == roleColIndex || nextAvailable == descriptionColIndex) {
+                    nextAvailable++;
+                }
+                if (companyColIndex == roleColIndex) {
+                    roleColIndex = nextAvailable;
+                } else if (companyColIndex == descriptionColIndex) {
+                    descriptionColIndex = nextAvailable;
+                } else if (roleColIndex == descriptionColIndex) {
+                    descriptionColIndex = nextAvailable;
+                }
+            }
+
+            System.out.println("DEBUG - Final column mapping:");
+            System.out.println("  Company: Column " + (companyColIndex + 1) + " (index " + companyColIndex + ")");
+            System.out.println("  Role: Column " + (roleColIndex + 1) + " (index " + roleColIndex + ")");
+            System.out.println("  Description: Column " + (descriptionColIndex + 1) + " (index " + descriptionColIndex + ")");
+
+            columnsResolved = true;
+            for (BufferedRow row : sampleRows) {
+                addRow(row.rowNum(), row.cells());
+            }
+            sampleRows.clear();
+        }
+
+        private int findLongestTextColumn(int columnCount) {
+            int maxLength = 0;
+            int longestColIndex = 0;
+
+            // Check the buffered data rows to find the column with longest text
+            for (BufferedRow row : sampleRows) {
+                for (int colIndex = 0; colIndex < Math.min(columnCount, row.cells().size()); colIndex++) {
+                    String cellValue = row.cells().get(colIndex);
+                    if (cellValue != null && cellValue.length() > maxLength) {
+                        maxLength = cellValue.length();
+                        longestColIndex = colIndex;
+                    }
+                }
+            }
+
+            return longestColIndex;
+        }
+
+        private void addRow(int rowNum, List<String> cells) {
+            String description = cell(cells, descriptionColIndex);
+            if (description.trim().isEmpty()) {
+                System.out.println("DEBUG - Skipping row " + (rowNum + 1) + " - no description found in detected description column");
+                return;
+            }
+            String applyLink = applyLinkColIndex != -1 ? cell(cells, applyLinkColIndex).trim() : "";
+            jobDescriptions.add(new JobDescriptionInfo(
+                cell(cells, companyColIndex).trim(),
+                cell(cells, roleColIndex).trim(),
+                applyLink,
+                description.trim()));
+        }
+
+        private static String cell(List<String> cells, int colIndex) {
+            String value = colIndex >= 0 && colIndex < cells.size() ? cells.get(colIndex) : null;
+            return value != null ? value : "";
+        }
+    }
+}
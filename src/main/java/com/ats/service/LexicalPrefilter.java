@@ -0,0 +1,144 @@
+package com.ats.service;
+
+import com.ats.utils.Bm25Index;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local BM25 pre-ranking of a Mode 4 matrix, so the AI only scores resumes that are plausible for a JD.
+ * For every JD the {@code app.prefilter.top-k} lexically best resumes are kept, plus any resume scoring at
+ * least {@code app.prefilter.min-relative-score} of that JD's best lexical score. All other pairs are pruned
+ * and get a cheap local score of at most {@code app.prefilter.pruned-max-score}, so they never outrank a resume
+ * the AI actually scored well. Resumes whose text could not be extracted are never pruned.
+ */
+@Component
+public class LexicalPrefilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LexicalPrefilter.class);
+
+    private final boolean enabled;
+    private final int topK;
+    private final double minRelativeScore;
+    private final double prunedMaxScore;
+
+    public LexicalPrefilter(@Value("${app.prefilter.enabled:true}") boolean enabled,
+                            @Value("${app.prefilter.top-k:3}") int topK,
+                            @Value("${app.prefilter.min-relative-score:0.6}") double minRelativeScore,
+                            @Value("${app.prefilter.pruned-max-score:3.0}") double prunedMaxScore) {
+        this.enabled = enabled;
+        this.topK = Math.max(1, topK);
+        this.minRelativeScore = minRelativeScore;
+        this.prunedMaxScore = Math.max(0.0, Math.min(10.0, prunedMaxScore));
+    }
+
+    /**
+     * Whether a request with this many resumes can have any pair pruned at all
+     */
+    public boolean appliesTo(int resumeCount) {
+        return enabled && resumeCount > topK;
+    }
+
+    /**
+     * Decide which pairs go to the AI. {@code resumeTexts} holds null for resumes that failed extraction.
+     */
+    public Plan plan(List<String> resumeTexts, List<String> jdTexts) {
+        int resumeCount = resumeTexts.size();
+        int jdCount = jdTexts.size();
+        if (!appliesTo(resumeCount)) {
+            return Plan.none(resumeCount, jdCount);
+        }
+
+        boolean[][] pruned = new boolean[resumeCount][jdCount];
+        double[][] relativeScores = new double[resumeCount][jdCount];
+
+        Bm25Index index = new Bm25Index(resumeTexts);
+        int prunedCount = 0;
+        for (int jdIndex = 0; jdIndex < jdCount; jdIndex++) {
+            double[] scores = index.score(jdTexts.get(jdIndex));
+
+            double best = 0;
+            List<Integer> candidates = new ArrayList<>(resumeCount);
+            for (int resumeIndex = 0; resumeIndex < resumeCount; resumeIndex++) {
+                if (resumeTexts.get(resumeIndex) != null) {
+                    candidates.add(resumeIndex);
+                    best = Math.max(best, scores[resumeIndex]);
+                }
+            }
+            // Highest lexical score first; ties keep upload order
+            candidates.sort((a, b) -> Double.compare(scores[b], scores[a]));
+
+            for (int rank = 0; rank < candidates.size(); rank++) {
+                int resumeIndex = candidates.get(rank);
+                double relative = best > 0 ? scores[resumeIndex] / best : 0.0;
+                relativeScores[resumeIndex][jdIndex] = relative;
+                if (rank >= topK && relative < minRelativeScore) {
+                    pruned[resumeIndex][jdIndex] = true;
+                    prunedCount++;
+                }
+            }
+        }
+
+        logger.info("Lexical prefilter pruned {} of {} resume x JD pairs (topK={}, minRelativeScore={})",
+            prunedCount, resumeCount * jdCount, topK, minRelativeScore);
+        return new Plan(pruned, relativeScores, prunedMaxScore, prunedCount);
+    }
+
+    /**
+     * Outcome of pre-ranking one request; immutable and safe to share between pair workers
+     */
+    public static final class Plan {
+
+        private final boolean[][] pruned;
+        private final double[][] relativeScores;
+        private final double prunedMaxScore;
+        private final int prunedCount;
+
+        private Plan(boolean[][] pruned, double[][] relativeScores, double prunedMaxScore, int prunedCount) {
+            this.pruned = pruned;
+            this.relativeScores = relativeScores;
+            this.prunedMaxScore = prunedMaxScore;
+            this.prunedCount = prunedCount;
+        }
+
+        /**
+         * Plan that sends every pair to the AI
+         */
+        public static Plan none(int resumeCount, int jdCount) {
+            return new Plan(new boolean[resumeCount][jdCount], new double[resumeCount][jdCount], 0.0, 0);
+        }
+
+        public boolean isPruned(int resumeIndex, int jdIndex) {
+            return pruned[resumeIndex][jdIndex];
+        }
+
+        /**
+         * Lexical score relative to the best resume for the same JD, between 0 and 1
+         */
+        public double getRelativeScore(int resumeIndex, int jdIndex) {
+            return relativeScores[resumeIndex][jdIndex];
+        }
+
+        /**
+         * Local ATS-scale score (0-10) reported for a pruned pair
+         */
+        public double getLocalScore(int resumeIndex, int jdIndex) {
+            return Math.round(relativeScores[resumeIndex][jdIndex] * prunedMaxScore * 10.0) / 10.0;
+        }
+
+        /**
+         * Highest score a pruned pair may report, so it never outranks a pair the AI scored well
+         */
+        public double getPrunedMaxScore() {
+            return prunedMaxScore;
+        }
+
+        public int getPrunedCount() {
+            return prunedCount;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.ats.service;
+
+import com.ats.model.SkillSection;
+import com.ats.model.StructuredEvaluation;
+import com.ats.service.SkillDictionary.Category;
+import com.ats.utils.Bm25Index;
+import com.ats.utils.DictionaryMatcher;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic resume/JD scoring without the AI. Both texts are reduced to the {@link SkillDictionary} skills
+ * they mention (synonyms folded to one id, found in a single pass) and to their years of experience; the resume's
+ * skills are also attributed to the section they appear in. The 0-10 score weighs coverage of the JD's technical
+ * skills (45%), whether matched skills are backed by work experience or projects (15%), coverage of practices (15%)
+ * and certifications (10%), and experience against the JD's "N+ years" (15%). Components the JD asks nothing of are
+ * left out and the rest reweighted. A JD naming no dictionary skill is covered by plain
+ * term overlap instead. Profiles are memoized per text instance, so scoring a matrix costs one profile per document
+ * and microseconds per pair.
+ */
+@Component
+public class LocalScorer {
+
+    private static final double TECHNICAL_WEIGHT = 0.45;
+    private static final double EVIDENCE_WEIGHT = 0.15;
+    private static final double PRACTICE_WEIGHT = 0.15;
+    private static final double CERTIFICATION_WEIGHT = 0.10;
+    private static final double EXPERIENCE_WEIGHT = 0.15;
+
+    // Same threshold the AI is asked to apply
+    private static final double MATCHED_SCORE = 6.0;
+
+    // Longest list of skills reported in one section or sentence
+    private static final int MAX_LISTED = 8;
+
+    // "5+ years", "3 yrs", "10 years'"
+    private static final Pattern YEARS_PATTERN = Pattern.compile("(?i)\\b(\\d{1,2})(?:\\.\\d)?\\s*\\+?\\s*(?:years?|yrs?)\\b");
+
+    // "Jan 2019 - Mar 2021", "2018 – Present", "06/2017 to 2020"
+    private static final String MONTH = "(?:(jan|feb|mar|apr|may|jun|jul|aug|sep|oct|nov|dec)[a-z]*\\.?\\s+|(\\d{1,2})/)?";
+    private static final Pattern DATE_RANGE_PATTERN = Pattern.compile("(?i)\\b" + MONTH + "((?:19|20)\\d{2})\\s*(?:-|–|—|to|until)\\s*"
+        + MONTH + "((?:19|20)\\d{2}|present|current|now|today|date)\\b");
+    private static final List<String> MONTHS = List.of("jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec");
+
+    // A short line of letters only, optionally decorated or ending in ':', is a section heading candidate
+    private static final Pattern HEADING_PATTERN = Pattern.compile("^[\\s#*•\\-=]*([A-Za-z][A-Za-z &/]{2,40}?)[\\s*=]*:?\\s*$");
+
+    private static final Map<String, Section> HEADINGS = Map.ofEntries(
+        Map.entry("experience", Section.EXPERIENCE), Map.entry("work experience", Section.EXPERIENCE),
+        Map.entry("professional experience", Section.EXPERIENCE), Map.entry("employment", Section.EXPERIENCE),
+        Map.entry("employment history", Section.EXPERIENCE), Map.entry("work history", Section.EXPERIENCE),
+        Map.entry("career history", Section.EXPERIENCE), Map.entry("relevant experience", Section.EXPERIENCE),
+        Map.entry("projects", Section.PROJECTS), Map.entry("key projects", Section.PROJECTS),
+        Map.entry("personal projects", Section.PROJECTS), Map.entry("academic projects", Section.PROJECTS),
+        Map.entry("certifications", Section.CERTIFICATIONS), Map.entry("certificates", Section.CERTIFICATIONS),
+        Map.entry("certification", Section.CERTIFICATIONS), Map.entry("licenses and certifications", Section.CERTIFICATIONS),
+        Map.entry("courses", Section.CERTIFICATIONS), Map.entry("training", Section.CERTIFICATIONS),
+        Map.entry("skills", Section.SKILLS), Map.entry("technical skills", Section.SKILLS),
+        Map.entry("key skills", Section.SKILLS), Map.entry("core competencies", Section.SKILLS),
+        Map.entry("technologies", Section.SKILLS), Map.entry("tech stack", Section.SKILLS),
+        Map.entry("tools", Section.SKILLS), Map.entry("education", Section.OTHER),
+        Map.entry("summary", Section.OTHER), Map.entry("professional summary", Section.OTHER),
+        Map.entry("profile", Section.OTHER), Map.entry("objective", Section.OTHER),
+        Map.entry("about me", Section.OTHER), Map.entry("languages", Section.OTHER),
+        Map.entry("interests", Section.OTHER), Map.entry("hobbies", Section.OTHER),
+        Map.entry("achievements", Section.OTHER), Map.entry("awards", Section.OTHER),
+        Map.entry("publications", Section.OTHER), Map.entry("references", Section.OTHER),
+        Map.entry("contact", Section.OTHER), Map.entry("personal details", Section.OTHER));
+
+    /**
+     * Resume section a skill was found in
+     */
+    public enum Section {
+        EXPERIENCE, PROJECTS, CERTIFICATIONS, SKILLS, OTHER
+    }
+
+    /**
+     * Dictionary ids of the skills one text mentions (first mention first), the sections of each as a bit set
+     * indexed by id (0 when not mentioned), the text's terms, and its years of experience: the longest "N years"
+     * statement or, for resumes, the span covered by date ranges
+     */
+    public record Profile(int[] skillIds, byte[] sectionMasks, Set<String> terms, double years) {
+
+        public boolean mentions(int id) {
+            return sectionMasks[id] != 0;
+        }
+
+        public boolean mentionsIn(int id, Section section) {
+            return (sectionMasks[id] & (1 << section.ordinal())) != 0;
+        }
+    }
+
+    private final SkillDictionary dictionary;
+
+    // Keyed by identity: bulk requests score the same extracted text instances against every JD
+    private final Cache<String, Profile> resumeProfiles = Caffeine.newBuilder()
+        .weakKeys()
+        .maximumSize(10_000)
+        .build();
+    private final Cache<String, Profile> jobProfiles = Caffeine.newBuilder()
+        .weakKeys()
+        .maximumSize(10_000)
+        .build();
+
+    public LocalScorer(SkillDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Score a resume against a job description. Company and role are left null; callers that know them fill them in.
+     */
+    public StructuredEvaluation evaluate(String resumeText, String jdText) {
+        return evaluate(resumeProfile(resumeText), jobProfile(jdText));
+    }
+
+    public Profile resumeProfile(String text) {
+        return resumeProfiles.get(text == null ? "" : text, resume -> buildProfile(resume, true));
+    }
+
+    /**
+     * Profile of a job description. Its date ranges (company history, application deadlines) are not experience,
+     * so only "N years" statements count towards its years.
+     */
+    public Profile jobProfile(String text) {
+        return jobProfiles.get(text == null ? "" : text, jd -> buildProfile(jd, false));
+    }
+
+    public StructuredEvaluation evaluate(Profile resume, Profile jd) {
+        List<String> techMatched = new ArrayList<>();
+        List<String> techMissing = new ArrayList<>();
+        List<String> practiceMatched = new ArrayList<>();
+        List<String> practiceMissing = new ArrayList<>();
+        List<String> certsMatched = new ArrayList<>();
+        List<String> certsMissing = new ArrayList<>();
+        List<String> inExperience = new ArrayList<>();
+        List<String> notInExperience = new ArrayList<>();
+        List<String> inProjects = new ArrayList<>();
+        List<String> listedOnly = new ArrayList<>();
+
+        for (int id : jd.skillIds()) {
+            Category category = dictionary.category(id);
+            String name = dictionary.name(id);
+            boolean found = resume.mentions(id);
+            if (category == Category.CERTIFICATION) {
+                (found ? certsMatched : certsMissing).add(name);
+                continue;
+            }
+            if (category == Category.TECHNICAL) {
+                (found ? techMatched : techMissing).add(name);
+            } else if (category == Category.PRACTICE) {
+                (found ? practiceMatched : practiceMissing).add(name);
+            } else {
+                // Companies and roles are not requirements
+                continue;
+            }
+            boolean experienced = resume.mentionsIn(id, Section.EXPERIENCE);
+            boolean projected = resume.mentionsIn(id, Section.PROJECTS);
+            (experienced ? inExperience : notInExperience).add(name);
+            if (projected) {
+                inProjects.add(name);
+            }
+            if (found && !experienced && !projected) {
+                listedOnly.add(name);
+            }
+        }
+
+        int techRequired = techMatched.size() + techMissing.size();
+        int practiceRequired = practiceMatched.size() + practiceMissing.size();
+        int certsRequired = certsMatched.size() + certsMissing.size();
+        int skillsMatched = techMatched.size() + practiceMatched.size();
+
+        double weights = TECHNICAL_WEIGHT;
+        double total = TECHNICAL_WEIGHT * (techRequired > 0
+            ? techMatched.size() / (double) techRequired
+            : termOverlap(resume, jd));
+        if (techRequired + practiceRequired > 0) {
+            weights += EVIDENCE_WEIGHT;
+            total += EVIDENCE_WEIGHT * (skillsMatched > 0 ? (skillsMatched - listedOnly.size()) / (double) skillsMatched : 0.0);
+        }
+        if (practiceRequired > 0) {
+            weights += PRACTICE_WEIGHT;
+            total += PRACTICE_WEIGHT * practiceMatched.size() / practiceRequired;
+        }
+        if (certsRequired > 0) {
+            weights += CERTIFICATION_WEIGHT;
+            total += CERTIFICATION_WEIGHT * certsMatched.size() / certsRequired;
+        }
+        if (jd.years() > 0) {
+            weights += EXPERIENCE_WEIGHT;
+            total += EXPERIENCE_WEIGHT * Math.min(1.0, resume.years() / jd.years());
+        }
+        double score = Math.round(100.0 * total / weights) / 10.0;
+
+        // Without required certifications, the resume's own certifications are reported
+        List<String> certificates = certsRequired > 0 ? certsMatched : skillsOf(resume, Category.CERTIFICATION);
+
+        List<String> strengths = new ArrayList<>();
+        List<String> weaknesses = new ArrayList<>();
+        List<String> suggestions = new ArrayList<>();
+        if (!techMatched.isEmpty()) {
+            strengths.add("Matches required technical skills: " + join(techMatched));
+        }
+        if (!inExperience.isEmpty()) {
+            strengths.add("Work experience shows " + join(inExperience));
+        }
+        if (!practiceMatched.isEmpty()) {
+            strengths.add("Practices asked for in the job description: " + join(practiceMatched));
+        }
+        if (!certsMatched.isEmpty()) {
+            strengths.add("Holds required certifications: " + join(certsMatched));
+        }
+        if (jd.years() > 0 && resume.years() >= jd.years()) {
+            strengths.add(String.format(Locale.ROOT, "Meets the experience requirement (about %s years, %s+ required)",
+                formatYears(resume.years()), formatYears(jd.years())));
+        }
+        if (!techMissing.isEmpty()) {
+            weaknesses.add("Missing required technical skills: " + join(techMissing));
+            suggestions.add("If you have worked with " + join(techMissing) + ", name them explicitly in the resume");
+        }
+        if (!practiceMissing.isEmpty()) {
+            weaknesses.add("No mention of " + join(practiceMissing));
+        }
+        if (!listedOnly.isEmpty()) {
+            weaknesses.add("Listed but not backed by work experience or projects: " + join(listedOnly));
+            suggestions.add("Describe where you used " + join(listedOnly) + " in your work experience or projects");
+        }
+        if (!certsMissing.isEmpty()) {
+            weaknesses.add("Missing certifications: " + join(certsMissing));
+            suggestions.add("Consider obtaining " + join(certsMissing));
+        }
+        if (jd.years() > 0 && resume.years() < jd.years()) {
+            weaknesses.add(String.format(Locale.ROOT, "Experience below the requirement (about %s years found, %s+ required)",
+                formatYears(resume.years()), formatYears(jd.years())));
+            suggestions.add("State the dates of every position so your full experience is counted");
+        }
+        if (techRequired == 0 && practiceRequired == 0) {
+            suggestions.add("Mirror the terminology of the job description in your resume");
+        }
+
+        String summary = String.format(Locale.ROOT,
+            "Local keyword analysis: %d of %d technical skills and %d of %d practices named in the job description appear in the resume%s.",
+            techMatched.size(), techRequired, practiceMatched.size(), practiceRequired,
+            resume.years() > 0 ? ", with about " + formatYears(resume.years()) + " years of experience" : "");
+
+        List<String> gapsInExperience = limit(notInExperience);
+        if (jd.years() > 0 && resume.years() < jd.years()) {
+            gapsInExperience.add(0, formatYears(jd.years()) + "+ years of experience");
+        }
+        List<String> projectGaps = new ArrayList<>(techMatched);
+        projectGaps.removeAll(inProjects);
+        projectGaps.addAll(techMissing);
+
+        return new StructuredEvaluation(
+            summary,
+            score,
+            null,
+            null,
+            score >= MATCHED_SCORE ? "MATCHED" : "UNMATCHED",
+            strengths,
+            weaknesses,
+            suggestions,
+            new SkillSection(limit(inExperience), gapsInExperience),
+            new SkillSection(limit(certificates), limit(certsMissing)),
+            new SkillSection(limit(inProjects), limit(projectGaps)),
+            new SkillSection(limit(techMatched), limit(techMissing)));
+    }
+
+    private Profile buildProfile(String text, boolean resume) {
+        // Offsets where each section starts, from the text's heading lines
+        List<Integer> sectionStarts = new ArrayList<>();
+        List<Section> sections = new ArrayList<>();
+        int lineStart = 0;
+        while (lineStart <= text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            Section heading = headingOf(text.substring(lineStart, lineEnd));
+            if (heading != null) {
+                sectionStarts.add(lineStart);
+                sections.add(heading);
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        int[] ids = new int[dictionary.size()];
+        int count = 0;
+        byte[] sectionMasks = new byte[dictionary.size()];
+        for (DictionaryMatcher.Match match : dictionary.find(text)) {
+            // Without headings everything the text mentions counts as experience; before the first one as other
+            Section section = Section.EXPERIENCE;
+            if (!sections.isEmpty()) {
+                section = Section.OTHER;
+                for (int i = sectionStarts.size() - 1; i >= 0; i--) {
+                    if (sectionStarts.get(i) <= match.start()) {
+                        section = sections.get(i);
+                        break;
+                    }
+                }
+            }
+            if (sectionMasks[match.id()] == 0) {
+                ids[count++] = match.id();
+            }
+            sectionMasks[match.id()] |= (byte) (1 << section.ordinal());
+        }
+        return new Profile(Arrays.copyOf(ids, count), sectionMasks, new HashSet<>(Bm25Index.tokenize(text)),
+            resume ? Math.max(statedYears(text), datedYears(text)) : statedYears(text));
+    }
+
+    private static Section headingOf(String line) {
+        Matcher matcher = HEADING_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String heading = matcher.group(1).toLowerCase(Locale.ROOT).replace("&", " and ").replace("/", " ")
+            .replaceAll("\\s+", " ").trim();
+        Section section = HEADINGS.get(heading);
+        if (section != null || heading.split(" ").length > 4) {
+            return section;
+        }
+        if (heading.endsWith("experience")) {
+            return Section.EXPERIENCE;
+        }
+        if (heading.endsWith("projects")) {
+            return Section.PROJECTS;
+        }
+        if (heading.contains("certif")) {
+            return Section.CERTIFICATIONS;
+        }
+        if (heading.endsWith("skills")) {
+            return Section.SKILLS;
+        }
+        return null;
+    }
+
+    private static double statedYears(String text) {
+        double years = 0;
+        Matcher matcher = YEARS_PATTERN.matcher(text);
+        while (matcher.find()) {
+            years = Math.max(years, Integer.parseInt(matcher.group(1)));
+        }
+        return years;
+    }
+
+    /**
+     * Years covered by the union of the text's date ranges, so overlapping positions count once
+     */
+    private static double datedYears(String text) {
+        List<int[]> ranges = new ArrayList<>();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        int now = today.getYear() * 12 + today.getMonthValue() - 1;
+        Matcher matcher = DATE_RANGE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            int start = Integer.parseInt(matcher.group(3)) * 12 + month(matcher.group(1), matcher.group(2), 0);
+            int end = Character.isDigit(matcher.group(6).charAt(0))
+                ? Integer.parseInt(matcher.group(6)) * 12 + month(matcher.group(4), matcher.group(5), 11) + 1
+                : now + 1;
+            if (end > start && end <= now + 1) {
+                ranges.add(new int[]{start, end});
+            }
+        }
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        int months = 0;
+        int coveredUntil = Integer.MIN_VALUE;
+        for (int[] range : ranges) {
+            int from = Math.max(range[0], coveredUntil);
+            if (range[1] > from) {
+                months += range[1] - from;
+            }
+            coveredUntil = Math.max(coveredUntil, range[1]);
+        }
+        return months / 12.0;
+    }
+
+    private static int month(String name, String number, int missing) {
+        if (name != null) {
+            return MONTHS.indexOf(name.toLowerCase(Locale.ROOT));
+        }
+        if (number != null) {
+            int value = Integer.parseInt(number);
+            return value >= 1 && value <= 12 ? value - 1 : missing;
+        }
+        return missing;
+    }
+
+    /**
+     * Share of the JD's distinct terms that also occur in the resume
+     */
+    private static double termOverlap(Profile resume, Profile jd) {
+        if (jd.terms().isEmpty()) {
+            return 0.0;
+        }
+        int shared = 0;
+        for (String term : jd.terms()) {
+            if (resume.terms().contains(term)) {
+                shared++;
+            }
+        }
+        return shared / (double) jd.terms().size();
+    }
+
+    /**
+     * What a job description asks for, one line per dictionary category plus the required years, for reports of
+     * requests scored without the AI. Null when the JD names no dictionary skill and no years.
+     */
+    public String summarize(String jdText) {
+        Profile jd = jobProfile(jdText);
+        List<String> lines = new ArrayList<>();
+        List<String> technical = skillsOf(jd, Category.TECHNICAL);
+        if (!technical.isEmpty()) {
+            lines.add("Technical skills: " + join(technical));
+        }
+        List<String> practices = skillsOf(jd, Category.PRACTICE);
+        if (!practices.isEmpty()) {
+            lines.add("Practices: " + join(practices));
+        }
+        List<String> certifications = skillsOf(jd, Category.CERTIFICATION);
+        if (!certifications.isEmpty()) {
+            lines.add("Certifications: " + join(certifications));
+        }
+        if (jd.years() > 0) {
+            lines.add("Experience: " + formatYears(jd.years()) + "+ years");
+        }
+        return lines.isEmpty() ? null : String.join("\n", lines);
+    }
+
+    private List<String> skillsOf(Profile profile, Category category) {
+        List<String> names = new ArrayList<>();
+        for (int id : profile.skillIds()) {
+            if (dictionary.category(id) == category) {
+                names.add(dictionary.name(id));
+            }
+        }
+        return names;
+    }
+
+    private static List<String> limit(Collection<String> items) {
+        return new ArrayList<>(items.stream().limit(MAX_LISTED).toList());
+    }
+
+    private static String join(List<String> items) {
+        return String.join(", ", limit(items));
+    }
+
+    private static String formatYears(double years) {
+        return years == Math.rint(years) ? String.valueOf((long) years) : String.format(Locale.ROOT, "%.1f", years);
+    }
+}
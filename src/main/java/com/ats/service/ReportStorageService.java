@@ -0,0 +1,111 @@
+package com.ats.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Report files (the Mode 4 Excel) produced by bulk runs. Each report is written straight to disk
+ * under a random id and served by {@code /api/reports/{reportId}}, so it never has to be held in memory
+ * or embedded in a JSON response. Reports expire {@code app.reports.retention-minutes} after they
+ * were written, matching how long finished jobs are kept; expired files are deleted when the next report is
+ * stored or when they are asked for.
+ */
+@Service
+public class ReportStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportStorageService.class);
+
+    private static final String EXTENSION = ".xlsx";
+    private static final Pattern REPORT_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    /**
+     * Writes the report content; the stream is buffered and closed by the caller
+     */
+    @FunctionalInterface
+    public interface ReportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private final Path directory;
+    private final long retentionMillis;
+
+    public ReportStorageService(@Value("${app.reports.directory:reports}") String directory,
+                                @Value("${app.reports.retention-minutes:60}") long retentionMinutes) {
+        this.directory = Paths.get(directory);
+        this.retentionMillis = retentionMinutes * 60 * 1000;
+        try {
+            Files.createDirectories(this.directory);
+            cleanupExpiredReports();
+        } catch (IOException e) {
+            logger.error("Failed to create report directory {}: {}", this.directory.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Write a new report and return its id. The file only becomes visible once it is complete.
+     */
+    public String store(ReportWriter writer) throws IOException {
+        cleanupExpiredReports();
+
+        String reportId = UUID.randomUUID().toString();
+        Path target = directory.resolve(reportId + EXTENSION);
+        Path partial = directory.resolve(reportId + EXTENSION + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                writer.write(out);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+
+        logger.info("Report {} stored ({} bytes)", reportId, Files.size(target));
+        return reportId;
+    }
+
+    /**
+     * Path of a stored report, or null if the id is malformed, unknown or expired
+     */
+    public Path getReportPath(String reportId) {
+        if (reportId == null || !REPORT_ID.matcher(reportId).matches()) {
+            return null;
+        }
+        Path path = directory.resolve(reportId + EXTENSION);
+        try {
+            // Cleanup only runs when reports are stored, so a report can outlive its retention on a quiet server
+            if (Files.getLastModifiedTime(path).toMillis() < System.currentTimeMillis() - retentionMillis) {
+                Files.deleteIfExists(path);
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    private void cleanupExpiredReports() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(directory)) {
+            for (Path report : reports) {
+                if (Files.getLastModifiedTime(report).toMillis() < cutoff) {
+                    Files.deleteIfExists(report);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Report cleanup failed: {}", e.getMessage());
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +27,9 @@ public class ResumeMatchManager {
     @Autowired
     private RenamedFileStorageService renamedFileStorageService;
 
+    @Autowired
+    private SkillDictionary skillDictionary;
+
     // Store matches by JD index
     private final ConcurrentHashMap<Integer, List<ResumeMatch>> matchesByJD = new ConcurrentHashMap<>();
 
@@ -46,12 +50,14 @@ public class ResumeMatchManager {
 
             // Create renamed version automatically
             String renamedFilename = null;
+            String companyName = null;
+            String roleName = null;
             try {
                 System.out.println("🔄 Attempting to create renamed file...");
                 
                 // Extract company and role from job description (basic extraction)
-                String companyName = extractCompanyFromJD(jobDescription);
-                String roleName = extractRoleFromJD(jobDescription);
+                companyName = extractCompanyFromJD(jobDescription);
+                roleName = extractRoleFromJD(jobDescription);
                 
                 System.out.println("   Extracted Company: '" + companyName + "'");
                 System.out.println("   Extracted Role: '" + roleName + "'");
@@ -79,12 +85,13 @@ public class ResumeMatchManager {
             
             // Store additional info in the match
             if (renamedFilename != null) {
-                match.setCompanyName(extractCompanyFromJD(jobDescription));
-                match.setRoleName(extractRoleFromJD(jobDescription));
+                match.setCompanyName(companyName);
+                match.setRoleName(roleName);
                 match.setFileType(getFileType(resumeFileName));
             }
 
-            matchesByJD.computeIfAbsent(jdIndex, k -> new ArrayList<>()).add(match);
+            // Bulk analysis stores matches for several pairs concurrently
+            matchesByJD.computeIfAbsent(jdIndex, k -> new CopyOnWriteArrayList<>()).add(match);
             
             System.out.println("✅ Resume match stored for JD " + jdIndex);
             System.out.println("   Resume: " + resumeFileName);
@@ -106,20 +113,11 @@ public class ResumeMatchManager {
             return "UnknownCompany";
         }
         
-        // Simple extraction - look for common patterns
-        String jd = jobDescription.toLowerCase();
-        
-        // Look for company indicators
-        if (jd.contains("google")) return "Google";
-        if (jd.contains("microsoft")) return "Microsoft";
-        if (jd.contains("amazon")) return "Amazon";
-        if (jd.contains("apple")) return "Apple";
-        if (jd.contains("facebook") || jd.contains("meta")) return "Meta";
-        if (jd.contains("netflix")) return "Netflix";
-        if (jd.contains("tesla")) return "Tesla";
-        if (jd.contains("uber")) return "Uber";
-        if (jd.contains("airbnb")) return "Airbnb";
-        if (jd.contains("rolls royce") || jd.contains("rolls-royce")) return "RollsRoyce";
+        // Look for known companies; the first in dictionary order wins
+        String company = skillDictionary.firstOf(jobDescription, SkillDictionary.Category.COMPANY);
+        if (company != null) {
+            return company.replaceAll("[^a-zA-Z0-9]", "");
+        }
         
         // Try to extract from the beginning of the description
         String[] lines = jobDescription.split("\n");
@@ -147,28 +145,20 @@ public class ResumeMatchManager {
             return "UnknownRole";
         }
         
-        // Simple extraction - look for common role patterns
-        String jd = jobDescription.toLowerCase();
-        
-        if (jd.contains("software engineer") || jd.contains("developer")) return "SoftwareEngineer";
-        if (jd.contains("data scientist")) return "DataScientist";
-        if (jd.contains("product manager")) return "ProductManager";
-        if (jd.contains("designer") || jd.contains("ux")) return "UXDesigner";
-        if (jd.contains("analyst")) return "DataAnalyst";
-        if (jd.contains("manager")) return "Manager";
-        if (jd.contains("lead")) return "TechLead";
-        if (jd.contains("architect")) return "Architect";
-        if (jd.contains("hr people partner") || jd.contains("hr partner")) return "HRPeoplePartner";
-        if (jd.contains("labor relations")) return "LaborRelations";
+        // Look for common roles; the first in dictionary order wins
+        String role = skillDictionary.firstOf(jobDescription, SkillDictionary.Category.ROLE);
+        if (role != null) {
+            return role.replaceAll("[^a-zA-Z0-9]", "");
+        }
         
         // Try to extract from job title line
         String[] lines = jobDescription.split("\n");
         for (String line : lines) {
             line = line.trim();
             if (line.toLowerCase().contains("job title:") || line.toLowerCase().contains("role:")) {
-                String role = line.substring(line.indexOf(":") + 1).trim();
-                if (role.length() > 0) {
-                    return role.replaceAll("[^a-zA-Z0-9\\s\\-_]", "").replaceAll("\\s+", "");
+                String title = line.substring(line.indexOf(":") + 1).trim();
+                if (title.length() > 0) {
+                    return title.replaceAll("[^a-zA-Z0-9\\s\\-_]", "").replaceAll("\\s+", "");
                 }
             }
         }
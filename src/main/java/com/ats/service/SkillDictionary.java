@@ -0,0 +1,111 @@
+package com.ats.service;
+
+import com.ats.utils.DictionaryMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Skills, companies and roles of the {@code app.dictionary.location} file, interned as ids 0..size()-1 in file order.
+ * Each line is {@code category|canonical name|synonyms}; all names of an entry are compiled into one
+ * {@link DictionaryMatcher}, so a single pass over a resume or JD finds every entry it mentions.
+ */
+@Component
+public class SkillDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillDictionary.class);
+
+    public enum Category {
+        TECHNICAL, PRACTICE, CERTIFICATION, COMPANY, ROLE
+    }
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Category> categories = new ArrayList<>();
+    private final DictionaryMatcher matcher;
+
+    public SkillDictionary(@Value("${app.dictionary.location:classpath:skill-dictionary.txt}") Resource location) throws IOException {
+        DictionaryMatcher.Builder builder = DictionaryMatcher.builder();
+        int phraseCount = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\|", -1);
+                if (fields.length < 2 || fields[1].isBlank()) {
+                    logger.warn("Ignoring malformed dictionary line: {}", line);
+                    continue;
+                }
+                int id = names.size();
+                names.add(fields[1].trim());
+                categories.add(Category.valueOf(fields[0].trim().toUpperCase(Locale.ROOT)));
+
+                builder.add(fields[1], id);
+                phraseCount++;
+                if (fields.length > 2 && !fields[2].isBlank()) {
+                    for (String synonym : fields[2].split(",")) {
+                        builder.add(synonym, id);
+                        phraseCount++;
+                    }
+                }
+            }
+        }
+        this.matcher = builder.build();
+        logger.info("Dictionary loaded: {} entries, {} names from {}", names.size(), phraseCount, location.getDescription());
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Canonical name of an id
+     */
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    public Category category(int id) {
+        return categories.get(id);
+    }
+
+    /**
+     * Every entry the text mentions, leftmost-longest, in text order
+     */
+    public List<DictionaryMatcher.Match> find(CharSequence text) {
+        return matcher.findAll(text);
+    }
+
+    /**
+     * Distinct ids of the entries the text mentions, in order of first mention
+     */
+    public int[] findIds(CharSequence text) {
+        return matcher.findIds(text);
+    }
+
+    /**
+     * Canonical name of the first entry of the category (in dictionary order) that the text mentions, or null.
+     * Mentions inside longer entries count too, so "architect" is found within "solutions architect".
+     */
+    public String firstOf(CharSequence text, Category category) {
+        int first = Integer.MAX_VALUE;
+        for (DictionaryMatcher.Match match : matcher.findOverlapping(text)) {
+            if (categories.get(match.id()) == category) {
+                first = Math.min(first, match.id());
+            }
+        }
+        return first == Integer.MAX_VALUE ? null : names.get(first);
+    }
+}
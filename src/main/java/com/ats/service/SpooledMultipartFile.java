@@ -0,0 +1,115 @@
+package com.ats.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Copy of an upload in a temp file. Like {@link BufferedMultipartFile} it outlives the request, for work that
+ * waits in a queue (background jobs), but it keeps the content on disk so queued jobs hold no uploads in the heap.
+ * Whoever spools a file deletes it once the work is done.
+ */
+public class SpooledMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final Path path;
+    private final long size;
+
+    private SpooledMultipartFile(String name, String originalFilename, String contentType, Path path, long size) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.path = path;
+        this.size = size;
+    }
+
+    public static SpooledMultipartFile copyOf(MultipartFile file, Path directory) throws IOException {
+        Path path = Files.createTempFile(directory, "upload-", ".tmp");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+            return new SpooledMultipartFile(file.getName(), file.getOriginalFilename(), file.getContentType(), path,
+                Files.size(path));
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Spool all files, deleting the ones already written if one of them fails
+     */
+    public static SpooledMultipartFile[] copyOf(MultipartFile[] files, Path directory) throws IOException {
+        SpooledMultipartFile[] copies = new SpooledMultipartFile[files.length];
+        try {
+            for (int i = 0; i < files.length; i++) {
+                copies[i] = copyOf(files[i], directory);
+            }
+        } catch (IOException e) {
+            delete(copies);
+            throw e;
+        }
+        return copies;
+    }
+
+    /**
+     * Delete the spooled copies; null entries are skipped
+     */
+    public static void delete(SpooledMultipartFile... files) {
+        for (SpooledMultipartFile file : files) {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file.path);
+                } catch (IOException e) {
+                    file.path.toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
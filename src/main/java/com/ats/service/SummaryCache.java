@@ -0,0 +1,55 @@
+package com.ats.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache of the Mode 4 report texts generated by AI (JD summaries, improvement suggestions, ATS result
+ * explanations), keyed by a content hash of the prompt. A JD summary depends only on the JD text, so
+ * uploading the same JD sheet again makes no summary calls. Kept apart from the {@link EvaluationCache}
+ * so report texts never evict scores. Published as {@code cache.*{cache=ats.summaries}}.
+ */
+@Component
+public class SummaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryCache.class);
+
+    private final Cache<String, String> cache;
+
+    public SummaryCache(MeterRegistry meterRegistry,
+                        @Value("${app.summary-cache.max-entries:5000}") long maxEntries,
+                        @Value("${app.summary-cache.ttl-hours:168}") long ttlHours) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, maxEntries))
+            .expireAfterWrite(Duration.ofHours(ttlHours))
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ats.summaries");
+        logger.info("Summary cache configured: maxEntries={}, ttlHours={}", maxEntries, ttlHours);
+    }
+
+    public String getIfPresent(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, String text) {
+        cache.put(key, text);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,393 @@
+package com.ats.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Application-wide adaptive limit on the number of OpenAI calls in flight (AIMD).
+ * The limit grows by about one per round trip while it is actually being used, and is multiplied by
+ * {@code openai.limiter.backoff-ratio} when a call is overloaded (throttled, server error, timeout) or when
+ * recent latency rises above {@code openai.limiter.latency-tolerance} times the long-term latency. Cuts are
+ * at most once per recent round trip, so a burst of failures from the same window only counts once.
+ * A Retry-After from the API pauses all dispatching until it has passed (see {@link #pause(Duration)}).
+ * Calls over the limit wait in one FIFO queue per lane, and lanes are served round robin, so a large bulk
+ * request cannot starve interactive calls or other bulk requests. The lane is read from the subscriber
+ * context ({@link #lane(String)}); calls without one share the interactive lane.
+ * Bulk lanes ({@link #bulkLane(String)}) together hold at most {@code openai.limiter.bulk-max-share} of the
+ * limit, a bulkhead that keeps the rest of the capacity free for interactive Mode 1/2 calls.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    public static final String LANE_KEY = AdaptiveConcurrencyLimiter.class.getName() + ".lane";
+    private static final String DEFAULT_LANE = "interactive";
+    private static final String BULK_LANE_PREFIX = "bulk-";
+
+    // Latency averages: the short one follows the last few calls, the long one is the healthy baseline
+    private static final double SHORT_LATENCY_WEIGHT = 0.2;
+    private static final double LONG_LATENCY_WEIGHT = 0.01;
+    private static final int LATENCY_WARMUP_SAMPLES = 20;
+    private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private enum Outcome { SUCCESS, OVERLOADED, IGNORED }
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double bulkMaxShare;
+    private final long maxPauseNanos;
+    private final LongSupplier nanoClock;
+    private final Counter overloadCounter;
+
+    // All mutable state below is guarded by this
+    private final Map<String, ArrayDeque<Waiter>> lanes = new LinkedHashMap<>();
+    private double limit;
+    private int inFlight;
+    private int bulkInFlight;
+    private int queued;
+    private long latencySamples;
+    private double shortLatencyNanos;
+    private double longLatencyNanos;
+    private long lastDecreaseNanos;
+    private boolean paused;
+    private long pausedUntilNanos;
+    private boolean resumeScheduled;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${openai.limiter.enabled:true}") boolean enabled,
+                                      @Value("${openai.limiter.initial-limit:8}") int initialLimit,
+                                      @Value("${openai.limiter.min-limit:1}") int minLimit,
+                                      @Value("${openai.limiter.max-limit:50}") int maxLimit,
+                                      @Value("${openai.limiter.backoff-ratio:0.7}") double backoffRatio,
+                                      @Value("${openai.limiter.latency-tolerance:2.0}") double latencyTolerance,
+                                      @Value("${openai.limiter.bulk-max-share:0.75}") double bulkMaxShare,
+                                      @Value("${openai.limiter.max-pause:60000}") long maxPauseMs) {
+        this(meterRegistry, enabled, initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance, bulkMaxShare, maxPauseMs, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry, boolean enabled, int initialLimit, int minLimit, int maxLimit,
+                               double backoffRatio, double latencyTolerance, double bulkMaxShare, long maxPauseMs, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = Math.min(Math.max(backoffRatio, 0.1), 0.95);
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+        this.bulkMaxShare = Math.min(Math.max(bulkMaxShare, 0.0), 1.0);
+        this.maxPauseNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxPauseMs));
+        this.nanoClock = nanoClock;
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.lastDecreaseNanos = nanoClock.getAsLong() - TimeUnit.HOURS.toNanos(1);
+
+        Gauge.builder("ats.openai.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current adaptive limit on OpenAI calls in flight")
+            .register(meterRegistry);
+        Gauge.builder("ats.openai.limiter.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+            .description("OpenAI calls currently in flight")
+            .register(meterRegistry);
+        Gauge.builder("ats.openai.limiter.bulk-in-flight", this, AdaptiveConcurrencyLimiter::getBulkInFlight)
+            .description("OpenAI calls of bulk requests currently in flight")
+            .register(meterRegistry);
+        Gauge.builder("ats.openai.limiter.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+            .description("OpenAI calls waiting for the limiter")
+            .register(meterRegistry);
+        this.overloadCounter = Counter.builder("ats.openai.limiter.overloaded")
+            .description("OpenAI calls that were throttled, failed on the server side or timed out")
+            .register(meterRegistry);
+
+        logger.info("OpenAI concurrency limiter configured: enabled={}, initialLimit={}, minLimit={}, maxLimit={}, backoffRatio={}, latencyTolerance={}, bulkMaxShare={}",
+            enabled, (int) limit, this.minLimit, this.maxLimit, this.backoffRatio, this.latencyTolerance, this.bulkMaxShare);
+    }
+
+    /**
+     * Context that puts every limited call of the subscribed pipeline in the given lane
+     */
+    public static Context lane(String name) {
+        return Context.of(LANE_KEY, name);
+    }
+
+    /**
+     * Lane of a bulk request, subject to the bulk share of the limit
+     */
+    public static Context bulkLane(String name) {
+        return lane(BULK_LANE_PREFIX + name);
+    }
+
+    /**
+     * Whether calls subscribed with this context belong to a bulk request
+     */
+    public static boolean isBulkLane(ContextView context) {
+        return isBulk(context.getOrDefault(LANE_KEY, DEFAULT_LANE));
+    }
+
+    /**
+     * Runs the call once a permit is available. The permit is held until the call terminates or is
+     * cancelled; errors matching {@code isOverload} shrink the limit, other errors leave it unchanged.
+     * Time spent waiting for a permit does not count towards timeouts applied inside the call.
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> call, Predicate<Throwable> isOverload) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.usingWhen(
+            acquire(),
+            permit -> Mono.defer(call),
+            permit -> Mono.fromRunnable(() -> permit.release(Outcome.SUCCESS)),
+            (permit, e) -> Mono.fromRunnable(() -> permit.release(isOverload.test(e) ? Outcome.OVERLOADED : Outcome.IGNORED)),
+            permit -> Mono.fromRunnable(() -> permit.release(Outcome.IGNORED)));
+    }
+
+    /**
+     * Stops starting new calls for the given time (capped at {@code openai.limiter.max-pause}), as asked by
+     * a Retry-After. Calls already in flight are not affected; queued and retried calls wait for the pause.
+     */
+    public void pause(Duration duration) {
+        if (!enabled || duration == null || duration.isNegative() || duration.isZero()) {
+            return;
+        }
+        long pauseNanos = Math.min(duration.toNanos(), maxPauseNanos);
+        synchronized (this) {
+            long until = nanoClock.getAsLong() + pauseNanos;
+            if (!paused || until - pausedUntilNanos > 0) {
+                paused = true;
+                pausedUntilNanos = until;
+            }
+        }
+        logger.warn("OpenAI asked to retry after {} ms; pausing new calls", TimeUnit.NANOSECONDS.toMillis(pauseNanos));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getBulkInFlight() {
+        return bulkInFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.deferContextual(context -> Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, context.getOrDefault(LANE_KEY, DEFAULT_LANE));
+            sink.onCancel(waiter::cancel);
+            synchronized (this) {
+                lanes.computeIfAbsent(waiter.lane, lane -> new ArrayDeque<>()).add(waiter);
+                queued++;
+            }
+            drain();
+        }));
+    }
+
+    /**
+     * Hands out permits while the limit allows; permits are delivered outside the lock because the
+     * granted call may start (and even finish) on this thread
+     */
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        List<Permit> permits = new ArrayList<>();
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            if (paused && pausedUntilNanos - now > 0) {
+                scheduleResume(pausedUntilNanos - now);
+                return;
+            }
+            paused = false;
+            while (inFlight < (int) limit) {
+                Waiter next = pollNextWaiter();
+                if (next == null) {
+                    break;
+                }
+                boolean bulk = isBulk(next.lane);
+                inFlight++;
+                if (bulk) {
+                    bulkInFlight++;
+                }
+                granted.add(next);
+                permits.add(new Permit(now, bulk));
+            }
+        }
+        for (int i = 0; i < granted.size(); i++) {
+            granted.get(i).grant(permits.get(i));
+        }
+    }
+
+    /**
+     * Takes the oldest waiter of the first lane allowed to start a call and moves that lane to the tail
+     * (round robin); bulk lanes are skipped while the bulk share of the limit is in use
+     */
+    private Waiter pollNextWaiter() {
+        boolean bulkAllowed = bulkInFlight < Math.max(1, (int) (limit * bulkMaxShare));
+        for (Map.Entry<String, ArrayDeque<Waiter>> entry : lanes.entrySet()) {
+            if (!bulkAllowed && isBulk(entry.getKey())) {
+                continue;
+            }
+            ArrayDeque<Waiter> lane = entry.getValue();
+            lanes.remove(entry.getKey());
+            Waiter waiter = lane.poll();
+            queued--;
+            if (!lane.isEmpty()) {
+                lanes.put(entry.getKey(), lane);
+            }
+            return waiter;
+        }
+        return null;
+    }
+
+    private static boolean isBulk(String lane) {
+        return lane.startsWith(BULK_LANE_PREFIX);
+    }
+
+    private void scheduleResume(long delayNanos) {
+        if (resumeScheduled) {
+            return;
+        }
+        resumeScheduled = true;
+        Schedulers.parallel().schedule(() -> {
+            synchronized (this) {
+                resumeScheduled = false;
+            }
+            drain();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        ArrayDeque<Waiter> lane = lanes.get(waiter.lane);
+        if (lane != null && lane.remove(waiter)) {
+            queued--;
+            if (lane.isEmpty()) {
+                lanes.remove(waiter.lane);
+            }
+        }
+    }
+
+    private void onRelease(Permit permit, Outcome outcome) {
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            int usage = inFlight--;
+            if (permit.bulk) {
+                bulkInFlight--;
+            }
+            if (outcome == Outcome.OVERLOADED) {
+                overloadCounter.increment();
+                decrease(now, "overload");
+            } else if (outcome == Outcome.SUCCESS) {
+                recordLatency(now - permit.startNanos);
+                if (latencySamples >= LATENCY_WARMUP_SAMPLES && shortLatencyNanos > longLatencyNanos * latencyTolerance) {
+                    decrease(now, "latency");
+                } else if (usage * 2 >= limit) {
+                    // Additive increase: about +1 per limit's worth of successful calls, i.e. per round trip
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+            }
+        }
+        drain();
+    }
+
+    private void recordLatency(long latencyNanos) {
+        if (latencySamples++ == 0) {
+            shortLatencyNanos = latencyNanos;
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+        shortLatencyNanos += SHORT_LATENCY_WEIGHT * (latencyNanos - shortLatencyNanos);
+        longLatencyNanos += LONG_LATENCY_WEIGHT * (latencyNanos - longLatencyNanos);
+    }
+
+    private void decrease(long now, String reason) {
+        if (now - lastDecreaseNanos < Math.max(MIN_DECREASE_INTERVAL_NANOS, (long) shortLatencyNanos)) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        logger.warn("OpenAI concurrency limit reduced from {} to {} ({})", (int) previous, (int) limit, reason);
+    }
+
+    private final class Permit {
+        private final long startNanos;
+        private final boolean bulk;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos, boolean bulk) {
+            this.startNanos = startNanos;
+            this.bulk = bulk;
+        }
+
+        private void release(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                onRelease(this, outcome);
+            }
+        }
+    }
+
+    private final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final MonoSink<Permit> sink;
+        private final String lane;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile Permit permit;
+
+        private Waiter(MonoSink<Permit> sink, String lane) {
+            this.sink = sink;
+            this.lane = lane;
+        }
+
+        private void grant(Permit granted) {
+            permit = granted;
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                sink.success(granted);
+            } else {
+                granted.release(Outcome.IGNORED);
+            }
+        }
+
+        private void cancel() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                remove(this);
+                return;
+            }
+            // Cancelled while the permit was being delivered; releasing twice is harmless
+            Permit granted = permit;
+            if (granted != null) {
+                granted.release(Outcome.IGNORED);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.ats.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Okapi BM25 index over a fixed set of documents (the extracted resume texts of one request).
+ * Built once, then scores any number of queries (job descriptions) in time linear in the query terms.
+ * Scores are only comparable between documents of the same index; a null document never matches.
+ */
+public final class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Words that appear in nearly every resume and JD and carry no signal for matching
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "in", "is", "it",
+        "its", "of", "on", "or", "our", "that", "the", "their", "this", "to", "was", "we", "were", "will",
+        "with", "you", "your", "who", "etc", "able", "work", "working", "experience", "job", "role", "team",
+        "years", "year", "strong", "good", "skills", "knowledge", "ability");
+
+    private final List<Map<String, Integer>> termFrequencies;
+    private final int[] documentLengths;
+    private final Map<String, Integer> documentFrequencies = new HashMap<>();
+    private final double averageLength;
+
+    public Bm25Index(List<String> documents) {
+        this.termFrequencies = new ArrayList<>(documents.size());
+        this.documentLengths = new int[documents.size()];
+
+        long totalLength = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            List<String> tokens = tokenize(documents.get(i));
+            for (String token : tokens) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            for (String term : frequencies.keySet()) {
+                documentFrequencies.merge(term, 1, Integer::sum);
+            }
+            termFrequencies.add(frequencies);
+            documentLengths[i] = tokens.size();
+            totalLength += tokens.size();
+        }
+        this.averageLength = documents.isEmpty() ? 0 : Math.max(1.0, totalLength / (double) documents.size());
+    }
+
+    public int size() {
+        return documentLengths.length;
+    }
+
+    /**
+     * BM25 score of every document against the query, in document order. Repeated query terms count once.
+     */
+    public double[] score(String query) {
+        double[] scores = new double[size()];
+        if (size() == 0) {
+            return scores;
+        }
+
+        for (String term : Set.copyOf(tokenize(query))) {
+            Integer documentFrequency = documentFrequencies.get(term);
+            if (documentFrequency == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            for (int i = 0; i < scores.length; i++) {
+                Integer frequency = termFrequencies.get(i).get(term);
+                if (frequency != null) {
+                    double lengthNorm = K1 * (1 - B + B * documentLengths[i] / averageLength);
+                    scores[i] += idf * frequency * (K1 + 1) / (frequency + lengthNorm);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Lower-cased terms of the text. Keeps '+', '#' and inner '.' so c++, c# and node.js survive as terms.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            boolean termChar = Character.isLetterOrDigit(c) || c == '+' || c == '#'
+                || (c == '.' && start >= 0 && i + 1 < lower.length() && Character.isLetterOrDigit(lower.charAt(i + 1)));
+            if (termChar) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                addToken(tokens, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        if (token.length() < 2 && !token.equals("c") && !token.equals("r")) {
+            return;
+        }
+        if (!STOP_WORDS.contains(token)) {
+            tokens.add(token);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ats.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Builds content-addressed cache keys: a SHA-256 digest over every input that affects an AI result.
+ * Text parts are whitespace-normalized and streamed into the digest chunk by chunk, so large
+ * resumes/JDs are never concatenated or copied. Each part is framed by its length, so
+ * ("ab", "c") and ("a", "bc") produce different keys.
+ */
+public final class CacheKeyBuilder {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private CacheKeyBuilder() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static CacheKeyBuilder create() {
+        return new CacheKeyBuilder();
+    }
+
+    /**
+     * Add a text part. Leading/trailing whitespace is ignored and whitespace runs count as a single space,
+     * so formatting-only differences in extracted text still hit the cache.
+     */
+    public CacheKeyBuilder add(String text) {
+        if (text == null) {
+            writeLong(-1);
+            return this;
+        }
+
+        long written = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = written > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                writeChar(' ');
+                written++;
+                pendingSpace = false;
+            }
+            writeChar(c);
+            written++;
+        }
+        // Length suffix frames the part
+        writeLong(written);
+        return this;
+    }
+
+    /**
+     * Hex-encoded SHA-256 of all parts added so far
+     */
+    public String build() {
+        flush();
+        byte[] hash = digest.digest();
+        StringBuilder hexString = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) hexString.append('0');
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    private void writeChar(char c) {
+        if (position + 2 > BUFFER_SIZE) {
+            flush();
+        }
+        buffer[position++] = (byte) (c >>> 8);
+        buffer[position++] = (byte) c;
+    }
+
+    private void writeLong(long value) {
+        if (position + 8 > BUFFER_SIZE) {
+            flush();
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void flush() {
+        digest.update(buffer, 0, position);
+        position = 0;
+    }
+}
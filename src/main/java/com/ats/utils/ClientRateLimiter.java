@@ -0,0 +1,86 @@
+package com.ats.utils;
+
+import com.ats.exception.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-client limit on analysis requests, shared by every endpoint that starts one (sync, streamed and
+ * background), so a client cannot get around the limit by switching endpoints. Requests without a
+ * clientId share the "default" allowance.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientRateLimiter.class);
+
+    private static final int MAX_REQUESTS_PER_HOUR = 10; // Adjust based on your needs
+    private static final long HOUR_IN_MILLIS = 60 * 60 * 1000;
+
+    // Rate limiting: track requests per client
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastRequestTime = new ConcurrentHashMap<>();
+
+    /**
+     * Count a request of the client, rejecting it once the client is over its hourly limit
+     */
+    public void checkRateLimit(String clientId) throws ValidationException {
+        String identifier = identifier(clientId);
+        if (!tryAcquire(identifier)) {
+            throw new ValidationException("Rate limit exceeded. Please try again later.");
+        }
+    }
+
+    /**
+     * Requests used and remaining in the client's current hour
+     */
+    public Map<String, Object> getStatus(String clientId) {
+        String identifier = identifier(clientId);
+        AtomicInteger count = requestCounts.get(identifier);
+        int used = count != null ? count.get() : 0;
+
+        logger.debug("Rate limit status requested for identifier: {} - used: {}/{}",
+            identifier, used, MAX_REQUESTS_PER_HOUR);
+
+        return Map.of(
+            "used", used,
+            "limit", MAX_REQUESTS_PER_HOUR,
+            "remaining", Math.max(0, MAX_REQUESTS_PER_HOUR - used)
+        );
+    }
+
+    private static String identifier(String clientId) {
+        return clientId != null ? clientId : "default";
+    }
+
+    private boolean tryAcquire(String identifier) {
+        long currentTime = System.currentTimeMillis();
+        Long lastTime = lastRequestTime.get(identifier);
+
+        // Reset counter if an hour has passed
+        if (lastTime == null || currentTime - lastTime > HOUR_IN_MILLIS) {
+            requestCounts.put(identifier, new AtomicInteger(1));
+            lastRequestTime.put(identifier, currentTime);
+            logger.debug("Rate limit reset for identifier: {}", identifier);
+            return true;
+        }
+
+        // Check if limit exceeded
+        AtomicInteger count = requestCounts.computeIfAbsent(identifier, key -> new AtomicInteger(0));
+        int currentCount = count.incrementAndGet();
+        logger.debug("Rate limit check for identifier: {} - current count: {}/{}",
+            identifier, currentCount, MAX_REQUESTS_PER_HOUR);
+
+        if (currentCount > MAX_REQUESTS_PER_HOUR) {
+            logger.warn("Rate limit exceeded for identifier: {} - count: {}", identifier, currentCount);
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,311 @@
+package com.ats.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a fixed set of phrases, each mapped to an integer id (several phrases may share
+ * an id, which is how synonyms fold to one entry). Finds every phrase in one pass over the text, in time linear in
+ * the text plus the matches. Matching is case-insensitive, and any run of whitespace, '-', '_' or '/' equals a single
+ * space, so "Rolls-Royce", "rolls royce" and "CI / CD" vs "ci/cd" match alike. A hit only counts on term boundaries,
+ * where terms are delimited as in {@link Bm25Index#tokenize}: "java" never matches inside "javascript", nor "c" inside "c++".
+ * One-letter phrases ("C", "R") must also stand alone in the original text, so "R&D", "C-level" or the initial in
+ * "John R. Smith" do not count.
+ * Immutable once built and safe to share between threads.
+ */
+public final class DictionaryMatcher {
+
+    private static final int ROOT = 0;
+
+    /**
+     * One hit, as the phrase's id and its [start, end) offsets in the original text
+     */
+    public record Match(int id, int start, int end) {
+    }
+
+    // Goto function: sorted edge labels and target states per state
+    private final char[][] edgeLabels;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Nearest state on the failure chain that ends a phrase, or ROOT
+    private final int[] outputLink;
+    // Id of the phrase ending at each state, or -1
+    private final int[] phraseIds;
+    private final int[] depths;
+    private final int maxId;
+
+    private DictionaryMatcher(List<Map<Character, Integer>> edges, List<Integer> phraseIds, List<Integer> depths) {
+        int states = edges.size();
+        this.edgeLabels = new char[states][];
+        this.edgeTargets = new int[states][];
+        this.failure = new int[states];
+        this.outputLink = new int[states];
+        this.phraseIds = new int[states];
+        this.depths = new int[states];
+
+        int highestId = -1;
+        for (int state = 0; state < states; state++) {
+            Map<Character, Integer> stateEdges = edges.get(state);
+            edgeLabels[state] = new char[stateEdges.size()];
+            edgeTargets[state] = new int[stateEdges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : stateEdges.entrySet()) {
+                edgeLabels[state][i] = edge.getKey();
+                edgeTargets[state][i] = edge.getValue();
+                i++;
+            }
+            this.phraseIds[state] = phraseIds.get(state);
+            this.depths[state] = depths.get(state);
+            highestId = Math.max(highestId, this.phraseIds[state]);
+        }
+        this.maxId = highestId;
+
+        // Failure links breadth first, so every shorter state is done before the states that fall back to it
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[ROOT]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeLabels[state].length; i++) {
+                int child = edgeTargets[state][i];
+                int fallback = failure[state];
+                int target;
+                while ((target = transition(fallback, edgeLabels[state][i])) < 0 && fallback != ROOT) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = target >= 0 && target != child ? target : ROOT;
+                outputLink[child] = this.phraseIds[failure[child]] >= 0 ? failure[child] : outputLink[failure[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Leftmost-longest, non-overlapping hits in text order: where phrases overlap, the one starting first wins,
+     * and of those starting at the same place the longest ("spring boot" over "spring")
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = findOverlapping(text);
+        if (matches.size() < 2) {
+            return matches;
+        }
+        matches.sort((a, b) -> a.start() != b.start() ? Integer.compare(a.start(), b.start()) : Integer.compare(b.end(), a.end()));
+
+        List<Match> selected = new ArrayList<>(matches.size());
+        int coveredUntil = -1;
+        for (Match match : matches) {
+            if (match.start() >= coveredUntil) {
+                selected.add(match);
+                coveredUntil = match.end();
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Distinct ids of {@link #findAll}, in order of first occurrence
+     */
+    public int[] findIds(CharSequence text) {
+        List<Match> matches = findAll(text);
+        boolean[] seen = new boolean[maxId + 1];
+        int[] ids = new int[matches.size()];
+        int count = 0;
+        for (Match match : matches) {
+            if (!seen[match.id()]) {
+                seen[match.id()] = true;
+                ids[count++] = match.id();
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Every hit, overlapping ones included ("spring" within "spring boot"), in order of end offset
+     */
+    public List<Match> findOverlapping(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        if (text == null || text.length() == 0) {
+            return matches;
+        }
+
+        // Normalized text, remembering where each of its characters came from
+        char[] normalized = new char[text.length()];
+        int[] origins = new int[text.length()];
+        int length = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSeparator(c)) {
+                pendingSpace = length > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized[length] = ' ';
+                origins[length++] = i - 1;
+                pendingSpace = false;
+            }
+            normalized[length] = Character.toLowerCase(c);
+            origins[length++] = i;
+        }
+
+        int state = ROOT;
+        for (int i = 0; i < length; i++) {
+            state = step(state, normalized[i]);
+            for (int output = phraseIds[state] >= 0 ? state : outputLink[state]; output != ROOT; output = outputLink[output]) {
+                int start = i - depths[output] + 1;
+                if (isBoundary(normalized, length, start - 1) && isBoundary(normalized, length, i + 1)
+                        && (depths[output] > 1 || standsAlone(text, origins[start], origins[i] + 1))) {
+                    matches.add(new Match(phraseIds[output], origins[start], origins[i] + 1));
+                }
+            }
+        }
+        return matches;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = transition(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failure[state];
+        }
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(edgeLabels[state], c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    private static boolean isSeparator(char c) {
+        return Character.isWhitespace(c) || c == '-' || c == '_' || c == '/';
+    }
+
+    /**
+     * Whether the character at index (possibly outside the text) does not continue a term
+     */
+    private static boolean isBoundary(char[] text, int length, int index) {
+        if (index < 0 || index >= length) {
+            return true;
+        }
+        char c = text[index];
+        if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+            return false;
+        }
+        return !(c == '.' && index > 0 && index + 1 < length
+            && Character.isLetterOrDigit(text[index - 1]) && Character.isLetterOrDigit(text[index + 1]));
+    }
+
+    /**
+     * Whether the one-letter hit at [start, end) is a term of its own: next to it only whitespace, list punctuation,
+     * '/' ("C/C++") or a line-ending '.', and not an initial between two capitalised words ("John R Smith")
+     */
+    private static boolean standsAlone(CharSequence text, int start, int end) {
+        if (start > 0 && !isListDelimiter(text.charAt(start - 1))) {
+            return false;
+        }
+        if (end < text.length() && !isListDelimiter(text.charAt(end))
+                && !(text.charAt(end) == '.' && (end + 1 == text.length() || text.charAt(end + 1) == '\n'
+                    || text.charAt(end + 1) == '\r'))) {
+            return false;
+        }
+        return !(followsCapitalisedWord(text, start) && end + 1 < text.length() && text.charAt(end) == ' '
+            && Character.isUpperCase(text.charAt(end + 1)));
+    }
+
+    private static boolean isListDelimiter(char c) {
+        return Character.isWhitespace(c) || c == ',' || c == ';' || c == ':' || c == '/' || c == '(' || c == ')'
+            || c == '|';
+    }
+
+    private static boolean followsCapitalisedWord(CharSequence text, int start) {
+        int i = start - 1;
+        if (i < 1 || text.charAt(i) != ' ') {
+            return false;
+        }
+        int wordEnd = i;
+        while (i > 0 && Character.isLetter(text.charAt(i - 1))) {
+            i--;
+        }
+        return i < wordEnd && Character.isUpperCase(text.charAt(i));
+    }
+
+    /**
+     * Collects phrases; a phrase added twice keeps its first id
+     */
+    public static final class Builder {
+
+        private final List<Map<Character, Integer>> edges = new ArrayList<>();
+        private final List<Integer> phraseIds = new ArrayList<>();
+        private final List<Integer> depths = new ArrayList<>();
+
+        private Builder() {
+            addState(0);
+        }
+
+        public Builder add(String phrase, int id) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Phrase ids must not be negative: " + id);
+            }
+            String normalized = normalize(phrase);
+            if (normalized.isEmpty()) {
+                return this;
+            }
+            int state = ROOT;
+            for (int i = 0; i < normalized.length(); i++) {
+                Integer next = edges.get(state).get(normalized.charAt(i));
+                if (next == null) {
+                    next = addState(i + 1);
+                    edges.get(state).put(normalized.charAt(i), next);
+                }
+                state = next;
+            }
+            if (phraseIds.get(state) < 0) {
+                phraseIds.set(state, id);
+            }
+            return this;
+        }
+
+        public DictionaryMatcher build() {
+            return new DictionaryMatcher(edges, phraseIds, depths);
+        }
+
+        private int addState(int depth) {
+            edges.add(new TreeMap<>());
+            phraseIds.add(-1);
+            depths.add(depth);
+            return edges.size() - 1;
+        }
+
+        private static String normalize(String phrase) {
+            StringBuilder normalized = new StringBuilder(phrase.length());
+            boolean pendingSpace = false;
+            for (int i = 0; i < phrase.length(); i++) {
+                char c = phrase.charAt(i);
+                if (isSeparator(c)) {
+                    pendingSpace = normalized.length() > 0;
+                    continue;
+                }
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(Character.toLowerCase(c));
+            }
+            return normalized.toString();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.ats.utils;
+
+import com.ats.exception.AIServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for the OpenAI dependency. The outcomes of the last {@code openai.circuit-breaker.window-size}
+ * calls are kept in a ring; once at least {@code minimum-calls} are recorded and the failure rate reaches
+ * {@code failure-rate-threshold} percent the breaker opens, and every call fails immediately with
+ * {@link AIServiceUnavailableException} for {@code open-duration}. It then lets {@code half-open-calls} trial
+ * calls through: the breaker closes with an empty window when all of them succeed, and opens again on the
+ * first failing one. Only failures matching the predicate given to {@link #run} count; errors caused by the
+ * request itself, and cancellations, are ignored.
+ * The state is published as {@code ats.openai.circuit.state{state=...}} (1 for the current state).
+ */
+@Component
+public class OpenAICircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAICircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    private final Counter rejectedCounter;
+
+    // All mutable state below is guarded by this
+    private final boolean[] failed;
+    private int recorded;
+    private int nextSlot;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+    // Changes on every transition, so results of calls permitted in an earlier state are not counted
+    private long generation;
+
+    @Autowired
+    public OpenAICircuitBreaker(MeterRegistry meterRegistry,
+                                @Value("${openai.circuit-breaker.enabled:true}") boolean enabled,
+                                @Value("${openai.circuit-breaker.window-size:20}") int windowSize,
+                                @Value("${openai.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                @Value("${openai.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+                                @Value("${openai.circuit-breaker.open-duration:30000}") long openDurationMs,
+                                @Value("${openai.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this(meterRegistry, enabled, windowSize, minimumCalls, failureRateThreshold, openDurationMs, halfOpenCalls, System::nanoTime);
+    }
+
+    OpenAICircuitBreaker(MeterRegistry meterRegistry, boolean enabled, int windowSize, int minimumCalls,
+                         double failureRateThreshold, long openDurationMs, int halfOpenCalls, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), this.windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, openDurationMs));
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoClock = nanoClock;
+        this.failed = new boolean[this.windowSize];
+
+        for (State gaugeState : State.values()) {
+            Gauge.builder("ats.openai.circuit.state", this, breaker -> breaker.getState() == gaugeState ? 1 : 0)
+                .description("OpenAI circuit breaker state (1 for the current state)")
+                .tag("state", gaugeState.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        }
+        Gauge.builder("ats.openai.circuit.failure-rate", this, OpenAICircuitBreaker::getFailureRate)
+            .description("Failure rate in percent over the breaker's rolling window")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ats.openai.circuit.rejected")
+            .description("OpenAI calls failed fast because the circuit breaker was open")
+            .register(meterRegistry);
+
+        logger.info("OpenAI circuit breaker configured: enabled={}, windowSize={}, minimumCalls={}, failureRateThreshold={}%, openDurationMs={}, halfOpenCalls={}",
+            enabled, this.windowSize, this.minimumCalls, failureRateThreshold, openDurationMs, this.halfOpenCalls);
+    }
+
+    /**
+     * Runs the call if the breaker permits it, otherwise fails immediately with {@link AIServiceUnavailableException}
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> call, Predicate<Throwable> isFailure) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            long permit = tryAcquire();
+            if (permit < 0) {
+                rejectedCounter.increment();
+                return Mono.error(new AIServiceUnavailableException(getRetryAfterSeconds()));
+            }
+            return Mono.defer(call)
+                .doOnSuccess(value -> onResult(permit, false))
+                .doOnError(e -> {
+                    if (isFailure.test(e)) {
+                        onResult(permit, true);
+                    } else {
+                        onIgnored(permit);
+                    }
+                })
+                .doOnCancel(() -> onIgnored(permit));
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Failure rate in percent over the rolling window (0 while it is empty)
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0 : failures * 100.0 / recorded;
+    }
+
+    /**
+     * Seconds until the breaker lets trial calls through again (at least 1 while not closed)
+     */
+    public synchronized long getRetryAfterSeconds() {
+        if (state == State.OPEN) {
+            long remaining = openDurationNanos - (nanoClock.getAsLong() - openedAtNanos);
+            return Math.max(1, (long) Math.ceil(remaining / 1e9));
+        }
+        return state == State.HALF_OPEN ? 1 : 0;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("state", state.name());
+        status.put("failureRate", Math.round(getFailureRate() * 10) / 10.0);
+        status.put("bufferedCalls", recorded);
+        status.put("failedCalls", failures);
+        status.put("rejectedCalls", (long) rejectedCounter.count());
+        if (state != State.CLOSED) {
+            status.put("retryAfterSeconds", getRetryAfterSeconds());
+        }
+        return status;
+    }
+
+    private synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < openDurationNanos) {
+                return -1;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return -1;
+            }
+            trialsStarted++;
+        }
+        return generation;
+    }
+
+    private synchronized void onResult(long permit, boolean failure) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                transitionTo(State.OPEN);
+            } else if (++trialsSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (recorded == windowSize) {
+            if (failed[nextSlot]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        failed[nextSlot] = failure;
+        if (failure) {
+            failures++;
+        }
+        nextSlot = (nextSlot + 1) % windowSize;
+
+        if (recorded >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onIgnored(long permit) {
+        // An ignored trial call frees its slot for another trial
+        if (permit == generation && state == State.HALF_OPEN) {
+            trialsStarted--;
+        }
+    }
+
+    private void transitionTo(State next) {
+        logger.warn("OpenAI circuit breaker {} -> {} (failure rate {}% over {} calls)",
+            state, next, Math.round(getFailureRate()), recorded);
+        state = next;
+        generation++;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        } else if (next == State.CLOSED) {
+            recorded = 0;
+            nextSlot = 0;
+            failures = 0;
+        }
+    }
+}
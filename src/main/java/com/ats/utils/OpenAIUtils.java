@@ -1,21 +1,33 @@
 package com.ats.utils;
 
+import com.ats.exception.AIServiceUnavailableException;
+import com.ats.exception.OpenAIClientException;
 import com.ats.exception.OpenAIException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 
 @Component
 public class OpenAIUtils {
@@ -23,6 +35,13 @@ public class OpenAIUtils {
     private static final Logger logger = LoggerFactory.getLogger(OpenAIUtils.class);
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    // Heading normalisation of text answers
+    private static final Pattern CAREER_SUMMARY_HEADING = Pattern.compile("(?i)\\s*career summary\\s*[:：]");
+    private static final Pattern ATS_SCORE_HEADING = Pattern.compile("(?i)\\s*ats score\\s*[:：]");
+    private static final Pattern STRENGTHS_HEADING = Pattern.compile("(?i)\\s*strengths and weaknesses\\s*[:：]");
+    private static final Pattern SUGGESTIONS_HEADING = Pattern.compile("(?i)\\s*suggestions to improve\\s*[:：]");
+    private static final Pattern EXTRA_NEWLINES = Pattern.compile("\\n{2,}");
+
     @Value("${openai.model:gpt-4o-mini}")
     private String model;
 
@@ -35,27 +54,78 @@ public class OpenAIUtils {
     @Value("${openai.timeout:30000}")
     private int timeoutMs;
 
+    @Value("${openai.http.response-timeout:${openai.timeout:30000}}")
+    private long responseTimeoutMs;
+
     @Value("${openai.retry-attempts:3}")
     private int retryAttempts;
 
+    @Value("${openai.retry-backoff:1000}")
+    private long retryBackoffMs;
+
+    @Value("${openai.retry-max-backoff:10000}")
+    private long retryMaxBackoffMs;
+
+    @Value("${openai.retry-jitter:0.5}")
+    private double retryJitter;
+
+    // Shared, pooled client (see OpenAIClientConfig); the API key is sent per request
+    @Autowired
+    @Qualifier("openAIWebClient")
+    private WebClient openAIWebClient;
+
+    // Adaptive cap on calls in flight across the application, shared by every caller
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    // Fails calls fast while OpenAI is failing, instead of holding callers through timeouts and retries
+    @Autowired
+    private OpenAICircuitBreaker circuitBreaker;
+
+    // Duplicates slow interactive attempts when openai.hedging.enabled is set
+    @Autowired
+    private RequestHedger requestHedger;
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
     public String callOpenAI(String apiKey, String prompt) throws OpenAIException {
+        // Blocking bridge for callers that are not reactive; retries still run on the Reactor timer
+        return callOpenAIAsync(apiKey, prompt).block();
+    }
+
+    /**
+     * Non-blocking OpenAI call. Nothing is sent until the returned Mono is subscribed, no thread is held
+     * while the request is in flight, and retries back off with jitter on the parallel scheduler.
+     * Errors are always signalled as {@link OpenAIException}.
+     */
+    public Mono<String> callOpenAIAsync(String apiKey, String prompt) {
+        return callOpenAIAsync(apiKey, prompt, maxTokens);
+    }
+
+    /**
+     * Same as {@link #callOpenAIAsync(String, String)} with a per-call output budget, for prompts
+     * (such as batched evaluations) whose answer is longer than a single evaluation. The attempt and response
+     * timeouts grow in proportion to the budget, since the answer takes that much longer to generate; a
+     * long answer would otherwise time out, shrink the limiter and count against the circuit breaker.
+     */
+    public Mono<String> callOpenAIAsync(String apiKey, String prompt, int maxTokens) {
         if (apiKey == null || apiKey.trim().isEmpty()) {
-            throw new OpenAIException("OpenAI API key is not configured");
+            return Mono.error(new OpenAIException("OpenAI API key is not configured"));
         }
 
         if (prompt == null || prompt.trim().isEmpty()) {
-            throw new OpenAIException("Prompt cannot be empty");
+            return Mono.error(new OpenAIException("Prompt cannot be empty"));
         }
 
         logger.debug("Calling OpenAI API with model: {}, maxTokens: {}, temperature: {}", 
             model, maxTokens, temperature);
 
-        WebClient client = WebClient.builder()
-                .baseUrl("https://api.openai.com/v1/chat/completions")
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
-
         Map<String, Object> requestBody = Map.of(
                 "model", model,
                 "messages", List.of(Map.of("role", "user", "content", prompt)),
@@ -63,61 +133,179 @@ public class OpenAIUtils {
                 "max_tokens", maxTokens
         );
 
-        return executeWithRetry(client, requestBody);
-    }
-
-    private String executeWithRetry(WebClient client, Map<String, Object> requestBody) throws OpenAIException {
-        Exception lastException = null;
-
-        for (int attempt = 1; attempt <= retryAttempts; attempt++) {
-            try {
-                logger.debug("OpenAI API attempt {}/{}", attempt, retryAttempts);
-                
-                String response = client.post()
-                        .bodyValue(requestBody)
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .timeout(Duration.ofMillis(timeoutMs))
-                        .block();
-
-                return parseResponse(response);
-
-            } catch (WebClientResponseException e) {
-                lastException = e;
-                logger.warn("OpenAI API error on attempt {}/{}: {} - {}", 
-                    attempt, retryAttempts, e.getStatusCode(), e.getResponseBodyAsString());
-                
-                if (e.getStatusCode().is4xxClientError()) {
-                    // Don't retry on client errors
-                    throw new OpenAIException("OpenAI API client error: " + e.getResponseBodyAsString(), e);
-                }
-                
-                if (attempt == retryAttempts) {
-                    throw new OpenAIException("OpenAI API server error after " + retryAttempts + " attempts: " + e.getResponseBodyAsString(), e);
-                }
-                
-                // Wait before retry (exponential backoff)
-                try {
-                    Thread.sleep(1000L * attempt);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new OpenAIException("Request interrupted", ie);
-                }
-                
-            } catch (Exception e) {
-                lastException = e;
-                logger.error("Unexpected error on attempt {}/{}", attempt, retryAttempts, e);
-                
-                if (attempt == retryAttempts) {
-                    throw new OpenAIException("OpenAI API call failed after " + retryAttempts + " attempts", e);
-                }
+        return executeWithRetry(apiKey, requestBody, false, Math.max(1.0, (double) maxTokens / this.maxTokens));
+    }
+
+    /**
+     * Structured output call: the model must answer with a JSON object matching {@code schema}
+     * ({@code response_format} type {@code json_schema}, strict). The JSON content is returned as is,
+     * without the heading normalisation applied to text answers.
+     */
+    public Mono<String> callOpenAIJsonAsync(String apiKey, String prompt, String schemaName, Map<String, Object> schema) {
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            return Mono.error(new OpenAIException("OpenAI API key is not configured"));
+        }
+
+        if (prompt == null || prompt.trim().isEmpty()) {
+            return Mono.error(new OpenAIException("Prompt cannot be empty"));
+        }
+
+        logger.debug("Calling OpenAI API with model: {}, structured output: {}", model, schemaName);
+
+        Map<String, Object> requestBody = Map.of(
+                "model", model,
+                "messages", List.of(Map.of("role", "user", "content", prompt)),
+                "temperature", temperature,
+                "max_tokens", maxTokens,
+                "response_format", Map.of(
+                        "type", "json_schema",
+                        "json_schema", Map.of("name", schemaName, "strict", true, "schema", schema))
+        );
+
+        return executeWithRetry(apiKey, requestBody, true, 1.0);
+    }
+
+    /**
+     * @param timeoutScale factor applied to openai.timeout and openai.http.response-timeout for each attempt
+     */
+    private Mono<String> executeWithRetry(String apiKey, Map<String, Object> requestBody, boolean structured,
+                                          double timeoutScale) {
+        int attempts = Math.max(1, retryAttempts);
+        Duration attemptTimeout = Duration.ofMillis((long) (timeoutMs * timeoutScale));
+        Duration responseTimeout = Duration.ofMillis((long) (responseTimeoutMs * timeoutScale));
+
+        Retry retrySpec = Retry.backoff(attempts - 1, Duration.ofMillis(retryBackoffMs))
+                .maxBackoff(Duration.ofMillis(retryMaxBackoffMs))
+                .jitter(retryJitter)
+                .filter(OpenAIUtils::isRetryable)
+                .doBeforeRetry(signal -> logger.warn("OpenAI API error on attempt {}/{}: {}",
+                    signal.totalRetries() + 1, attempts, describe(signal.failure())))
+                .onRetryExhaustedThrow((spec, signal) -> toOpenAIException(signal.failure(), attempts));
+
+        // Each attempt (and each hedged duplicate) asks the circuit breaker and takes its own limiter permit, so a
+        // retry fails fast once the breaker has opened and otherwise waits behind the queue (and any Retry-After pause).
+        // The hedger times the request from the moment the limiter lets it through, leaving queueing time out
+        return requestHedger.<String>hedge(timed -> circuitBreaker.run(() -> concurrencyLimiter.run(() -> timed.apply(openAIWebClient.post()
+                                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                                        .httpRequest(request -> {
+                                            if (timeoutScale > 1.0 && request.getNativeRequest() instanceof HttpClientRequest httpRequest) {
+                                                httpRequest.responseTimeout(responseTimeout);
+                                            }
+                                        })
+                                        .bodyValue(requestBody)
+                                        .retrieve()
+                                        .bodyToMono(String.class)
+                                        .timeout(attemptTimeout)
+                                        .doOnError(WebClientResponseException.class, e -> concurrencyLimiter.pause(retryAfter(e)))),
+                                    OpenAIUtils::isOverload),
+                            OpenAIUtils::isServiceFailure))
+                .retryWhen(retrySpec)
+                .onErrorMap(e -> !(e instanceof OpenAIException), e -> toOpenAIException(e, attempts))
+                .map(response -> parseResponse(response, structured));
+    }
+
+    /**
+     * Client errors (4xx) are not worth retrying, except rate limiting (429) that is not an exhausted quota;
+     * server errors, timeouts and I/O failures are
+     */
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof AIServiceUnavailableException) {
+            return false;
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            if (isRateLimited(responseException)) {
+                return !isQuotaExhausted(responseException);
+            }
+            return !responseException.getStatusCode().is4xxClientError();
+        }
+        return true;
+    }
+
+    /**
+     * Errors that mean the API is overloaded and fewer calls should be in flight
+     */
+    private static boolean isOverload(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return isRateLimited(responseException) || responseException.getStatusCode().is5xxServerError();
+        }
+        return e instanceof TimeoutException;
+    }
+
+    /**
+     * Errors that count against the circuit breaker: the service failing, unreachable or out of quota.
+     * Plain rate limiting is left to the concurrency limiter, and other client errors are the request's fault.
+     */
+    private static boolean isServiceFailure(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError()
+                || (isRateLimited(responseException) && isQuotaExhausted(responseException));
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    private static boolean isRateLimited(WebClientResponseException e) {
+        return e.getStatusCode().value() == 429;
+    }
+
+    private static boolean isQuotaExhausted(WebClientResponseException e) {
+        return e.getResponseBodyAsString().contains("insufficient_quota");
+    }
+
+    /**
+     * Delay the API asked for, from {@code retry-after-ms} (sent by OpenAI) or the standard {@code Retry-After}
+     * (delay-seconds or an HTTP date); null when neither is present or readable
+     */
+    static Duration retryAfter(WebClientResponseException e) {
+        HttpHeaders headers = e.getHeaders();
+        try {
+            String millis = headers.getFirst("retry-after-ms");
+            if (millis != null) {
+                return Duration.ofMillis((long) Double.parseDouble(millis.trim()));
+            }
+            String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            value = value.trim();
+            if (value.chars().allMatch(Character::isDigit)) {
+                return Duration.ofSeconds(Long.parseLong(value));
             }
+            return Duration.between(Instant.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+        } catch (RuntimeException parseError) {
+            logger.debug("Ignoring unreadable Retry-After header: {}", parseError.getMessage());
+            return null;
         }
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode() + " - " + responseException.getResponseBodyAsString();
+        }
+        return e.toString();
+    }
 
-        throw new OpenAIException("OpenAI API call failed after " + retryAttempts + " attempts", lastException);
+    private static OpenAIException toOpenAIException(Throwable e, int attempts) {
+        if (e instanceof OpenAIException openAIException) {
+            return openAIException;
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            if (isRateLimited(responseException)) {
+                logger.warn("OpenAI API rate limit exceeded: {}", describe(e));
+                return new OpenAIException("OpenAI API rate limit exceeded: " + responseException.getResponseBodyAsString(), e);
+            }
+            if (responseException.getStatusCode().is4xxClientError()) {
+                logger.warn("OpenAI API client error: {} - {}", responseException.getStatusCode(), responseException.getResponseBodyAsString());
+                return new OpenAIClientException(responseException.getStatusCode().value(),
+                    "OpenAI API client error: " + responseException.getResponseBodyAsString(), e);
+            }
+            logger.error("OpenAI API server error after {} attempts: {}", attempts, describe(e));
+            return new OpenAIException("OpenAI API server error after " + attempts + " attempts: " + responseException.getResponseBodyAsString(), e);
+        }
+        logger.error("OpenAI API call failed after {} attempts", attempts, e);
+        return new OpenAIException("OpenAI API call failed after " + attempts + " attempts", e);
     }
 
-    private String parseResponse(String response) throws OpenAIException {
+    private String parseResponse(String response, boolean structured) throws OpenAIException {
         try {
             JsonNode jsonNode = OBJECT_MAPPER.readTree(response);
             
@@ -147,7 +335,7 @@ public class OpenAIUtils {
             }
             
             logger.debug("OpenAI API response received successfully");
-            return cleanFormat(content);
+            return structured ? content : cleanFormat(content);
             
         } catch (JsonProcessingException e) {
             logger.error("Error parsing OpenAI API response JSON", e);
@@ -166,11 +354,11 @@ public class OpenAIUtils {
             return "";
         }
         
-        return content.trim()
-                .replaceAll("(?i)\\s*career summary\\s*[:：]", "1. Career Summary:")
-                .replaceAll("(?i)\\s*ats score\\s*[:：]", "2. ATS Score:")
-                .replaceAll("(?i)\\s*strengths and weaknesses\\s*[:：]", "3. Strengths and Weaknesses:")
-                .replaceAll("(?i)\\s*suggestions to improve\\s*[:：]", "4. Suggestions to Improve:")
-                .replaceAll("\\n{2,}", "\n\n"); // Remove extra newlines
+        String cleaned = content.trim();
+        cleaned = CAREER_SUMMARY_HEADING.matcher(cleaned).replaceAll("1. Career Summary:");
+        cleaned = ATS_SCORE_HEADING.matcher(cleaned).replaceAll("2. ATS Score:");
+        cleaned = STRENGTHS_HEADING.matcher(cleaned).replaceAll("3. Strengths and Weaknesses:");
+        cleaned = SUGGESTIONS_HEADING.matcher(cleaned).replaceAll("4. Suggestions to Improve:");
+        return EXTRA_NEWLINES.matcher(cleaned).replaceAll("\n\n"); // Remove extra newlines
     }
 }
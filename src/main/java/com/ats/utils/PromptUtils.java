@@ -1,6 +1,15 @@
 package com.ats.utils;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class PromptUtils {
+
+    // Part of every AI result cache key: bump whenever a prompt template below changes
+    public static final String PROMPT_VERSION = "2";
+
     public static String buildMode1Prompt(String resumeText) {
         return "Analyze this resume and extract all relevant information. Format your response exactly as follows:\n\n" +
                "1. Career Summary\n" +
@@ -77,55 +86,189 @@ public class PromptUtils {
                "Resume:\n" + resumeText + "\n\nJob Description:\n" + jdText;
     }
 
+    // Per-evaluation answer format shared by the single and batched Mode 2 prompts
+    private static final String MODE2_FORMAT =
+        "1. Career Summary\n" +
+        "Provide a concise summary of the candidate's background and experience.\n\n" +
+        "2. ATS Score out of 10\n" +
+        "Provide a single number between 0 and 10 representing the overall job match score.\n" +
+        "Format: 'Score: X' where X is the number.\n\n" +
+        "3. Job Details\n" +
+        "Company: [Extract the company name from the job description]\n" +
+        "Role: [Extract the job title/role from the job description]\n" +
+        "Match Status: [Based on the ATS score above - write 'MATCHED' if score >= 6, otherwise write 'UNMATCHED']\n\n" +
+        "4. Strengths and Weaknesses\n" +
+        "Strengths: [List the candidate's strengths relevant to THIS SPECIFIC JOB]\n" +
+        "Weaknesses: [List the candidate's weaknesses or gaps for THIS SPECIFIC JOB]\n\n" +
+        "5. Suggestions to improve\n" +
+        "Provide specific recommendations to improve match for THIS JOB.\n\n" +
+        "A. Work Experience\n" +
+        "Matched Skills: [List skills from work experience that match THIS JOB'S requirements]\n" +
+        "Gaps: [List missing work experience requirements for THIS JOB]\n\n" +
+        "B. Certificates\n" +
+        "Matched Skills: [List relevant certificates that match THIS JOB'S requirements]\n" +
+        "Gaps: [List missing certificate requirements for THIS JOB]\n\n" +
+        "C. Projects\n" +
+        "Matched Skills: [List relevant project skills that match THIS JOB'S requirements]\n" +
+        "Gaps: [List missing project requirements for THIS JOB]\n\n" +
+        "D. Technical Skills\n" +
+        "Matched Skills: [List technical skills that match THIS JOB'S requirements]\n" +
+        "Gaps: [List missing technical skills for THIS JOB]\n\n" +
+        "IMPORTANT FORMATTING RULES:\n" +
+        "1. Use square brackets [ ] around lists of items\n" +
+        "2. Separate multiple items with commas within the brackets\n" +
+        "3. If no skills match, write 'None' inside the brackets: [None]\n" +
+        "4. If no gaps, write 'None' inside the brackets: [None]\n" +
+        "5. Be specific and detailed in your analysis\n" +
+        "6. Focus on skills and experience that directly relate to the job requirements\n" +
+        "7. For Company and Role, extract the most relevant information from the job description\n" +
+        "8. If company name is not clear, use 'Unknown Company'\n" +
+        "9. If role is not clear, use 'Unknown Role'\n" +
+        "10. IMPORTANT: Calculate Match Status based on the ATS score you provided above\n\n" +
+        "EXAMPLE FORMAT:\n" +
+        "2. ATS Score out of 10\n" +
+        "Score: 8\n\n" +
+        "3. Job Details\n" +
+        "Company: [Google Inc]\n" +
+        "Role: [Senior Software Engineer]\n" +
+        "Match Status: [MATCHED]\n\n" +
+        "A. Work Experience\n" +
+        "Matched Skills: [Java development, Spring Framework, REST APIs, Database design]\n" +
+        "Gaps: [No experience with microservices, No cloud platform experience]\n\n";
+
     public static String buildMode2Prompt(String resumeText, String jdText) {
         return "You are an ATS evaluator. Analyze the following resume against the job description and provide a structured response in exactly this format:\n\n" +
-               "1. Career Summary\n" +
-               "Provide a concise summary of the candidate's background and experience.\n\n" +
-               "2. ATS Score out of 10\n" +
-               "Provide a single number between 0 and 10 representing the overall job match score.\n" +
-               "Format: 'Score: X' where X is the number.\n\n" +
-               "3. Job Details\n" +
-               "Company: [Extract the company name from the job description]\n" +
-               "Role: [Extract the job title/role from the job description]\n" +
-               "Match Status: [Based on the ATS score above - write 'MATCHED' if score >= 6, otherwise write 'UNMATCHED']\n\n" +
-               "4. Strengths and Weaknesses\n" +
-               "Strengths: [List the candidate's strengths relevant to THIS SPECIFIC JOB]\n" +
-               "Weaknesses: [List the candidate's weaknesses or gaps for THIS SPECIFIC JOB]\n\n" +
-               "5. Suggestions to improve\n" +
-               "Provide specific recommendations to improve match for THIS JOB.\n\n" +
-               "A. Work Experience\n" +
-               "Matched Skills: [List skills from work experience that match THIS JOB'S requirements]\n" +
-               "Gaps: [List missing work experience requirements for THIS JOB]\n\n" +
-               "B. Certificates\n" +
-               "Matched Skills: [List relevant certificates that match THIS JOB'S requirements]\n" +
-               "Gaps: [List missing certificate requirements for THIS JOB]\n\n" +
-               "C. Projects\n" +
-               "Matched Skills: [List relevant project skills that match THIS JOB'S requirements]\n" +
-               "Gaps: [List missing project requirements for THIS JOB]\n\n" +
-               "D. Technical Skills\n" +
-               "Matched Skills: [List technical skills that match THIS JOB'S requirements]\n" +
-               "Gaps: [List missing technical skills for THIS JOB]\n\n" +
-               "IMPORTANT FORMATTING RULES:\n" +
-               "1. Use square brackets [ ] around lists of items\n" +
-               "2. Separate multiple items with commas within the brackets\n" +
-               "3. If no skills match, write 'None' inside the brackets: [None]\n" +
-               "4. If no gaps, write 'None' inside the brackets: [None]\n" +
-               "5. Be specific and detailed in your analysis\n" +
-               "6. Focus on skills and experience that directly relate to the job requirements\n" +
-               "7. For Company and Role, extract the most relevant information from the job description\n" +
-               "8. If company name is not clear, use 'Unknown Company'\n" +
-               "9. If role is not clear, use 'Unknown Role'\n" +
-               "10. IMPORTANT: Calculate Match Status based on the ATS score you provided above\n\n" +
-               "EXAMPLE FORMAT:\n" +
-               "2. ATS Score out of 10\n" +
-               "Score: 8\n\n" +
-               "3. Job Details\n" +
-               "Company: [Google Inc]\n" +
-               "Role: [Senior Software Engineer]\n" +
-               "Match Status: [MATCHED]\n\n" +
-               "A. Work Experience\n" +
-               "Matched Skills: [Java development, Spring Framework, REST APIs, Database design]\n" +
-               "Gaps: [No experience with microservices, No cloud platform experience]\n\n" +
+               MODE2_FORMAT +
+               "Resume:\n" + resumeText + "\n\nJob Description:\n" + jdText;
+    }
+
+    /**
+     * Several resumes against one job description in a single request. The answer for resume n follows a line
+     * "=== CANDIDATE n ===" and uses the Mode 2 format, so each section parses like a single Mode 2 answer.
+     */
+    public static String buildBatchedMode2Prompt(String jdText, List<String> resumeTexts) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an ATS evaluator. Evaluate each of the ").append(resumeTexts.size())
+              .append(" candidate resumes below independently against the same job description.\n")
+              .append("For every candidate, first write a line \"=== CANDIDATE n ===\" (n is the candidate number), ")
+              .append("then a complete structured response for that candidate in exactly this format:\n\n")
+              .append(MODE2_FORMAT)
+              .append("Answer for every candidate, in order, and do not compare candidates with each other.\n\n")
+              .append("Job Description:\n").append(jdText).append("\n\n");
+        for (int i = 0; i < resumeTexts.size(); i++) {
+            prompt.append("--- CANDIDATE ").append(i + 1).append(" RESUME ---\n").append(resumeTexts.get(i)).append("\n\n");
+        }
+        return prompt.toString();
+    }
+
+    /**
+     * One resume against several job descriptions in a single request. The answer for job n follows a line
+     * "=== JOB n ===" and uses the Mode 2 format, so each section parses like a single Mode 2 answer.
+     */
+    public static String buildBatchedJDPrompt(String resumeText, List<String> jdTexts) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("You are an ATS evaluator. Evaluate the resume below independently against each of the ")
+              .append(jdTexts.size()).append(" job descriptions.\n")
+              .append("For every job, first write a line \"=== JOB n ===\" (n is the job number), ")
+              .append("then a complete structured response for that job in exactly this format:\n\n")
+              .append(MODE2_FORMAT)
+              .append("Answer for every job, in order, and score each job on its own.\n\n")
+              .append("Resume:\n").append(resumeText).append("\n\n");
+        for (int i = 0; i < jdTexts.size(); i++) {
+            prompt.append("--- JOB ").append(i + 1).append(" DESCRIPTION ---\n").append(jdTexts.get(i)).append("\n\n");
+        }
+        return prompt.toString();
+    }
+
+    /**
+     * Mode 1 prompt for structured output; the answer must match {@link #MODE1_RESPONSE_SCHEMA}
+     */
+    public static String buildMode1JsonPrompt(String resumeText) {
+        return "Analyze this resume and extract all relevant information. Answer with a JSON object with these fields:\n" +
+               "- careerSummary: a brief summary of the candidate's background\n" +
+               "- atsScore: a number between 0 and 10\n" +
+               "- strengths: key strengths found in the resume\n" +
+               "- weaknesses: areas for improvement\n" +
+               "- suggestions: improvement recommendations\n" +
+               "- workExperience.matchedSkills: actual work experience, job titles and companies\n" +
+               "- certificates.matchedSkills: actual certificates and certifications\n" +
+               "- projects.matchedSkills: actual projects and academic projects\n" +
+               "- technicalSkills.matchedSkills: actual technical skills, programming languages and tools\n" +
+               "Each list holds one item per entry. Look carefully through the resume text and extract real information; " +
+               "leave a list empty only if you cannot find any relevant information in that category.\n\n" +
+               "Resume:\n" + resumeText;
+    }
+
+    /**
+     * Mode 2 prompt for structured output; the answer must match {@link #MODE2_RESPONSE_SCHEMA}
+     */
+    public static String buildMode2JsonPrompt(String resumeText, String jdText) {
+        return "You are an ATS evaluator. Analyze the following resume against the job description. Answer with a JSON object with these fields:\n" +
+               "- careerSummary: a concise summary of the candidate's background and experience\n" +
+               "- atsScore: a single number between 0 and 10 representing the overall job match score\n" +
+               "- companyName: the company name from the job description, or 'Unknown Company' if it is not clear\n" +
+               "- roleName: the job title/role from the job description, or 'Unknown Role' if it is not clear\n" +
+               "- matchStatus: 'MATCHED' if atsScore >= 6, otherwise 'UNMATCHED'\n" +
+               "- strengths: the candidate's strengths relevant to THIS SPECIFIC JOB\n" +
+               "- weaknesses: the candidate's weaknesses or gaps for THIS SPECIFIC JOB\n" +
+               "- suggestions: specific recommendations to improve match for THIS JOB\n" +
+               "- workExperience, certificates, projects, technicalSkills: for each, matchedSkills lists what matches " +
+               "THIS JOB'S requirements and gaps lists the missing requirements\n" +
+               "Each list holds one item per entry; leave a list empty if nothing applies. Be specific and focus on " +
+               "skills and experience that directly relate to the job requirements.\n\n" +
                "Resume:\n" + resumeText + "\n\nJob Description:\n" + jdText;
     }
+
+    // JSON schemas sent as response_format in structured output mode (strict: every field is required)
+    public static final Map<String, Object> MODE1_RESPONSE_SCHEMA = objectSchema(orderedMap(
+        "careerSummary", Map.of("type", "string"),
+        "atsScore", Map.of("type", "number"),
+        "strengths", stringArraySchema(),
+        "weaknesses", stringArraySchema(),
+        "suggestions", stringArraySchema(),
+        "workExperience", sectionSchema(false),
+        "certificates", sectionSchema(false),
+        "projects", sectionSchema(false),
+        "technicalSkills", sectionSchema(false)));
+
+    public static final Map<String, Object> MODE2_RESPONSE_SCHEMA = objectSchema(orderedMap(
+        "careerSummary", Map.of("type", "string"),
+        "atsScore", Map.of("type", "number"),
+        "companyName", Map.of("type", "string"),
+        "roleName", Map.of("type", "string"),
+        "matchStatus", Map.of("type", "string", "enum", List.of("MATCHED", "UNMATCHED")),
+        "strengths", stringArraySchema(),
+        "weaknesses", stringArraySchema(),
+        "suggestions", stringArraySchema(),
+        "workExperience", sectionSchema(true),
+        "certificates", sectionSchema(true),
+        "projects", sectionSchema(true),
+        "technicalSkills", sectionSchema(true)));
+
+    private static Map<String, Object> sectionSchema(boolean withGaps) {
+        return withGaps
+            ? objectSchema(orderedMap("matchedSkills", stringArraySchema(), "gaps", stringArraySchema()))
+            : objectSchema(orderedMap("matchedSkills", stringArraySchema()));
+    }
+
+    private static Map<String, Object> stringArraySchema() {
+        return Map.of("type", "array", "items", Map.of("type", "string"));
+    }
+
+    private static Map<String, Object> objectSchema(Map<String, Object> properties) {
+        return Map.of(
+            "type", "object",
+            "properties", properties,
+            "required", List.copyOf(properties.keySet()),
+            "additionalProperties", false);
+    }
+
+    // Keeps the schema's field order, which is the order the model writes the fields in
+    private static Map<String, Object> orderedMap(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
 }
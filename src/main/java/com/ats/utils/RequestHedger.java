@@ -0,0 +1,175 @@
+package com.ats.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Hedged OpenAI calls for the interactive modes. Latencies of successful interactive calls, from the moment
+ * they are sent rather than queued, feed a time-windowed histogram ({@code ats.openai.interactive.latency});
+ * when a call has not answered by the {@code openai.hedging.percentile} of that histogram (never earlier than
+ * {@code min-delay}), a duplicate is started and whichever answers first wins, the other being cancelled. Each
+ * interactive call earns {@code budget-percent}/100 of a hedge, so hedges add at most that share of extra
+ * calls. The first call's errors are reported as they are; a failing duplicate is simply dropped. Calls of bulk
+ * lanes are never hedged.
+ */
+@Component
+public class RequestHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestHedger.class);
+
+    // Unused budget is capped so a quiet period cannot be followed by a burst of hedges
+    private static final double MAX_BUDGET_TOKENS = 10.0;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long minSamples;
+    private final double budgetPerCall;
+    private final Timer latencyTimer;
+    private final Counter hedgesFired;
+    private final Counter hedgesWon;
+    private final Counter hedgesDenied;
+
+    // Guarded by this
+    private double budgetTokens;
+
+    @Autowired
+    public RequestHedger(MeterRegistry meterRegistry,
+                         @Value("${openai.hedging.enabled:false}") boolean enabled,
+                         @Value("${openai.hedging.percentile:0.95}") double percentile,
+                         @Value("${openai.hedging.min-delay:1000}") long minDelayMs,
+                         @Value("${openai.hedging.min-samples:20}") long minSamples,
+                         @Value("${openai.hedging.budget-percent:10}") double budgetPercent) {
+        this.enabled = enabled;
+        this.percentile = Math.min(Math.max(percentile, 0.5), 0.999);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minDelayMs));
+        this.minSamples = Math.max(1, minSamples);
+        this.budgetPerCall = Math.max(0, budgetPercent) / 100.0;
+
+        this.latencyTimer = Timer.builder("ats.openai.interactive.latency")
+            .description("Latency of successful interactive (Mode 1/2) OpenAI calls")
+            .publishPercentiles(this.percentile)
+            .percentilePrecision(2)
+            .distributionStatisticExpiry(Duration.ofMinutes(5))
+            .register(meterRegistry);
+        this.hedgesFired = Counter.builder("ats.openai.hedge.fired")
+            .description("Duplicate OpenAI calls started because the first one was slow")
+            .register(meterRegistry);
+        this.hedgesWon = Counter.builder("ats.openai.hedge.won")
+            .description("Hedged calls where the duplicate answered first")
+            .register(meterRegistry);
+        this.hedgesDenied = Counter.builder("ats.openai.hedge.denied")
+            .description("Hedges skipped because the hedge budget was spent")
+            .register(meterRegistry);
+
+        logger.info("OpenAI request hedging configured: enabled={}, percentile={}, minDelayMs={}, minSamples={}, budgetPercent={}",
+            enabled, this.percentile, minDelayMs, this.minSamples, budgetPercent);
+    }
+
+    /**
+     * Hedges a call that starts as soon as it is subscribed, timing all of it
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        return hedge(timed -> timed.apply(Mono.defer(call)));
+    }
+
+    /**
+     * Hedges a call that may queue before it is sent (e.g. for a concurrency limiter permit). The call applies
+     * the given operator to the part that is sent once the queue lets it through, so only that part is timed.
+     */
+    public <T> Mono<T> hedge(Function<UnaryOperator<Mono<T>>, Mono<T>> call) {
+        if (!enabled) {
+            return untimed(call);
+        }
+        return Mono.deferContextual(context -> {
+            if (AdaptiveConcurrencyLimiter.isBulkLane(context)) {
+                return untimed(call);
+            }
+            earnBudget();
+            Duration delay = hedgeDelay();
+            if (delay == null) {
+                return timed(call);
+            }
+
+            AtomicBoolean hedgeAnswered = new AtomicBoolean();
+            Mono<T> duplicate = Mono.delay(delay)
+                .flatMap(tick -> {
+                    if (!tryConsumeBudget()) {
+                        hedgesDenied.increment();
+                        return Mono.<T>never();
+                    }
+                    hedgesFired.increment();
+                    logger.debug("OpenAI call slower than {} ms, starting a hedged duplicate", delay.toMillis());
+                    return timed(call)
+                        .doOnNext(value -> hedgeAnswered.set(true))
+                        .onErrorResume(e -> Mono.never());
+                });
+
+            // The first signal wins: a value from either call, or an error from the first call
+            return Mono.firstWithSignal(timed(call), duplicate)
+                .doOnSuccess(value -> {
+                    if (hedgeAnswered.get()) {
+                        hedgesWon.increment();
+                    }
+                });
+        });
+    }
+
+    /**
+     * Current hedge deadline, or null while the histogram has too few samples
+     */
+    Duration hedgeDelay() {
+        if (latencyTimer.count() < minSamples) {
+            return null;
+        }
+        double percentileNanos = 0;
+        for (ValueAtPercentile value : latencyTimer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                percentileNanos = value.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return Duration.ofNanos(Math.max(minDelayNanos, (long) percentileNanos));
+    }
+
+    private <T> Mono<T> timed(Function<UnaryOperator<Mono<T>>, Mono<T>> call) {
+        return Mono.defer(() -> call.apply(this::timeSent));
+    }
+
+    private static <T> Mono<T> untimed(Function<UnaryOperator<Mono<T>>, Mono<T>> call) {
+        return Mono.defer(() -> call.apply(UnaryOperator.identity()));
+    }
+
+    private <T> Mono<T> timeSent(Mono<T> sent) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return sent.doOnNext(value -> latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private synchronized void earnBudget() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + budgetPerCall);
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        if (budgetTokens < 1.0) {
+            return false;
+        }
+        budgetTokens -= 1.0;
+        return true;
+    }
+}
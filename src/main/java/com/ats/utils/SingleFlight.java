@@ -0,0 +1,59 @@
+package com.ats.utils;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is in flight, further callers with the
+ * same key subscribe to that call instead of starting their own, and all of them receive its result or error.
+ * The shared call is cancelled only once every caller has cancelled, and the key is released when the call
+ * terminates, before any caller sees the outcome, so later callers start fresh (normally hitting the result cache
+ * instead) rather than joining a finished call.
+ */
+public class SingleFlight<T> {
+
+    private final Map<String, Mono<T>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<T>> self = new AtomicReference<>();
+            AtomicBoolean connected = new AtomicBoolean();
+            Mono<T> shared = Mono.defer(() -> connected.compareAndSet(false, true)
+                            // Released before the result reaches any caller, so nobody joins a call that has ended
+                            ? Mono.defer(call).doOnEach(signal -> inFlight.remove(key, self.get()))
+                            // Picked up from the map just as it ended: start over instead of calling again unregistered
+                            : execute(key, call))
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .flux()
+                    .publish()
+                    .refCount()
+                    .singleOrEmpty();
+            self.set(shared);
+
+            Mono<T> existing = inFlight.putIfAbsent(key, shared);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            return shared;
+        });
+    }
+
+    /**
+     * Number of calls that were served by joining an in-flight call
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
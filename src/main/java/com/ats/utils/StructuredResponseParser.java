@@ -0,0 +1,168 @@
+package com.ats.utils;
+
+import com.ats.model.StructuredEvaluation;
+import com.ats.model.SkillSection;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads structured (JSON schema) AI answers into {@link StructuredEvaluation} with the Jackson streaming
+ * parser, in a single pass and without building a tree. An answer that is not valid JSON or has no score
+ * in 0-10 is rejected, so the caller can fall back to the text format and regex parsing.
+ * Outcomes are counted as {@code ats.ai.response.parse{format, outcome}}.
+ */
+@Component
+public class StructuredResponseParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(StructuredResponseParser.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Counter jsonSuccess;
+    private final Counter jsonFailure;
+    private final Counter textFallback;
+
+    public StructuredResponseParser(MeterRegistry meterRegistry) {
+        this.jsonSuccess = counter(meterRegistry, "json", "success");
+        this.jsonFailure = counter(meterRegistry, "json", "failure");
+        this.textFallback = counter(meterRegistry, "text", "fallback");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String format, String outcome) {
+        return Counter.builder("ats.ai.response.parse")
+            .description("AI responses parsed, by response format and outcome")
+            .tag("format", format)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Parse a structured answer; returns null (and counts a failure) if it cannot be used
+     */
+    public StructuredEvaluation parse(String json) {
+        if (json == null) {
+            jsonFailure.increment();
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            StructuredEvaluation evaluation = readEvaluation(parser);
+            jsonSuccess.increment();
+            return evaluation;
+        } catch (IOException | IllegalArgumentException e) {
+            jsonFailure.increment();
+            logger.warn("Structured AI response could not be parsed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Count an evaluation that went through the text format and regex parsing instead
+     */
+    public void recordFallback() {
+        textFallback.increment();
+    }
+
+    private static StructuredEvaluation readEvaluation(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object");
+        }
+
+        String careerSummary = null;
+        double atsScore = Double.NaN;
+        String companyName = null;
+        String roleName = null;
+        String matchStatus = null;
+        List<String> strengths = List.of();
+        List<String> weaknesses = List.of();
+        List<String> suggestions = List.of();
+        SkillSection workExperience = SkillSection.EMPTY;
+        SkillSection certificates = SkillSection.EMPTY;
+        SkillSection projects = SkillSection.EMPTY;
+        SkillSection technicalSkills = SkillSection.EMPTY;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "careerSummary" -> careerSummary = readText(parser);
+                case "atsScore" -> atsScore = value.isNumeric() ? parser.getDoubleValue() : parser.getValueAsDouble(Double.NaN);
+                case "companyName" -> companyName = readText(parser);
+                case "roleName" -> roleName = readText(parser);
+                case "matchStatus" -> matchStatus = readText(parser);
+                case "strengths" -> strengths = readTextList(parser);
+                case "weaknesses" -> weaknesses = readTextList(parser);
+                case "suggestions" -> suggestions = readTextList(parser);
+                case "workExperience" -> workExperience = readSection(parser);
+                case "certificates" -> certificates = readSection(parser);
+                case "projects" -> projects = readSection(parser);
+                case "technicalSkills" -> technicalSkills = readSection(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (Double.isNaN(atsScore) || atsScore < 0 || atsScore > 10) {
+            throw new IllegalArgumentException("Missing or out of range atsScore");
+        }
+        return new StructuredEvaluation(careerSummary, atsScore, companyName, roleName, matchStatus,
+            strengths, weaknesses, suggestions, workExperience, certificates, projects, technicalSkills);
+    }
+
+    private static String readText(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!parser.currentToken().isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        String text = parser.getValueAsString();
+        return text != null ? text.trim() : null;
+    }
+
+    /**
+     * Array of strings with blank entries dropped; a single string is read as a one-item list
+     */
+    private static List<String> readTextList(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            String text = readText(parser);
+            return text == null || text.isEmpty() ? List.of() : List.of(text);
+        }
+        List<String> items = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String item = readText(parser);
+            if (item != null && !item.isEmpty()) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private static SkillSection readSection(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return SkillSection.EMPTY;
+        }
+        List<String> matchedSkills = List.of();
+        List<String> gaps = List.of();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "matchedSkills" -> matchedSkills = readTextList(parser);
+                case "gaps" -> gaps = readTextList(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new SkillSection(matchedSkills, gaps);
+    }
+}
@@ -28,6 +28,10 @@ public class ValidationUtils {
     private static final int MAX_TEXT_LENGTH = 100000; // 100k characters
     private static final int MAX_FILES_PER_REQUEST = 20;
     
+    // Resumes per synchronous or streamed analysis; background jobs have their own cap (app.jobs.max-resumes)
+    public static final int MAX_MODE3_RESUMES = 10;
+    public static final int MAX_MODE4_RESUMES = 20;
+    
     private static final Pattern SAFE_TEXT_PATTERN = Pattern.compile("^[\\p{L}\\p{N}\\p{P}\\p{Z}\\p{S}]*$");
     private static final Pattern XSS_PATTERN = Pattern.compile(".*<script.*>.*</script>.*|.*javascript:.*|.*on\\w+\\s*=.*", Pattern.CASE_INSENSITIVE);
     
@@ -66,12 +70,19 @@ public class ValidationUtils {
      * Validates multiple files
      */
     public static void validateFiles(MultipartFile[] files, String fieldName) throws ValidationException {
+        validateFiles(files, fieldName, MAX_FILES_PER_REQUEST);
+    }
+    
+    /**
+     * Validates multiple files with a custom file count limit (background jobs accept larger batches)
+     */
+    public static void validateFiles(MultipartFile[] files, String fieldName, int maxFiles) throws ValidationException {
         if (files == null || files.length == 0) {
             throw new ValidationException(fieldName + " is required");
         }
         
-        if (files.length > MAX_FILES_PER_REQUEST) {
-            throw new ValidationException("Too many files. Maximum " + MAX_FILES_PER_REQUEST + " files allowed per request");
+        if (files.length > maxFiles) {
+            throw new ValidationException("Too many files. Maximum " + maxFiles + " files allowed per request");
         }
         
         for (int i = 0; i < files.length; i++) {
@@ -0,0 +1,49 @@
+package com.ats.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry);
+
+    @Test
+    void testRecord_TagStaysStableOnceCapIsReached() {
+        for (int i = 0; i < 50; i++) {
+            monitor.record("com.ats.Hotspot" + i + ".run:1", Duration.ofMillis(30), List.of());
+        }
+        monitor.record("com.ats.Late.run:1", Duration.ofMillis(30), List.of());
+        monitor.record("com.ats.Hotspot0.run:1", Duration.ofMillis(30), List.of());
+        monitor.record("com.ats.Late.run:1", Duration.ofMillis(30), List.of());
+
+        assertEquals(2, timer("com.ats.Hotspot0.run:1").count());
+        assertEquals(2, timer("other").count());
+        assertNull(meterRegistry.find("ats.virtual-threads.pinned").tag("hotspot", "com.ats.Late.run:1").timer());
+        assertEquals(2L, monitor.getHotspots().get("com.ats.Late.run:1"));
+    }
+
+    @Test
+    void testRecord_CountsEveryPinning() {
+        monitor.record("com.ats.Parser.parse:10", Duration.ofMillis(25), List.of());
+        monitor.record("com.ats.Parser.parse:10", Duration.ofMillis(35), List.of());
+
+        Timer timer = timer("com.ats.Parser.parse:10");
+        assertEquals(2, timer.count());
+        assertEquals(60, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(2L, monitor.getHotspots().get("com.ats.Parser.parse:10"));
+    }
+
+    private Timer timer(String hotspot) {
+        Timer timer = meterRegistry.find("ats.virtual-threads.pinned").tag("hotspot", hotspot).timer();
+        assertNotNull(timer, "no timer tagged " + hotspot);
+        return timer;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ats.controller;
 
 import com.ats.service.ATSService;
+import com.ats.utils.ClientRateLimiter;
 import com.ats.utils.ValidationUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,6 +24,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ATSController.class)
+@Import(ClientRateLimiter.class)
 class ATSControllerTest {
 
     @Autowired
@@ -80,7 +83,7 @@ class ATSControllerTest {
 
     @Test
     void testMode2Endpoint_Success() throws Exception {
-        when(atsService.evaluateResumeWithJDText(any(), anyString())).thenReturn(mockResponse);
+        when(atsService.evaluateResumeWithJDText(any(), anyString(), any())).thenReturn(mockResponse);
 
         mockMvc.perform(multipart("/api/mode2")
                 .file(mockResumeFile)
@@ -102,7 +105,7 @@ class ATSControllerTest {
     @Test
     void testMode3Endpoint_Success() throws Exception {
         MockMultipartFile[] files = {mockResumeFile, mockResumeFile};
-        when(atsService.bulkResumeAnalysis(any(), anyString())).thenReturn(mockResponse);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenReturn(mockResponse);
 
         mockMvc.perform(multipart("/api/mode3")
                 .file("resumes", mockResumeFile.getBytes())
@@ -0,0 +1,223 @@
+package com.ats.controller;
+
+import com.ats.exception.ATSServiceException;
+import com.ats.exception.ValidationException;
+import com.ats.service.ATSService;
+import com.ats.service.BulkProgressListener;
+import com.ats.utils.ClientRateLimiter;
+import com.ats.utils.ValidationUtils;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(BulkStreamController.class)
+class BulkStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BulkStreamController controller;
+
+    @MockBean
+    private ATSService atsService;
+
+    @MockBean
+    private ClientRateLimiter rateLimiter;
+
+    private ThreadPoolExecutor streamExecutor;
+
+    private final MockMultipartFile resume = new MockMultipartFile(
+        "resumes", "resume.pdf", "application/pdf", "Resume content".getBytes());
+
+    @TestConfiguration
+    static class StreamExecutorConfig {
+
+        @Bean(name = "bulkStreamExecutor", destroyMethod = "shutdownNow")
+        ThreadPoolExecutor bulkStreamExecutor() {
+            return singleWorker();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // A fresh single-worker executor per test, so no stream of an earlier test holds the worker
+        streamExecutor = singleWorker();
+        ReflectionTestUtils.setField(controller, "bulkStreamExecutor", streamExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamExecutor.shutdownNow();
+    }
+
+    @Test
+    void testStream_EventsInOrder() throws Exception {
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            BulkProgressListener listener = invocation.getArgument(2);
+            listener.onStart(2);
+            listener.onPairCompleted(0, 0, pair("first.pdf"));
+            listener.onPairCompleted(1, 0, pair("second.pdf"));
+            return Map.of("summary", Map.of("totalResumes", 2));
+        });
+
+        String body = perform();
+
+        int start = body.indexOf("event:start");
+        int first = body.indexOf("first.pdf");
+        int second = body.indexOf("second.pdf");
+        int summary = body.indexOf("event:summary");
+        int ranking = body.indexOf("event:ranking");
+        assertTrue(start >= 0 && start < first && first < second && second < summary && summary < ranking, body);
+        assertFalse(body.contains("originalResumeContent"), body);
+    }
+
+    @Test
+    void testStream_FailureEndsWithErrorEvent() throws Exception {
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            BulkProgressListener listener = invocation.getArgument(2);
+            listener.onStart(1);
+            throw new ATSServiceException("OPENAI_API_ERROR", "Upstream failed", "The AI service failed");
+        });
+
+        String body = perform();
+
+        assertTrue(body.indexOf("event:start") < body.indexOf("event:error"), body);
+        assertTrue(body.contains("The AI service failed"), body);
+        assertFalse(body.contains("event:summary"), body);
+        assertFalse(body.contains("event:ranking"), body);
+    }
+
+    @Test
+    void testStream_DisconnectCancelsAnalysis() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new ATSServiceException("Analysis cancelled");
+            }
+            return Map.of();
+        });
+
+        MvcResult result = mockMvc.perform(multipart("/api/mode3/stream").file(resume).param("jd", "Java developer"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // What the servlet container reports when the client goes away
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+        }
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "analysis was not cancelled");
+    }
+
+    @Test
+    void testStream_RejectedWhenNoWorkerIsFree() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Map.of("summary", Map.of());
+        });
+
+        MvcResult running = mockMvc.perform(multipart("/api/mode3/stream").file(resume).param("jd", "Java developer"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        MvcResult rejected = mockMvc.perform(multipart("/api/mode3/stream").file(resume).param("jd", "Java developer"))
+            .andReturn();
+        ATSServiceException exception = assertInstanceOf(ATSServiceException.class, rejected.getResolvedException());
+        assertEquals("STREAMS_BUSY", exception.getErrorCode());
+
+        release.countDown();
+        running.getAsyncResult(5_000);
+    }
+
+    @Test
+    void testStream_Mode3CappedLikeSyncEndpoint() throws Exception {
+        MockMultipartHttpServletRequestBuilder request = multipart("/api/mode3/stream");
+        for (int i = 0; i <= ValidationUtils.MAX_MODE3_RESUMES; i++) {
+            request.file(resume);
+        }
+
+        MvcResult rejected = mockMvc.perform(request.param("jd", "Java developer")).andReturn();
+
+        assertInstanceOf(ValidationException.class, rejected.getResolvedException());
+        verify(atsService, never()).bulkResumeAnalysis(any(), anyString(), any(), any());
+    }
+
+    @Test
+    void testStream_RateLimitApplied() throws Exception {
+        doThrow(new ValidationException("Rate limit exceeded. Please try again later."))
+            .when(rateLimiter).checkRateLimit("busy-client");
+
+        MvcResult rejected = mockMvc.perform(multipart("/api/mode3/stream").file(resume)
+                .param("jd", "Java developer").param("clientId", "busy-client"))
+            .andReturn();
+
+        ValidationException exception = assertInstanceOf(ValidationException.class, rejected.getResolvedException());
+        assertEquals("Rate limit exceeded. Please try again later.", exception.getMessage());
+        verify(atsService, never()).bulkResumeAnalysis(any(), anyString(), any(), any());
+    }
+
+    private String perform() throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/api/mode3/stream").file(resume).param("jd", "Java developer"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        // Completes once the emitter is completed
+        result.getAsyncResult(5_000);
+        return result.getResponse().getContentAsString();
+    }
+
+    private static Map<String, Object> pair(String fileName) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("fileName", fileName);
+        result.put("score", 8.0);
+        result.put("originalResumeContent", "Resume text");
+        return result;
+    }
+
+    private static ThreadPoolExecutor singleWorker() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
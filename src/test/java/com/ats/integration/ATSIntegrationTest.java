@@ -87,7 +87,7 @@ class ATSIntegrationTest {
         mockResponse.put("atsScore", 90);
         mockResponse.put("matchPercentage", 85.5);
 
-        when(atsService.evaluateResumeWithJDText(any(), anyString())).thenReturn(mockResponse);
+        when(atsService.evaluateResumeWithJDText(any(), anyString(), any())).thenReturn(mockResponse);
 
         // Act & Assert
         mockMvc.perform(multipart("/api/mode2")
@@ -112,7 +112,7 @@ class ATSIntegrationTest {
         mockResponse.put("resumeResults", new Object[]{});
         mockResponse.put("summary", new HashMap<>());
 
-        when(atsService.bulkResumeAnalysis(any(), anyString())).thenReturn(mockResponse);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenReturn(mockResponse);
 
         // Act & Assert
         mockMvc.perform(multipart("/api/mode3")
@@ -0,0 +1,63 @@
+package com.ats.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationResultTest {
+
+    @Test
+    void testFromMap_KeepsEngineAndFallback() {
+        EvaluationResult result = EvaluationResult.fromMap(localResult());
+
+        assertEquals("local", result.engine());
+        assertEquals(7.5, result.localScore());
+        assertEquals("OpenAI API server error: 503", result.fallbackReason());
+        assertEquals(3.0, result.score());
+        assertEquals(Boolean.TRUE, result.pruned());
+    }
+
+    @Test
+    void testFromMap_AIResultHasNoEngineFields() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("resumeName", "alice.pdf");
+        map.put("atsScore", List.of(8));
+
+        EvaluationResult result = EvaluationResult.fromMap(map);
+
+        assertNull(result.engine());
+        assertNull(result.localScore());
+        assertNull(result.fallbackReason());
+        assertEquals(8.0, result.score());
+    }
+
+    @Test
+    void testWithCopies_KeepEngineAndFallback() {
+        EvaluationResult result = EvaluationResult.fromMap(localResult())
+            .withNewResumeName("Alice_Google_Engineer.pdf")
+            .withResumeName("alice-renamed.pdf")
+            .withResumeContent(null, "doc-1", "alice.pdf");
+
+        assertEquals("local", result.engine());
+        assertEquals(7.5, result.localScore());
+        assertEquals("OpenAI API server error: 503", result.fallbackReason());
+        assertEquals("Alice_Google_Engineer.pdf", result.newResumeName());
+        assertEquals("alice-renamed.pdf", result.resumeName());
+        assertEquals("doc-1", result.documentId());
+    }
+
+    private static Map<String, Object> localResult() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("resumeName", "alice.pdf");
+        map.put("atsScore", List.of(3.0));
+        map.put("localScore", 7.5);
+        map.put("engine", "local");
+        map.put("fallbackReason", "OpenAI API server error: 503");
+        map.put("pruned", true);
+        return map;
+    }
+}
@@ -90,7 +90,7 @@ class ATSPerformanceTest {
         mockResponse.put("resumeResults", new Object[]{});
         mockResponse.put("summary", new HashMap<>());
 
-        when(atsService.bulkResumeAnalysis(any(), anyString())).thenReturn(mockResponse);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenReturn(mockResponse);
 
         // Act
         long startTime = System.currentTimeMillis();
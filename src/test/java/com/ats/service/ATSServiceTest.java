@@ -2,21 +2,52 @@ package com.ats.service;
 
 import com.ats.exception.ATSServiceException;
 import com.ats.exception.FileProcessingException;
+import com.ats.exception.OpenAIClientException;
 import com.ats.exception.OpenAIException;
+import com.ats.model.EvaluationResult;
+import com.ats.model.JobDescriptionInfo;
+import com.ats.model.ResumeJDResult;
+import com.ats.model.ScoringEngine;
+import com.ats.utils.AdaptiveConcurrencyLimiter;
 import com.ats.utils.FileUtils;
 import com.ats.utils.OpenAIUtils;
 import com.ats.utils.PromptUtils;
 import com.ats.utils.ApiKeyReader;
+import com.ats.utils.StructuredResponseParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.mock.web.MockMultipartFile;
-
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +72,15 @@ class ATSServiceTest {
     @Mock
     private ResumeMatchManager resumeMatchManager;
 
+    @Mock
+    private EvaluationCache evaluationCache;
+
+    @Mock
+    private BulkMatrixExecutor bulkMatrixExecutor;
+
+    @Mock
+    private StructuredResponseParser structuredResponseParser;
+
     @InjectMocks
     private ATSService atsService;
 
@@ -167,6 +207,99 @@ class ATSServiceTest {
         });
     }
 
+    @Test
+    void testEvaluateResumeMode1_StructuredRequestRejectedFallsBackToText() throws Exception {
+        // Arrange: a model without structured output support answers 400 to response_format
+        ReflectionTestUtils.setField(atsService, "structuredOutput", true);
+        MockMultipartFile textResume = new MockMultipartFile("resume", "resume.txt", "text/plain", mockResumeText.getBytes());
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        when(openAIUtils.callOpenAIJsonAsync(anyString(), anyString(), anyString(), any()))
+            .thenReturn(Mono.error(new OpenAIClientException(400, "OpenAI API client error: response_format is not supported", null)));
+        when(openAIUtils.callOpenAIAsync(anyString(), anyString())).thenReturn(Mono.just(mockOpenAIResponse));
+
+        // Act
+        Map<String, Object> result = atsService.evaluateResumeMode1(textResume);
+
+        // Assert
+        assertEquals(List.of(85.0), result.get("atsScore"));
+        verify(openAIUtils).callOpenAIAsync(anyString(), anyString());
+        verify(structuredResponseParser).recordFallback();
+    }
+
+    @Test
+    void testEvaluateResumeMode1_AuthenticationErrorIsNotRetriedAsText() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(atsService, "structuredOutput", true);
+        MockMultipartFile textResume = new MockMultipartFile("resume", "resume.txt", "text/plain", mockResumeText.getBytes());
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        when(openAIUtils.callOpenAIJsonAsync(anyString(), anyString(), anyString(), any()))
+            .thenReturn(Mono.error(new OpenAIClientException(401, "OpenAI API client error: invalid api key", null)));
+
+        // Act & Assert
+        assertThrows(ATSServiceException.class, () -> atsService.evaluateResumeMode1(textResume));
+        verify(openAIUtils, never()).callOpenAIAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testEvaluateResumeWithJDTextAsync_StructuredRequestRejectedFallsBackToText() {
+        // Arrange: the text prompt must be tried before the local scorer (left null here) is
+        ReflectionTestUtils.setField(atsService, "structuredOutput", true);
+        ReflectionTestUtils.setField(atsService, "localFallback", true);
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        when(bulkMatrixExecutor.getScheduler()).thenReturn(Schedulers.immediate());
+        when(openAIUtils.callOpenAIJsonAsync(anyString(), anyString(), anyString(), any()))
+            .thenReturn(Mono.error(new OpenAIClientException(400, "OpenAI API client error: response_format is not supported", null)));
+        when(openAIUtils.callOpenAIAsync(anyString(), anyString())).thenReturn(Mono.just(mockOpenAIResponse));
+
+        // Act
+        Map<String, Object> result = atsService.evaluateResumeWithJDTextAsync(mockResumeText, "Java developer", "resume.pdf").block();
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(List.of(85.0), result.get("atsScore"));
+        assertNull(result.get("engine"));
+        verify(structuredResponseParser).recordFallback();
+    }
+
+    @Test
+    void testEvaluateResumeWithJDTextAsync_OpenAIFailureReportedWithoutFallback() {
+        // Arrange
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        when(bulkMatrixExecutor.getScheduler()).thenReturn(Schedulers.immediate());
+        when(openAIUtils.callOpenAIAsync(anyString(), anyString()))
+            .thenReturn(Mono.error(new OpenAIException("OpenAI API server error: 503")));
+
+        // Act & Assert
+        assertThrows(ATSServiceException.class,
+            () -> atsService.evaluateResumeWithJDTextAsync(mockResumeText, "Java developer", "resume.pdf").block());
+    }
+
+    @Test
+    void testEvaluateResumeWithJDTextAsync_OpenAIFailureScoredLocallyWhenFallbackEnabled() throws IOException {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(atsService, "localFallback", true);
+        ReflectionTestUtils.setField(atsService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(atsService, "localScorer",
+            new LocalScorer(new SkillDictionary(new ClassPathResource("skill-dictionary.txt"))));
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        when(bulkMatrixExecutor.getScheduler()).thenReturn(Schedulers.immediate());
+        when(openAIUtils.callOpenAIAsync(anyString(), anyString()))
+            .thenReturn(Mono.error(new OpenAIException("OpenAI API server error: 503")));
+
+        // Act
+        Map<String, Object> result = atsService.evaluateResumeWithJDTextAsync(mockResumeText, "Java developer", "resume.pdf").block();
+
+        // Assert: the fallback is visible in the result, in bulk results built from it, and in metrics
+        assertNotNull(result);
+        assertEquals("local", result.get("engine"));
+        assertEquals("OpenAI API server error: 503", result.get("fallbackReason"));
+        EvaluationResult bulkResult = EvaluationResult.fromMap(result);
+        assertEquals("local", bulkResult.engine());
+        assertEquals("OpenAI API server error: 503", bulkResult.fallbackReason());
+        assertEquals(1.0, meterRegistry.counter("ats.local-scoring.fallback").count());
+    }
+
     @Test
     void testGetCacheStatus() {
         // Act
@@ -215,4 +348,274 @@ class ATSServiceTest {
         // Cleanup
         System.clearProperty("OPENAI_API_KEY");
     }
+
+    @Test
+    void testSplitBatchedResponse() {
+        // Arrange
+        String response = "=== CANDIDATE 1 ===\nATS Score: 7\n\n=== CANDIDATE 3 ===\nATS Score: 4\n=== CANDIDATE 2 ===\n   \n";
+
+        // Act
+        List<String> sections = ATSService.splitBatchedResponse(response, 3);
+
+        // Assert
+        assertEquals(3, sections.size());
+        assertEquals("ATS Score: 7\n", sections.get(0));
+        assertNull(sections.get(1), "Empty section is treated as missing");
+        assertEquals("ATS Score: 4\n", sections.get(2));
+    }
+
+    @Test
+    void testSplitBatchedResponse_NoMarkers() {
+        // Act
+        List<String> sections = ATSService.splitBatchedResponse("ATS Score: 7", 2);
+
+        // Assert
+        assertNull(sections.get(0));
+        assertNull(sections.get(1));
+    }
+
+    @Test
+    void testFindBestResumesByJD_HighestScorePerJD() {
+        // Act
+        EvaluationResult[] best = atsService.findBestResumesByJD(reportResults(), 2);
+
+        // Assert
+        assertEquals("alice.pdf", best[0].resumeName());
+        assertEquals(8.0, best[0].score());
+        assertEquals("Alice_Google_Engineer.pdf", best[0].newResumeName());
+        assertEquals("bob.pdf", best[1].resumeName());
+        assertEquals(9.0, best[1].score());
+        assertEquals("Bob_Netflix_Analyst.pdf", best[1].newResumeName());
+    }
+
+    @Test
+    void testWriteExcelWithResults_WritesOneRowPerJD(@TempDir Path tempDir) throws Exception {
+        // Arrange: a row window of 1 makes the writer flush rows to its temp file
+        ReflectionTestUtils.setField(atsService, "reportRowWindow", 1);
+        List<ResumeJDResult> results = reportResults();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir.toFile()));
+        try {
+            atsService.writeExcelWithResults(reportJDs(), results, atsService.findBestResumesByJD(results, 2), reportTexts(), out);
+        } finally {
+            TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+        }
+
+        // Assert
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("JD Analysis Results");
+            assertNotNull(sheet);
+            assertEquals(2, sheet.getLastRowNum());
+
+            Row header = sheet.getRow(0);
+            assertEquals("Company Name", header.getCell(0).getStringCellValue());
+            assertEquals("Best Match Resume", header.getCell(5).getStringCellValue());
+            assertEquals("All Resume Scores", header.getCell(9).getStringCellValue());
+
+            Row google = sheet.getRow(1);
+            assertEquals("Google", google.getCell(0).getStringCellValue());
+            assertEquals("Engineer", google.getCell(1).getStringCellValue());
+            assertEquals("Summary 1", google.getCell(3).getStringCellValue());
+            assertEquals("alice.pdf", google.getCell(5).getStringCellValue());
+            assertEquals(8.0, google.getCell(6).getNumericCellValue());
+            assertEquals("Alice_Google_Engineer.pdf", google.getCell(8).getStringCellValue());
+
+            Row netflix = sheet.getRow(2);
+            assertEquals("Netflix", netflix.getCell(0).getStringCellValue());
+            assertEquals("N/A", netflix.getCell(2).getStringCellValue());
+            assertEquals("bob.pdf", netflix.getCell(5).getStringCellValue());
+            assertEquals(9.0, netflix.getCell(6).getNumericCellValue());
+
+            // Fixed widths, widened where the header is longer
+            assertEquals(25 * 256, sheet.getColumnWidth(0));
+            assertEquals(11 * 256, sheet.getColumnWidth(6));
+            assertEquals(50 * 256, sheet.getColumnWidth(9));
+        }
+        assertNoTempFiles(tempDir);
+    }
+
+    @Test
+    void testWriteExcelWithResults_DisposesTempFilesOnFailure(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(atsService, "reportRowWindow", 1);
+        List<ResumeJDResult> results = reportResults();
+        long[] tempFilesWhileWriting = {0};
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                try (Stream<Path> files = Files.list(tempDir)) {
+                    tempFilesWhileWriting[0] = files.count();
+                }
+                throw new IOException("Disk full");
+            }
+        };
+
+        // Act
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir.toFile()));
+        try {
+            assertThrows(IOException.class, () -> atsService.writeExcelWithResults(
+                reportJDs(), results, atsService.findBestResumesByJD(results, 2), reportTexts(), failing));
+        } finally {
+            TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+        }
+
+        // Assert
+        assertTrue(tempFilesWhileWriting[0] > 0, "the workbook should have used temp files");
+        assertNoTempFiles(tempDir);
+    }
+
+    @Test
+    void testGenerateJobDescriptionSummaries_GeneratedConcurrentlyInJDOrder() {
+        // Arrange
+        useSummaryCache();
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        Map<String, Sinks.One<String>> calls = new ConcurrentHashMap<>();
+        when(openAIUtils.callOpenAIAsync(anyString(), anyString())).thenAnswer(invocation -> {
+            String prompt = invocation.getArgument(1);
+            Sinks.One<String> call = Sinks.one();
+            calls.put(prompt.substring(prompt.lastIndexOf('\n') + 1), call);
+            return call.asMono();
+        });
+
+        // Act
+        CompletableFuture<List<String>> summaries = atsService.generateJobDescriptionSummariesAsync(summaryJDs()).toFuture();
+
+        // Assert: every summary is requested before the first one arrives, and they arrive out of order
+        assertEquals(Set.of("Java engineer", "Data analyst", "Product manager"), calls.keySet());
+        calls.get("Product manager").tryEmitValue("Owns the product roadmap.");
+        calls.get("Java engineer").tryEmitValue("Builds Java services.");
+        assertFalse(summaries.isDone());
+        calls.get("Data analyst").tryEmitValue("Analyses sales data.");
+        assertEquals(List.of("Builds Java services.", "Analyses sales data.", "Owns the product roadmap."),
+            summaries.join());
+    }
+
+    @Test
+    void testGenerateJobDescriptionSummaries_ReuploadServedFromCache() {
+        // Arrange
+        useSummaryCache();
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        when(openAIUtils.callOpenAIAsync(anyString(), anyString())).thenReturn(Mono.just("Builds Java services."));
+        List<JobDescriptionInfo> jds = List.of(summaryJDs().get(0));
+
+        // Act
+        List<String> first = atsService.generateJobDescriptionSummariesAsync(jds).block();
+        List<String> second = atsService.generateJobDescriptionSummariesAsync(jds).block();
+
+        // Assert
+        assertEquals(List.of("Builds Java services."), first);
+        assertEquals(first, second);
+        verify(openAIUtils, times(1)).callOpenAIAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testGenerateJobDescriptionSummaries_FallbackTextNotCached() {
+        // Arrange
+        useSummaryCache();
+        when(apiKeyReader.readApiKey()).thenReturn("test-api-key");
+        when(openAIUtils.callOpenAIAsync(anyString(), anyString()))
+            .thenReturn(Mono.<String>error(new OpenAIException("Service unavailable")), Mono.just("Builds Java services."));
+        List<JobDescriptionInfo> jds = List.of(summaryJDs().get(0));
+
+        // Act
+        List<String> first = atsService.generateJobDescriptionSummariesAsync(jds).block();
+        List<String> second = atsService.generateJobDescriptionSummariesAsync(jds).block();
+
+        // Assert
+        assertEquals(List.of("Java engineer"), first);
+        assertEquals(List.of("Builds Java services."), second);
+        verify(openAIUtils, times(2)).callOpenAIAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testGenerateJobDescriptionSummaries_LocalEngineSummarizesRequirements() {
+        // Arrange
+        useSummaryCache();
+        ReflectionTestUtils.setField(atsService, "localScorer",
+            new LocalScorer(new SkillDictionary(new ClassPathResource("skill-dictionary.txt"))));
+        List<JobDescriptionInfo> jds = List.of(new JobDescriptionInfo("Google", "Engineer", null,
+            "Backend engineer with 5+ years of Java, Spring Boot and Docker"));
+
+        // Act
+        List<String> summaries = atsService.generateJobDescriptionSummariesAsync(jds)
+            .contextWrite(atsService.reportTextContext(ScoringEngine.LOCAL))
+            .block();
+
+        // Assert: requirements found by the local scorer, without calling the AI
+        assertNotNull(summaries);
+        assertTrue(summaries.get(0).contains("Technical skills: "));
+        assertTrue(summaries.get(0).contains("Java"));
+        assertTrue(summaries.get(0).contains("Experience: 5+ years"));
+        verify(openAIUtils, never()).callOpenAIAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testReportTextContext_OwnLanePerRequest() {
+        // Act
+        Context first = atsService.reportTextContext(ScoringEngine.AI);
+        Context second = atsService.reportTextContext(ScoringEngine.AI);
+
+        // Assert
+        assertTrue(AdaptiveConcurrencyLimiter.isBulkLane(first));
+        assertTrue(AdaptiveConcurrencyLimiter.isBulkLane(second));
+        assertNotEquals(first.<String>get(AdaptiveConcurrencyLimiter.LANE_KEY),
+            second.<String>get(AdaptiveConcurrencyLimiter.LANE_KEY));
+    }
+
+    private void useSummaryCache() {
+        ReflectionTestUtils.setField(atsService, "summaryCache", new SummaryCache(new SimpleMeterRegistry(), 100, 1));
+        ReflectionTestUtils.setField(atsService, "enrichmentConcurrency", 4);
+    }
+
+    private static List<JobDescriptionInfo> summaryJDs() {
+        return List.of(
+            new JobDescriptionInfo("Google", "Engineer", null, "Java engineer"),
+            new JobDescriptionInfo("Netflix", "Analyst", null, "Data analyst"),
+            new JobDescriptionInfo("Spotify", "Manager", null, "Product manager"));
+    }
+
+    private static List<JobDescriptionInfo> reportJDs() {
+        return List.of(
+            new JobDescriptionInfo("Google", "Engineer", "https://careers.google.com/1", "Java engineer"),
+            new JobDescriptionInfo("Netflix", "Analyst", null, "Data analyst"));
+    }
+
+    private static List<ATSService.ReportTexts> reportTexts() {
+        return List.of(
+            new ATSService.ReportTexts("Summary 1", "Suggestions 1", "Result 1"),
+            new ATSService.ReportTexts("Summary 2", "Suggestions 2", "Result 2"));
+    }
+
+    /**
+     * Alice is best for JD 0 and Bob for JD 1; Carol failed and must never be picked
+     */
+    private static List<ResumeJDResult> reportResults() {
+        EvaluationResult alice0 = pairResult("alice.pdf", 0, 8.0, "Alice_Google_Engineer.pdf", null);
+        EvaluationResult alice1 = pairResult("alice.pdf", 1, 5.0, null, null);
+        EvaluationResult bob0 = pairResult("bob.pdf", 0, 6.0, null, null);
+        EvaluationResult bob1 = pairResult("bob.pdf", 1, 9.0, "Bob_Netflix_Analyst.pdf", null);
+        EvaluationResult carol = pairResult("carol.pdf", 0, 10.0, null, "Unreadable file");
+        return List.of(
+            new ResumeJDResult(alice0, List.of(alice0, alice1), List.of(alice0), List.of(alice1)),
+            new ResumeJDResult(bob1, List.of(bob0, bob1), List.of(bob1), List.of(bob0)),
+            new ResumeJDResult(carol, List.of(carol), List.of(), List.of()));
+    }
+
+    private static EvaluationResult pairResult(String resumeName, int jdIndex, double score, String newResumeName, String error) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("resumeName", resumeName);
+        map.put("jdIndex", jdIndex);
+        map.put("atsScore", List.of(score));
+        map.put("newResumeName", newResumeName);
+        map.put("error", error);
+        return EvaluationResult.fromMap(map);
+    }
+
+    private static void assertNoTempFiles(Path tempDir) throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(), files.toList());
+        }
+    }
 }
@@ -0,0 +1,217 @@
+package com.ats.service;
+
+import com.ats.exception.ATSServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkJobServiceTest {
+
+    private ATSService atsService;
+    private ThreadPoolExecutor jobExecutor;
+    private BulkJobService bulkJobService;
+    private MultipartFile[] resumes;
+
+    @TempDir
+    Path spoolDirectory;
+
+    @BeforeEach
+    void setUp() {
+        atsService = mock(ATSService.class);
+        jobExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        bulkJobService = new BulkJobService(atsService, jobExecutor, 60, spoolDirectory.toString());
+        resumes = new MultipartFile[] {
+            new MockMultipartFile("resumes", "resume1.pdf", "application/pdf", "Resume one".getBytes()),
+            new MockMultipartFile("resumes", "resume2.pdf", "application/pdf", "Resume two".getBytes())
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobExecutor.shutdownNow();
+    }
+
+    @Test
+    void testSubmitMode3_ReportsProgressAndResult() throws Exception {
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            BulkProgressListener listener = invocation.getArgument(2);
+            listener.onStart(2);
+            listener.onPairCompleted(1, 0, Map.of("resumeName", "resume2.pdf", "atsScore", List.of(7.5)));
+            listener.onPairCompleted(0, 0, Map.of("resumeName", "resume1.pdf", "atsScore", List.of(6.0)));
+            return Map.of("summary", Map.of("totalResumes", 2));
+        });
+
+        BulkJob job = bulkJobService.submitMode3(resumes, "Java developer");
+        Map<String, Object> status = waitUntilFinished(job.getId());
+
+        assertEquals("COMPLETED", status.get("status"));
+        assertEquals(100.0, status.get("percentComplete"));
+        assertEquals(2, status.get("completedPairs"));
+        assertEquals(2, ((List<?>) status.get("results")).size());
+        assertNotNull(status.get("result"));
+    }
+
+    @Test
+    void testCancelJob_InterruptsRunningJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new ATSServiceException("Bulk analysis was interrupted", e);
+            }
+            return Map.of();
+        });
+
+        BulkJob job = bulkJobService.submitMode3(resumes, "Java developer");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Map<String, Object> status = bulkJobService.cancelJob(job.getId()).toStatusMap();
+
+        assertEquals("CANCELLED", status.get("status"));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Running job should be interrupted");
+        assertEquals("CANCELLED", waitUntilFinished(job.getId()).get("status"));
+    }
+
+    @Test
+    void testSubmit_RejectedWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        try {
+            bulkJobService.submitMode3(resumes, "Java developer"); // running
+            bulkJobService.submitMode3(resumes, "Java developer"); // queued
+
+            ATSServiceException exception = assertThrows(ATSServiceException.class,
+                () -> bulkJobService.submitMode3(resumes, "Java developer"));
+            assertEquals("RATE_LIMIT_EXCEEDED", exception.getErrorCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testSubmitMode3_UploadsSpooledUntilJobEnds() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            MultipartFile[] spooled = invocation.getArgument(0);
+            assertEquals("Resume two", new String(spooled[1].getBytes()));
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        BulkJob job = bulkJobService.submitMode3(resumes, "Java developer");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, spooledFiles());
+
+        release.countDown();
+        assertEquals("COMPLETED", waitUntilFinished(job.getId()).get("status"));
+        waitUntilSpoolIsEmpty();
+    }
+
+    @Test
+    void testCancelJob_QueuedJobUploadsDeleted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        try {
+            bulkJobService.submitMode3(resumes, "Java developer"); // running
+            BulkJob queued = bulkJobService.submitMode3(resumes, "Java developer");
+            assertEquals(4, spooledFiles());
+
+            bulkJobService.cancelJob(queued.getId());
+
+            assertEquals(2, spooledFiles());
+        } finally {
+            release.countDown();
+        }
+        waitUntilSpoolIsEmpty();
+    }
+
+    @Test
+    void testSubmit_RejectedJobUploadsDeleted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(atsService.bulkResumeAnalysis(any(), anyString(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        try {
+            bulkJobService.submitMode3(resumes, "Java developer"); // running
+            bulkJobService.submitMode3(resumes, "Java developer"); // queued
+            assertThrows(ATSServiceException.class, () -> bulkJobService.submitMode3(resumes, "Java developer"));
+
+            assertEquals(4, spooledFiles());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testGetJob_UnknownId() {
+        ATSServiceException exception = assertThrows(ATSServiceException.class,
+            () -> bulkJobService.getJob("does-not-exist"));
+        assertEquals("JOB_NOT_FOUND", exception.getErrorCode());
+    }
+
+    private long spooledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+
+    // Uploads are deleted right after the job is marked finished
+    private void waitUntilSpoolIsEmpty() throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (spooledFiles() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Spooled uploads were not deleted");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private Map<String, Object> waitUntilFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            BulkJob job = bulkJobService.getJob(jobId);
+            if (job.getStatus().isFinished()) {
+                return job.toStatusMap();
+            }
+            Thread.sleep(10);
+        }
+        fail("Job " + jobId + " did not finish in time");
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ats.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkMatrixExecutorTest {
+
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testExecute_ResultsOrderedByResumeThenJD() {
+        BulkMatrixExecutor executor = new BulkMatrixExecutor(executorService, 4);
+
+        List<List<String>> matrix = executor.execute(3, 5,
+            (resumeIndex, jdIndex) -> {
+                // Finish later pairs first to make sure ordering does not depend on completion order
+                Thread.sleep((15 - (resumeIndex * 5 + jdIndex)) * 2L);
+                return resumeIndex + ":" + jdIndex;
+            },
+            (resumeIndex, jdIndex, e) -> "error");
+
+        assertEquals(3, matrix.size());
+        for (int r = 0; r < 3; r++) {
+            assertEquals(5, matrix.get(r).size());
+            for (int j = 0; j < 5; j++) {
+                assertEquals(r + ":" + j, matrix.get(r).get(j));
+            }
+        }
+    }
+
+    @Test
+    void testExecute_FailuresAreIsolatedPerPair() {
+        BulkMatrixExecutor executor = new BulkMatrixExecutor(executorService, 4);
+
+        List<List<String>> matrix = executor.execute(2, 2,
+            (resumeIndex, jdIndex) -> {
+                if (resumeIndex == 1 && jdIndex == 0) {
+                    throw new IllegalStateException("boom");
+                }
+                return "ok";
+            },
+            (resumeIndex, jdIndex, e) -> "error:" + e.getMessage());
+
+        assertEquals(List.of("ok", "ok"), matrix.get(0));
+        assertEquals(List.of("error:boom", "ok"), matrix.get(1));
+    }
+
+    @Test
+    void testExecute_RespectsConcurrencyLimit() {
+        BulkMatrixExecutor executor = new BulkMatrixExecutor(executorService, 3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        executor.execute(4, 5,
+            (resumeIndex, jdIndex) -> {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                Thread.sleep(10);
+                inFlight.decrementAndGet();
+                return null;
+            },
+            (resumeIndex, jdIndex, e) -> null);
+
+        assertTrue(maxInFlight.get() <= 3, "At most 3 pairs should run concurrently but saw " + maxInFlight.get());
+        assertTrue(maxInFlight.get() > 1, "Pairs should run concurrently");
+    }
+
+    @Test
+    void testExecuteAsync_ResultsOrderedAndFailuresIsolated() {
+        BulkMatrixExecutor executor = new BulkMatrixExecutor(executorService, 2, 8);
+
+        List<List<String>> matrix = executor.executeAsync(2, 3,
+            (resumeIndex, jdIndex) -> {
+                if (resumeIndex == 0 && jdIndex == 1) {
+                    return Mono.error(new IllegalStateException("boom"));
+                }
+                // Finish later pairs first to make sure ordering does not depend on completion order
+                return Mono.delay(Duration.ofMillis((6 - (resumeIndex * 3 + jdIndex)) * 5L))
+                    .map(tick -> resumeIndex + ":" + jdIndex);
+            },
+            (resumeIndex, jdIndex, e) -> "error:" + e.getMessage());
+
+        assertEquals(List.of("0:0", "error:boom", "0:2"), matrix.get(0));
+        assertEquals(List.of("1:0", "1:1", "1:2"), matrix.get(1));
+    }
+
+    @Test
+    void testExecuteAsync_RespectsInFlightLimitWithoutHoldingThreads() {
+        // A single worker thread is enough because pairs do not block while in flight
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            BulkMatrixExecutor executor = new BulkMatrixExecutor(singleThread, 1, 6);
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+
+            executor.executeAsync(4, 5,
+                (resumeIndex, jdIndex) -> Mono.defer(() -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        return Mono.delay(Duration.ofMillis(10));
+                    })
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .map(tick -> "ok"),
+                (resumeIndex, jdIndex, e) -> "error");
+
+            assertTrue(maxInFlight.get() <= 6, "At most 6 pairs should be in flight but saw " + maxInFlight.get());
+            assertTrue(maxInFlight.get() > 1, "Pairs should be in flight concurrently");
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+}
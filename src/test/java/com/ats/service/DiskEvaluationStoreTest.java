@@ -0,0 +1,126 @@
+package com.ats.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskEvaluationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPut_SurvivesReopen() {
+        DiskEvaluationStore store = open();
+        store.put("key", result(7.5), System.currentTimeMillis() + 60_000);
+        store.close();
+
+        DiskEvaluationStore reopened = open();
+        try {
+            DiskEvaluationStore.StoredResult stored = reopened.get("key");
+            assertNotNull(stored);
+            assertEquals(List.of(7.5), stored.result().get("atsScore"));
+            assertNull(reopened.get("missing"));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void testGet_ExpiredEntriesAreIgnored() {
+        DiskEvaluationStore store = open();
+        try {
+            store.put("expired", result(5.0), System.currentTimeMillis() - 1);
+            store.flush();
+
+            assertNull(store.get("expired"));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testCompaction_KeepsLatestLiveRecords() throws IOException {
+        DiskEvaluationStore store = open();
+        try {
+            long expiresAt = System.currentTimeMillis() + 60_000;
+            for (int i = 0; i < 10; i++) {
+                store.put("key", result(i), expiresAt);
+            }
+            store.put("other", result(3.0), expiresAt);
+            store.put("expired", result(1.0), System.currentTimeMillis() - 1);
+            store.flush();
+            long before = Files.size(segment());
+
+            store.compactNow();
+
+            assertTrue(Files.size(segment()) < before);
+            assertEquals(List.of(9.0), store.get("key").result().get("atsScore"));
+            assertEquals(List.of(3.0), store.get("other").result().get("atsScore"));
+            assertEquals(2, store.getStats().get("diskEntries"));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testOpen_TruncatesTornTail() throws IOException {
+        DiskEvaluationStore store = open();
+        store.put("key", result(8.0), System.currentTimeMillis() + 60_000);
+        store.close();
+        long intactSize = Files.size(segment());
+
+        // Simulate a crash in the middle of an append
+        Files.write(segment(), new byte[] {0x41, 0x54, 0x53}, StandardOpenOption.APPEND);
+
+        DiskEvaluationStore reopened = open();
+        try {
+            assertEquals(intactSize, Files.size(segment()));
+            assertEquals(List.of(8.0), reopened.get("key").result().get("atsScore"));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void testClear_RemovesEverything() {
+        DiskEvaluationStore store = open();
+        store.put("key", result(6.0), System.currentTimeMillis() + 60_000);
+        store.flush();
+
+        store.clear();
+        assertNull(store.get("key"));
+        store.close();
+
+        DiskEvaluationStore reopened = open();
+        try {
+            assertNull(reopened.get("key"));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private DiskEvaluationStore open() {
+        return new DiskEvaluationStore(true, tempDir.toString(), 16 * 1024 * 1024, 60);
+    }
+
+    private Path segment() {
+        return tempDir.resolve(DiskEvaluationStore.SEGMENT_FILE);
+    }
+
+    private static Map<String, Object> result(double score) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("atsScore", List.of(score));
+        result.put("careerSummary", "Experienced engineer");
+        return result;
+    }
+}
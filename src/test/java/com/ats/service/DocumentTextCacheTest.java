@@ -0,0 +1,29 @@
+package com.ats.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentTextCacheTest {
+
+    @Test
+    void testPut_SameTextSameId() {
+        DocumentTextCache cache = new DocumentTextCache(new SimpleMeterRegistry(), 1_000_000, 60);
+
+        String first = cache.put("Jane Doe\nJava developer");
+        String second = cache.put("Jane Doe\nJava developer");
+        String other = cache.put("John Doe\nPython developer");
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals("Jane Doe\nJava developer", cache.get(first));
+    }
+
+    @Test
+    void testGet_UnknownIdReturnsNull() {
+        DocumentTextCache cache = new DocumentTextCache(new SimpleMeterRegistry(), 1_000_000, 60);
+
+        assertNull(cache.get("does-not-exist"));
+    }
+}
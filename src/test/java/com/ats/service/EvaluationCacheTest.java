@@ -0,0 +1,60 @@
+package com.ats.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationCacheTest {
+
+    @Test
+    void testGetIfPresent_ReturnsIndependentCopies() {
+        EvaluationCache cache = new EvaluationCache(new SimpleMeterRegistry(), 100, 1_000_000, 24);
+        cache.put("key", result(7.5));
+
+        Map<String, Object> first = cache.getIfPresent("key");
+        first.put("resumeName", "decorated.pdf");
+
+        assertFalse(cache.getIfPresent("key").containsKey("resumeName"));
+        assertNull(cache.getIfPresent("missing"));
+    }
+
+    @Test
+    void testPut_EntryCountIsBounded() {
+        EvaluationCache cache = new EvaluationCache(new SimpleMeterRegistry(), 10, 1_000_000, 24);
+
+        for (int i = 0; i < 200; i++) {
+            cache.put("key-" + i, result(i));
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.estimatedSize() <= 10, "Expected at most 10 entries but found " + cache.estimatedSize());
+        assertTrue((Long) cache.getStats().get("evictionCount") > 0);
+    }
+
+    @Test
+    void testPut_WeightIsBounded() {
+        EvaluationCache cache = new EvaluationCache(new SimpleMeterRegistry(), 1000, 50_000, 24);
+
+        for (int i = 0; i < 50; i++) {
+            Map<String, Object> large = result(i);
+            large.put("careerSummary", "x".repeat(10_000));
+            cache.put("key-" + i, large);
+        }
+        cache.cleanUp();
+
+        // Each entry weighs over 20 KB, so a 50 KB budget holds at most two of them
+        assertTrue(cache.estimatedSize() <= 2, "Expected at most 2 entries but found " + cache.estimatedSize());
+    }
+
+    private static Map<String, Object> result(double score) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("atsScore", List.of(score));
+        result.put("careerSummary", "Experienced engineer");
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ats.service;
+
+import com.ats.exception.FileProcessingException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractedDocumentContextTest {
+
+    @Test
+    void testGetText_ConcurrentCallersExtractOnce() throws Exception {
+        CountingFile file = new CountingFile("resume.txt", "Jane Doe\nJava developer", false);
+        ExtractedDocumentContext context = new ExtractedDocumentContext(new MultipartFile[] {file});
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return context.getText(0);
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("Jane Doe\nJava developer", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, file.reads.get());
+    }
+
+    @Test
+    void testGetText_ExtractionErrorRethrownToEveryCaller() {
+        CountingFile file = new CountingFile("broken.txt", "unreadable", true);
+        ExtractedDocumentContext context = new ExtractedDocumentContext(new MultipartFile[] {file});
+
+        FileProcessingException first = assertThrows(FileProcessingException.class, () -> context.getText(0));
+        FileProcessingException second = assertThrows(FileProcessingException.class, () -> context.getText(0));
+
+        assertSame(first, second);
+        assertEquals(1, file.reads.get());
+    }
+
+    @Test
+    void testGetText_DocumentsAreExtractedIndependently() throws Exception {
+        CountingFile good = new CountingFile("good.txt", "Python developer", false);
+        CountingFile broken = new CountingFile("broken.txt", "unreadable", true);
+        ExtractedDocumentContext context = new ExtractedDocumentContext(new MultipartFile[] {broken, good});
+
+        assertThrows(FileProcessingException.class, () -> context.getText(0));
+        assertEquals("Python developer", context.getText(1));
+        assertEquals(2, context.size());
+        assertSame(good, context.getFile(1));
+    }
+
+    @Test
+    void testGetText_OutOfRangeIndexRejected() {
+        CountingFile file = new CountingFile("resume.txt", "Jane Doe", false);
+        ExtractedDocumentContext context = new ExtractedDocumentContext(new MultipartFile[] {file});
+
+        assertThrows(IndexOutOfBoundsException.class, () -> context.getText(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> context.getText(-1));
+        assertEquals(0, file.reads.get());
+    }
+
+    /**
+     * Plain-text upload that counts how often its content is read
+     */
+    private static class CountingFile extends MockMultipartFile {
+
+        private final AtomicInteger reads = new AtomicInteger();
+        private final boolean failing;
+
+        CountingFile(String name, String content, boolean failing) {
+            super("files", name, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+            this.failing = failing;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            reads.incrementAndGet();
+            if (failing) {
+                throw new IOException("Disk error");
+            }
+            try {
+                // Keep the extraction in flight long enough for the other callers to arrive
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.getInputStream();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ats.service;
+
+import com.ats.model.JobDescriptionInfo;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobDescriptionSheetReaderTest {
+
+    @Test
+    void testRead_XlsxDetectsColumnsFromHeaders() throws IOException {
+        byte[] xlsx = workbook(new XSSFWorkbook(),
+            new Object[]{"Apply Link", "Description", "Company Name", "Role"},
+            new Object[]{"https://acme.example/jobs/1", "Build Java services", "Acme", "Backend Engineer"},
+            new Object[]{null, "   ", "Skipped", "No description"},
+            new Object[]{"", "Own the data platform", "Globex", 42});
+
+        List<JobDescriptionInfo> jobs = JobDescriptionSheetReader.read(new ByteArrayInputStream(xlsx), "jobs.xlsx");
+
+        assertEquals(2, jobs.size());
+        assertEquals(new JobDescriptionInfo("Acme", "Backend Engineer", "https://acme.example/jobs/1", "Build Java services"), jobs.get(0));
+        assertEquals(new JobDescriptionInfo("Globex", "42", "", "Own the data platform"), jobs.get(1));
+    }
+
+    @Test
+    void testRead_XlsxFallsBackToLongestTextColumn() throws IOException {
+        byte[] xlsx = workbook(new XSSFWorkbook(),
+            new Object[]{"Employer", "Position", "Text"},
+            new Object[]{"Acme", "Engineer", "A long description of the engineering role"},
+            new Object[]{"Globex", "Analyst", "Another long description"});
+
+        List<JobDescriptionInfo> jobs = JobDescriptionSheetReader.read(new ByteArrayInputStream(xlsx), "jobs.xlsx");
+
+        assertEquals(2, jobs.size());
+        assertEquals("Another long description", jobs.get(1).description());
+        assertEquals("Analyst", jobs.get(1).roleName());
+    }
+
+    @Test
+    void testRead_XlsMatchesXlsx() throws IOException {
+        Object[][] rows = {
+            {"Company", "Title", "Description"},
+            {"Acme", "Engineer", "Build Java services"}
+        };
+        byte[] xls = workbook(new HSSFWorkbook(), rows);
+        byte[] xlsx = workbook(new XSSFWorkbook(), rows);
+
+        assertEquals(
+            JobDescriptionSheetReader.read(new ByteArrayInputStream(xlsx), "jobs.xlsx"),
+            JobDescriptionSheetReader.read(new ByteArrayInputStream(xls), "jobs.xls"));
+    }
+
+    @Test
+    void testRead_HeaderOnlyIsRejected() throws IOException {
+        byte[] xlsx = workbook(new XSSFWorkbook(), new Object[]{"Company", "Role", "Description"});
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+            () -> JobDescriptionSheetReader.read(new ByteArrayInputStream(xlsx), "jobs.xlsx"));
+        assertTrue(error.getMessage().contains("at least one row of data"));
+    }
+
+    private static byte[] workbook(Workbook workbook, Object[]... rows) throws IOException {
+        try (workbook; ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Jobs");
+            for (int rowIndex = 0; rowIndex < rows.length; rowIndex++) {
+                Row row = sheet.createRow(rowIndex);
+                for (int colIndex = 0; colIndex < rows[rowIndex].length; colIndex++) {
+                    Object value = rows[rowIndex][colIndex];
+                    if (value instanceof Number number) {
+                        row.createCell(colIndex).setCellValue(number.doubleValue());
+                    } else if (value != null) {
+                        row.createCell(colIndex).setCellValue(value.toString());
+                    }
+                }
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+}
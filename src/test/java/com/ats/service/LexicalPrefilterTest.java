@@ -0,0 +1,76 @@
+package com.ats.service;
+
+import com.ats.utils.Bm25Index;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexicalPrefilterTest {
+
+    private static final List<String> RESUMES = Arrays.asList(
+        "Java developer with Spring Boot, Hibernate and PostgreSQL microservices",
+        "Registered nurse, patient care, intensive care unit, clinical documentation",
+        "Senior Java engineer: Spring, Kafka, Kubernetes, REST APIs",
+        "Pastry chef with bakery and restaurant kitchen management background",
+        "Accountant handling payroll, ledgers and tax filings",
+        null
+    );
+
+    @Test
+    void testBm25_RelevantDocumentScoresHighest() {
+        Bm25Index index = new Bm25Index(RESUMES);
+
+        double[] scores = index.score("Looking for a Java Spring Boot developer to build microservices");
+
+        assertTrue(scores[0] > scores[2], "Closest resume should rank first");
+        assertTrue(scores[2] > scores[1]);
+        assertEquals(0.0, scores[3]);
+        assertEquals(0.0, scores[5]);
+    }
+
+    @Test
+    void testPlan_KeepsTopKAndPrunesTheRest() {
+        LexicalPrefilter prefilter = new LexicalPrefilter(true, 2, 0.9, 3.0);
+
+        LexicalPrefilter.Plan plan = prefilter.plan(RESUMES, List.of(
+            "Java Spring Boot developer for microservices",
+            "ICU nurse for patient care"));
+
+        // JD 0: the two Java resumes are kept, unrelated ones pruned
+        assertFalse(plan.isPruned(0, 0));
+        assertFalse(plan.isPruned(2, 0));
+        assertTrue(plan.isPruned(3, 0));
+        assertTrue(plan.isPruned(4, 0));
+        // JD 1: the nurse is kept
+        assertFalse(plan.isPruned(1, 1));
+        // A resume without extracted text is never pruned
+        assertFalse(plan.isPruned(5, 0));
+        assertFalse(plan.isPruned(5, 1));
+
+        assertEquals(6, plan.getPrunedCount());
+        assertTrue(plan.getLocalScore(3, 0) <= 3.0);
+        assertEquals(1.0, plan.getRelativeScore(0, 0));
+    }
+
+    @Test
+    void testPlan_ThresholdKeepsCloseRunnersUp() {
+        LexicalPrefilter prefilter = new LexicalPrefilter(true, 1, 0.1, 3.0);
+
+        LexicalPrefilter.Plan plan = prefilter.plan(RESUMES, List.of("Java Spring developer"));
+
+        assertFalse(plan.isPruned(0, 0));
+        assertFalse(plan.isPruned(2, 0));
+        assertTrue(plan.isPruned(1, 0));
+    }
+
+    @Test
+    void testPlan_DisabledOrSmallRequestsPruneNothing() {
+        List<String> jds = List.of("Java Spring developer");
+
+        assertEquals(0, new LexicalPrefilter(false, 1, 0.9, 3.0).plan(RESUMES, jds).getPrunedCount());
+        assertEquals(0, new LexicalPrefilter(true, 6, 0.9, 3.0).plan(RESUMES, jds).getPrunedCount());
+    }
+}
@@ -0,0 +1,111 @@
+package com.ats.service;
+
+import com.ats.model.StructuredEvaluation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalScorerTest {
+
+    private static final String JD = "We are hiring a backend engineer with 5+ years of experience.\n"
+        + "Required: Java, Spring Boot, Kafka, Kubernetes and PostgreSQL. Agile and Scrum.\n"
+        + "AWS Certified Solutions Architect is a plus.";
+
+    private static final String RESUME = "Jane Smith\n"
+        + "Senior Software Engineer\n"
+        + "\n"
+        + "SKILLS\n"
+        + "Java, Spring Boot, Kafka, Docker, Agile\n"
+        + "\n"
+        + "EXPERIENCE\n"
+        + "Acme Corp, Backend Engineer, Jan 2016 - Dec 2021\n"
+        + "Built Java and Spring Boot microservices streaming events through Kafka in an Agile team.\n"
+        + "\n"
+        + "PROJECTS\n"
+        + "Order tracker: Spring Boot service deployed with Docker.";
+
+    private LocalScorer scorer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        scorer = new LocalScorer(new SkillDictionary(new ClassPathResource("skill-dictionary.txt")));
+    }
+
+    @Test
+    void testEvaluate_ScoresCoverageEvidenceAndExperience() {
+        StructuredEvaluation evaluation = scorer.evaluate(RESUME, JD);
+
+        // 0.45 x 3/5 tech + 0.15 evidence + 0.15 x 1/2 practices + 0 certificates + 0.15 experience
+        assertEquals(6.5, evaluation.atsScore());
+        assertEquals("MATCHED", evaluation.matchStatus());
+        assertNull(evaluation.companyName());
+        assertEquals(List.of("Java", "Spring Boot", "Kafka"), evaluation.technicalSkills().matchedSkills());
+        assertEquals(List.of("Kubernetes", "PostgreSQL"), evaluation.technicalSkills().gaps());
+        assertEquals(List.of("Java", "Spring Boot", "Kafka", "Agile"), evaluation.workExperience().matchedSkills());
+        assertEquals(List.of("Kubernetes", "PostgreSQL", "Scrum"), evaluation.workExperience().gaps());
+        assertEquals(List.of("Spring Boot"), evaluation.projects().matchedSkills());
+        assertEquals(List.of("AWS Certified Solutions Architect"), evaluation.certificates().gaps());
+    }
+
+    @Test
+    void testEvaluate_SkillsOnlyListedEarnNoEvidence() {
+        String resume = "Skills:\nJava, Spring Boot, Kafka, Kubernetes, PostgreSQL";
+
+        StructuredEvaluation evaluation = scorer.evaluate(resume, JD);
+
+        assertEquals(4.5, evaluation.atsScore());
+        assertEquals("UNMATCHED", evaluation.matchStatus());
+        assertTrue(evaluation.weaknesses().stream().anyMatch(w -> w.startsWith("Listed but not backed")));
+        assertTrue(evaluation.workExperience().matchedSkills().isEmpty());
+    }
+
+    @Test
+    void testEvaluate_ReportsMissingExperience() {
+        StructuredEvaluation evaluation = scorer.evaluate("2 years of experience with Java and Kafka", JD);
+
+        assertEquals("5+ years of experience", evaluation.workExperience().gaps().get(0));
+        assertTrue(evaluation.weaknesses().stream().anyMatch(w -> w.startsWith("Experience below the requirement")));
+    }
+
+    @Test
+    void testEvaluate_SynonymsMatchCanonicalSkills() {
+        StructuredEvaluation evaluation = scorer.evaluate("Worked with k8s, go lang and js daily",
+            "Kubernetes, Golang and JavaScript developer");
+
+        assertEquals(List.of("Kubernetes", "Golang", "JavaScript"), evaluation.technicalSkills().matchedSkills());
+        assertEquals(10.0, evaluation.atsScore());
+    }
+
+    @Test
+    void testEvaluate_TermOverlapWhenJdNamesNoKnownSkill() {
+        String jd = "Pastry chef for bakery kitchen";
+
+        assertEquals(10.0, scorer.evaluate("Pastry chef with bakery and restaurant kitchen background", jd).atsScore());
+        assertEquals(0.0, scorer.evaluate("Accountant handling payroll and ledgers", jd).atsScore());
+    }
+
+    @Test
+    void testProfile_OverlappingPositionsCountOnce() {
+        LocalScorer.Profile profile = scorer.resumeProfile("Acme 2015 - 2018\nGlobex 2017 - 2020");
+
+        assertEquals(6.0, profile.years());
+    }
+
+    @Test
+    void testJobProfile_DateRangesAreNotRequiredYears() {
+        LocalScorer.Profile profile = scorer.jobProfile("Founded 2005 - 2024 winner of three awards.\n"
+            + "Apply between Jan 2024 - Dec 2025. Java developer with 3+ years.");
+
+        assertEquals(3.0, profile.years());
+    }
+
+    @Test
+    void testProfile_IsReusedForTheSameText() {
+        assertSame(scorer.resumeProfile(RESUME), scorer.resumeProfile(RESUME));
+    }
+}
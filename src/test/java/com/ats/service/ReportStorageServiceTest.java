@@ -0,0 +1,63 @@
+package com.ats.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportStorageServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testStore_WritesReportUnderId() throws IOException {
+        ReportStorageService storage = new ReportStorageService(directory.toString(), 60);
+
+        String reportId = storage.store(out -> out.write("report".getBytes(StandardCharsets.UTF_8)));
+
+        Path path = storage.getReportPath(reportId);
+        assertNotNull(path);
+        assertEquals("report", Files.readString(path));
+    }
+
+    @Test
+    void testStore_FailedWriteLeavesNoFile() throws IOException {
+        ReportStorageService storage = new ReportStorageService(directory.toString(), 60);
+
+        assertThrows(IOException.class, () -> storage.store(out -> {
+            out.write(1);
+            throw new IOException("disk full");
+        }));
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testGetReportPath_RejectsUnknownAndMalformedIds() {
+        ReportStorageService storage = new ReportStorageService(directory.toString(), 60);
+
+        assertNull(storage.getReportPath("00000000-0000-0000-0000-000000000000"));
+        assertNull(storage.getReportPath("../application.properties"));
+        assertNull(storage.getReportPath(null));
+    }
+
+    @Test
+    void testGetReportPath_ExpiredReportDeleted() throws IOException {
+        ReportStorageService storage = new ReportStorageService(directory.toString(), 60);
+        String reportId = storage.store(out -> out.write("report".getBytes(StandardCharsets.UTF_8)));
+        Path path = storage.getReportPath(reportId);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() - 61 * 60 * 1000));
+
+        assertNull(storage.getReportPath(reportId));
+        assertFalse(Files.exists(path));
+    }
+}
@@ -0,0 +1,149 @@
+package com.ats.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, initialLimit, 1, 10, 0.5, 2.0, 0.5, 60_000, clock::get);
+    }
+
+    @Test
+    void testRun_CallsOverLimitWaitForPermit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        Sinks.One<String> first = Sinks.one();
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        Mono<String> firstCall = limiter.run(() -> { started.add("first"); return first.asMono(); }, e -> false).cache();
+        Mono<String> secondCall = limiter.run(() -> { started.add("second"); return Mono.just("second"); }, e -> false).cache();
+        firstCall.subscribe();
+        secondCall.subscribe();
+
+        assertEquals(List.of("first"), started);
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(1, limiter.getQueued());
+
+        first.tryEmitValue("first");
+
+        assertEquals("second", secondCall.block());
+        assertEquals(List.of("first", "second"), started);
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void testRun_LanesAreServedRoundRobin() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        Sinks.One<String> blocker = Sinks.one();
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        // Calls fail with a non-overload error so the limit stays at one and calls run strictly one by one
+        limiter.run(blocker::asMono, e -> false).subscribe(value -> { }, error -> { });
+        for (String name : List.of("a1", "a2", "a3")) {
+            limiter.run(() -> { started.add(name); return Mono.<String>error(new IllegalStateException(name)); }, e -> false)
+                .contextWrite(AdaptiveConcurrencyLimiter.lane("a"))
+                .subscribe(value -> { }, error -> { });
+        }
+        limiter.run(() -> { started.add("b1"); return Mono.<String>error(new IllegalStateException("b1")); }, e -> false)
+            .contextWrite(AdaptiveConcurrencyLimiter.lane("b"))
+            .subscribe(value -> { }, error -> { });
+
+        blocker.tryEmitError(new IllegalStateException("done"));
+
+        assertEquals(List.of("a1", "b1", "a2", "a3"), started);
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void testRun_BulkLanesKeepInteractiveShareFree() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            String name = "bulk" + i;
+            limiter.run(() -> { started.add(name); return Mono.<String>never(); }, e -> false)
+                .contextWrite(AdaptiveConcurrencyLimiter.bulkLane("request"))
+                .subscribe();
+        }
+        limiter.run(() -> { started.add("interactive"); return Mono.<String>never(); }, e -> false).subscribe();
+
+        // Half of the limit of 4 goes to bulk work, the interactive call takes a free permit
+        assertEquals(List.of("bulk0", "bulk1", "interactive"), started);
+        assertEquals(2, limiter.getBulkInFlight());
+        assertEquals(2, limiter.getQueued());
+    }
+
+    @Test
+    void testRun_OverloadShrinksLimitOncePerWindow() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.run(() -> Mono.error(new IllegalStateException("429")), e -> true).onErrorResume(e -> Mono.empty()).block();
+        }
+        assertEquals(4, limiter.getLimit());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.run(() -> Mono.error(new IllegalStateException("429")), e -> true).onErrorResume(e -> Mono.empty()).block();
+        assertEquals(2, limiter.getLimit());
+
+        // Errors that are not overload leave the limit alone
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.run(() -> Mono.error(new IllegalArgumentException("400")), e -> false).onErrorResume(e -> Mono.empty()).block();
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testRun_SuccessGrowsLimitWhileItIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.run(() -> Mono.just("ok"), e -> false).block();
+        }
+
+        assertTrue(limiter.getLimit() > 1);
+        assertTrue(limiter.getLimit() <= 10);
+    }
+
+    @Test
+    void testRun_CancelledWaiterLeavesQueue() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        Sinks.One<String> blocker = Sinks.one();
+
+        limiter.run(blocker::asMono, e -> false).subscribe();
+        Disposable waiting = limiter.run(() -> Mono.just("never"), e -> false).subscribe();
+        assertEquals(1, limiter.getQueued());
+
+        waiting.dispose();
+        assertEquals(0, limiter.getQueued());
+
+        blocker.tryEmitValue("done");
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testPause_DelaysNewCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, 4, 1, 10, 0.5, 2.0, 0.75, 60_000);
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        limiter.pause(Duration.ofMillis(200));
+        Mono<String> call = limiter.run(() -> { started.add("call"); return Mono.just("call"); }, e -> false).cache();
+        call.subscribe();
+
+        assertTrue(started.isEmpty());
+        assertEquals("call", call.block(Duration.ofSeconds(5)));
+        assertEquals(List.of("call"), started);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ats.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheKeyBuilderTest {
+
+    @Test
+    void testBuild_SameInputsGiveSameKey() {
+        String first = CacheKeyBuilder.create().add("mode2").add("resume text").add("jd text").build();
+        String second = CacheKeyBuilder.create().add("mode2").add("resume text").add("jd text").build();
+
+        assertEquals(first, second);
+        assertEquals(64, first.length());
+    }
+
+    @Test
+    void testBuild_WhitespaceDifferencesAreNormalized() {
+        String compact = CacheKeyBuilder.create().add("Java developer\nSpring Boot").build();
+        String spaced = CacheKeyBuilder.create().add("  Java   developer \r\n\tSpring Boot  ").build();
+
+        assertEquals(compact, spaced);
+    }
+
+    @Test
+    void testBuild_PartBoundariesMatter() {
+        String first = CacheKeyBuilder.create().add("ab").add("c").build();
+        String second = CacheKeyBuilder.create().add("a").add("bc").build();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testBuild_HashCodeCollisionsGiveDifferentKeys() {
+        // "Aa" and "BB" have the same length and String.hashCode()
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        String first = CacheKeyBuilder.create().add("mode2").add("Aa").build();
+        String second = CacheKeyBuilder.create().add("mode2").add("BB").build();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testBuild_NullAndEmptyPartsDiffer() {
+        String withNull = CacheKeyBuilder.create().add("mode2").add(null).build();
+        String withEmpty = CacheKeyBuilder.create().add("mode2").add("").build();
+
+        assertNotEquals(withNull, withEmpty);
+    }
+
+    @Test
+    void testBuild_LargeInputSpanningSeveralBuffers() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append("skill").append(i).append(' ');
+        }
+        String original = CacheKeyBuilder.create().add(text.toString()).build();
+        String changedLastChar = CacheKeyBuilder.create().add(text.toString() + "x").build();
+
+        assertNotEquals(original, changedLastChar);
+        assertEquals(original, CacheKeyBuilder.create().add(text.toString()).build());
+    }
+}
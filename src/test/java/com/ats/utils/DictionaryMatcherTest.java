@@ -0,0 +1,84 @@
+package com.ats.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionaryMatcherTest {
+
+    private static final int SPRING = 0;
+    private static final int SPRING_BOOT = 1;
+    private static final int JAVA = 2;
+    private static final int JAVASCRIPT = 3;
+    private static final int C = 4;
+    private static final int CPP = 5;
+    private static final int KUBERNETES = 6;
+    private static final int ROLLS_ROYCE = 7;
+
+    private final DictionaryMatcher matcher = DictionaryMatcher.builder()
+        .add("Spring", SPRING)
+        .add("Spring Boot", SPRING_BOOT)
+        .add("Java", JAVA)
+        .add("JavaScript", JAVASCRIPT)
+        .add("js", JAVASCRIPT)
+        .add("C", C)
+        .add("C++", CPP)
+        .add("Kubernetes", KUBERNETES)
+        .add("k8s", KUBERNETES)
+        .add("Rolls-Royce", ROLLS_ROYCE)
+        .build();
+
+    @Test
+    void testFindAll_PrefersLongestMatch() {
+        List<DictionaryMatcher.Match> matches = matcher.findAll("Built with Spring Boot and Spring");
+
+        assertEquals(List.of(new DictionaryMatcher.Match(SPRING_BOOT, 11, 22), new DictionaryMatcher.Match(SPRING, 27, 33)),
+            matches);
+    }
+
+    @Test
+    void testFindAll_MatchesOnTermBoundariesOnly() {
+        assertArrayEquals(new int[] {JAVASCRIPT}, matcher.findIds("javascript"));
+        assertArrayEquals(new int[] {CPP}, matcher.findIds("C++ developer"));
+        assertArrayEquals(new int[] {C, JAVA}, matcher.findIds("C, Java."));
+        assertArrayEquals(new int[0], matcher.findIds("Springfield cjava"));
+    }
+
+    @Test
+    void testFindAll_OneLetterPhrasesMustStandAlone() {
+        assertArrayEquals(new int[] {C, CPP}, matcher.findIds("C/C++ (C) and embedded C.\nLinux"));
+        assertArrayEquals(new int[0], matcher.findIds("Led C-level R&D reviews with c.a. partners"));
+        assertArrayEquals(new int[0], matcher.findIds("Referee: John C Smith, John C. Smith"));
+    }
+
+    @Test
+    void testFindAll_SynonymsShareId() {
+        assertArrayEquals(new int[] {KUBERNETES, JAVASCRIPT}, matcher.findIds("k8s, Kubernetes, JS and JavaScript"));
+    }
+
+    @Test
+    void testFindAll_NormalizesCaseAndSeparators() {
+        List<DictionaryMatcher.Match> matches = matcher.findAll("ROLLS  royce, rolls_royce; SPRING-BOOT");
+
+        assertEquals(List.of(
+            new DictionaryMatcher.Match(ROLLS_ROYCE, 0, 12),
+            new DictionaryMatcher.Match(ROLLS_ROYCE, 14, 25),
+            new DictionaryMatcher.Match(SPRING_BOOT, 27, 38)), matches);
+    }
+
+    @Test
+    void testFindOverlapping_IncludesNestedMatches() {
+        List<DictionaryMatcher.Match> matches = matcher.findOverlapping("spring boot");
+
+        assertEquals(List.of(new DictionaryMatcher.Match(SPRING, 0, 6), new DictionaryMatcher.Match(SPRING_BOOT, 0, 11)),
+            matches);
+    }
+
+    @Test
+    void testFindAll_EmptyText() {
+        assertTrue(matcher.findAll("").isEmpty());
+        assertTrue(matcher.findAll(null).isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ats.utils;
+
+import com.ats.exception.AIServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAICircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private OpenAICircuitBreaker breaker() {
+        return new OpenAICircuitBreaker(new SimpleMeterRegistry(), true, 10, 4, 50, 30_000, 2, clock::get);
+    }
+
+    private static String succeed(OpenAICircuitBreaker breaker) {
+        return breaker.run(() -> Mono.just("ok"), e -> true).block();
+    }
+
+    private static void fail(OpenAICircuitBreaker breaker) {
+        assertThrows(IllegalStateException.class,
+            () -> breaker.run(() -> Mono.error(new IllegalStateException("503")), e -> true).block());
+    }
+
+    @Test
+    void testRun_OpensWhenFailureRateReachesThreshold() {
+        OpenAICircuitBreaker breaker = breaker();
+
+        succeed(breaker);
+        succeed(breaker);
+        fail(breaker);
+        assertEquals(OpenAICircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(breaker);
+        assertEquals(OpenAICircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(50.0, breaker.getFailureRate());
+    }
+
+    @Test
+    void testRun_OpenBreakerFailsFastWithoutCalling() {
+        OpenAICircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        AtomicInteger calls = new AtomicInteger();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        AIServiceUnavailableException error = assertThrows(AIServiceUnavailableException.class,
+            () -> breaker.run(() -> Mono.fromCallable(calls::incrementAndGet), e -> true).block());
+
+        assertEquals(0, calls.get());
+        assertEquals(20, error.getRetryAfterSeconds());
+        assertEquals(1L, breaker.getStatus().get("rejectedCalls"));
+    }
+
+    @Test
+    void testRun_HalfOpenClosesAfterSuccessfulTrials() {
+        OpenAICircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        succeed(breaker);
+        assertEquals(OpenAICircuitBreaker.State.HALF_OPEN, breaker.getState());
+        succeed(breaker);
+
+        assertEquals(OpenAICircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    void testRun_FailedTrialReopens() {
+        OpenAICircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        fail(breaker);
+
+        assertEquals(OpenAICircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(30, breaker.getRetryAfterSeconds());
+    }
+
+    @Test
+    void testRun_IgnoredErrorsDoNotCount() {
+        OpenAICircuitBreaker breaker = breaker();
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalArgumentException.class,
+                () -> breaker.run(() -> Mono.error(new IllegalArgumentException("400")), e -> false).block());
+        }
+
+        assertEquals(OpenAICircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getStatus().get("bufferedCalls"));
+    }
+}
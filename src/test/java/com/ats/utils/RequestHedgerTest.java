@@ -0,0 +1,113 @@
+package com.ats.utils;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestHedgerTest {
+
+    private static RequestHedger warmedUp(double budgetPercent) {
+        RequestHedger hedger = new RequestHedger(new SimpleMeterRegistry(), true, 0.95, 50, 20, budgetPercent);
+        for (int i = 0; i < 20; i++) {
+            hedger.hedge(() -> Mono.just("fast")).block();
+        }
+        return hedger;
+    }
+
+    @Test
+    void testHedge_NoDeadlineUntilEnoughSamples() {
+        RequestHedger hedger = new RequestHedger(new SimpleMeterRegistry(), true, 0.95, 50, 20, 100);
+        assertNull(hedger.hedgeDelay());
+
+        for (int i = 0; i < 20; i++) {
+            hedger.hedge(() -> Mono.just("fast")).block();
+        }
+
+        // Fast calls put the percentile below the floor
+        assertEquals(Duration.ofMillis(50), hedger.hedgeDelay());
+    }
+
+    @Test
+    void testHedge_QueueingIsNotTimed() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestHedger hedger = new RequestHedger(meterRegistry, true, 0.95, 50, 20, 100);
+
+        // Waits 300 ms as if for a limiter permit, then sends the request that answers at once
+        String result = hedger.<String>hedge(timed -> Mono.delay(Duration.ofMillis(300)).then(timed.apply(Mono.just("answer"))))
+            .block(Duration.ofSeconds(2));
+
+        assertEquals("answer", result);
+        Timer latency = meterRegistry.get("ats.openai.interactive.latency").timer();
+        assertEquals(1, latency.count());
+        assertTrue(latency.max(TimeUnit.MILLISECONDS) < 300, "queueing time was recorded as latency");
+    }
+
+    @Test
+    void testHedge_SlowCallIsOvertakenByDuplicate() {
+        RequestHedger hedger = warmedUp(100);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+                : Mono.just("hedged"))
+            .block(Duration.ofSeconds(2));
+
+        assertEquals("hedged", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testHedge_NoDuplicateWithoutBudget() {
+        RequestHedger hedger = warmedUp(0);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> {
+                calls.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(200)).thenReturn("primary");
+            })
+            .block(Duration.ofSeconds(2));
+
+        assertEquals("primary", result);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testHedge_FirstCallErrorIsReported() {
+        RequestHedger hedger = warmedUp(100);
+
+        assertThrows(IllegalStateException.class,
+            () -> hedger.hedge(() -> Mono.error(new IllegalStateException("503"))).block(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void testHedge_BulkCallsAreNotHedged() {
+        RequestHedger hedger = warmedUp(100);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> {
+                calls.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(200)).thenReturn("bulk");
+            })
+            .contextWrite(AdaptiveConcurrencyLimiter.bulkLane("matrix-1"))
+            .block(Duration.ofSeconds(2));
+
+        assertEquals("bulk", result);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testHedge_DisabledCallsOnce() {
+        RequestHedger hedger = new RequestHedger(new SimpleMeterRegistry(), false, 0.95, 0, 1, 100);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("ok", hedger.hedge(() -> Mono.fromCallable(() -> { calls.incrementAndGet(); return "ok"; })).block());
+        assertEquals(1, calls.get());
+    }
+}
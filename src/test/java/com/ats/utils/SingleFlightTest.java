@@ -0,0 +1,97 @@
+package com.ats.utils;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneCall() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> response = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        }).cache();
+        Mono<String> second = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return response.asMono();
+        }).cache();
+        first.subscribe();
+        second.subscribe();
+
+        assertEquals(1, singleFlight.getInFlightCount());
+        response.tryEmitValue("result");
+
+        assertEquals("result", first.block());
+        assertEquals("result", second.block());
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testExecute_DifferentKeysDoNotShare() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("a", singleFlight.execute("a", () -> Mono.fromCallable(() -> { calls.incrementAndGet(); return "a"; })).block());
+        assertEquals("b", singleFlight.execute("b", () -> Mono.fromCallable(() -> { calls.incrementAndGet(); return "b"; })).block());
+
+        assertEquals(2, calls.get());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void testExecute_ErrorReachesEveryCallerAndReleasesKey() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        Sinks.One<String> response = Sinks.one();
+
+        Mono<String> first = singleFlight.execute("key", response::asMono).cache();
+        Mono<String> second = singleFlight.execute("key", response::asMono).cache();
+        first.subscribe(value -> { }, error -> { });
+        second.subscribe(value -> { }, error -> { });
+
+        response.tryEmitError(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, first::block);
+        assertThrows(IllegalStateException.class, second::block);
+        assertEquals(0, singleFlight.getInFlightCount());
+
+        // A later call for the same key starts fresh
+        assertEquals("retry", singleFlight.execute("key", () -> Mono.just("retry")).block());
+    }
+
+    @Test
+    void testExecute_CallerArrivingAsCallEndsStartsFresh() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> secondResponse = Sinks.one();
+        Supplier<Mono<String>> call = () -> calls.incrementAndGet() == 1 ? Mono.just("first") : secondResponse.asMono();
+        List<String> lateValues = new CopyOnWriteArrayList<>();
+
+        // Callers arriving while the first result is being delivered must not join the call that is ending
+        singleFlight.execute("key", call).subscribe(value -> {
+            singleFlight.execute("key", call).subscribe(lateValues::add);
+            singleFlight.execute("key", call).subscribe(lateValues::add);
+        });
+
+        assertEquals(1, singleFlight.getInFlightCount());
+        secondResponse.tryEmitValue("second");
+
+        assertEquals(List.of("second", "second"), lateValues);
+        assertEquals(2, calls.get());
+        assertEquals(1, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+}
@@ -0,0 +1,65 @@
+package com.ats.utils;
+
+import com.ats.model.SkillSection;
+import com.ats.model.StructuredEvaluation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StructuredResponseParserTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StructuredResponseParser parser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        parser = new StructuredResponseParser(meterRegistry);
+    }
+
+    @Test
+    void testParse_Mode2Answer() {
+        String json = "{\"careerSummary\":\" Backend developer \",\"atsScore\":7.5,\"companyName\":\"Acme\","
+            + "\"roleName\":\"Java Engineer\",\"matchStatus\":\"MATCHED\",\"strengths\":[\"Java\",\" \"],"
+            + "\"weaknesses\":[\"No Kafka\"],\"suggestions\":[\"Add metrics\"],\"unknown\":{\"nested\":[1,2]},"
+            + "\"workExperience\":{\"matchedSkills\":[\"Spring\"],\"gaps\":[\"Kafka\"]}}";
+
+        StructuredEvaluation evaluation = parser.parse(json);
+
+        assertNotNull(evaluation);
+        assertEquals("Backend developer", evaluation.careerSummary());
+        assertEquals(7.5, evaluation.atsScore());
+        assertEquals("Acme", evaluation.companyName());
+        assertEquals("MATCHED", evaluation.matchStatus());
+        assertEquals(List.of("Java"), evaluation.strengths(), "Blank items are dropped");
+        assertEquals(List.of("Spring"), evaluation.workExperience().matchedSkills());
+        assertEquals(List.of("Kafka"), evaluation.workExperience().gaps());
+        assertEquals(SkillSection.EMPTY, evaluation.projects());
+        assertEquals(1.0, count("json", "success"));
+    }
+
+    @Test
+    void testParse_RejectsUnusableAnswers() {
+        assertNull(parser.parse("Score: 8"));
+        assertNull(parser.parse("{\"careerSummary\":\"No score\"}"));
+        assertNull(parser.parse("{\"atsScore\":11}"));
+        assertNull(parser.parse(null));
+
+        assertEquals(4.0, count("json", "failure"));
+    }
+
+    @Test
+    void testRecordFallback() {
+        parser.recordFallback();
+
+        assertEquals(1.0, count("text", "fallback"));
+    }
+
+    private double count(String format, String outcome) {
+        return meterRegistry.get("ats.ai.response.parse").tag("format", format).tag("outcome", outcome).counter().count();
+    }
+}